@@ -0,0 +1,64 @@
+package com.kyl.rrule;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Time to convert a whole batch with BatchRRuleConverter for a growing number of pool threads. With a large distinct share the
+ * batch time should drop close to linearly with the parallelism.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class BatchRRuleConverterBenchmark {
+    private static final long SEED = 20221004L;
+
+    @Param({"1000000"})
+    public int batchSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private List<Cron> crons;
+    private ForkJoinPool pool;
+    private BatchRRuleConverter converter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CronParser parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+        this.crons = new CronCorpusGenerator(SEED).corpus(this.batchSize).stream()
+                .map(parser::parse)
+                .collect(Collectors.toList());
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.converter = new BatchRRuleConverter(new QuartzCronRRuleConverter(), this.pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Benchmark
+    public List<ConversionResult> convertAll() {
+        return this.converter.convertAll(this.crons, null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.kyl.rrule;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Time to first conversion in fresh JVMs. Every run starts a new JVM that converts a single expression and exits, once through
+ * cron-utils parsing and QuartzCronRRuleConverter and once through QuartzCronTextConverter. Runs are repeated without class data
+ * sharing, with the default JDK archive and with an AppCDS archive of the application classes, generated by a training run with
+ * -XX:ArchiveClassesAtExit. Prints the median of the process time, of the time in main until the rrule is ready and the number of
+ * loaded classes.
+ * <pre>
+ * java -cp build/libs/cron-rrule-converter-1.0-SNAPSHOT-jmh.jar com.kyl.rrule.ColdStartHarness [runs]
+ * </pre>
+ */
+public class ColdStartHarness {
+    private static final String EXPRESSION = "0 30 9 ? * MON-FRI";
+    private static final LocalDateTime DT_START = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+    private static final String RESULT_PREFIX = "first-conversion ";
+    private static final String[] PATHS = {"cron-utils", "text"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "child".equals(args[0])) {
+            child(args[1]);
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path archive = Files.createTempFile("cron-rrule-converter", ".jsa");
+        try {
+            for (String path : PATHS) {
+                Files.deleteIfExists(archive);
+                run(List.of("-XX:ArchiveClassesAtExit=" + archive), path); // training run
+                String[][] modes = {{"no CDS", "-Xshare:off"}, {"JDK CDS", "-Xshare:auto"},
+                        {"AppCDS", "-XX:SharedArchiveFile=" + archive}};
+                for (String[] mode : modes) {
+                    measure(mode[0], List.of(mode[1]), path, runs);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(archive);
+        }
+    }
+
+    private static void measure(String mode, List<String> jvmOptions, String path, int runs) throws IOException, InterruptedException {
+        long[] processNanos = new long[runs];
+        long[] mainNanos = new long[runs];
+        run(jvmOptions, path); // warm the file system cache
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            mainNanos[i] = run(jvmOptions, path);
+            processNanos[i] = System.nanoTime() - start;
+        }
+        List<String> classOptions = new ArrayList<>(jvmOptions);
+        classOptions.add("-Xlog:class+load=info:file=" + Paths.get(System.getProperty("java.io.tmpdir"), "cold-start-classes.log"));
+        run(classOptions, path);
+        Path classLog = Paths.get(System.getProperty("java.io.tmpdir"), "cold-start-classes.log");
+        long classes = Files.lines(classLog).count();
+        Files.deleteIfExists(classLog);
+        System.out.printf("%-10s %-8s process=%6.1fms main=%6.1fms classes=%d%n", path, mode, median(processNanos) / 1e6,
+                median(mainNanos) / 1e6, classes);
+    }
+
+    /**
+     * @return nanos in main of the child until the rrule was ready
+     */
+    private static long run(List<String> jvmOptions, String path) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ColdStartHarness.class.getName());
+        command.add("child");
+        command.add(path);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long nanos = -1;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    nanos = Long.parseLong(line.substring(RESULT_PREFIX.length()));
+                } else {
+                    output.append(line).append('\n');
+                }
+            }
+        }
+        if (process.waitFor() != 0 || nanos < 0) {
+            throw new IllegalStateException("child failed: " + command + "\n" + output);
+        }
+        return nanos;
+    }
+
+    private static void child(String path) {
+        long start = System.nanoTime();
+        String rrule;
+        if ("text".equals(path)) {
+            rrule = new QuartzCronTextConverter().convert(EXPRESSION, DT_START);
+        } else {
+            CronParser parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+            rrule = new QuartzCronRRuleConverter().convert(parser.parse(EXPRESSION), DT_START);
+        }
+        long nanos = System.nanoTime() - start;
+        if (rrule == null) {
+            throw new IllegalStateException(EXPRESSION + " has no rrule");
+        }
+        System.out.println(RESULT_PREFIX + nanos);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,119 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of ConversionServer on localhost. Starts a server, runs a number of clients that send requests back to back for a
+ * fixed duration and prints throughput, p50/p99 latency and the number of 429 responses.
+ * <pre>
+ * java -cp build/libs/cron-rrule-converter-1.0-SNAPSHOT-jmh.jar com.kyl.rrule.ConversionServerLoadTest [clients] [maxInFlight] [seconds] [batchSize]
+ * </pre>
+ * batchSize 0 sends single conversions to /convert, otherwise batches of that many lines to /convert/batch.
+ */
+public class ConversionServerLoadTest {
+    private static final long SEED = 20221013L;
+    private static final int CORPUS_SIZE = 1024;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int batchSize = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        if (System.getProperty(ConversionServer.NODELAY_PROPERTY) == null) {
+            System.setProperty(ConversionServer.NODELAY_PROPERTY, "true"); // before the server is created, see ConversionServer
+        }
+        List<String> bodies = bodies(batchSize);
+        try (ConversionServer server = new ConversionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), maxInFlight)) {
+            server.start();
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + (batchSize == 0 ? "/convert" : "/convert/batch"));
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(2)).build();
+
+            run(client, uri, bodies, clients, 2); // warm up
+            Result result = run(client, uri, bodies, clients, seconds);
+
+            LogHistogram.Snapshot latency = result.latencyNanos.snapshot();
+            long conversions = result.ok.sum() * Math.max(1, batchSize);
+            System.out.printf("clients=%d maxInFlight=%d batchSize=%d seconds=%d%n", clients, maxInFlight, batchSize, seconds);
+            System.out.printf("requests=%d ok=%d rejected=%d errors=%d%n", latency.getCount(), result.ok.sum(), result.rejected.sum(),
+                    result.errors.sum());
+            System.out.printf("throughput=%.0f requests/s %.0f conversions/s%n", (double) latency.getCount() / seconds,
+                    (double) conversions / seconds);
+            System.out.printf("latency p50=%.1fus p99=%.1fus max=%.1fus%n", latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0, latency.getMax() / 1000.0);
+        }
+        System.exit(0);
+    }
+
+    private static Result run(HttpClient client, URI uri, List<String> bodies, int clients, int seconds) throws InterruptedException {
+        Result result = new Result();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            executor.execute(() -> {
+                for (int i = offset; System.nanoTime() < end; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .POST(HttpRequest.BodyPublishers.ofString(bodies.get(i % bodies.size())))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        result.latencyNanos.record(System.nanoTime() - start);
+                        if (status == ConversionServer.TOO_MANY_REQUESTS) {
+                            result.rejected.increment();
+                        } else if (status == 200 || status == ConversionServer.UNPROCESSABLE) {
+                            result.ok.increment();
+                        } else {
+                            result.errors.increment();
+                        }
+                    } catch (IOException e) {
+                        result.errors.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return result;
+    }
+
+    private static List<String> bodies(int batchSize) {
+        CronCorpusGenerator generator = new CronCorpusGenerator(SEED);
+        List<String> bodies = new ArrayList<>(CORPUS_SIZE);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            if (batchSize == 0) {
+                bodies.add(generator.next());
+                continue;
+            }
+            StringBuilder batch = new StringBuilder();
+            for (int line = 0; line < batchSize; line++) {
+                batch.append(line).append(',').append(generator.next()).append('\n');
+            }
+            bodies.add(batch.toString());
+        }
+        return bodies;
+    }
+
+    private static final class Result {
+        private final LogHistogram latencyNanos = new LogHistogram();
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
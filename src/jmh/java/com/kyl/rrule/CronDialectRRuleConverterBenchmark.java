@@ -0,0 +1,95 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.cronutils.mapper.CronMapper;
+import com.cronutils.model.Cron;
+import com.cronutils.parser.CronParser;
+
+/**
+ * Throughput of CronDialectRRuleConverter per dialect on the same corpus shapes. mapToQuartz converts the same expressions the
+ * way it is done without dialect support, by mapping them to Quartz with CronMapper first.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CronDialectRRuleConverterBenchmark {
+    private static final int CORPUS_SIZE = 1024;
+    private static final long SEED = 20221016L;
+
+    @Param({"QUARTZ", "UNIX", "SPRING", "CRON4J"})
+    public CronDialect dialect;
+
+    private Cron[] crons;
+    private CronDialectRRuleConverter converter;
+    private QuartzCronRRuleConverter quartzConverter;
+    private CronMapper mapper;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final StringBuilder out = new StringBuilder(256);
+        private int index;
+
+        int next() {
+            this.index = (this.index + 1) & (CORPUS_SIZE - 1);
+            return this.index;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        CronParser parser = this.dialect.newParser();
+        List<Cron> parsed = new CronCorpusGenerator(SEED).corpus(this.dialect, CORPUS_SIZE).stream()
+                .map(parser::parse)
+                .collect(Collectors.toList());
+        this.crons = parsed.toArray(new Cron[0]);
+        this.converter = new CronDialectRRuleConverter(this.dialect);
+        this.quartzConverter = new QuartzCronRRuleConverter();
+        switch (this.dialect) {
+            case UNIX:
+                this.mapper = CronMapper.fromUnixToQuartz();
+                break;
+            case SPRING:
+                this.mapper = CronMapper.fromSpringToQuartz();
+                break;
+            case CRON4J:
+                this.mapper = CronMapper.fromCron4jToQuartz();
+                break;
+            default:
+                this.mapper = CronMapper.sameCron(this.dialect.getCronDefinition());
+        }
+    }
+
+    @Benchmark
+    public String convert(Cursor cursor) {
+        return this.converter.convert(this.crons[cursor.next()], null);
+    }
+
+    @Benchmark
+    public StringBuilder convertTo(Cursor cursor) throws IOException {
+        cursor.out.setLength(0);
+        this.converter.convertTo(this.crons[cursor.next()], null, cursor.out);
+        return cursor.out;
+    }
+
+    @Benchmark
+    public String mapToQuartz(Cursor cursor) {
+        try {
+            return this.quartzConverter.convert(this.mapper.map(this.crons[cursor.next()]), null);
+        } catch (IllegalArgumentException e) {
+            return null; // no Quartz equivalent
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.kyl.rrule;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.cronutils.model.CronType;
+import com.cronutils.model.definition.CronDefinition;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.constraint.FieldConstraints;
+import com.cronutils.model.field.expression.And;
+import com.cronutils.model.field.expression.Between;
+import com.cronutils.model.field.expression.Every;
+import com.cronutils.model.field.expression.FieldExpression;
+import com.cronutils.model.field.expression.On;
+import com.cronutils.model.field.value.IntegerFieldValue;
+import com.cronutils.model.field.value.SpecialChar;
+import com.cronutils.model.field.value.SpecialCharFieldValue;
+
+/**
+ * Cost of a single CronExpressionRRulePartConverter visit, including creating the visitor as convert does for every field.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CronExpressionRRulePartConverterBenchmark {
+    private FieldConstraints minuteConstraints;
+    private FieldConstraints dayOfWeekConstraints;
+
+    private FieldExpression on;
+    private FieldExpression between;
+    private FieldExpression every;
+    private FieldExpression and;
+    private FieldExpression hash;
+    private FieldExpression last;
+
+    @Setup
+    public void setUp() {
+        CronDefinition definition = CronDefinitionBuilder.instanceDefinitionFor(CronType.QUARTZ);
+        this.minuteConstraints = definition.getFieldDefinition(CronFieldName.MINUTE).getConstraints();
+        this.dayOfWeekConstraints = definition.getFieldDefinition(CronFieldName.DAY_OF_WEEK).getConstraints();
+
+        this.on = new On(new IntegerFieldValue(30));
+        this.between = new Between(new IntegerFieldValue(14), new IntegerFieldValue(39));
+        this.every = new Every(new IntegerFieldValue(5));
+        this.and = new And().and(new On(new IntegerFieldValue(14))).and(new On(new IntegerFieldValue(18))).and(this.between);
+        this.hash = new On(new IntegerFieldValue(6), new SpecialCharFieldValue(SpecialChar.HASH), new IntegerFieldValue(3));
+        this.last = new On(new IntegerFieldValue(6), new SpecialCharFieldValue(SpecialChar.L));
+    }
+
+    private Object visit(CronFieldName cronFieldName, FieldConstraints constraints, FieldExpression expression) {
+        CronExpressionRRulePartConverter visitor = new CronExpressionRRulePartConverter(cronFieldName, constraints);
+        expression.accept(visitor);
+        return visitor.getRRuleParts();
+    }
+
+    @Benchmark
+    public Object visitOn() {
+        return this.visit(CronFieldName.MINUTE, this.minuteConstraints, this.on);
+    }
+
+    @Benchmark
+    public Object visitBetween() {
+        return this.visit(CronFieldName.MINUTE, this.minuteConstraints, this.between);
+    }
+
+    @Benchmark
+    public Object visitEvery() {
+        return this.visit(CronFieldName.MINUTE, this.minuteConstraints, this.every);
+    }
+
+    @Benchmark
+    public Object visitAnd() {
+        return this.visit(CronFieldName.MINUTE, this.minuteConstraints, this.and);
+    }
+
+    @Benchmark
+    public Object visitHash() {
+        return this.visit(CronFieldName.DAY_OF_WEEK, this.dayOfWeekConstraints, this.hash);
+    }
+
+    @Benchmark
+    public Object visitLast() {
+        return this.visit(CronFieldName.DAY_OF_WEEK, this.dayOfWeekConstraints, this.last);
+    }
+}
@@ -0,0 +1,88 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Resolving 'nW' for every day 1..31 of a number of months with CalendarTables, against the same with LocalDate, and expanding a
+ * schedule into its 'RDATE' list.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NearestWeekdayBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+    @Param({"12", "120"})
+    public int months;
+
+    private CompiledSchedule schedule;
+
+    @State(Scope.Thread)
+    public static class Output {
+        private final StringBuilder out = new StringBuilder(4096);
+    }
+
+    @Setup
+    public void setUp() {
+        this.schedule = new QuartzCronTextConverter().compile("0 0 12 15W * ?");
+    }
+
+    @Benchmark
+    public int tables() {
+        int sum = 0;
+        for (int i = 0; i < this.months; i++) {
+            int year = START.getYear() + (START.getMonthValue() - 1 + i) / 12;
+            int month = (START.getMonthValue() - 1 + i) % 12 + 1;
+            for (int day = 1; day <= 31; day++) {
+                sum += CalendarTables.nearestWeekday(year, month, day);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int localDate() {
+        int sum = 0;
+        LocalDate first = START.toLocalDate().withDayOfMonth(1);
+        for (int i = 0; i < this.months; i++) {
+            LocalDate monthStart = first.plusMonths(i);
+            for (int day = 1; day <= 31; day++) {
+                sum += nearestWeekday(monthStart, day);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int expand(Output output) throws IOException {
+        output.out.setLength(0);
+        NearestWeekdayExpander.appendRDates(this.schedule, START, START, this.months, output.out);
+        return output.out.length();
+    }
+
+    private static int nearestWeekday(LocalDate monthStart, int day) {
+        if (day > monthStart.lengthOfMonth()) {
+            return -1;
+        }
+        LocalDate date = monthStart.withDayOfMonth(day);
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            return day == 1 ? day + 2 : day - 1;
+        } else if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return day == monthStart.lengthOfMonth() ? day - 2 : day + 1;
+        }
+        return day;
+    }
+}
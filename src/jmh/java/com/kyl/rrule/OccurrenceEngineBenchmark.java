@@ -0,0 +1,90 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.model.time.ExecutionTime;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Next and previous fire time of OccurrenceEngine compared with cron-utils ExecutionTime on the same expressions. Both are
+ * created in setup, so only the search is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class OccurrenceEngineBenchmark {
+    private static final int CORPUS_SIZE = 1024;
+    private static final long SEED = 20221004L;
+
+    @Param({"ON", "BETWEEN", "EVERY", "SPECIAL"})
+    public CronCorpusGenerator.Shape shape;
+
+    private OccurrenceEngine[] engines;
+    private ExecutionTime[] executionTimes;
+    private LocalDateTime time;
+    private ZonedDateTime zonedTime;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        int next() {
+            this.index = (this.index + 1) & (CORPUS_SIZE - 1);
+            return this.index;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        CronParser parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        this.engines = new OccurrenceEngine[CORPUS_SIZE];
+        this.executionTimes = new ExecutionTime[CORPUS_SIZE];
+        int i = 0;
+        for (String expression : new CronCorpusGenerator(SEED).corpus(this.shape, CORPUS_SIZE)) {
+            Cron cron = parser.parse(expression);
+            this.engines[i] = new OccurrenceEngine(converter.compile(cron), dtStart);
+            this.executionTimes[i++] = ExecutionTime.forCron(cron);
+        }
+        this.time = LocalDateTime.of(2023, 3, 14, 9, 26, 53);
+        this.zonedTime = this.time.atZone(ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public Optional<LocalDateTime> nextOccurrenceEngine(Cursor cursor) {
+        return this.engines[cursor.next()].next(this.time);
+    }
+
+    @Benchmark
+    public Optional<ZonedDateTime> nextExecutionTime(Cursor cursor) {
+        return this.executionTimes[cursor.next()].nextExecution(this.zonedTime);
+    }
+
+    @Benchmark
+    public Optional<LocalDateTime> previousOccurrenceEngine(Cursor cursor) {
+        return this.engines[cursor.next()].previous(this.time);
+    }
+
+    @Benchmark
+    public Optional<ZonedDateTime> previousExecutionTime(Cursor cursor) {
+        return this.executionTimes[cursor.next()].lastExecution(this.zonedTime);
+    }
+}
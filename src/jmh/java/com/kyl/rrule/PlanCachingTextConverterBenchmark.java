@@ -0,0 +1,68 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of PlanCachingTextConverter against the plain QuartzCronTextConverter on the same corpus, with one dtStart for all
+ * expressions. ON expressions share a few structures; BETWEEN, EVERY and SPECIAL expressions keep their ranges and steps in the
+ * structure, so they have many more.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PlanCachingTextConverterBenchmark {
+    private static final int CORPUS_SIZE = 1024;
+    private static final long SEED = 20221004L;
+
+    @Param({"ON", "BETWEEN", "EVERY", "SPECIAL"})
+    public CronCorpusGenerator.Shape shape;
+
+    private String[] expressions;
+    private LocalDateTime dtStart;
+    private QuartzCronTextConverter textConverter;
+    private PlanCachingTextConverter planCachingConverter;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final StringBuilder out = new StringBuilder(256);
+        private int index;
+
+        int next() {
+            this.index = (this.index + 1) & (CORPUS_SIZE - 1);
+            return this.index;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        this.expressions = new CronCorpusGenerator(SEED).corpus(this.shape, CORPUS_SIZE).toArray(new String[0]);
+        this.dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        this.textConverter = new QuartzCronTextConverter();
+        this.planCachingConverter = new PlanCachingTextConverter();
+    }
+
+    @Benchmark
+    public int convertToPlain(Cursor cursor) throws IOException {
+        cursor.out.setLength(0);
+        this.textConverter.convertTo(this.expressions[cursor.next()], this.dtStart, cursor.out);
+        return cursor.out.length();
+    }
+
+    @Benchmark
+    public int convertToPlanCache(Cursor cursor) throws IOException {
+        cursor.out.setLength(0);
+        this.planCachingConverter.convertTo(this.expressions[cursor.next()], this.dtStart, cursor.out);
+        return cursor.out.length();
+    }
+}
@@ -0,0 +1,107 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Throughput of QuartzCronRRuleConverter.convert per expression shape. The single and max thread variants of the same workload
+ * show how conversion scales across cores. convertWithRecorder shows the cost of ConversionMetricsRecorder over the default no-op
+ * metrics.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class QuartzCronRRuleConverterBenchmark {
+    private static final int CORPUS_SIZE = 1024;
+    private static final long SEED = 20221004L;
+
+    @Param({"ON", "BETWEEN", "EVERY", "SPECIAL"})
+    public CronCorpusGenerator.Shape shape;
+
+    private Cron[] crons;
+    private LocalDateTime dtStart;
+    private QuartzCronRRuleConverter converter;
+    private QuartzCronRRuleConverter recordingConverter;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final StringBuilder out = new StringBuilder(256);
+        private int index;
+
+        int next() {
+            this.index = (this.index + 1) & (CORPUS_SIZE - 1);
+            return this.index;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        CronParser parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+        List<Cron> parsed = new CronCorpusGenerator(SEED).corpus(this.shape, CORPUS_SIZE).stream()
+                .map(parser::parse)
+                .collect(Collectors.toList());
+        this.crons = parsed.toArray(new Cron[0]);
+        this.dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        this.converter = new QuartzCronRRuleConverter();
+        this.recordingConverter = new QuartzCronRRuleConverter(new ConversionMetricsRecorder());
+    }
+
+    @Benchmark
+    public String convert(Cursor cursor) {
+        return this.converter.convert(this.crons[cursor.next()], null);
+    }
+
+    @Benchmark
+    public String convertWithDTStart(Cursor cursor) {
+        return this.converter.convert(this.crons[cursor.next()], this.dtStart);
+    }
+
+    @Benchmark
+    public String convertWithRecorder(Cursor cursor) {
+        return this.recordingConverter.convert(this.crons[cursor.next()], this.dtStart);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String convertWithRecorderMaxThreads(Cursor cursor) {
+        return this.recordingConverter.convert(this.crons[cursor.next()], this.dtStart);
+    }
+
+    @Benchmark
+    public int convertToReusedBuffer(Cursor cursor) throws IOException {
+        cursor.out.setLength(0);
+        this.converter.convertTo(this.crons[cursor.next()], this.dtStart, cursor.out);
+        return cursor.out.length();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String convertSingleThread(Cursor cursor) {
+        return this.converter.convert(this.crons[cursor.next()], this.dtStart);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String convertMaxThreads(Cursor cursor) {
+        return this.converter.convert(this.crons[cursor.next()], this.dtStart);
+    }
+}
@@ -0,0 +1,70 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * End to end throughput from cron text to rrule, with and without the fast path. The cron-utils variant includes parsing, which
+ * is the cost the fast path removes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class QuartzCronTextConverterBenchmark {
+    private static final int CORPUS_SIZE = 1024;
+    private static final long SEED = 20221004L;
+
+    @Param({"ON", "BETWEEN", "EVERY", "SPECIAL"})
+    public CronCorpusGenerator.Shape shape;
+
+    private String[] expressions;
+    private LocalDateTime dtStart;
+    private QuartzCronTextConverter fastPathConverter;
+    private QuartzCronTextConverter cronUtilsConverter;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final StringBuilder out = new StringBuilder(256);
+        private int index;
+
+        int next() {
+            this.index = (this.index + 1) & (CORPUS_SIZE - 1);
+            return this.index;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        this.expressions = new CronCorpusGenerator(SEED).corpus(this.shape, CORPUS_SIZE).toArray(new String[0]);
+        this.dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        this.fastPathConverter = new QuartzCronTextConverter();
+        this.cronUtilsConverter = new QuartzCronTextConverter(new QuartzCronRRuleConverter(), false);
+    }
+
+    @Benchmark
+    public String convertFastPath(Cursor cursor) {
+        return this.fastPathConverter.convert(this.expressions[cursor.next()], this.dtStart);
+    }
+
+    @Benchmark
+    public String convertCronUtils(Cursor cursor) {
+        return this.cronUtilsConverter.convert(this.expressions[cursor.next()], this.dtStart);
+    }
+
+    @Benchmark
+    public int convertToFastPathReusedBuffer(Cursor cursor) throws IOException {
+        cursor.out.setLength(0);
+        this.fastPathConverter.convertTo(this.expressions[cursor.next()], this.dtStart, cursor.out);
+        return cursor.out.length();
+    }
+}
@@ -0,0 +1,79 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Downstream cost of the rrule text: the rrule of a step expression is parsed back and expanded into OCCURRENCES occurrences by
+ * OccurrenceEngine, written by the default converter (expanded) and by the minimizing converter (minimized). convert measures the
+ * extra cost of minimizing at conversion time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RRuleMinimizerBenchmark {
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+    private static final int OCCURRENCES = 64;
+
+    @Param({"0/5 * * * * ?", "0 0/15 * * * ?", "0 0 0/2 * * ?", "0 0-59 12 * * ?", "*/10 * 9-17 ? * MON-FRI"})
+    public String expression;
+
+    private Cron cron;
+    private String expanded;
+    private String minimized;
+    private QuartzCronRRuleConverter converter;
+    private QuartzCronRRuleConverter minimizingConverter;
+
+    @Setup
+    public void setUp() {
+        this.cron = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ)).parse(this.expression);
+        this.converter = new QuartzCronRRuleConverter();
+        this.minimizingConverter = new QuartzCronRRuleConverter(ConversionMetrics.NOOP, 0, true);
+        this.expanded = this.converter.convert(this.cron, DTSTART);
+        this.minimized = this.minimizingConverter.convert(this.cron, DTSTART);
+    }
+
+    @Benchmark
+    public LocalDateTime expandExpanded() {
+        return expand(this.expanded);
+    }
+
+    @Benchmark
+    public LocalDateTime expandMinimized() {
+        return expand(this.minimized);
+    }
+
+    @Benchmark
+    public String convert() {
+        return this.converter.convert(this.cron, DTSTART);
+    }
+
+    @Benchmark
+    public String convertMinimized() {
+        return this.minimizingConverter.convert(this.cron, DTSTART);
+    }
+
+    private static LocalDateTime expand(String rrule) {
+        OccurrenceEngine engine = new OccurrenceEngine(RRuleTextParser.parseSchedule(rrule), RRuleTextParser.parseDTStart(rrule));
+        LocalDateTime time = DTSTART;
+        for (int i = 0; i < OCCURRENCES; i++) {
+            time = engine.next(time).orElseThrow();
+        }
+        return time;
+    }
+}
@@ -0,0 +1,120 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Garbage collection with a catalog of converted rrules held either in a HashMap&lt;Long, String&gt; or in RRuleStringPool. fullGc
+ * measures the pause of a full collection with the catalog live, churn allocates short-lived garbage next to it (run with
+ * '-prof gc' for collection counts and times), and lookup writes a random entry to a channel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RRuleStringPoolBenchmark {
+    private static final int CORPUS_SIZE = 10_000;
+    private static final int CHURN_SIZE = 10_000;
+    private static final long SEED = 20221022L;
+
+    @Param({"HASH_MAP", "POOL"})
+    public String store;
+
+    @Param({"1000000"})
+    public int entries;
+
+    private Map<Long, String> map;
+    private RRuleStringPool pool;
+    private final NullChannel channel = new NullChannel();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        CronParser parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        List<String> corpus = new CronCorpusGenerator(SEED).corpus(CORPUS_SIZE);
+        Cron[] crons = corpus.stream().map(parser::parse).toArray(Cron[]::new);
+        if ("HASH_MAP".equals(this.store)) {
+            this.map = new HashMap<>();
+        } else {
+            this.pool = new RRuleStringPool();
+        }
+        for (long handle = 0; handle < this.entries; ) {
+            Cron cron = crons[(int) (handle % crons.length)];
+            if (this.map != null) {
+                String rrule = converter.convert(cron, dtStart);
+                this.map.put(handle++, rrule == null ? "" : rrule);
+            } else if (this.pool.append(converter, cron, dtStart) == RRuleStringPool.NO_HANDLE) {
+                this.pool.append("");
+                handle++;
+            } else {
+                handle++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void fullGc() {
+        System.gc();
+    }
+
+    @Benchmark
+    public int churn() {
+        int sum = 0;
+        for (int i = 0; i < CHURN_SIZE; i++) {
+            sum += new StringBuilder("RRULE:FREQ=DAILY;BYHOUR=").append(i).toString().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int lookup() throws IOException {
+        this.index = (this.index + 7919) % this.entries;
+        if (this.map != null) {
+            byte[] bytes = this.map.get((long) this.index).getBytes(StandardCharsets.UTF_8);
+            return this.channel.write(ByteBuffer.wrap(bytes));
+        }
+        return this.pool.transferTo(this.index, this.channel);
+    }
+
+    private static final class NullChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
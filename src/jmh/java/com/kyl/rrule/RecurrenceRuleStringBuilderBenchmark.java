@@ -0,0 +1,93 @@
+package com.kyl.rrule;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of rendering the rrule string once the parts are known, and of formatting 'DTSTART'. The byte variants compare encoding a
+ * built string with writing the rule straight into a direct buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RecurrenceRuleStringBuilderBenchmark {
+    private Map<RRuleName, List<String>> rruleParts;
+    private LocalDateTime dtStart;
+    private String dtStartStr;
+    private QuartzCronRRuleConverter converter;
+    private CompiledSchedule schedule;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        this.rruleParts = new HashMap<>();
+        this.rruleParts.put(RRuleName.SECOND, List.of("0"));
+        this.rruleParts.put(RRuleName.MINUTE, List.of("0,10,20,30,40,50"));
+        this.rruleParts.put(RRuleName.HOUR, List.of("4,8"));
+        this.rruleParts.put(RRuleName.MONTH, List.of("1,6,7"));
+        this.rruleParts.put(RRuleName.WEEKDAY, List.of("SU,MO,TU", "FR", "SA"));
+        this.dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        this.converter = new QuartzCronRRuleConverter();
+        this.dtStartStr = this.converter.convertToDTStartFormat(this.dtStart);
+        this.schedule = new CompiledSchedule(RRuleFrequency.MINUTELY);
+        this.schedule.add(RRuleName.SECOND, 0);
+        for (int minute = 0; minute < 60; minute += 10) {
+            this.schedule.add(RRuleName.MINUTE, minute);
+        }
+        this.schedule.add(RRuleName.HOUR, 4);
+        this.schedule.add(RRuleName.HOUR, 8);
+        this.schedule.add(RRuleName.WEEKDAY, 1);
+        this.schedule.add(RRuleName.WEEKDAY, 6);
+        this.buffer = ByteBuffer.allocateDirect(256);
+    }
+
+    @Benchmark
+    public String build() {
+        RecurrenceRuleStringBuilder builder = new RecurrenceRuleStringBuilder(RRuleFrequency.MINUTELY);
+        builder.withRRuleParts(this.rruleParts);
+        return builder.build();
+    }
+
+    @Benchmark
+    public String buildWithDTStart() {
+        RecurrenceRuleStringBuilder builder = new RecurrenceRuleStringBuilder(RRuleFrequency.MINUTELY);
+        builder.withDTStart(this.dtStartStr);
+        builder.withRRuleParts(this.rruleParts);
+        return builder.build();
+    }
+
+    @Benchmark
+    public String convertToDTStartFormat() {
+        return this.converter.convertToDTStartFormat(this.dtStart);
+    }
+
+    @Benchmark
+    public int encodeBuiltString() {
+        RecurrenceRuleStringBuilder builder = new RecurrenceRuleStringBuilder(RRuleFrequency.MINUTELY);
+        builder.withDTStart(this.converter.convertToDTStartFormat(this.dtStart));
+        builder.withSchedule(this.schedule);
+        this.buffer.clear();
+        this.buffer.put(builder.build().getBytes(StandardCharsets.UTF_8));
+        return this.buffer.position();
+    }
+
+    @Benchmark
+    public int writeToDirectBuffer() {
+        this.buffer.clear();
+        RecurrenceRuleStringBuilder.writeRRule(this.schedule, this.dtStart, this.buffer);
+        return this.buffer.position();
+    }
+}
@@ -0,0 +1,97 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Loading a catalog of CATALOG_SIZE schedules stored as ScheduleRecords compared with the same catalog stored as rrule lines, and
+ * random access to a record including rendering its rrule text.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ScheduleCatalogBenchmark {
+    private static final int CATALOG_SIZE = 100_000;
+    private static final long SEED = 20221012L;
+
+    private Path recordPath;
+    private Path textPath;
+    private ScheduleCatalog catalog;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final StringBuilder out = new StringBuilder(256);
+        private int index;
+
+        int next() {
+            this.index = (this.index + 7919) % CATALOG_SIZE;
+            return this.index;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        CronParser parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        this.recordPath = Files.createTempFile("catalog", ".bin");
+        this.textPath = Files.createTempFile("catalog", ".txt");
+        List<String> lines = new ArrayList<>(CATALOG_SIZE);
+        try (ScheduleCatalogWriter writer = new ScheduleCatalogWriter(this.recordPath)) {
+            for (String expression : new CronCorpusGenerator(SEED).corpus(CATALOG_SIZE)) {
+                CompiledSchedule schedule = converter.compile(parser.parse(expression));
+                writer.append(schedule, dtStart);
+                lines.add(String.valueOf(converter.convert(parser.parse(expression), dtStart)));
+            }
+        }
+        Files.write(this.textPath, lines, StandardCharsets.UTF_8);
+        this.catalog = new ScheduleCatalog(this.recordPath);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.catalog.close();
+        Files.deleteIfExists(this.recordPath);
+        Files.deleteIfExists(this.textPath);
+    }
+
+    @Benchmark
+    public long openRecordCatalog() throws IOException {
+        try (ScheduleCatalog opened = new ScheduleCatalog(this.recordPath)) {
+            return opened.size();
+        }
+    }
+
+    @Benchmark
+    public int loadTextCatalog() throws IOException {
+        return Files.readAllLines(this.textPath, StandardCharsets.UTF_8).size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int renderRandomRecord(Cursor cursor) throws IOException {
+        cursor.out.setLength(0);
+        this.catalog.appendRRule(cursor.next(), cursor.out);
+        return cursor.out.length();
+    }
+}
@@ -0,0 +1,87 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Cost of advancing one second over a growing number of schedules. Every schedule fires once a year at a random second, so a tick
+ * fires almost nothing and the cost of finding the due schedules is measured. The timer wheel stays flat, scanning the next
+ * occurrence of every schedule grows with the schedule count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ScheduleTimerWheelBenchmark {
+    private static final int ENGINES = 1024;
+    private static final long SEED = 20221014L;
+
+    @Param({"10000", "100000", "1000000"})
+    public int schedules;
+
+    private ScheduleTimerWheel wheel;
+    private OccurrenceEngine[] scanEngines;
+    private long[] scanFireTimes;
+    private long scanTime;
+    private long fired;
+
+    @Setup
+    public void setUp() {
+        CronParser parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        SplittableRandom random = new SplittableRandom(SEED);
+        OccurrenceEngine[] engines = new OccurrenceEngine[ENGINES];
+        for (int i = 0; i < ENGINES; i++) {
+            String expression = random.nextInt(60) + " " + random.nextInt(60) + " " + random.nextInt(24) + " "
+                    + (1 + random.nextInt(28)) + " " + (1 + random.nextInt(12)) + " ?";
+            engines[i] = new OccurrenceEngine(converter.compile(parser.parse(expression)), dtStart);
+        }
+
+        long start = dtStart.toEpochSecond(ZoneOffset.UTC);
+        this.wheel = new ScheduleTimerWheel(start);
+        this.scanEngines = new OccurrenceEngine[this.schedules];
+        this.scanFireTimes = new long[this.schedules];
+        this.scanTime = start;
+        for (int i = 0; i < this.schedules; i++) {
+            OccurrenceEngine engine = engines[random.nextInt(ENGINES)];
+            this.wheel.add(engine);
+            this.scanEngines[i] = engine;
+            this.scanFireTimes[i] = engine.nextEpochSecond(start + 1);
+        }
+    }
+
+    @Benchmark
+    public int wheelTick() {
+        return this.wheel.advance(this.wheel.getEpochSecond() + 1, (handle, epochSecond) -> this.fired++);
+    }
+
+    @Benchmark
+    public int scanTick() {
+        long time = ++this.scanTime;
+        int count = 0;
+        for (int i = 0; i < this.scanFireTimes.length; i++) {
+            if (this.scanFireTimes[i] == time) {
+                this.fired++;
+                count++;
+                this.scanFireTimes[i] = this.scanEngines[i].nextEpochSecond(time + 1);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Resolving local dtStarts of many zones with ZoneOffsetTable, as RRuleConverter.convertInZone does, against the same with
+ * ZonedDateTime, per batch of BATCH_SIZE conversions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ZoneOffsetTableBenchmark {
+    private static final int BATCH_SIZE = 1_000;
+
+    private LocalDateTime[] locals;
+    private ZoneId[] zones;
+
+    @Setup
+    public void setUp() {
+        ZoneId[] available = new TreeSet<>(ZoneId.getAvailableZoneIds()).stream().map(ZoneId::of).toArray(ZoneId[]::new);
+        Random random = new Random(20221021L);
+        this.locals = new LocalDateTime[BATCH_SIZE];
+        this.zones = new ZoneId[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            this.locals[i] = LocalDateTime.of(2000 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            this.zones[i] = available[random.nextInt(available.length)];
+            ZoneOffsetTable.of(this.zones[i]);
+        }
+    }
+
+    @Benchmark
+    public long table() {
+        long sum = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            sum += ZoneOffsetTable.resolve(this.locals[i], this.zones[i]).getHour();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long zonedDateTime() {
+        long sum = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            sum += ZonedDateTime.of(this.locals[i], this.zones[i]).toLocalDateTime().getHour();
+        }
+        return sum;
+    }
+}
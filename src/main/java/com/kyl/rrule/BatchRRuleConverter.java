@@ -0,0 +1,147 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.cronutils.model.Cron;
+
+/**
+ * Converts many Cron objects at once. Work is split across a ForkJoinPool and identical cron expressions within a batch are
+ * converted only once. Results keep the input order and a failing expression is reported as a FAILED ConversionResult instead of
+ * aborting the batch.
+ */
+public class BatchRRuleConverter {
+    private static final int DEFAULT_THRESHOLD = 512;
+
+    private final RRuleConverter converter;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public BatchRRuleConverter() {
+        this(new QuartzCronRRuleConverter(), ForkJoinPool.commonPool());
+    }
+
+    public BatchRRuleConverter(RRuleConverter converter, ForkJoinPool pool) {
+        this(converter, pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param converter converter for a single Cron object, must be thread safe
+     * @param pool pool the batch is executed on
+     * @param threshold number of expressions below which a task converts sequentially instead of splitting further
+     */
+    public BatchRRuleConverter(RRuleConverter converter, ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be positive but was " + threshold);
+        }
+        this.converter = Objects.requireNonNull(converter, "converter must not be null");
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+        this.threshold = threshold;
+    }
+
+    /**
+     * convert a list of Cron objects with the same dtStart
+     * @param crons Cron objects, must not contain null
+     * @param dtStart 'DTSTART' of every rrule. for null value, 'DTSTART' is omitted.
+     * @return results in input order
+     */
+    public List<ConversionResult> convertAll(List<Cron> crons, LocalDateTime dtStart) {
+        Cron[] input = crons.toArray(new Cron[0]);
+        ConversionResult[] results = new ConversionResult[input.length];
+        this.pool.invoke(new ConvertTask(input, results, new ConcurrentHashMap<>(), dtStart, 0, input.length));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * convert keyed Cron objects with the same dtStart
+     * @param crons Cron objects by key, must not contain null values
+     * @param dtStart 'DTSTART' of every rrule. for null value, 'DTSTART' is omitted.
+     * @param <K> key type
+     * @return results by key, in the iteration order of the input map
+     */
+    public <K> Map<K, ConversionResult> convertAll(Map<K, Cron> crons, LocalDateTime dtStart) {
+        List<K> keys = new ArrayList<>(crons.keySet());
+        List<ConversionResult> results = this.convertAll(new ArrayList<>(crons.values()), dtStart);
+
+        Map<K, ConversionResult> keyedResults = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            keyedResults.put(keys.get(i), results.get(i));
+        }
+        return keyedResults;
+    }
+
+    private ConversionResult convert(Cron cron, LocalDateTime dtStart) {
+        try {
+            return ConversionResult.of(this.converter.convert(cron, dtStart));
+        } catch (RuntimeException e) {
+            return ConversionResult.failed(e);
+        }
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable, but a task is never serialized and holds Cron objects that are not
+    private class ConvertTask extends RecursiveAction {
+        private final Cron[] input;
+        private final ConversionResult[] results;
+        // shared by all tasks of a batch, deduplicates expressions. the first task of an expression converts it outside the map, so
+        // tasks with other expressions in the same bin do not wait for the conversion
+        private final Map<String, CompletableFuture<ConversionResult>> converted;
+        private final LocalDateTime dtStart;
+        private final int from;
+        private final int to;
+
+        ConvertTask(Cron[] input, ConversionResult[] results, Map<String, CompletableFuture<ConversionResult>> converted, LocalDateTime dtStart, int from, int to) {
+            this.input = input;
+            this.results = results;
+            this.converted = converted;
+            this.dtStart = dtStart;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= BatchRRuleConverter.this.threshold) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.results[i] = this.convert(this.input[i]);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ConvertTask(this.input, this.results, this.converted, this.dtStart, this.from, middle),
+                    new ConvertTask(this.input, this.results, this.converted, this.dtStart, middle, this.to));
+        }
+
+        /**
+         * a concurrent task converting the same expression makes this one wait instead of converting it again
+         */
+        private ConversionResult convert(Cron cron) {
+            String expression = cron.asString();
+            CompletableFuture<ConversionResult> result = this.converted.get(expression);
+            if (result != null) {
+                return result.join();
+            }
+            CompletableFuture<ConversionResult> own = new CompletableFuture<>();
+            result = this.converted.putIfAbsent(expression, own);
+            if (result != null) {
+                return result.join();
+            }
+            try {
+                own.complete(BatchRRuleConverter.this.convert(cron, this.dtStart));
+            } finally {
+                if (!own.isDone()) { // the conversion threw an Error, tasks waiting for it must not wait forever
+                    own.completeExceptionally(new IllegalStateException("conversion of " + expression + " did not complete"));
+                }
+            }
+            return own.join();
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package com.kyl.rrule;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cronutils.parser.CronParser;
+
+/**
+ * Command line bulk converter. Reads cron records from files or stdin and writes a result line per record to a file or stdout, in
+ * input order:
+ * <pre>
+ * cron-rrule-converter [options] [file ...]
+ * </pre>
+ * A producer thread reads lines into batches, worker threads parse, convert and format whole batches, and the calling thread
+ * writes the batches in order. The queues between them hold a fixed number of batches, so a slow output stops the reader. Counts
+ * and throughput are printed to stderr periodically and at the end.
+ * <p>
+ * Exit status is 0 when every line was read and written, including lines that were unsupported or failed, 1 if reading or writing
+ * failed and 2 for invalid options.
+ */
+public final class BulkConverterCli {
+    static final int EXIT_OK = 0;
+    static final int EXIT_IO_ERROR = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = String.join("\n",
+            "usage: cron-rrule-converter [options] [file ...]",
+            "reads cron records from the files, or stdin for none or '-', and writes a result line per record",
+            "  --input-format plain|csv|ndjson   input lines (default csv: 'id,cronExpression')",
+            "  --output-format plain|csv|ndjson  output lines (default csv)",
+            "  --dialect quartz|unix|spring|cron4j  cron dialect (default quartz)",
+            "  --dtstart DATETIME                default 'DTSTART', e.g. 2022-10-04T15:07:40",
+            "  --dtstart-column COLUMN           per record 'DTSTART': csv column number or ndjson field name",
+            "  --threads N                       conversion threads (default available processors)",
+            "  --batch-size N                    lines per batch (default 512)",
+            "  --output FILE                     output file (default stdout)",
+            "  --report-interval SECONDS         progress report interval on stderr, 0 for none (default 5)");
+    private static final int DEFAULT_BATCH_SIZE = 512;
+    private static final int DEFAULT_REPORT_INTERVAL = 5;
+    private static final int BATCHES_PER_THREAD = 2;
+    private static final String STDIN = "-";
+    private static final Batch END = new Batch(new String[0], new long[0]);
+
+    private BulkConverterCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * @param args command line arguments
+     * @param in input for no file or '-'
+     * @param out output without --output, it is flushed but not closed
+     * @param err output of reports and errors
+     * @return exit status
+     */
+    static int run(String[] args, InputStream in, OutputStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.help) {
+            err.println(USAGE);
+            return EXIT_OK;
+        }
+        try {
+            new Pipeline(options, err).run(in, out);
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("error: " + e);
+            return EXIT_IO_ERROR;
+        }
+    }
+
+    private static final class Options {
+        private InputFormat inputFormat = InputFormat.CSV;
+        private OutputFormat outputFormat = OutputFormat.CSV;
+        private CronDialect dialect = CronDialect.QUARTZ;
+        private LocalDateTime dtStart;
+        private String dtStartColumn;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private Path output;
+        private int reportInterval = DEFAULT_REPORT_INTERVAL;
+        private final List<String> inputs = new ArrayList<>();
+        private boolean help;
+
+        /**
+         * @throws IllegalArgumentException if an option is unknown, misses its value or has an invalid value
+         */
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    options.inputs.add(arg);
+                    continue;
+                }
+                if ("--help".equals(arg)) {
+                    options.help = true;
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("missing value of " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--input-format":
+                        options.inputFormat = constant(InputFormat.class, arg, value);
+                        break;
+                    case "--output-format":
+                        options.outputFormat = constant(OutputFormat.class, arg, value);
+                        break;
+                    case "--dialect":
+                        options.dialect = constant(CronDialect.class, arg, value);
+                        break;
+                    case "--dtstart":
+                        try {
+                            options.dtStart = InputFormat.dtStart(value, null);
+                        } catch (DateTimeParseException e) {
+                            throw new IllegalArgumentException("invalid value of " + arg + ": " + value, e);
+                        }
+                        break;
+                    case "--dtstart-column":
+                        options.dtStartColumn = value;
+                        break;
+                    case "--threads":
+                        options.threads = number(arg, value, 1);
+                        break;
+                    case "--batch-size":
+                        options.batchSize = number(arg, value, 1);
+                        break;
+                    case "--output":
+                        options.output = Paths.get(value);
+                        break;
+                    case "--report-interval":
+                        options.reportInterval = number(arg, value, 0);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + arg);
+                }
+            }
+            if (options.dtStartColumn != null) {
+                options.inputFormat.checkDTStartColumn(options.dtStartColumn);
+            }
+            if (options.inputs.isEmpty()) {
+                options.inputs.add(STDIN);
+            }
+            return options;
+        }
+
+        private static int number(String name, String value, int minimum) {
+            int number;
+            try {
+                number = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid value of " + name + ": " + value, e);
+            }
+            if (number < minimum) {
+                throw new IllegalArgumentException(name + " must be at least " + minimum + " but was " + value);
+            }
+            return number;
+        }
+
+        private static <E extends Enum<E>> E constant(Class<E> type, String name, String value) {
+            try {
+                return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("invalid value of " + name + ": " + value, e);
+            }
+        }
+    }
+
+    /**
+     * lines of the input and their formatted results
+     */
+    private static final class Batch {
+        private final String[] lines;
+        private final long[] lineNumbers;
+        private final CompletableFuture<Output> output = new CompletableFuture<>();
+
+        private Batch(String[] lines, long[] lineNumbers) {
+            this.lines = lines;
+            this.lineNumbers = lineNumbers;
+        }
+    }
+
+    private static final class Output {
+        private final String text;
+        private final long[] counts;
+
+        private Output(String text, long[] counts) {
+            this.text = text;
+            this.counts = counts;
+        }
+    }
+
+    private static final class Pipeline {
+        private final Options options;
+        private final PrintStream err;
+        private final RRuleConverter converter;
+        private final CronParser cronParser;
+        private final BlockingQueue<Batch> work;
+        private final BlockingQueue<Batch> pending; // batches in input order, read by the writer
+        private final LongAdder[] counts = new LongAdder[ConversionResult.Status.values().length];
+        private volatile Throwable readFailure;
+
+        private Pipeline(Options options, PrintStream err) {
+            this.options = options;
+            this.err = err;
+            this.converter = new CronDialectRRuleConverter(options.dialect);
+            this.cronParser = options.dialect.newParser();
+            int batches = options.threads * BATCHES_PER_THREAD;
+            this.pending = new ArrayBlockingQueue<>(batches);
+            // room for the batches of pending and an END per worker
+            this.work = new ArrayBlockingQueue<>(batches + options.threads + 1);
+            for (int i = 0; i < this.counts.length; i++) {
+                this.counts[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * @return counts of outcomes
+         * @throws IOException if reading or writing fails
+         */
+        private ConversionSummary run(InputStream in, OutputStream out) throws IOException {
+            ExecutorService threads = Executors.newFixedThreadPool(this.options.threads + 1, runnable -> {
+                Thread thread = new Thread(runnable, "cron-rrule-converter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cron-rrule-converter-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long startNanos = System.nanoTime();
+            try {
+                for (int i = 0; i < this.options.threads; i++) {
+                    threads.execute(this::convertBatches);
+                }
+                threads.execute(() -> this.readBatches(in));
+                if (this.options.reportInterval > 0) {
+                    long[] last = {startNanos, 0};
+                    reporter.scheduleAtFixedRate(() -> this.report(last), this.options.reportInterval, this.options.reportInterval,
+                            TimeUnit.SECONDS);
+                }
+                this.writeBatches(out);
+            } finally {
+                reporter.shutdownNow();
+                threads.shutdownNow();
+            }
+            ConversionSummary summary = this.summary();
+            double seconds = Math.max(System.nanoTime() - startNanos, 1L) / 1e9;
+            this.err.printf(Locale.ROOT, "done: %d records in %.3f s, %.0f records/s, %s%n", summary.getTotal(), seconds,
+                    summary.getTotal() / seconds, summary);
+            return summary;
+        }
+
+        private void readBatches(InputStream in) {
+            try {
+                long lineNumber = 0;
+                List<String> lines = new ArrayList<>(this.options.batchSize);
+                long[] lineNumbers = new long[this.options.batchSize];
+                for (String input : this.options.inputs) {
+                    try (ReadableByteChannel channel = STDIN.equals(input) ? Channels.newChannel(new NonClosingInputStream(in))
+                            : FileChannel.open(Paths.get(input), StandardOpenOption.READ);
+                         ChannelLineReader reader = new ChannelLineReader(channel, StreamingFileConverter.BUFFER_SIZE)) {
+                        for (String line; (line = reader.readLine()) != null; ) {
+                            lineNumber++;
+                            if (line.isBlank()) {
+                                continue;
+                            }
+                            lineNumbers[lines.size()] = lineNumber;
+                            lines.add(line);
+                            if (lines.size() == this.options.batchSize) {
+                                this.submit(new Batch(lines.toArray(new String[0]), lineNumbers.clone()));
+                                lines.clear();
+                            }
+                        }
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    this.submit(new Batch(lines.toArray(new String[0]), Arrays.copyOf(lineNumbers, lines.size())));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) { // also unchecked, e.g. InvalidPathException or OutOfMemoryError, the writer waits for END
+                this.readFailure = e;
+            } finally {
+                this.end();
+            }
+        }
+
+        /**
+         * signal END to the writer and the workers, unless the pipeline is shut down
+         */
+        private void end() {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                this.pending.put(END);
+                for (int i = 0; i < this.options.threads; i++) {
+                    this.work.put(END);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void submit(Batch batch) throws InterruptedException {
+            this.pending.put(batch);
+            this.work.put(batch);
+        }
+
+        private void convertBatches() {
+            try {
+                for (Batch batch = this.work.take(); batch != END; batch = this.work.take()) {
+                    try {
+                        batch.output.complete(this.convert(batch));
+                    } catch (RuntimeException | Error e) { // the writer waits for every batch
+                        batch.output.completeExceptionally(e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Output convert(Batch batch) {
+            StringBuilder text = new StringBuilder(batch.lines.length * 96);
+            long[] counts = new long[this.counts.length];
+            for (int i = 0; i < batch.lines.length; i++) {
+                String id = String.valueOf(batch.lineNumbers[i]);
+                ConversionResult result;
+                try {
+                    CronRecord record = this.options.inputFormat.parse(batch.lines[i], batch.lineNumbers[i], this.options.dtStartColumn,
+                            this.options.dtStart);
+                    id = record.getId();
+                    result = ConversionResult.of(this.converter.convert(this.cronParser.parse(record.getCronExpression()), record.getDTStart()));
+                } catch (RuntimeException e) {
+                    result = ConversionResult.failed(e);
+                }
+                counts[result.getStatus().ordinal()]++;
+                if (i > 0) {
+                    text.append('\n');
+                }
+                this.options.outputFormat.format(id, result, text);
+            }
+            return new Output(text.toString(), counts);
+        }
+
+        private void writeBatches(OutputStream out) throws IOException {
+            WritableByteChannel channel = this.options.output == null ? Channels.newChannel(out)
+                    : FileChannel.open(this.options.output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ChannelLineWriter writer = new ChannelLineWriter(channel, StreamingFileConverter.BUFFER_SIZE);
+            try {
+                for (Batch batch = this.take(); batch != END; batch = this.take()) {
+                    Output output = this.await(batch);
+                    if (batch.lines.length > 0) {
+                        writer.writeLine(output.text);
+                    }
+                    for (int i = 0; i < this.counts.length; i++) {
+                        this.counts[i].add(output.counts[i]);
+                    }
+                }
+                Throwable readFailure = this.readFailure;
+                if (readFailure instanceof IOException) {
+                    throw (IOException) readFailure;
+                } else if (readFailure != null) {
+                    throw new IOException("reading input failed: " + readFailure, readFailure);
+                }
+            } finally {
+                if (this.options.output == null) {
+                    writer.flush();
+                    out.flush();
+                } else {
+                    writer.close();
+                }
+            }
+        }
+
+        private Batch take() throws IOException {
+            try {
+                return this.pending.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for input", e);
+            }
+        }
+
+        private Output await(Batch batch) throws IOException {
+            try {
+                return batch.output.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for conversion", e);
+            } catch (ExecutionException e) {
+                throw new IOException("conversion worker failed", e.getCause());
+            }
+        }
+
+        /**
+         * print counts and the throughput since the last report
+         * @param last nanos and record count of the last report
+         */
+        private void report(long[] last) {
+            ConversionSummary summary = this.summary();
+            long now = System.nanoTime();
+            double seconds = Math.max(now - last[0], 1L) / 1e9;
+            this.err.printf(Locale.ROOT, "%d records, %.0f records/s, %s%n", summary.getTotal(), (summary.getTotal() - last[1]) / seconds,
+                    summary);
+            last[0] = now;
+            last[1] = summary.getTotal();
+        }
+
+        private ConversionSummary summary() {
+            return new ConversionSummary(this.counts[ConversionResult.Status.CONVERTED.ordinal()].sum(),
+                    this.counts[ConversionResult.Status.UNSUPPORTED.ordinal()].sum(),
+                    this.counts[ConversionResult.Status.FAILED.ordinal()].sum());
+        }
+    }
+
+    /**
+     * stdin must stay open after the converter read it
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+        private NonClosingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
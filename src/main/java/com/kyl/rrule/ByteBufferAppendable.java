@@ -0,0 +1,119 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+
+/**
+ * Appendable that encodes chars as UTF-8 into a ByteBuffer, one byte per char for ASCII. rrule text is ASCII, so the text of a rule
+ * is never held as a String or char[] before it reaches the buffer. Bytes are collected in a small array and copied to the buffer
+ * in bulk, which is much cheaper than single byte puts into a direct buffer.
+ * <p>
+ * The buffer is never grown. When it is full, append or flush throws BufferOverflowException and the bytes written so far may stay
+ * in the buffer; callers reset the position to where they started.
+ */
+final class ByteBufferAppendable implements Appendable {
+    private static final int MAX_ONE_BYTE = 0x7F;
+    private static final int MAX_TWO_BYTES = 0x7FF;
+    private static final int MAX_BYTES_PER_CHAR = 4;
+    private static final int PENDING_SIZE = 128;
+
+    private final ByteBuffer buffer;
+    private final byte[] pending = new byte[PENDING_SIZE];
+    private int pendingLength;
+    private char highSurrogate; // first half of a surrogate pair, 0 if none
+
+    ByteBufferAppendable(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public ByteBufferAppendable append(CharSequence csq) throws IOException {
+        CharSequence chars = csq == null ? "null" : csq;
+        return this.append(chars, 0, chars.length());
+    }
+
+    @Override
+    public ByteBufferAppendable append(CharSequence csq, int start, int end) throws IOException {
+        CharSequence chars = csq == null ? "null" : csq;
+        for (int i = start; i < end; i++) {
+            this.append(chars.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBufferAppendable append(char c) throws IOException {
+        if (this.pendingLength > PENDING_SIZE - MAX_BYTES_PER_CHAR) {
+            this.flush();
+        }
+        if (c <= MAX_ONE_BYTE && this.highSurrogate == 0) {
+            this.pending[this.pendingLength++] = (byte) c;
+        } else {
+            this.encode(c);
+        }
+        return this;
+    }
+
+    /**
+     * copy collected bytes to the buffer
+     * @throws BufferOverflowException if the buffer is full
+     */
+    void flush() {
+        if (this.buffer.remaining() < this.pendingLength) {
+            this.pendingLength = 0;
+            throw new BufferOverflowException();
+        }
+        this.buffer.put(this.pending, 0, this.pendingLength);
+        this.pendingLength = 0;
+    }
+
+    /**
+     * check that the text did not end within a surrogate pair and copy collected bytes to the buffer
+     * @throws MalformedInputException if a high surrogate is not followed by a low surrogate
+     * @throws BufferOverflowException if the buffer is full
+     */
+    void finish() throws MalformedInputException {
+        if (this.highSurrogate != 0) {
+            this.reset();
+            throw new MalformedInputException(1);
+        }
+        this.flush();
+    }
+
+    /**
+     * drop collected bytes and a surrogate pair that was cut off by a buffer overflow
+     */
+    void reset() {
+        this.pendingLength = 0;
+        this.highSurrogate = 0;
+    }
+
+    private void encode(char c) throws MalformedInputException {
+        if (this.highSurrogate != 0) {
+            if (!Character.isLowSurrogate(c)) {
+                this.reset();
+                throw new MalformedInputException(1);
+            }
+            int codePoint = Character.toCodePoint(this.highSurrogate, c);
+            this.highSurrogate = 0;
+            this.pending[this.pendingLength++] = (byte) (0xF0 | (codePoint >> 18));
+            this.pending[this.pendingLength++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            this.pending[this.pendingLength++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            this.pending[this.pendingLength++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            this.reset();
+            throw new MalformedInputException(1);
+        } else if (c <= MAX_TWO_BYTES) {
+            this.pending[this.pendingLength++] = (byte) (0xC0 | (c >> 6));
+            this.pending[this.pendingLength++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+            this.pending[this.pendingLength++] = (byte) (0xE0 | (c >> 12));
+            this.pending[this.pendingLength++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            this.pending[this.pendingLength++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+}
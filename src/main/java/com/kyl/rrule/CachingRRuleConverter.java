@@ -0,0 +1,190 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cronutils.model.Cron;
+
+/**
+ * Caching front end for a RRuleConverter. Results are keyed by the normalized cron expression and dtStart. Reads never lock: a hit
+ * is a ConcurrentHashMap lookup plus setting the entry's reference bit. When the cache grows over its maximum size, entries are
+ * evicted in insertion order, skipping entries that were read since they were last looked at (second chance / CLOCK). The instance
+ * is safe to share across threads.
+ */
+public class CachingRRuleConverter implements RRuleConverter {
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final RRuleConverter delegate;
+    private final int maximumSize;
+    private final boolean cacheUnsupported;
+
+    private final ConcurrentHashMap<CacheKey, CacheEntry> entries;
+    private final Queue<CacheKey> evictionQueue;
+    private final AtomicInteger size;
+
+    private final LongAdder hitCount;
+    private final LongAdder missCount;
+    private final LongAdder evictionCount;
+
+    public CachingRRuleConverter() {
+        this(new QuartzCronRRuleConverter(), DEFAULT_MAXIMUM_SIZE, true);
+    }
+
+    /**
+     * @param delegate converter used on cache miss
+     * @param maximumSize maximum number of cached conversions, must be positive
+     * @param cacheUnsupported if true, 'null' results of unsupported cron expressions are cached as well
+     */
+    public CachingRRuleConverter(RRuleConverter delegate, int maximumSize, boolean cacheUnsupported) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive but was " + maximumSize);
+        }
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.maximumSize = maximumSize;
+        this.cacheUnsupported = cacheUnsupported;
+        this.entries = new ConcurrentHashMap<>();
+        this.evictionQueue = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+        this.hitCount = new LongAdder();
+        this.missCount = new LongAdder();
+        this.evictionCount = new LongAdder();
+    }
+
+    @Override
+    public String convert(Cron cron, LocalDateTime dtStart) {
+        CacheKey key = new CacheKey(cron.asString(), dtStart);
+        CacheEntry entry = this.entries.get(key);
+        if (entry != null) {
+            if (!entry.referenced) {
+                entry.referenced = true; // a volatile read is cheaper than a write that invalidates the cache line of other readers
+            }
+            this.hitCount.increment();
+            return entry.rrule;
+        }
+
+        this.missCount.increment();
+        String rrule = this.delegate.convert(cron, dtStart);
+        if (rrule != null || this.cacheUnsupported) {
+            this.store(key, new CacheEntry(rrule));
+        }
+        return rrule;
+    }
+
+    private void store(CacheKey key, CacheEntry entry) {
+        // a concurrent miss on the same key may have stored the same result already
+        if (this.entries.putIfAbsent(key, entry) == null) {
+            this.evictionQueue.offer(key);
+            if (this.size.incrementAndGet() > this.maximumSize) {
+                this.evict();
+            }
+        }
+    }
+
+    private void evict() {
+        while (this.size.get() > this.maximumSize) {
+            CacheKey candidate = this.evictionQueue.poll();
+            if (candidate == null) {
+                return;
+            }
+            CacheEntry entry = this.entries.get(candidate);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                this.evictionQueue.offer(candidate);
+            } else if (this.entries.remove(candidate, entry)) {
+                this.size.decrementAndGet();
+                this.evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * remove all cached conversions. Statistics are kept.
+     */
+    public void invalidateAll() {
+        CacheKey key;
+        while ((key = this.evictionQueue.poll()) != null) {
+            if (this.entries.remove(key) != null) {
+                this.size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return number of cached conversions
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * @return number of conversions answered from the cache
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * @return number of conversions delegated to the underlying converter
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * @return number of conversions removed to keep the cache within its maximum size
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingRRuleConverter[" + this.delegate + "]";
+    }
+
+    private static final class CacheKey {
+        private final String cronExpression;
+        private final LocalDateTime dtStart;
+        private final int hash;
+
+        private CacheKey(String cronExpression, LocalDateTime dtStart) {
+            this.cronExpression = cronExpression;
+            this.dtStart = dtStart;
+            this.hash = 31 * cronExpression.hashCode() + Objects.hashCode(dtStart);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return this.hash == other.hash && this.cronExpression.equals(other.cronExpression) && Objects.equals(this.dtStart, other.dtStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class CacheEntry {
+        private final String rrule; // null for unsupported cron expressions
+        private volatile boolean referenced;
+
+        private CacheEntry(String rrule) {
+            this.rrule = rrule;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.kyl.rrule;
+
+/**
+ * Precomputed month lengths and first weekdays of the Gregorian calendar. The calendar repeats every 400 years, 146097 days or
+ * exactly 20871 weeks, so one table of 400 years answers every year with two array reads and no LocalDate.
+ */
+final class CalendarTables {
+    static final int SATURDAY = 7;
+    static final int SUNDAY = 1;
+
+    private static final int CYCLE_YEARS = 400;
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int[] MONTH_LENGTHS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int SATURDAY_2000_01_01 = SATURDAY;
+
+    private static final byte[] LENGTHS = new byte[CYCLE_YEARS * MONTHS_PER_YEAR];
+    private static final byte[] FIRST_WEEKDAYS = new byte[CYCLE_YEARS * MONTHS_PER_YEAR]; // quartz numbering, 1 = Sunday
+
+    static {
+        int weekday = SATURDAY_2000_01_01 - 1; // 0 = Sunday
+        for (int year = 0; year < CYCLE_YEARS; year++) {
+            for (int month = 0; month < MONTHS_PER_YEAR; month++) {
+                int index = year * MONTHS_PER_YEAR + month;
+                int length = MONTH_LENGTHS[month] + (month == 1 && isLeapYear(2000 + year) ? 1 : 0);
+                LENGTHS[index] = (byte) length;
+                FIRST_WEEKDAYS[index] = (byte) (weekday + 1);
+                weekday = (weekday + length) % DAYS_PER_WEEK;
+            }
+        }
+    }
+
+    private CalendarTables() {
+    }
+
+    /**
+     * @param month 1..12
+     */
+    static int lengthOfMonth(int year, int month) {
+        return LENGTHS[index(year, month)];
+    }
+
+    /**
+     * @param month 1..12
+     * @return quartz day of week of the first day of the month, 1 = Sunday .. 7 = Saturday
+     */
+    static int firstWeekday(int year, int month) {
+        return FIRST_WEEKDAYS[index(year, month)];
+    }
+
+    /**
+     * @param month 1..12
+     * @param day 1..length of the month
+     * @return quartz day of week, 1 = Sunday .. 7 = Saturday
+     */
+    static int weekday(int year, int month, int day) {
+        return (FIRST_WEEKDAYS[index(year, month)] + day - 2) % DAYS_PER_WEEK + 1;
+    }
+
+    /**
+     * Quartz 'nW': the weekday nearest to day n within the month. a Saturday moves to Friday, a Sunday to Monday, but never across
+     * the start or the end of the month.
+     * @param month 1..12
+     * @param day 1..31
+     * @return day of month, -1 if the month has no day n
+     */
+    static int nearestWeekday(int year, int month, int day) {
+        int index = index(year, month);
+        int length = LENGTHS[index];
+        if (day > length) {
+            return -1;
+        }
+        int weekday = (FIRST_WEEKDAYS[index] + day - 2) % DAYS_PER_WEEK + 1;
+        if (weekday == SATURDAY) {
+            return day == 1 ? day + 2 : day - 1;
+        } else if (weekday == SUNDAY) {
+            return day == length ? day - 2 : day + 1;
+        }
+        return day;
+    }
+
+    private static int index(int year, int month) {
+        return Math.floorMod(year - 2000, CYCLE_YEARS) * MONTHS_PER_YEAR + month - 1;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
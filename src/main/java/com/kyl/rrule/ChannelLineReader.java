@@ -0,0 +1,77 @@
+package com.kyl.rrule;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 lines from a channel through a fixed size direct buffer. Memory use is the buffer plus the longest line, regardless of
+ * the channel size. Lines end with '\n' or "\r\n".
+ */
+class ChannelLineReader implements Closeable {
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] line;
+    private boolean endOfInput;
+
+    ChannelLineReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.flip();
+        this.line = new byte[256];
+        this.endOfInput = false;
+    }
+
+    /**
+     * @return next line without line terminator. 'null' at the end of the channel
+     * @throws IOException if reading the channel fails
+     */
+    String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!this.buffer.hasRemaining() && !this.fill()) {
+                return length == 0 && this.endOfInput ? null : this.decode(length);
+            }
+            byte b = this.buffer.get();
+            if (b == '\n') {
+                return this.decode(length);
+            }
+            if (length == this.line.length) {
+                this.line = Arrays.copyOf(this.line, length << 1);
+            }
+            this.line[length++] = b;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (this.endOfInput) {
+            return false;
+        }
+        this.buffer.clear();
+        int read;
+        do {
+            read = this.channel.read(this.buffer);
+        } while (read == 0);
+        this.buffer.flip();
+        if (read < 0) {
+            this.endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    private String decode(int length) {
+        if (length > 0 && this.line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(this.line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.kyl.rrule;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes UTF-8 lines to a channel through a fixed size direct buffer. The buffer is written to the channel only when it is full, on
+ * flush and on close. Lines are encoded straight into the buffer; a CharsetEncoder is only used for lines larger than the buffer.
+ */
+class ChannelLineWriter implements Closeable {
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final ByteBufferAppendable bytes;
+    private final CharsetEncoder encoder;
+
+    ChannelLineWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.bytes = new ByteBufferAppendable(this.buffer);
+        this.encoder = StandardCharsets.UTF_8.newEncoder();
+    }
+
+    /**
+     * append a line and the line separator. a malformed line is not written at all.
+     * @param line line content
+     * @throws MalformedInputException if the line has a lone surrogate
+     * @throws IOException if writing the channel fails
+     */
+    void writeLine(CharSequence line) throws IOException {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            int start = this.buffer.position();
+            try {
+                this.bytes.append(line).append(LINE_SEPARATOR);
+                this.bytes.finish();
+                return;
+            } catch (BufferOverflowException e) {
+                this.bytes.reset();
+                this.buffer.position(start);
+                this.drain();
+            } catch (MalformedInputException e) {
+                this.buffer.position(start); // the bytes before the surrogate may be in the buffer already
+                throw e;
+            }
+        }
+        this.encode(line);
+    }
+
+    private void encode(CharSequence line) throws IOException {
+        // drained parts of the line cannot be taken back, so the line is checked before the first drain
+        checkWellFormed(line);
+        CharBuffer chars = CharBuffer.wrap(line);
+        this.encoder.reset();
+        while (true) {
+            CoderResult result = this.encoder.encode(chars, this.buffer, true);
+            if (result.isOverflow()) {
+                this.drain();
+            } else if (result.isError()) {
+                result.throwException();
+            } else {
+                break;
+            }
+        }
+        if (!this.buffer.hasRemaining()) {
+            this.drain();
+        }
+        this.buffer.put((byte) LINE_SEPARATOR);
+    }
+
+    private static void checkWellFormed(CharSequence line) throws MalformedInputException {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < line.length() && Character.isLowSurrogate(line.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                throw new MalformedInputException(1);
+            }
+        }
+    }
+
+    /**
+     * write buffered lines to the channel
+     * @throws IOException if writing the channel fails
+     */
+    void flush() throws IOException {
+        this.drain();
+    }
+
+    private void drain() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
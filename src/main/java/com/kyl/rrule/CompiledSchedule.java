@@ -0,0 +1,287 @@
+package com.kyl.rrule;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Compact intermediate representation of a converted cron expression. Every rrule part is held as a primitive bit set where bit
+ * 'i' set means value 'i' is part of the rule, so building a schedule never boxes or formats a value. The schedule is rendered to
+ * rrule text by RecurrenceRuleStringBuilder.
+ * <p>
+ * Day of week bits use the quartz numbering: 1 = Sunday ... 7 = Saturday.
+ */
+public final class CompiledSchedule {
+    static final int MAX_NTH_WEEKDAY = 5;
+    static final int DAYS_PER_WEEK = 7;
+
+    private static final int SETPOS_LAST = 1;
+    private static final int UNSUPPORTED = 1 << 1;
+    private static final int INEXACT_DATES = 1 << 2;
+
+    private final RRuleFrequency frequency;
+    private long seconds;
+    private long minutes;
+    private long hours;
+    private long monthDays; // bit n: day n of the month
+    private long lastMonthDays; // bit n: day -n of the month, counted from the last day
+    private int months;
+    private int weekdays;
+    private long nthWeekdays; // bit (nth - 1) * 7 + (weekday - 1) for nth 1..5
+    private long lastNthWeekdays; // bit (nth - 1) * 7 + (weekday - 1) for nth -1..-5
+    private long[] yearDays; // null unless the cron definition has a day of year field
+    private long nearestWeekdays; // bit n: weekday nearest to day n of the month, quartz 'nW'. not kept by ScheduleRecord.
+    private int interval;
+    private int flags;
+
+    CompiledSchedule(RRuleFrequency frequency) {
+        this.frequency = Objects.requireNonNull(frequency, "frequency must not be null");
+    }
+
+    /**
+     * restore a schedule from its bit sets, e.g. read back by ScheduleRecord. the bit sets are not validated.
+     */
+    CompiledSchedule(RRuleFrequency frequency, long seconds, long minutes, long hours, long monthDays, long lastMonthDays, int months,
+                     int weekdays, long nthWeekdays, long lastNthWeekdays, int interval, boolean lastOfSet, boolean unsupported) {
+        this(frequency);
+        this.seconds = seconds;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.monthDays = monthDays;
+        this.lastMonthDays = lastMonthDays;
+        this.months = months;
+        this.weekdays = weekdays;
+        this.nthWeekdays = nthWeekdays;
+        this.lastNthWeekdays = lastNthWeekdays;
+        this.interval = interval;
+        this.flags = (lastOfSet ? SETPOS_LAST : 0) | (unsupported ? UNSUPPORTED : 0);
+    }
+
+    /**
+     * add a single value to a rrule part
+     * @param rruleName one of SECOND, MINUTE, HOUR, MONTHDAY, MONTH, WEEKDAY and YEARDAY
+     * @param value value in the rrule range. MONTHDAY and YEARDAY may be negative.
+     */
+    void add(RRuleName rruleName, int value) {
+        switch (rruleName) {
+            case SECOND:
+                this.seconds |= bit(rruleName, value, 0, 59);
+                break;
+            case MINUTE:
+                this.minutes |= bit(rruleName, value, 0, 59);
+                break;
+            case HOUR:
+                this.hours |= bit(rruleName, value, 0, 23);
+                break;
+            case MONTHDAY:
+                if (value < 0) {
+                    this.lastMonthDays |= bit(rruleName, -value, 1, 31);
+                } else {
+                    this.monthDays |= bit(rruleName, value, 1, 31);
+                }
+                break;
+            case MONTH:
+                this.months |= (int) bit(rruleName, value, 1, 12);
+                break;
+            case WEEKDAY:
+                this.weekdays |= (int) bit(rruleName, value, 1, DAYS_PER_WEEK);
+                break;
+            case YEARDAY:
+                this.addYearDay(value);
+                break;
+            default:
+                throw new IllegalArgumentException(rruleName.getName() + " is not a value rrule part");
+        }
+    }
+
+    private void addYearDay(int value) {
+        if (value == 0 || value < -366 || value > 366) {
+            throw new IllegalArgumentException(value + " is out of range for " + RRuleName.YEARDAY.getName());
+        }
+        int index = value < 0 ? 366 - value : value; // -1..-366 are stored after 1..366
+        if (this.yearDays == null) {
+            this.yearDays = new long[(2 * 366 + 1 + 63) >>> 6];
+        }
+        this.yearDays[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * add a day of week with a position in the month, e.g. 2nd Monday or last Friday
+     * @param nth position in the month, 1..5 or -1..-5
+     * @param weekday quartz day of week
+     */
+    void addNthWeekday(int nth, int weekday) {
+        if (nth == 0 || nth > MAX_NTH_WEEKDAY || nth < -MAX_NTH_WEEKDAY) {
+            throw new IllegalArgumentException(nth + " is out of range for nth day of week");
+        }
+        bit(RRuleName.WEEKDAY, weekday, 1, DAYS_PER_WEEK);
+        long bit = 1L << ((Math.abs(nth) - 1) * DAYS_PER_WEEK + weekday - 1);
+        if (nth > 0) {
+            this.nthWeekdays |= bit;
+        } else {
+            this.lastNthWeekdays |= bit;
+        }
+    }
+
+    /**
+     * add a quartz 'nW' day. it has no rrule equivalent, so the schedule becomes unsupported, but the day is kept for
+     * NearestWeekdayExpander.
+     * @param day day of month 1..31
+     */
+    void addNearestWeekday(int day) {
+        this.nearestWeekdays |= bit(RRuleName.MONTHDAY, day, 1, 31);
+        this.setUnsupported();
+    }
+
+    void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * only the last occurrence within a frequency period is used, 'BYSETPOS=-1' in rrule
+     */
+    void setLastOfSet() {
+        this.flags |= SETPOS_LAST;
+    }
+
+    /**
+     * the cron expression contains a special character that has no rrule equivalent
+     */
+    void setUnsupported() {
+        this.flags |= UNSUPPORTED;
+    }
+
+    /**
+     * the year field or the start of a month step restricts the dates, but is not held in the bit sets. the rrule ignores it like
+     * before, NearestWeekdayExpander does not turn such a schedule into concrete dates. not kept by ScheduleRecord.
+     */
+    void setInexactDates() {
+        this.flags |= INEXACT_DATES;
+    }
+
+    private static long bit(RRuleName rruleName, int value, int min, int max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(value + " is out of range for " + rruleName.getName());
+        }
+        return 1L << value;
+    }
+
+    public RRuleFrequency getFrequency() {
+        return this.frequency;
+    }
+
+    public long getSeconds() {
+        return this.seconds;
+    }
+
+    public long getMinutes() {
+        return this.minutes;
+    }
+
+    public long getHours() {
+        return this.hours;
+    }
+
+    public long getMonthDays() {
+        return this.monthDays;
+    }
+
+    public long getLastMonthDays() {
+        return this.lastMonthDays;
+    }
+
+    public int getMonths() {
+        return this.months;
+    }
+
+    public int getWeekdays() {
+        return this.weekdays;
+    }
+
+    public long getNthWeekdays() {
+        return this.nthWeekdays;
+    }
+
+    public long getLastNthWeekdays() {
+        return this.lastNthWeekdays;
+    }
+
+    /**
+     * @param value day of year, 1..366 or -1..-366
+     * @return true if the day of year is part of the rule
+     */
+    public boolean hasYearDay(int value) {
+        if (this.yearDays == null || value == 0 || value < -366 || value > 366) {
+            return false;
+        }
+        int index = value < 0 ? 366 - value : value;
+        return (this.yearDays[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean hasYearDays() {
+        return this.yearDays != null;
+    }
+
+    /**
+     * @return bit n: the weekday nearest to day n of the month, quartz 'nW'
+     */
+    public long getNearestWeekdays() {
+        return this.nearestWeekdays;
+    }
+
+    /**
+     * @return rrule 'INTERVAL', 0 if not set
+     */
+    public int getInterval() {
+        return this.interval;
+    }
+
+    public boolean isLastOfSet() {
+        return (this.flags & SETPOS_LAST) != 0;
+    }
+
+    public boolean isUnsupported() {
+        return (this.flags & UNSUPPORTED) != 0;
+    }
+
+    /**
+     * @return true if the year field or the start of a month step restricts the dates beyond the bit sets
+     */
+    public boolean hasInexactDates() {
+        return (this.flags & INEXACT_DATES) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompiledSchedule)) {
+            return false;
+        }
+        CompiledSchedule other = (CompiledSchedule) o;
+        return this.frequency == other.frequency && this.seconds == other.seconds && this.minutes == other.minutes
+                && this.hours == other.hours && this.monthDays == other.monthDays && this.lastMonthDays == other.lastMonthDays
+                && this.months == other.months && this.weekdays == other.weekdays && this.nthWeekdays == other.nthWeekdays
+                && this.lastNthWeekdays == other.lastNthWeekdays && this.interval == other.interval && this.flags == other.flags
+                && this.nearestWeekdays == other.nearestWeekdays && Arrays.equals(this.yearDays, other.yearDays);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.frequency.ordinal();
+        result = 31 * result + Long.hashCode(this.seconds);
+        result = 31 * result + Long.hashCode(this.minutes);
+        result = 31 * result + Long.hashCode(this.hours);
+        result = 31 * result + Long.hashCode(this.monthDays);
+        result = 31 * result + Long.hashCode(this.lastMonthDays);
+        result = 31 * result + this.months;
+        result = 31 * result + this.weekdays;
+        result = 31 * result + Long.hashCode(this.nthWeekdays);
+        result = 31 * result + Long.hashCode(this.lastNthWeekdays);
+        result = 31 * result + this.interval;
+        result = 31 * result + this.flags;
+        result = 31 * result + Long.hashCode(this.nearestWeekdays);
+        result = 31 * result + Arrays.hashCode(this.yearDays);
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package com.kyl.rrule;
+
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.expression.FieldExpression;
+
+/**
+ * Receives measurements of QuartzCronRRuleConverter conversions. Every method has an empty default, so an implementation only
+ * overrides what it records. With NOOP the converter does not even read the clock.
+ * <p>
+ * Implementations are called on the converting threads and must be thread safe and fast, e.g. ConversionMetricsRecorder.
+ */
+public interface ConversionMetrics {
+    ConversionMetrics NOOP = new ConversionMetrics() {
+    };
+
+    /**
+     * called once per field of a converted cron expression
+     * @param cronFieldName name of the field
+     * @param fieldExpression expression of the field
+     */
+    default void fieldExpression(CronFieldName cronFieldName, FieldExpression fieldExpression) {
+    }
+
+    /**
+     * called when a rrule was produced
+     * @param latencyNanos conversion time
+     * @param frequency rrule frequency
+     * @param length length of the rrule text including 'DTSTART', -1 if unknown
+     */
+    default void converted(long latencyNanos, RRuleFrequency frequency, int length) {
+    }
+
+    /**
+     * called when the cron expression has no rrule equivalent and null was returned
+     * @param latencyNanos conversion time
+     * @param frequency frequency the rrule would have had
+     */
+    default void unsupported(long latencyNanos, RRuleFrequency frequency) {
+    }
+
+    /**
+     * called when the conversion threw an exception
+     * @param latencyNanos conversion time
+     */
+    default void failed(long latencyNanos) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.kyl.rrule;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.expression.Always;
+import com.cronutils.model.field.expression.And;
+import com.cronutils.model.field.expression.Between;
+import com.cronutils.model.field.expression.Every;
+import com.cronutils.model.field.expression.FieldExpression;
+import com.cronutils.model.field.expression.On;
+import com.cronutils.model.field.expression.QuestionMark;
+
+/**
+ * In-process ConversionMetrics that keeps lock-free counters and histograms. Counters are LongAdders, which stripe under
+ * contention, and histograms are LogHistograms. An exporter calls snapshot whenever it publishes, recording never waits for it.
+ */
+public class ConversionMetricsRecorder implements ConversionMetrics {
+    static final String[] FIELD_EXPRESSION_TYPES = {"Always", "And", "Between", "Every", "On", "QuestionMark", "Other"};
+    private static final RRuleFrequency[] FREQUENCIES = RRuleFrequency.values();
+
+    private final LongAdder converted = new LongAdder();
+    private final LongAdder unsupported = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder[] frequencies = newAdders(FREQUENCIES.length);
+    private final LongAdder[] fieldExpressions = newAdders(FIELD_EXPRESSION_TYPES.length);
+    private final LogHistogram latencyNanos = new LogHistogram();
+    private final LogHistogram outputLength = new LogHistogram();
+
+    @Override
+    public void fieldExpression(CronFieldName cronFieldName, FieldExpression fieldExpression) {
+        this.fieldExpressions[fieldExpressionType(fieldExpression)].increment();
+    }
+
+    @Override
+    public void converted(long latencyNanos, RRuleFrequency frequency, int length) {
+        this.converted.increment();
+        this.frequencies[frequency.ordinal()].increment();
+        this.latencyNanos.record(latencyNanos);
+        if (length >= 0) {
+            this.outputLength.record(length);
+        }
+    }
+
+    @Override
+    public void unsupported(long latencyNanos, RRuleFrequency frequency) {
+        this.unsupported.increment();
+        this.frequencies[frequency.ordinal()].increment();
+        this.latencyNanos.record(latencyNanos);
+    }
+
+    @Override
+    public void failed(long latencyNanos) {
+        this.failed.increment();
+        this.latencyNanos.record(latencyNanos);
+    }
+
+    public ConversionMetricsSnapshot snapshot() {
+        long[] frequencyCounts = sums(this.frequencies);
+        long[] fieldExpressionCounts = sums(this.fieldExpressions);
+        return new ConversionMetricsSnapshot(this.converted.sum(), this.unsupported.sum(), this.failed.sum(), frequencyCounts,
+                fieldExpressionCounts, this.latencyNanos.snapshot(), this.outputLength.snapshot());
+    }
+
+    private static int fieldExpressionType(FieldExpression fieldExpression) {
+        if (fieldExpression instanceof Always) {
+            return 0;
+        } else if (fieldExpression instanceof And) {
+            return 1;
+        } else if (fieldExpression instanceof Between) {
+            return 2;
+        } else if (fieldExpression instanceof Every) {
+            return 3;
+        } else if (fieldExpression instanceof On) {
+            return 4;
+        } else if (fieldExpression instanceof QuestionMark) {
+            return 5;
+        }
+        return 6;
+    }
+
+    private static LongAdder[] newAdders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+}
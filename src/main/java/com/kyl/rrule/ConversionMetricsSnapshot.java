@@ -0,0 +1,91 @@
+package com.kyl.rrule;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of the ConversionMetricsRecorder counters at one point in time.
+ */
+public final class ConversionMetricsSnapshot {
+    private final long convertedCount;
+    private final long unsupportedCount;
+    private final long failedCount;
+    private final Map<RRuleFrequency, Long> frequencyCounts;
+    private final Map<String, Long> fieldExpressionCounts;
+    private final LogHistogram.Snapshot latencyNanos;
+    private final LogHistogram.Snapshot outputLength;
+
+    ConversionMetricsSnapshot(long convertedCount, long unsupportedCount, long failedCount, long[] frequencyCounts,
+                              long[] fieldExpressionCounts, LogHistogram.Snapshot latencyNanos, LogHistogram.Snapshot outputLength) {
+        this.convertedCount = convertedCount;
+        this.unsupportedCount = unsupportedCount;
+        this.failedCount = failedCount;
+
+        Map<RRuleFrequency, Long> frequencies = new EnumMap<>(RRuleFrequency.class);
+        for (RRuleFrequency frequency : RRuleFrequency.values()) {
+            frequencies.put(frequency, frequencyCounts[frequency.ordinal()]);
+        }
+        this.frequencyCounts = Collections.unmodifiableMap(frequencies);
+
+        Map<String, Long> fieldExpressions = new LinkedHashMap<>();
+        for (int i = 0; i < ConversionMetricsRecorder.FIELD_EXPRESSION_TYPES.length; i++) {
+            fieldExpressions.put(ConversionMetricsRecorder.FIELD_EXPRESSION_TYPES[i], fieldExpressionCounts[i]);
+        }
+        this.fieldExpressionCounts = Collections.unmodifiableMap(fieldExpressions);
+
+        this.latencyNanos = latencyNanos;
+        this.outputLength = outputLength;
+    }
+
+    public long getConvertedCount() {
+        return this.convertedCount;
+    }
+
+    /**
+     * @return count of conversions that returned null because rrule has no equivalent
+     */
+    public long getUnsupportedCount() {
+        return this.unsupportedCount;
+    }
+
+    public long getFailedCount() {
+        return this.failedCount;
+    }
+
+    /**
+     * @return count of converted and unsupported expressions per chosen frequency
+     */
+    public Map<RRuleFrequency, Long> getFrequencyCounts() {
+        return this.frequencyCounts;
+    }
+
+    /**
+     * @return count of field expressions per cron-utils expression type, e.g. "Between"
+     */
+    public Map<String, Long> getFieldExpressionCounts() {
+        return this.fieldExpressionCounts;
+    }
+
+    /**
+     * @return latency of all conversions in nanoseconds
+     */
+    public LogHistogram.Snapshot getLatencyNanos() {
+        return this.latencyNanos;
+    }
+
+    /**
+     * @return length of the produced rrule texts, when known
+     */
+    public LogHistogram.Snapshot getOutputLength() {
+        return this.outputLength;
+    }
+
+    @Override
+    public String toString() {
+        return "converted=" + this.convertedCount + " unsupported=" + this.unsupportedCount + " failed=" + this.failedCount
+                + " frequencies=" + this.frequencyCounts + " fieldExpressions=" + this.fieldExpressionCounts
+                + " latencyNanos[" + this.latencyNanos + "] outputLength[" + this.outputLength + "]";
+    }
+}
@@ -0,0 +1,274 @@
+package com.kyl.rrule;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.cronutils.parser.CronParser;
+
+/**
+ * Flow stage that converts CronRecords on an executor and publishes a ConvertedRecord per record to a single subscriber.
+ * Unsupported expressions and failures are published as UNSUPPORTED and FAILED outcomes, like in IncrementalConverter.
+ * <p>
+ * At most maxInFlight records are requested from upstream and not yet published, counting records being converted and results
+ * waiting for downstream demand, so a slow subscriber stops the upstream instead of filling a queue. Ordered results are published
+ * in the order the records arrived, a slow conversion then holds back the results after it. Unordered results are published as
+ * their conversions complete.
+ * <p>
+ * Completion and errors of the upstream are published after the results of the records received before them.
+ */
+public class ConversionProcessor implements Flow.Processor<CronRecord, ConvertedRecord> {
+    private final RRuleConverter converter;
+    private final CronParser cronParser;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final boolean ordered;
+
+    private final AtomicReferenceArray<ConvertedRecord> slots; // ordered results by sequence % maxInFlight
+    private final Queue<ConvertedRecord> completed; // unordered results
+    private final AtomicInteger drainCount = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super ConvertedRecord> downstream;
+    private volatile long received; // written by onNext only
+    private volatile long published; // written by drain only
+    private long requested; // written by drain only
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private volatile Throwable requestError; // invalid request of the subscriber
+    private boolean terminated;
+    private boolean subscribed; // guarded by this
+
+    /**
+     * @param converter converter for a single Cron object, must be thread safe
+     * @param cronParser parser of the cron expressions of the records
+     * @param executor executor the conversions run on
+     * @param maxInFlight maximum number of records requested from upstream and not yet published
+     * @param ordered true to publish results in the order of the records
+     */
+    public ConversionProcessor(RRuleConverter converter, CronParser cronParser, Executor executor, int maxInFlight, boolean ordered) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive but was " + maxInFlight);
+        }
+        this.converter = Objects.requireNonNull(converter, "converter must not be null");
+        this.cronParser = Objects.requireNonNull(cronParser, "cronParser must not be null");
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+        this.slots = ordered ? new AtomicReferenceArray<>(maxInFlight) : null;
+        this.completed = ordered ? null : new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ConvertedRecord> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber must not be null");
+        boolean first;
+        synchronized (this) {
+            first = !this.subscribed;
+            this.subscribed = true;
+        }
+        if (first) {
+            // signals to the subscriber start after onSubscribe returned
+            subscriber.onSubscribe(new Downstream());
+            this.downstream = subscriber;
+            this.drain();
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onError(new IllegalStateException("ConversionProcessor allows a single subscriber"));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription must not be null");
+        if (this.upstream != null || this.cancelled) {
+            subscription.cancel();
+            return;
+        }
+        this.upstream = subscription;
+        this.drain();
+    }
+
+    @Override
+    public void onNext(CronRecord record) {
+        Objects.requireNonNull(record, "record must not be null");
+        if (this.done) {
+            return;
+        }
+        long sequence = this.received;
+        if (sequence - this.published >= this.maxInFlight) {
+            // more records than requested
+            this.upstream.cancel();
+            this.onError(new IllegalStateException("upstream sent more than " + this.maxInFlight + " records in flight"));
+            return;
+        }
+        this.received = sequence + 1;
+        try {
+            this.executor.execute(() -> this.complete(sequence, new ConvertedRecord(record, this.convert(record))));
+        } catch (RuntimeException e) {
+            this.complete(sequence, new ConvertedRecord(record, ConversionResult.failed(e)));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "throwable must not be null");
+        if (this.done) {
+            return;
+        }
+        this.error = throwable;
+        this.done = true;
+        this.drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (this.done) {
+            return;
+        }
+        this.done = true;
+        this.drain();
+    }
+
+    private ConversionResult convert(CronRecord record) {
+        try {
+            return ConversionResult.of(this.converter.convert(this.cronParser.parse(record.getCronExpression()), record.getDTStart()));
+        } catch (RuntimeException e) {
+            return ConversionResult.failed(e);
+        }
+    }
+
+    private void complete(long sequence, ConvertedRecord result) {
+        if (this.ordered) {
+            this.slots.set((int) (sequence % this.maxInFlight), result);
+        } else {
+            this.completed.offer(result);
+        }
+        this.drain();
+    }
+
+    /**
+     * publish results as far as demand allows, request upstream up to maxInFlight and publish the terminal signal. runs on one
+     * thread at a time, a call while another thread drains makes that thread loop once more.
+     */
+    private void drain() {
+        if (this.drainCount.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super ConvertedRecord> subscriber = this.downstream;
+            Throwable invalidRequest = this.requestError;
+            if (invalidRequest != null && subscriber != null && !this.terminated) {
+                this.terminated = true;
+                this.clear();
+                subscriber.onError(invalidRequest);
+            } else if (this.cancelled) {
+                this.clear();
+            } else {
+                if (subscriber != null && !this.terminated) {
+                    this.publish(subscriber);
+                }
+                Flow.Subscription subscription = this.upstream;
+                if (subscription != null && !this.done && !this.cancelled) {
+                    long credit = this.maxInFlight - (this.requested - this.published);
+                    if (credit > 0) {
+                        this.requested += credit;
+                        subscription.request(credit);
+                    }
+                }
+            }
+            missed = this.drainCount.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void publish(Flow.Subscriber<? super ConvertedRecord> subscriber) {
+        long requestedDemand = this.demand.get();
+        long count = 0;
+        while (count != requestedDemand && !this.cancelled) {
+            ConvertedRecord result = this.poll();
+            if (result == null) {
+                break;
+            }
+            this.published++;
+            count++;
+            subscriber.onNext(result);
+        }
+        if (count > 0 && requestedDemand != Long.MAX_VALUE) {
+            this.demand.addAndGet(-count);
+        }
+        if (this.done && !this.cancelled && this.published == this.received) {
+            this.terminated = true;
+            Throwable throwable = this.error;
+            if (throwable != null) {
+                subscriber.onError(throwable);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+    }
+
+    private ConvertedRecord poll() {
+        if (!this.ordered) {
+            return this.completed.poll();
+        }
+        int slot = (int) (this.published % this.maxInFlight);
+        ConvertedRecord result = this.slots.get(slot);
+        if (result != null) {
+            this.slots.set(slot, null);
+        }
+        return result;
+    }
+
+    private void clear() {
+        if (this.ordered) {
+            for (int slot = 0; slot < this.maxInFlight; slot++) {
+                this.slots.set(slot, null);
+            }
+        } else {
+            this.completed.clear();
+        }
+    }
+
+    private final class Downstream implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            ConversionProcessor processor = ConversionProcessor.this;
+            if (n <= 0) {
+                processor.requestError = new IllegalArgumentException("request must be positive but was " + n);
+                this.cancel();
+                return;
+            }
+            processor.demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            processor.drain();
+        }
+
+        @Override
+        public void cancel() {
+            ConversionProcessor processor = ConversionProcessor.this;
+            if (processor.cancelled) {
+                return;
+            }
+            processor.cancelled = true;
+            Flow.Subscription subscription = processor.upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            processor.drain();
+        }
+    }
+}
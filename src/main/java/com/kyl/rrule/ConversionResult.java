@@ -0,0 +1,93 @@
+package com.kyl.rrule;
+
+import java.util.Objects;
+
+/**
+ * Outcome of converting a single cron expression. Unsupported cron expressions and failures are reported as outcomes instead of
+ * 'null' values or exceptions, so that one bad expression does not abort a bulk conversion.
+ */
+public final class ConversionResult {
+
+    public enum Status {
+        CONVERTED, UNSUPPORTED, FAILED
+    }
+
+    private static final ConversionResult UNSUPPORTED = new ConversionResult(Status.UNSUPPORTED, null, null);
+
+    private final Status status;
+    private final String rrule;
+    private final RuntimeException error;
+
+    private ConversionResult(Status status, String rrule, RuntimeException error) {
+        this.status = status;
+        this.rrule = rrule;
+        this.error = error;
+    }
+
+    /**
+     * @param rrule value returned by RRuleConverter.convert
+     * @return CONVERTED result for a rrule string, UNSUPPORTED result for 'null'
+     */
+    public static ConversionResult of(String rrule) {
+        return rrule == null ? UNSUPPORTED : new ConversionResult(Status.CONVERTED, rrule, null);
+    }
+
+    public static ConversionResult unsupported() {
+        return UNSUPPORTED;
+    }
+
+    public static ConversionResult failed(RuntimeException error) {
+        return new ConversionResult(Status.FAILED, null, Objects.requireNonNull(error, "error must not be null"));
+    }
+
+    public Status getStatus() {
+        return this.status;
+    }
+
+    public boolean isConverted() {
+        return this.status == Status.CONVERTED;
+    }
+
+    /**
+     * @return rrule string. 'null' unless status is CONVERTED
+     */
+    public String getRRule() {
+        return this.rrule;
+    }
+
+    /**
+     * @return exception thrown by the conversion. 'null' unless status is FAILED
+     */
+    public RuntimeException getError() {
+        return this.error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConversionResult)) {
+            return false;
+        }
+        ConversionResult other = (ConversionResult) o;
+        return this.status == other.status && Objects.equals(this.rrule, other.rrule) && Objects.equals(this.error, other.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.status, this.rrule, this.error);
+    }
+
+    @Override
+    public String toString() {
+        switch (this.status) {
+            case CONVERTED:
+                return this.rrule;
+            case FAILED:
+                return this.status + ": " + this.error.getMessage();
+            default:
+                return this.status.toString();
+        }
+    }
+}
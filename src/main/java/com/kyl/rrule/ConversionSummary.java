@@ -0,0 +1,40 @@
+package com.kyl.rrule;
+
+/**
+ * Counts of conversion outcomes of a bulk conversion
+ */
+public final class ConversionSummary {
+    private final long converted;
+    private final long unsupported;
+    private final long failed;
+
+    public ConversionSummary(long converted, long unsupported, long failed) {
+        this.converted = converted;
+        this.unsupported = unsupported;
+        this.failed = failed;
+    }
+
+    public long getConverted() {
+        return this.converted;
+    }
+
+    public long getUnsupported() {
+        return this.unsupported;
+    }
+
+    public long getFailed() {
+        return this.failed;
+    }
+
+    /**
+     * @return number of converted records, regardless of outcome
+     */
+    public long getTotal() {
+        return this.converted + this.unsupported + this.failed;
+    }
+
+    @Override
+    public String toString() {
+        return "converted=" + this.converted + ", unsupported=" + this.unsupported + ", failed=" + this.failed;
+    }
+}
@@ -0,0 +1,46 @@
+package com.kyl.rrule;
+
+import java.util.Objects;
+
+/**
+ * A CronRecord with the outcome of its conversion
+ */
+public final class ConvertedRecord {
+    private final CronRecord record;
+    private final ConversionResult result;
+
+    public ConvertedRecord(CronRecord record, ConversionResult result) {
+        this.record = Objects.requireNonNull(record, "record must not be null");
+        this.result = Objects.requireNonNull(result, "result must not be null");
+    }
+
+    public CronRecord getRecord() {
+        return this.record;
+    }
+
+    public ConversionResult getResult() {
+        return this.result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConvertedRecord)) {
+            return false;
+        }
+        ConvertedRecord other = (ConvertedRecord) o;
+        return this.record.equals(other.record) && this.result.equals(other.result);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.record, this.result);
+    }
+
+    @Override
+    public String toString() {
+        return this.record.getId() + "," + this.result;
+    }
+}
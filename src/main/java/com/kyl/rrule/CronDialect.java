@@ -0,0 +1,111 @@
+package com.kyl.rrule;
+
+import com.cronutils.model.CronType;
+import com.cronutils.model.definition.CronDefinition;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.definition.DayOfWeekFieldDefinition;
+import com.cronutils.parser.CronParser;
+
+/**
+ * cron-utils CronType definitions the converters support. Every dialect keeps a table from its day of week values to the Quartz
+ * values 1=SU..7=SA used by CompiledSchedule, so Unix '0' and '7', Spring '7' and cron4j '0' all compile to SU without rewriting
+ * the expression.
+ * <p>
+ * The definition and the table of a dialect are built on first use, so using one dialect does not build the cron-utils
+ * definitions of the others.
+ */
+public enum CronDialect {
+    QUARTZ(CronType.QUARTZ), UNIX(CronType.UNIX), SPRING(CronType.SPRING), CRON4J(CronType.CRON4J);
+
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int QUARTZ_MONDAY = 2;
+    private static final int MAX_WEEKDAY_VALUE = 7;
+
+    private final CronType cronType;
+    private volatile Definition definition;
+
+    CronDialect(CronType cronType) {
+        this.cronType = cronType;
+    }
+
+    public CronType getCronType() {
+        return this.cronType;
+    }
+
+    public CronDefinition getCronDefinition() {
+        return this.definition().cronDefinition;
+    }
+
+    /**
+     * @return a new parser for cron expressions of this dialect
+     */
+    public CronParser newParser() {
+        return new CronParser(this.definition().cronDefinition);
+    }
+
+    /**
+     * @return false if the dialect has no seconds field. its expressions fire at second 0.
+     */
+    public boolean hasSeconds() {
+        return this.definition().seconds;
+    }
+
+    /**
+     * @return true if an expression with both day of month and day of week fires when both match, false if it fires when either
+     * matches
+     */
+    public boolean isMatchDayOfWeekAndDayOfMonth() {
+        return this.definition().cronDefinition.isMatchDayOfWeekAndDayOfMonth();
+    }
+
+    /**
+     * @param value day of week value of this dialect, 0 to 7
+     * @return Quartz day of week value, 1=SU..7=SA
+     * @throws IllegalArgumentException if the value is not a day of week of this dialect
+     */
+    public int toQuartzWeekday(int value) {
+        int[] quartzWeekdays = this.definition().quartzWeekdays;
+        if (value < 0 || value >= quartzWeekdays.length) {
+            throw new IllegalArgumentException(value + " is not a day of week of " + this);
+        }
+        return quartzWeekdays[value];
+    }
+
+    /**
+     * threads racing on the first call may each build a definition, they are equal
+     */
+    private Definition definition() {
+        Definition definition = this.definition;
+        if (definition == null) {
+            definition = new Definition(CronDefinitionBuilder.instanceDefinitionFor(this.cronType));
+            this.definition = definition;
+        }
+        return definition;
+    }
+
+    public static CronDialect of(CronType cronType) {
+        for (CronDialect dialect : values()) {
+            if (dialect.cronType == cronType) {
+                return dialect;
+            }
+        }
+        throw new IllegalArgumentException(cronType + " is not supported");
+    }
+
+    private static final class Definition {
+        private final CronDefinition cronDefinition;
+        private final int[] quartzWeekdays = new int[MAX_WEEKDAY_VALUE + 1];
+        private final boolean seconds;
+
+        Definition(CronDefinition cronDefinition) {
+            this.cronDefinition = cronDefinition;
+            this.seconds = cronDefinition.containsFieldDefinition(CronFieldName.SECOND);
+            int monday = ((DayOfWeekFieldDefinition) cronDefinition.getFieldDefinition(CronFieldName.DAY_OF_WEEK))
+                    .getMondayDoWValue().getMondayDoWValue();
+            for (int value = 0; value <= MAX_WEEKDAY_VALUE; value++) {
+                this.quartzWeekdays[value] = (Math.floorMod(value - monday, DAYS_PER_WEEK) + QUARTZ_MONDAY - 1) % DAYS_PER_WEEK + 1;
+            }
+        }
+    }
+}
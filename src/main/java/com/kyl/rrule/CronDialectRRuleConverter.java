@@ -0,0 +1,106 @@
+package com.kyl.rrule;
+
+import java.util.Map;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.field.CronField;
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.expression.Always;
+import com.cronutils.model.field.expression.FieldExpression;
+import com.cronutils.model.field.expression.QuestionMark;
+
+/**
+ * Converts Cron objects of any CronDialect directly, without mapping them to Quartz first. The result is the same as converting
+ * the expression mapped by cron-utils' CronMapper with QuartzCronRRuleConverter:
+ * <ul>
+ *     <li>a dialect without seconds fires at second 0</li>
+ *     <li>day of week values are mapped with the weekday table of the dialect, e.g. Unix '1-5' is 'MO,TU,WE,TH,FR'</li>
+ *     <li>when neither day field is '?', a '*' day of week, or else a '*' day of month, is treated as '?'</li>
+ * </ul>
+ * Unlike CronMapper, an Every day of week keeps the values of the dialect, Unix '*&#47;2' is 'SU,TU,TH,SA'. An expression that
+ * restricts both day fields is unsupported if the dialect fires when either matches, since rrule only fires when both match.
+ */
+public class CronDialectRRuleConverter extends QuartzCronRRuleConverter {
+    private final CronDialect dialect;
+
+    public CronDialectRRuleConverter(CronDialect dialect) {
+        this(dialect, ConversionMetrics.NOOP);
+    }
+
+    /**
+     * @param dialect dialect the converted Cron objects were parsed with
+     * @param metrics receives latency, outcome and shape of every conversion, ConversionMetrics.NOOP to measure nothing
+     */
+    public CronDialectRRuleConverter(CronDialect dialect, ConversionMetrics metrics) {
+        super(metrics);
+        if (dialect == null) {
+            throw new IllegalArgumentException("dialect must not be null");
+        }
+        this.dialect = dialect;
+    }
+
+    public CronDialect getDialect() {
+        return this.dialect;
+    }
+
+    /**
+     * Find equivalent rrule frequency with the day fields normalized like the Quartz expression of CronMapper
+     * @param cronFieldNameCronFieldMap cron field name to cron field map
+     * @return equivalent rrule frequency
+     */
+    @Override
+    protected RRuleFrequency findFrequency(Map<CronFieldName, CronField> cronFieldNameCronFieldMap) {
+        int frequencyFields = 0;
+        for (CronField field : cronFieldNameCronFieldMap.values()) {
+            if (this.isFrequency(field.getExpression())) {
+                frequencyFields |= 1 << field.getField().ordinal();
+            }
+        }
+        FieldExpression dayOfMonth = expression(cronFieldNameCronFieldMap, CronFieldName.DAY_OF_MONTH);
+        FieldExpression dayOfWeek = expression(cronFieldNameCronFieldMap, CronFieldName.DAY_OF_WEEK);
+        if (!(dayOfMonth instanceof QuestionMark) && !(dayOfWeek instanceof QuestionMark)) {
+            if (dayOfWeek instanceof Always) {
+                frequencyFields &= ~(1 << CronFieldName.DAY_OF_WEEK.ordinal());
+            } else if (dayOfMonth instanceof Always) {
+                frequencyFields &= ~(1 << CronFieldName.DAY_OF_MONTH.ordinal());
+            }
+        }
+        return findFrequency(frequencyFields);
+    }
+
+    /**
+     * compile a Cron object of the dialect into its rrule parts without rendering rrule text
+     * @param cron a valid Cron object parsed with the definition of the dialect
+     * @return compiled schedule. check CompiledSchedule.isUnsupported before rendering it
+     */
+    @Override
+    public CompiledSchedule compile(Cron cron) {
+        Map<CronFieldName, CronField> cronFieldNameCronFieldMap = cron.retrieveFieldsAsMap();
+
+        CompiledSchedule schedule = new CompiledSchedule(this.findFrequency(cronFieldNameCronFieldMap));
+        if (!this.dialect.hasSeconds()) {
+            schedule.add(RRuleName.SECOND, 0);
+        }
+        this.compileFields(cronFieldNameCronFieldMap.values(), this.dialect, schedule);
+        if (!this.dialect.isMatchDayOfWeekAndDayOfMonth()
+                && isRestricted(expression(cronFieldNameCronFieldMap, CronFieldName.DAY_OF_MONTH))
+                && isRestricted(expression(cronFieldNameCronFieldMap, CronFieldName.DAY_OF_WEEK))) {
+            schedule.setUnsupported();
+        }
+        return schedule;
+    }
+
+    @Override
+    String options() {
+        return "dialect=" + this.dialect + ", " + super.options();
+    }
+
+    private static FieldExpression expression(Map<CronFieldName, CronField> cronFieldNameCronFieldMap, CronFieldName cronFieldName) {
+        CronField field = cronFieldNameCronFieldMap.get(cronFieldName);
+        return field == null ? FieldExpression.always() : field.getExpression();
+    }
+
+    private static boolean isRestricted(FieldExpression fieldExpression) {
+        return !(fieldExpression instanceof Always) && !(fieldExpression instanceof QuestionMark);
+    }
+}
@@ -1,18 +1,13 @@
 package com.kyl.rrule;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.ListUtils;
-import org.apache.commons.collections4.MapUtils;
-
 import com.cronutils.model.field.CronFieldName;
 import com.cronutils.model.field.constraint.FieldConstraints;
 import com.cronutils.model.field.expression.Always;
@@ -33,75 +28,78 @@ public class CronExpressionRRulePartConverter implements RRulePartConverter {
     private static final String RRULE_WEDNESDAY = "WE";
     private static final String RRULE_THURSDAY = "TH";
     private static final String RRULE_FRIDAY = "FR";
-    private static final Map<Integer, String> RRULE_DAY_OF_WEEK_MAPPING = MapUtils.unmodifiableMap(new HashMap<>(){{
-        put(1, RRULE_SUNDAY);
-        put(2, RRULE_MONDAY);
-        put(3, RRULE_TUESDAY);
-        put(4, RRULE_WEDNESDAY);
-        put(5, RRULE_THURSDAY);
-        put(6, RRULE_FRIDAY);
-        put(7, RRULE_SATURDAY);
-    }});
-
-    private static final List<String> RRULE_WEEKDAYS = ListUtils.unmodifiableList(new LinkedList<>() {{
-        add(RRULE_MONDAY);
-        add(RRULE_TUESDAY);
-        add(RRULE_WEDNESDAY);
-        add(RRULE_THURSDAY);
-        add(RRULE_FRIDAY);
-    }});
-    private static final Map<CronFieldName, RRuleName> CRON_RRULE_MAPPING = MapUtils.unmodifiableMap(new HashMap<>(){{
-        put(CronFieldName.SECOND, RRuleName.SECOND);
-        put(CronFieldName.MINUTE, RRuleName.MINUTE);
-        put(CronFieldName.HOUR, RRuleName.HOUR);
-        put(CronFieldName.DAY_OF_MONTH, RRuleName.MONTHDAY);
-        put(CronFieldName.MONTH, RRuleName.MONTH);
-        put(CronFieldName.DAY_OF_WEEK, RRuleName.WEEKDAY);
-        put(CronFieldName.DAY_OF_YEAR, RRuleName.YEARDAY);
+    // Quartz day of week value to rrule day, 1=SU..7=SA
+    private static final String[] RRULE_DAY_OF_WEEK_MAPPING = {null, RRULE_SUNDAY, RRULE_MONDAY, RRULE_TUESDAY, RRULE_WEDNESDAY,
+            RRULE_THURSDAY, RRULE_FRIDAY, RRULE_SATURDAY};
+    private static final String RRULE_WEEKDAYS = RRULE_MONDAY + "," + RRULE_TUESDAY + "," + RRULE_WEDNESDAY + ","
+            + RRULE_THURSDAY + "," + RRULE_FRIDAY;
+    private static final Map<CronFieldName, RRuleName> CRON_RRULE_MAPPING = new EnumMap<>(CronFieldName.class);
+
+    static {
+        CRON_RRULE_MAPPING.put(CronFieldName.SECOND, RRuleName.SECOND);
+        CRON_RRULE_MAPPING.put(CronFieldName.MINUTE, RRuleName.MINUTE);
+        CRON_RRULE_MAPPING.put(CronFieldName.HOUR, RRuleName.HOUR);
+        CRON_RRULE_MAPPING.put(CronFieldName.DAY_OF_MONTH, RRuleName.MONTHDAY);
+        CRON_RRULE_MAPPING.put(CronFieldName.MONTH, RRuleName.MONTH);
+        CRON_RRULE_MAPPING.put(CronFieldName.DAY_OF_WEEK, RRuleName.WEEKDAY);
+        CRON_RRULE_MAPPING.put(CronFieldName.DAY_OF_YEAR, RRuleName.YEARDAY);
         //no YEAR support in QUARTZ cron and rrule
-    }});
+    }
+
     private final CronFieldName cronFieldName;
     private final RRuleName rruleName;
     private final FieldConstraints fieldConstraints;
+    private final CronDialect dialect;
 
     private final Map<RRuleName, List<String>> rruleParts;
 
     public CronExpressionRRulePartConverter(CronFieldName cronFieldName, FieldConstraints fieldConstraints) {
+        this(cronFieldName, fieldConstraints, CronDialect.QUARTZ);
+    }
+
+    /**
+     * @param cronFieldName name of the visited cron field
+     * @param fieldConstraints constraints of the visited cron field
+     * @param dialect dialect of the cron expression, selects the day of week numbering
+     */
+    public CronExpressionRRulePartConverter(CronFieldName cronFieldName, FieldConstraints fieldConstraints, CronDialect dialect) {
         this.cronFieldName = cronFieldName;
         this.rruleName = CRON_RRULE_MAPPING.get(this.cronFieldName);
         this.fieldConstraints = fieldConstraints;
-        this.rruleParts = new HashMap<>();
+        this.dialect = dialect;
+        this.rruleParts = new EnumMap<>(RRuleName.class);
     }
 
     protected void put(RRuleName rruleName, String value) {
-        this.rruleParts.compute(rruleName, (k, v) -> {
-            if (CollectionUtils.isEmpty(v) && value == null) {
-                return new ArrayList<>();
-            } else if (CollectionUtils.isEmpty(v) && value != null) {
-                return new ArrayList<>() {{
-                    add(value);
-                }};
-            } else {
-                List<String> l = new ArrayList<>(v);
-                l.add(value);
-                return l;
-            }
-        });
+        List<String> values = this.rruleParts.computeIfAbsent(rruleName, k -> new ArrayList<>());
+        if (value != null) {
+            values.add(value);
+        }
     }
 
     /**
-     * Day of week in cron and rrule have the same value, but string values have different length.
+     * Day of week in Quartz cron and rrule have the same value, but string values have different length. Day of week values of
+     * other dialects are mapped to the Quartz value first, e.g. Unix 0 and 7 are both 'SU'.
      * @param rRuleName rrule name
      * @return if rrule name is 'BYDAY' RRUlE_DAY_OF_WEEK_MAPPING is used. Otherwise, String::valueOf is used.
      */
     protected Function<Integer, String> getMappingFunction(RRuleName rRuleName) {
-        if (rRuleName == RRuleName.WEEKDAY) {
-            return RRULE_DAY_OF_WEEK_MAPPING::get;
+        if (rRuleName == RRuleName.WEEKDAY && this.dialect == CronDialect.QUARTZ) {
+            return CronExpressionRRulePartConverter::toRRuleDayOfWeek;
+        } else if (rRuleName == RRuleName.WEEKDAY) {
+            return value -> toRRuleDayOfWeek(this.dialect.toQuartzWeekday(value));
         } else {
             return String::valueOf;
         }
     }
 
+    /**
+     * @return rrule day of a Quartz day of week value, null for values outside 1..7 like a missing map entry
+     */
+    private static String toRRuleDayOfWeek(Integer value) {
+        return value != null && value > 0 && value < RRULE_DAY_OF_WEEK_MAPPING.length ? RRULE_DAY_OF_WEEK_MAPPING[value] : null;
+    }
+
     /**
      * always is converted to nothing in rrule
      * @param always - Always instance, never null
@@ -189,8 +187,8 @@ public class CronExpressionRRulePartConverter implements RRulePartConverter {
         switch (on.getSpecialChar().getValue()) {
             case L:
                 if (CronFieldName.DAY_OF_MONTH == this.cronFieldName) {
-                    //cron month day
-                    this.put(this.rruleName, String.valueOf(-nth));
+                    //cron month day, 'L' alone has no offset and is the last day of the month
+                    this.put(this.rruleName, String.valueOf(nth > 0 ? -nth : -1));
                 } else if (CronFieldName.DAY_OF_WEEK == this.cronFieldName) {
                     //last xxx day of the week
                     String dayOfWeek = this.getMappingFunction(this.rruleName).apply(time);
@@ -206,8 +204,7 @@ public class CronExpressionRRulePartConverter implements RRulePartConverter {
                 this.put(this.rruleName, nth + dayOfWeek);
                 break;
             case LW: // cron day of month
-                String weekday = String.join(",", RRULE_WEEKDAYS);
-                this.put(RRuleName.WEEKDAY, weekday);
+                this.put(RRuleName.WEEKDAY, RRULE_WEEKDAYS);
                 this.put(RRuleName.BYSETPOS, String.valueOf(-1));
                 break;
             default:
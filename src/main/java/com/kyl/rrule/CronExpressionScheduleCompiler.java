@@ -0,0 +1,220 @@
+package com.kyl.rrule;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.constraint.FieldConstraints;
+import com.cronutils.model.field.expression.Always;
+import com.cronutils.model.field.expression.And;
+import com.cronutils.model.field.expression.Between;
+import com.cronutils.model.field.expression.Every;
+import com.cronutils.model.field.expression.FieldExpression;
+import com.cronutils.model.field.expression.On;
+import com.cronutils.model.field.expression.QuestionMark;
+import com.cronutils.model.field.expression.visitor.FieldExpressionVisitor;
+
+/**
+ * Visitor that compiles the FieldExpression of one cron field into a CompiledSchedule. It follows the same conversion rules as
+ * CronExpressionRRulePartConverter, but sets bits in the schedule instead of collecting strings. Day of week values are mapped
+ * to Quartz values with the CronDialect of the expression.
+ */
+public class CronExpressionScheduleCompiler implements FieldExpressionVisitor {
+    private static final int RRULE_WEEKDAYS_MONDAY = 2;
+    private static final int RRULE_WEEKDAYS_FRIDAY = 6;
+    private static final int QUARTZ_SATURDAY = 7;
+
+    private static final Map<CronFieldName, RRuleName> CRON_RRULE_MAPPING = new EnumMap<>(CronFieldName.class);
+
+    static {
+        CRON_RRULE_MAPPING.put(CronFieldName.SECOND, RRuleName.SECOND);
+        CRON_RRULE_MAPPING.put(CronFieldName.MINUTE, RRuleName.MINUTE);
+        CRON_RRULE_MAPPING.put(CronFieldName.HOUR, RRuleName.HOUR);
+        CRON_RRULE_MAPPING.put(CronFieldName.DAY_OF_MONTH, RRuleName.MONTHDAY);
+        CRON_RRULE_MAPPING.put(CronFieldName.MONTH, RRuleName.MONTH);
+        CRON_RRULE_MAPPING.put(CronFieldName.DAY_OF_WEEK, RRuleName.WEEKDAY);
+        CRON_RRULE_MAPPING.put(CronFieldName.DAY_OF_YEAR, RRuleName.YEARDAY);
+        //no YEAR support in QUARTZ cron and rrule
+    }
+
+    private final CronFieldName cronFieldName;
+    private final RRuleName rruleName;
+    private final FieldConstraints fieldConstraints;
+    private final CompiledSchedule schedule;
+    private final CronDialect dialect;
+
+    /**
+     * @param cronFieldName name of the visited cron field
+     * @param fieldConstraints constraints of the visited cron field
+     * @param schedule schedule the field is compiled into. all fields of a cron expression are compiled into the same schedule.
+     */
+    public CronExpressionScheduleCompiler(CronFieldName cronFieldName, FieldConstraints fieldConstraints, CompiledSchedule schedule) {
+        this(cronFieldName, fieldConstraints, schedule, CronDialect.QUARTZ);
+    }
+
+    /**
+     * @param cronFieldName name of the visited cron field
+     * @param fieldConstraints constraints of the visited cron field
+     * @param schedule schedule the field is compiled into. all fields of a cron expression are compiled into the same schedule.
+     * @param dialect dialect of the cron expression
+     */
+    public CronExpressionScheduleCompiler(CronFieldName cronFieldName, FieldConstraints fieldConstraints, CompiledSchedule schedule,
+                                          CronDialect dialect) {
+        this.cronFieldName = cronFieldName;
+        this.rruleName = CRON_RRULE_MAPPING.get(cronFieldName);
+        this.fieldConstraints = fieldConstraints;
+        this.schedule = schedule;
+        this.dialect = dialect;
+    }
+
+    private void add(int value) {
+        if (this.rruleName == RRuleName.WEEKDAY) {
+            this.schedule.add(this.rruleName, this.dialect.toQuartzWeekday(value));
+        } else if (this.rruleName != null) {
+            this.schedule.add(this.rruleName, value);
+        }
+    }
+
+    /**
+     * a range that ends before it starts wraps past the end of the field, e.g. hours '22-2' are 22, 23, 0, 1 and 2
+     */
+    private void addRange(int from, int to) {
+        if (from > to) {
+            this.addRange(from, this.fieldConstraints.getEndRange());
+            this.addRange(this.fieldConstraints.getStartRange(), to);
+            return;
+        }
+        for (int i = from; i <= to; i++) {
+            this.add(i);
+        }
+    }
+
+    /**
+     * always is converted to nothing in rrule
+     * @param always - Always instance, never null
+     * @return the same Always instance
+     */
+    @Override
+    public FieldExpression visit(Always always) {
+        // intentionally left empty
+        return always;
+    }
+
+    /**
+     * visit all FieldExpression within the specified And instance
+     * @param and - And instance, never null
+     * @return the same And instance
+     */
+    @Override
+    public FieldExpression visit(And and) {
+        for (FieldExpression expression : and.getExpressions()) {
+            expression.accept(this);
+        }
+        return and;
+    }
+
+    /**
+     * Between sets every value of the range, wrapping past the end of the field if it ends before it starts. String values are
+     * mapped to int with the FieldConstraints.
+     * @param between - Between instance, never null
+     * @return the same Between instance
+     */
+    @Override
+    public FieldExpression visit(Between between) {
+        Object fromValue = between.getFrom().getValue();
+        Object toValue = between.getTo().getValue();
+        int from, to;
+
+        if (fromValue instanceof Integer && toValue instanceof Integer) {
+            from = (Integer) fromValue;
+            to = (Integer) toValue;
+        } else if (fromValue instanceof String && toValue instanceof String) {
+            from = this.fieldConstraints.getStringMappingValue(fromValue.toString());
+            to = this.fieldConstraints.getStringMappingValue(toValue.toString());
+        } else {
+            throw new RuntimeException(fromValue.getClass().getCanonicalName() + " is not supported");
+        }
+
+        this.addRange(from, to);
+        return between;
+    }
+
+    /**
+     * Every instance for day of month is converted to 'INTERVAL'. For other fields, every value of the field range that is a
+     * multiple of the period is set.
+     * @param every - Every instance, never null
+     * @return the same Every instance
+     */
+    @Override
+    public FieldExpression visit(Every every) {
+        int period = every.getPeriod().getValue();
+        if (period != 1 && CronFieldName.DAY_OF_MONTH == this.cronFieldName) {
+            this.schedule.setInterval(period);
+        } else if (period != 1) {
+            if (CronFieldName.MONTH == this.cronFieldName) {
+                this.schedule.setInexactDates(); // the start of the step is ignored
+            }
+            int start = this.fieldConstraints.getStartRange();
+            for (int i = start + Math.floorMod(-start, period); i <= this.fieldConstraints.getEndRange(); i += period) {
+                this.add(i);
+            }
+        } else {
+            // period == 1 is equivalent to always
+        }
+        return every;
+    }
+
+    /**
+     * On instance sets a single value. Special characters are handled here.
+     * <a href="http://www.quartz-scheduler.org/documentation/quartz-2.3.0/tutorials/crontrigger.html#special-characters">cron special characters</a>
+     * @param on - On instance, never null
+     * @return the same On instance
+     */
+    @Override
+    public FieldExpression visit(On on) {
+        int time = on.getTime().getValue();
+        int nth = on.getNth().getValue();
+        switch (on.getSpecialChar().getValue()) {
+            case L:
+                if (CronFieldName.DAY_OF_MONTH == this.cronFieldName) {
+                    // 'L' alone has no offset and is the last day of the month
+                    this.add(nth > 0 ? -nth : -1);
+                } else if (CronFieldName.DAY_OF_WEEK == this.cronFieldName && time < 0) {
+                    // 'L' alone is the last day of the week, every saturday
+                    this.schedule.add(RRuleName.WEEKDAY, QUARTZ_SATURDAY);
+                } else if (CronFieldName.DAY_OF_WEEK == this.cronFieldName) {
+                    //last xxx day of the week
+                    this.add(time);
+                    this.schedule.setLastOfSet();
+                }
+                break;
+            case W: // cron day of month, expanded to 'RDATE' by NearestWeekdayExpander if enabled
+                this.schedule.addNearestWeekday(time);
+                break;
+            case HASH: // cron day of week
+                this.schedule.addNthWeekday(nth, this.dialect.toQuartzWeekday(time));
+                break;
+            case LW: // cron day of month
+                for (int weekday = RRULE_WEEKDAYS_MONDAY; weekday <= RRULE_WEEKDAYS_FRIDAY; weekday++) {
+                    this.schedule.add(RRuleName.WEEKDAY, weekday);
+                }
+                this.schedule.setLastOfSet();
+                break;
+            default:
+                this.add(time);
+                break;
+        }
+        return on;
+    }
+
+    /**
+     * QuestionMark converts to nothing in rrule
+     * @param questionMark - QuestionMark instance, never null
+     * @return the same QuestionMark instance
+     */
+    @Override
+    public FieldExpression visit(QuestionMark questionMark) {
+        // intentionally left empty
+        return questionMark;
+    }
+}
@@ -0,0 +1,41 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A cron expression of a catalog, identified by id, with the 'DTSTART' of its rrule
+ */
+public final class CronRecord {
+    private final String id;
+    private final String cronExpression;
+    private final LocalDateTime dtStart;
+
+    /**
+     * @param id unique id of the record
+     * @param cronExpression cron expression text
+     * @param dtStart 'DTSTART' of the rrule, may be null
+     */
+    public CronRecord(String id, String cronExpression, LocalDateTime dtStart) {
+        this.id = Objects.requireNonNull(id, "id must not be null");
+        this.cronExpression = Objects.requireNonNull(cronExpression, "cronExpression must not be null");
+        this.dtStart = dtStart;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public String getCronExpression() {
+        return this.cronExpression;
+    }
+
+    public LocalDateTime getDTStart() {
+        return this.dtStart;
+    }
+
+    @Override
+    public String toString() {
+        return this.id + "," + this.cronExpression;
+    }
+}
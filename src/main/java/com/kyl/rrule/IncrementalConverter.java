@@ -0,0 +1,229 @@
+package com.kyl.rrule;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Converts a catalog of CronRecords repeatedly and reports only what changed since the previous sync. A 64-bit fingerprint of the
+ * cron expression and 'DTSTART' is kept per id, so only new and changed records are parsed and converted. A fingerprint of the
+ * result is kept as well, so a changed expression with the same rrule, e.g. 'MON-FRI' to '2-6', is not reported.
+ * <p>
+ * The fingerprints can be saved to a file and loaded after a restart, so a restart does not reconvert the whole catalog. The file
+ * keeps a fingerprint of the converter's toString as well, so state saved by a differently configured converter, e.g. with
+ * minimize on or another dialect, loads as empty. A converter without a toString of its options reconverts after every restart.
+ * The instance is not thread safe.
+ */
+public class IncrementalConverter {
+    private static final int MAGIC = 0x52524943; // "RRIC"
+    private static final int VERSION = 2;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long NO_DTSTART = 0x9E3779B97F4A7C15L;
+
+    private final RRuleConverter converter;
+    private final CronParser cronParser;
+    private final long configuration;
+    private final Map<String, Fingerprint> fingerprints = new HashMap<>();
+    private int generation;
+
+    public IncrementalConverter() {
+        this(new QuartzCronRRuleConverter(), new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ)));
+    }
+
+    /**
+     * @param converter converter for a single Cron object
+     * @param cronParser parser for the cron expressions
+     */
+    public IncrementalConverter(RRuleConverter converter, CronParser cronParser) {
+        this.converter = Objects.requireNonNull(converter, "converter must not be null");
+        this.cronParser = Objects.requireNonNull(cronParser, "cronParser must not be null");
+        this.configuration = fingerprint(converter.toString(), VERSION);
+    }
+
+    /**
+     * convert the new and changed records of a complete catalog and report the changed results. ids of the previous sync that
+     * are missing are reported as REMOVED after all other changes.
+     * @param records every record of the catalog, ids must be unique
+     * @param changes receives ADDED, CHANGED and REMOVED changes
+     * @return outcomes of the conversions that ran, i.e. of new and changed records
+     * @throws IllegalArgumentException if an id is not unique. the records before it are already synced.
+     */
+    public ConversionSummary sync(Iterable<CronRecord> records, Consumer<RRuleChange> changes) {
+        int currentGeneration = ++this.generation;
+        long[] counts = new long[ConversionResult.Status.values().length];
+
+        for (CronRecord record : records) {
+            long input = fingerprint(record.getCronExpression(), record.getDTStart());
+            Fingerprint fingerprint = this.fingerprints.get(record.getId());
+            if (fingerprint != null && fingerprint.generation == currentGeneration) {
+                throw new IllegalArgumentException("duplicate id " + record.getId());
+            }
+            if (fingerprint != null && fingerprint.input == input) {
+                fingerprint.generation = currentGeneration;
+                continue;
+            }
+
+            ConversionResult result = this.convert(record);
+            counts[result.getStatus().ordinal()]++;
+            long output = fingerprint(result);
+            if (fingerprint == null) {
+                this.fingerprints.put(record.getId(), new Fingerprint(input, output, currentGeneration));
+                changes.accept(new RRuleChange(RRuleChange.Type.ADDED, record.getId(), result));
+            } else {
+                boolean changed = fingerprint.output != output;
+                fingerprint.input = input;
+                fingerprint.output = output;
+                fingerprint.generation = currentGeneration;
+                if (changed) {
+                    changes.accept(new RRuleChange(RRuleChange.Type.CHANGED, record.getId(), result));
+                }
+            }
+        }
+
+        for (Iterator<Map.Entry<String, Fingerprint>> it = this.fingerprints.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Fingerprint> entry = it.next();
+            if (entry.getValue().generation != currentGeneration) {
+                it.remove();
+                changes.accept(new RRuleChange(RRuleChange.Type.REMOVED, entry.getKey(), null));
+            }
+        }
+
+        return new ConversionSummary(counts[ConversionResult.Status.CONVERTED.ordinal()],
+                counts[ConversionResult.Status.UNSUPPORTED.ordinal()], counts[ConversionResult.Status.FAILED.ordinal()]);
+    }
+
+    /**
+     * @return number of ids known from the previous syncs
+     */
+    public int size() {
+        return this.fingerprints.size();
+    }
+
+    /**
+     * write the fingerprints to a file. the file is replaced atomically, so a crash keeps the previous state.
+     * @param path file to write
+     */
+    public void save(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(this.configuration);
+                out.writeInt(this.fingerprints.size());
+                for (Map.Entry<String, Fingerprint> entry : this.fingerprints.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().input);
+                    out.writeLong(entry.getValue().output);
+                }
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * replace the fingerprints with the ones saved in a file. a missing file, or one saved by an older version or a differently
+     * configured converter, loads an empty state, so the next sync converts every record.
+     * @param path file written by save
+     */
+    public void load(Path path) throws IOException {
+        Map<String, Fingerprint> loaded = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not an incremental conversion state");
+            }
+            if (in.readInt() != VERSION || in.readLong() != this.configuration) {
+                this.fingerprints.clear();
+                return;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String id = in.readUTF();
+                loaded.put(id, new Fingerprint(in.readLong(), in.readLong(), this.generation));
+            }
+        } catch (NoSuchFileException e) {
+            loaded.clear();
+        }
+        this.fingerprints.clear();
+        this.fingerprints.putAll(loaded);
+    }
+
+    private ConversionResult convert(CronRecord record) {
+        try {
+            return ConversionResult.of(this.converter.convert(this.cronParser.parse(record.getCronExpression()), record.getDTStart()));
+        } catch (RuntimeException e) {
+            return ConversionResult.failed(e);
+        }
+    }
+
+    static long fingerprint(String cronExpression, LocalDateTime dtStart) {
+        // 'DTSTART' is rendered in seconds, a change below a second does not change the rrule
+        return fingerprint(cronExpression, dtStart == null ? NO_DTSTART : dtStart.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    static long fingerprint(ConversionResult result) {
+        switch (result.getStatus()) {
+            case CONVERTED:
+                return fingerprint(result.getRRule(), ConversionResult.Status.CONVERTED.ordinal());
+            case FAILED:
+                return fingerprint(String.valueOf(result.getError().getMessage()), ConversionResult.Status.FAILED.ordinal());
+            default:
+                return fingerprint("", ConversionResult.Status.UNSUPPORTED.ordinal());
+        }
+    }
+
+    /**
+     * FNV-1a over the chars and a trailing value, with the murmur3 finalizer to spread the bits
+     */
+    private static long fingerprint(String text, long tail) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        hash = (hash ^ tail) * FNV_PRIME;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Fingerprint {
+        private long input;
+        private long output;
+        private int generation;
+
+        private Fingerprint(long input, long output, int generation) {
+            this.input = input;
+            this.output = output;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line formats of cron records for bulk conversions. A record may carry its own 'DTSTART' in a dtStart column, given as
+ * ISO-8601 '2022-10-04T15:07:40' or in rrule format '20221004T150740Z'; records without one use the default dtStart.
+ */
+public enum InputFormat {
+    /**
+     * a cron expression per line, the id is the line number
+     */
+    PLAIN {
+        @Override
+        public CronRecord parse(String line, long lineNumber, String dtStartColumn, LocalDateTime dtStart) {
+            return new CronRecord(String.valueOf(lineNumber), line.trim(), dtStart);
+        }
+
+        @Override
+        void checkDTStartColumn(String dtStartColumn) {
+            throw new IllegalArgumentException("plain input has no dtStart column");
+        }
+    },
+    /**
+     * 'id,cronExpression[,...]'. Without a dtStart column, the expression is the rest of the line, so lists like 'MON,WED' need no
+     * quotes, as in StreamingFileConverter. With a dtStart column, its 1-based number, every field is a column and an expression
+     * with ',' is quoted.
+     */
+    CSV {
+        @Override
+        public CronRecord parse(String line, long lineNumber, String dtStartColumn, LocalDateTime dtStart) {
+            int idEnd = csvFieldEnd(line, 0);
+            if (idEnd == line.length()) {
+                throw new IllegalArgumentException("missing ',' in line " + lineNumber + ": " + line);
+            }
+            String id = csvField(line, 0, idEnd);
+            if (dtStartColumn == null) {
+                int start = idEnd + 1;
+                boolean quoted = line.substring(start).trim().startsWith("\"");
+                return new CronRecord(id, csvField(line, start, quoted ? csvFieldEnd(line, start) : line.length()), dtStart);
+            }
+            List<String> fields = new ArrayList<>();
+            fields.add(id);
+            for (int start = idEnd + 1; start <= line.length(); ) {
+                int end = csvFieldEnd(line, start);
+                fields.add(csvField(line, start, end));
+                start = end + 1;
+            }
+            int column = Integer.parseInt(dtStartColumn) - 1;
+            return new CronRecord(id, fields.get(1), column < fields.size() ? dtStart(fields.get(column), dtStart) : dtStart);
+        }
+
+        @Override
+        void checkDTStartColumn(String dtStartColumn) {
+            int column;
+            try {
+                column = Integer.parseInt(dtStartColumn);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("csv dtStart column must be a column number but was " + dtStartColumn, e);
+            }
+            if (column < 3) {
+                throw new IllegalArgumentException("csv dtStart column must be 3 or more but was " + column);
+            }
+        }
+    },
+    /**
+     * one flat JSON object per line with 'cron', an optional 'id' that defaults to the line number, and the dtStart column as a
+     * field name
+     */
+    NDJSON {
+        @Override
+        public CronRecord parse(String line, long lineNumber, String dtStartColumn, LocalDateTime dtStart) {
+            Map<String, String> fields = parseJsonObject(line);
+            String cronExpression = fields.get("cron");
+            if (cronExpression == null) {
+                throw new IllegalArgumentException("missing \"cron\" in line " + lineNumber + ": " + line);
+            }
+            String id = fields.getOrDefault("id", String.valueOf(lineNumber));
+            return new CronRecord(id == null ? String.valueOf(lineNumber) : id, cronExpression,
+                    dtStartColumn == null ? dtStart : dtStart(fields.get(dtStartColumn), dtStart));
+        }
+
+        @Override
+        void checkDTStartColumn(String dtStartColumn) {
+            if (dtStartColumn.isEmpty()) {
+                throw new IllegalArgumentException("ndjson dtStart column must be a field name");
+            }
+        }
+    };
+
+    private static final int RRULE_DTSTART_LENGTH = 16; // yyyyMMdd'T'HHmmss'Z'
+
+    /**
+     * @param line input line, not blank
+     * @param lineNumber 1-based number of the line in the input
+     * @param dtStartColumn column of the record's 'DTSTART', null for none
+     * @param dtStart 'DTSTART' of records without their own, may be null
+     * @return the record of the line
+     * @throws IllegalArgumentException if the line is malformed
+     * @throws java.time.format.DateTimeParseException if the dtStart column is not a date-time
+     */
+    public abstract CronRecord parse(String line, long lineNumber, String dtStartColumn, LocalDateTime dtStart);
+
+    /**
+     * @throws IllegalArgumentException if the format has no such dtStart column
+     */
+    abstract void checkDTStartColumn(String dtStartColumn);
+
+    /**
+     * @return 'DTSTART' of the text, dtStart for an empty or null text
+     */
+    static LocalDateTime dtStart(String text, LocalDateTime dtStart) {
+        if (text == null || text.isEmpty()) {
+            return dtStart;
+        }
+        if (text.length() == RRULE_DTSTART_LENGTH && text.charAt(text.length() - 1) == 'Z') {
+            return RRuleText.parseDTStart(text);
+        }
+        return LocalDateTime.parse(text);
+    }
+
+    /**
+     * @return index of the ',' that ends the field starting at start, line length for the last field
+     */
+    static int csvFieldEnd(String line, int start) {
+        boolean quoted = false;
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                return i;
+            }
+        }
+        return line.length();
+    }
+
+    /**
+     * @return field text without surrounding spaces and quotes, "" inside quotes as "
+     */
+    static String csvField(String line, int start, int end) {
+        String field = line.substring(start, end).trim();
+        if (field.length() < 2 || field.charAt(0) != '"' || field.charAt(field.length() - 1) != '"') {
+            return field;
+        }
+        return field.substring(1, field.length() - 1).replace("\"\"", "\"");
+    }
+
+    /**
+     * @return fields of a JSON object without nested objects or arrays. strings are unescaped, other values are their text and null
+     * is null.
+     */
+    static Map<String, String> parseJsonObject(String line) {
+        Map<String, String> fields = new HashMap<>();
+        int[] position = {skipSpaces(line, 0)};
+        expect(line, position, '{');
+        if (peek(line, position) == '}') {
+            position[0]++;
+            return fields;
+        }
+        while (true) {
+            String name = jsonString(line, position);
+            expect(line, position, ':');
+            String value;
+            if (peek(line, position) == '"') {
+                value = jsonString(line, position);
+            } else {
+                int start = position[0];
+                while (position[0] < line.length() && ",} \t".indexOf(line.charAt(position[0])) < 0) {
+                    position[0]++;
+                }
+                value = line.substring(start, position[0]);
+                if (value.isEmpty() || value.charAt(0) == '{' || value.charAt(0) == '[') {
+                    throw new IllegalArgumentException("unsupported JSON value at " + start + ": " + line);
+                }
+                value = "null".equals(value) ? null : value;
+            }
+            fields.put(name, value);
+            char next = peek(line, position);
+            position[0]++;
+            if (next == '}') {
+                return fields;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("expected ',' or '}' at " + (position[0] - 1) + ": " + line);
+            }
+        }
+    }
+
+    private static String jsonString(String line, int[] position) {
+        expect(line, position, '"');
+        StringBuilder value = new StringBuilder();
+        for (int i = position[0]; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                position[0] = i + 1;
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (++i == line.length()) {
+                break;
+            }
+            char escaped = line.charAt(i);
+            switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (i + 4 >= line.length()) {
+                        throw new IllegalArgumentException("truncated \\u escape: " + line);
+                    }
+                    value.append((char) Integer.parseInt(line.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+        throw new IllegalArgumentException("unterminated JSON string: " + line);
+    }
+
+    private static void expect(String line, int[] position, char expected) {
+        if (peek(line, position) != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' at " + position[0] + ": " + line);
+        }
+        position[0]++;
+    }
+
+    private static char peek(String line, int[] position) {
+        position[0] = skipSpaces(line, position[0]);
+        return position[0] < line.length() ? line.charAt(position[0]) : 0;
+    }
+
+    private static int skipSpaces(String line, int position) {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+}
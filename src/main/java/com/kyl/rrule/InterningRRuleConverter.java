@@ -0,0 +1,52 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.cronutils.model.Cron;
+
+/**
+ * RRuleConverter that returns one shared String instance per distinct rrule. Conversions of a large catalog usually produce few
+ * distinct rules, so the catalog holds every rule once instead of a copy per schedule. Rules are interned in a RRuleInterner,
+ * which only holds weak references. The instance is safe to share across threads.
+ */
+public class InterningRRuleConverter implements RRuleConverter {
+    private final RRuleConverter delegate;
+    private final RRuleInterner interner;
+
+    public InterningRRuleConverter() {
+        this(new QuartzCronRRuleConverter(), new RRuleInterner());
+    }
+
+    /**
+     * @param delegate converter producing the rules
+     * @param interner interner of the rules, may be shared with other converters
+     */
+    public InterningRRuleConverter(RRuleConverter delegate, RRuleInterner interner) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.interner = Objects.requireNonNull(interner, "interner must not be null");
+    }
+
+    @Override
+    public String convert(Cron cron, LocalDateTime dtStart) {
+        return this.interner.intern(this.delegate.convert(cron, dtStart));
+    }
+
+    /**
+     * appending does not keep a String, so it is not interned
+     */
+    @Override
+    public boolean convertTo(Cron cron, LocalDateTime dtStart, Appendable out) throws IOException {
+        return this.delegate.convertTo(cron, dtStart, out);
+    }
+
+    public RRuleInterner getInterner() {
+        return this.interner;
+    }
+
+    @Override
+    public String toString() {
+        return "InterningRRuleConverter[" + this.delegate + "]";
+    }
+}
@@ -0,0 +1,138 @@
+package com.kyl.rrule;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non negative long values with logarithmic buckets. Values below 8 have a bucket each, larger values are
+ * split into 8 buckets per power of two, so a bucket is at most 12.5% wide relative to its values. Recording is a single atomic
+ * increment into a per thread stripe of the counts, so threads do not contend on the same cache lines.
+ */
+public class LogHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int MAX_STRIPES = 16;
+
+    private final int stripeMask;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public LogHistogram() {
+        int stripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.stripeMask = stripes - 1;
+        this.counts = new AtomicLongArray(stripes * BUCKETS);
+    }
+
+    /**
+     * @param value value to record, negative values are recorded as 0
+     */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        int stripe = (int) mix(Thread.currentThread().getId()) & this.stripeMask;
+        this.counts.incrementAndGet(stripe * BUCKETS + bucket(v));
+        this.sum.add(v);
+        this.max.accumulate(v);
+    }
+
+    /**
+     * @return counts summed over all stripes. records that run concurrently may or may not be included.
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKETS];
+        for (int i = 0; i < this.counts.length(); i++) {
+            bucketCounts[i % BUCKETS] += this.counts.get(i);
+        }
+        return new Snapshot(bucketCounts, this.sum.sum(), this.max.get());
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return highest value of the bucket
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    private static long mix(long threadId) {
+        long h = threadId * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * immutable copy of the histogram counts
+     */
+    public static final class Snapshot {
+        private final long[] bucketCounts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] bucketCounts, long sum, long max) {
+            this.bucketCounts = bucketCounts;
+            long count = 0;
+            for (long bucketCount : bucketCounts) {
+                count += bucketCount;
+            }
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getSum() {
+            return this.sum;
+        }
+
+        public long getMax() {
+            return this.max;
+        }
+
+        public double getMean() {
+            return this.count == 0 ? 0.0 : (double) this.sum / this.count;
+        }
+
+        /**
+         * @param percentile 0 to 100
+         * @return upper bound of the bucket holding the percentile, never more than the recorded maximum. 0 if empty.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (this.count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * this.count));
+            long seen = 0;
+            for (int bucket = 0; bucket < this.bucketCounts.length; bucket++) {
+                seen += this.bucketCounts[bucket];
+                if (seen >= rank) {
+                    return Math.min(upperBound(bucket), this.max);
+                }
+            }
+            return this.max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + this.count + " mean=" + String.format("%.1f", this.getMean()) + " p50=" + this.getValueAtPercentile(50)
+                    + " p99=" + this.getValueAtPercentile(99) + " max=" + this.max;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Expands a schedule with quartz 'nW' days into the concrete fire times of a number of months, written as an 'RDATE' list. The
+ * day of every month is looked up in CalendarTables, a month without day n is skipped. Seconds, minutes and hours without values
+ * are every value, as in cron.
+ * <pre>
+ * DTSTART:20221004T150740Z
+ * RDATE:20221014T120000Z,20221115T120000Z,20221215T120000Z
+ * </pre>
+ */
+final class NearestWeekdayExpander {
+    static final int MAX_DATES = 4096;
+
+    private static final long ALL_SECONDS = (1L << 60) - 1;
+    private static final long ALL_HOURS = (1L << 24) - 1;
+    private static final int MONTHS_PER_YEAR = 12;
+
+    private NearestWeekdayExpander() {
+    }
+
+    /**
+     * append 'DTSTART' and the 'RDATE' list of the fire times from start for a number of months
+     * @param schedule schedule with nearest weekdays
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @param start first fire time, inclusive
+     * @param months number of months from the month of start
+     * @param out output
+     * @return false if there are no fire times or more than MAX_DATES, nothing is appended then
+     * @throws IOException if out fails
+     */
+    static boolean appendRDates(CompiledSchedule schedule, LocalDateTime dtStart, LocalDateTime start, int months, Appendable out)
+            throws IOException {
+        if (!isExpandable(schedule) || months <= 0) {
+            return false;
+        }
+        start = start.truncatedTo(ChronoUnit.SECONDS);
+        long seconds = orAll(schedule.getSeconds(), ALL_SECONDS);
+        long minutes = orAll(schedule.getMinutes(), ALL_SECONDS);
+        long hours = orAll(schedule.getHours(), ALL_HOURS);
+        // upper bound: the count of the month of start includes times before start
+        long timesPerDay = (long) Long.bitCount(seconds) * Long.bitCount(minutes) * Long.bitCount(hours);
+        long count = 0;
+        for (int i = 0; i < months && count <= MAX_DATES; i++) {
+            int year = start.getYear() + (start.getMonthValue() - 1 + i) / MONTHS_PER_YEAR;
+            int month = (start.getMonthValue() - 1 + i) % MONTHS_PER_YEAR + 1;
+            if (isMonth(schedule, month)) {
+                count += Long.bitCount(days(schedule, year, month)) * timesPerDay;
+            }
+        }
+        if (count == 0 || count > MAX_DATES) {
+            return false;
+        }
+
+        StringBuilder dates = new StringBuilder((int) count * 17);
+        for (int i = 0; i < months; i++) {
+            int year = start.getYear() + (start.getMonthValue() - 1 + i) / MONTHS_PER_YEAR;
+            int month = (start.getMonthValue() - 1 + i) % MONTHS_PER_YEAR + 1;
+            if (!isMonth(schedule, month)) {
+                continue;
+            }
+            for (long days = days(schedule, year, month); days != 0; days &= days - 1) {
+                appendTimes(LocalDateTime.of(year, month, Long.numberOfTrailingZeros(days), 0, 0), start, seconds, minutes, hours, dates);
+            }
+        }
+        if (dates.length() == 0) {
+            return false;
+        }
+        if (dtStart != null) {
+            out.append(RRuleName.DTSTART.getName()).append(RecurrenceRuleStringBuilder.RULE_NAME_PARTS_SEPARATOR);
+            RRuleText.appendDTStart(dtStart, out);
+            out.append(RecurrenceRuleStringBuilder.RULE_OPTION_SEPARATOR);
+        }
+        out.append(RRuleName.RDATE.getName()).append(RecurrenceRuleStringBuilder.RULE_NAME_PARTS_SEPARATOR).append(dates);
+        return true;
+    }
+
+    /**
+     * @return true if the schedule has nearest weekdays and nothing else restricts the days, e.g. '15W' together with other days
+     * in a list or an interval, a year field or a month step
+     */
+    static boolean isExpandable(CompiledSchedule schedule) {
+        return schedule.getNearestWeekdays() != 0 && !schedule.hasInexactDates() && schedule.getMonthDays() == 0
+                && schedule.getLastMonthDays() == 0
+                && schedule.getWeekdays() == 0 && schedule.getNthWeekdays() == 0 && schedule.getLastNthWeekdays() == 0
+                && !schedule.hasYearDays() && schedule.getInterval() <= 1 && !schedule.isLastOfSet();
+    }
+
+    private static void appendTimes(LocalDateTime day, LocalDateTime start, long seconds, long minutes, long hours, StringBuilder dates)
+            throws IOException {
+        for (long h = hours; h != 0; h &= h - 1) {
+            for (long m = minutes; m != 0; m &= m - 1) {
+                for (long s = seconds; s != 0; s &= s - 1) {
+                    LocalDateTime time = day.withHour(Long.numberOfTrailingZeros(h)).withMinute(Long.numberOfTrailingZeros(m))
+                            .withSecond(Long.numberOfTrailingZeros(s));
+                    if (time.isBefore(start)) {
+                        continue;
+                    }
+                    if (dates.length() > 0) {
+                        dates.append(RecurrenceRuleStringBuilder.RULE_VALUE_SEPARATOR);
+                    }
+                    RRuleText.appendDTStart(time, dates);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return bit n: day n of the month is a fire day
+     */
+    private static long days(CompiledSchedule schedule, int year, int month) {
+        long days = 0;
+        for (long nearest = schedule.getNearestWeekdays(); nearest != 0; nearest &= nearest - 1) {
+            int day = CalendarTables.nearestWeekday(year, month, Long.numberOfTrailingZeros(nearest));
+            if (day > 0) {
+                days |= 1L << day;
+            }
+        }
+        return days;
+    }
+
+    private static boolean isMonth(CompiledSchedule schedule, int month) {
+        return schedule.getMonths() == 0 || (schedule.getMonths() & (1 << month)) != 0;
+    }
+
+    private static long orAll(long bits, long all) {
+        return bits == 0 ? all : bits;
+    }
+}
@@ -0,0 +1,669 @@
+package com.kyl.rrule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Expands the occurrences of a CompiledSchedule with a 'DTSTART', following the rrule semantics of RFC 5545:
+ * <ul>
+ * <li>rule parts finer than the frequency that are not set take their value from 'DTSTART'. a MONTHLY rule without day rule parts
+ * repeats on the day of month of 'DTSTART', a WEEKLY rule on the day of week of 'DTSTART'.</li>
+ * <li>an nth day of week only applies to MONTHLY. for other frequencies it is a plain day of week.</li>
+ * <li>'INTERVAL' counts frequency periods from the period of 'DTSTART'. weeks start on Monday.</li>
+ * <li>'BYSETPOS=-1' keeps the last occurrence of every frequency period, before occurrences ahead of 'DTSTART' are dropped.</li>
+ * <li>'DTSTART' itself is an occurrence only if it matches the rule.</li>
+ * </ul>
+ * Occurrences are found by jumping between set bits: the matching days of a month are computed as one bit set and the matching
+ * times of a day come from the second, minute and hour bit sets, so the search never steps second by second. A search gives up
+ * after SEARCH_YEARS years without an occurrence.
+ * <p>
+ * Instances are immutable and thread safe.
+ */
+public final class OccurrenceEngine {
+    static final int SEARCH_YEARS = 400;
+
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final int DAYS_PER_WEEK = CompiledSchedule.DAYS_PER_WEEK;
+    private static final long ALL_SECONDS = (1L << 60) - 1;
+    private static final long ALL_MINUTES = ALL_SECONDS;
+    private static final long ALL_HOURS = (1L << 24) - 1;
+    private static final int ALL_MONTHS = ((1 << MONTHS_PER_YEAR) - 1) << 1;
+    private static final int ALL_WEEKDAYS = ((1 << DAYS_PER_WEEK) - 1) << 1;
+    private static final int NONE = -1;
+
+    private final CompiledSchedule schedule;
+    private final RRuleFrequency frequency;
+    private final LocalDateTime dtStart;
+    private final long dtStartEpochSecond;
+
+    // effective rule parts, after defaults from 'DTSTART' and 'BYSETPOS=-1' are applied
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final int months;
+    private final long monthDays;
+    private final long lastMonthDays;
+    private final boolean monthDayRule;
+    private final int weekdays;
+    private final long nthWeekdays;
+    private final long lastNthWeekdays;
+    private final boolean weekdayRule;
+
+    private final int interval;
+    private final long startPeriod; // period index of 'DTSTART' for the frequency
+    private final long alignedTimeResidues; // bit r: a day whose first period has index % interval == r has an aligned time
+    private final boolean empty;
+
+    /**
+     * @param schedule compiled schedule, must not be unsupported
+     * @param dtStart 'DTSTART' of the rrule. fractions of a second are dropped as in the rrule text.
+     */
+    public OccurrenceEngine(CompiledSchedule schedule, LocalDateTime dtStart) {
+        this.schedule = Objects.requireNonNull(schedule, "schedule must not be null");
+        if (schedule.isUnsupported()) {
+            throw new IllegalArgumentException("unsupported schedule has no occurrences");
+        }
+        this.frequency = schedule.getFrequency();
+        this.dtStart = Objects.requireNonNull(dtStart, "dtStart must not be null").truncatedTo(ChronoUnit.SECONDS);
+        this.dtStartEpochSecond = epochSecond(this.dtStart.toLocalDate().toEpochDay(), this.dtStart.toLocalTime().toSecondOfDay());
+
+        boolean lastOfSet = schedule.isLastOfSet();
+        long secondBits = timeBits(schedule.getSeconds(), ALL_SECONDS, this.dtStart.getSecond(), RRuleFrequency.SECONDLY, lastOfSet);
+        long minuteBits = timeBits(schedule.getMinutes(), ALL_MINUTES, this.dtStart.getMinute(), RRuleFrequency.MINUTELY, lastOfSet);
+        long hourBits = timeBits(schedule.getHours(), ALL_HOURS, this.dtStart.getHour(), RRuleFrequency.HOURLY, lastOfSet);
+        int interval = Math.max(1, schedule.getInterval());
+        // an interval that divides the range of the frequency field selects the same values in every minute, hour or day, e.g.
+        // SECONDLY;INTERVAL=5 the seconds of 'DTSTART' mod 5. it is folded into the bit set and the times are not stepped through.
+        if (interval > 1 && this.frequency == RRuleFrequency.SECONDLY && SECONDS_PER_MINUTE % interval == 0) {
+            secondBits &= residueBits(this.dtStart.getSecond(), interval, SECONDS_PER_MINUTE);
+            interval = 1;
+        } else if (interval > 1 && this.frequency == RRuleFrequency.MINUTELY && SECONDS_PER_MINUTE % interval == 0) {
+            minuteBits &= residueBits(this.dtStart.getMinute(), interval, SECONDS_PER_MINUTE);
+            interval = 1;
+        } else if (interval > 1 && this.frequency == RRuleFrequency.HOURLY && HOURS_PER_DAY % interval == 0) {
+            hourBits &= residueBits(this.dtStart.getHour(), interval, HOURS_PER_DAY);
+            interval = 1;
+        }
+        this.seconds = secondBits;
+        this.minutes = minuteBits;
+        this.hours = hourBits;
+        this.months = schedule.getMonths() == 0 ? ALL_MONTHS : schedule.getMonths();
+
+        boolean monthly = this.frequency == RRuleFrequency.MONTHLY;
+        long nth = monthly ? schedule.getNthWeekdays() : 0L;
+        long lastNth = monthly ? schedule.getLastNthWeekdays() : 0L;
+        int plainWeekdays = schedule.getWeekdays();
+        if (!monthly) {
+            plainWeekdays |= weekdaysOf(schedule.getNthWeekdays()) | weekdaysOf(schedule.getLastNthWeekdays());
+        }
+        long positiveDays = schedule.getMonthDays();
+        long negativeDays = schedule.getLastMonthDays();
+        if ((positiveDays | negativeDays) == 0 && (plainWeekdays | nth | lastNth) == 0 && !schedule.hasYearDays()) {
+            if (monthly) {
+                positiveDays = 1L << this.dtStart.getDayOfMonth();
+            } else if (this.frequency == RRuleFrequency.WEEKLY) {
+                plainWeekdays = 1 << quartzWeekday(this.dtStart.toLocalDate().toEpochDay());
+            }
+        }
+        this.monthDays = positiveDays;
+        this.lastMonthDays = negativeDays;
+        this.monthDayRule = (positiveDays | negativeDays) != 0;
+        this.weekdays = plainWeekdays;
+        this.nthWeekdays = nth;
+        this.lastNthWeekdays = lastNth;
+        this.weekdayRule = (plainWeekdays | nth | lastNth) != 0;
+
+        this.interval = interval;
+        this.startPeriod = this.period(this.dtStart.toLocalDate().toEpochDay(), this.dtStart.toLocalTime().toSecondOfDay());
+        this.alignedTimeResidues = this.isTimeFrequency() && this.interval > 1 && this.interval <= Long.SIZE
+                ? this.timeResidues() : -1L;
+        this.empty = this.seconds == 0 || this.minutes == 0 || this.hours == 0 || this.months == 0;
+    }
+
+    /**
+     * @param after exclusive lower bound
+     * @return first occurrence after the specified time, never before 'DTSTART'
+     */
+    public Optional<LocalDateTime> next(LocalDateTime after) {
+        long from = epochSecond(after.toLocalDate().toEpochDay(), after.toLocalTime().toSecondOfDay()) + 1;
+        return toDateTime(this.nextEpochSecond(from));
+    }
+
+    /**
+     * @param before exclusive upper bound
+     * @return last occurrence before the specified time, never before 'DTSTART'
+     */
+    public Optional<LocalDateTime> previous(LocalDateTime before) {
+        long to = epochSecond(before.toLocalDate().toEpochDay(), before.toLocalTime().toSecondOfDay());
+        if (before.getNano() == 0) {
+            to--;
+        }
+        return toDateTime(this.previousEpochSecond(to));
+    }
+
+    /**
+     * @param from inclusive lower bound
+     * @param to exclusive upper bound
+     * @return occurrences within the range in ascending order
+     */
+    public Iterator<LocalDateTime> iterate(LocalDateTime from, LocalDateTime to) {
+        long fromEpochSecond = epochSecond(from.toLocalDate().toEpochDay(), from.toLocalTime().toSecondOfDay());
+        if (from.getNano() != 0) {
+            fromEpochSecond++;
+        }
+        long toEpochSecond = epochSecond(to.toLocalDate().toEpochDay(), to.toLocalTime().toSecondOfDay());
+        if (to.getNano() != 0) {
+            toEpochSecond++;
+        }
+        return new OccurrenceIterator(fromEpochSecond, toEpochSecond);
+    }
+
+    public CompiledSchedule getSchedule() {
+        return this.schedule;
+    }
+
+    public LocalDateTime getDTStart() {
+        return this.dtStart;
+    }
+
+    /**
+     * @param from inclusive lower bound in seconds since 1970-01-01T00:00:00
+     * @return first occurrence at or after from, or Long.MIN_VALUE
+     */
+    long nextEpochSecond(long from) {
+        if (this.empty) {
+            return Long.MIN_VALUE;
+        }
+        from = Math.max(from, this.dtStartEpochSecond);
+        long fromDay = Math.floorDiv(from, SECONDS_PER_DAY);
+        int fromTime = Math.floorMod(from, SECONDS_PER_DAY);
+        LocalDate date = LocalDate.ofEpochDay(fromDay);
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        long monthStart = fromDay - day + 1;
+        int lastYear = year + SEARCH_YEARS;
+
+        while (year <= lastYear) {
+            int days = this.monthDayBits(year, month, monthStart) & (-1 << day);
+            for (; days != 0; days &= days - 1) {
+                long epochDay = monthStart + Integer.numberOfTrailingZeros(days) - 1;
+                int time = this.nextTime(epochDay, epochDay == fromDay ? fromTime : 0);
+                if (time != NONE) {
+                    return epochSecond(epochDay, time);
+                }
+            }
+            monthStart += lengthOfMonth(year, month);
+            day = 1;
+            if (++month > MONTHS_PER_YEAR) {
+                month = 1;
+                year++;
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * @param to inclusive upper bound in seconds since 1970-01-01T00:00:00
+     * @return last occurrence at or before to and not before 'DTSTART', or Long.MIN_VALUE
+     */
+    long previousEpochSecond(long to) {
+        if (this.empty || to < this.dtStartEpochSecond) {
+            return Long.MIN_VALUE;
+        }
+        long toDay = Math.floorDiv(to, SECONDS_PER_DAY);
+        int toTime = Math.floorMod(to, SECONDS_PER_DAY);
+        LocalDate date = LocalDate.ofEpochDay(toDay);
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        long monthStart = toDay - day + 1;
+        int firstYear = Math.max(year - SEARCH_YEARS, this.dtStart.getYear());
+
+        while (year >= firstYear) {
+            int days = this.monthDayBits(year, month, monthStart) & (day >= Integer.SIZE - 1 ? -1 : (1 << (day + 1)) - 1);
+            for (; days != 0; days &= ~Integer.highestOneBit(days)) {
+                long epochDay = monthStart + Integer.SIZE - 1 - Integer.numberOfLeadingZeros(days) - 1;
+                int time = this.previousTime(epochDay, epochDay == toDay ? toTime : SECONDS_PER_DAY - 1);
+                if (time != NONE) {
+                    long occurrence = epochSecond(epochDay, time);
+                    return occurrence >= this.dtStartEpochSecond ? occurrence : Long.MIN_VALUE;
+                }
+            }
+            if (--month < 1) {
+                month = MONTHS_PER_YEAR;
+                year--;
+            }
+            day = lengthOfMonth(year, month);
+            monthStart -= day;
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * @return bit d set if day d of the month matches the day rule parts, the day level 'INTERVAL' and 'BYSETPOS=-1'
+     */
+    private int monthDayBits(int year, int month, long monthStart) {
+        int days = this.candidateDayBits(year, month, monthStart);
+        if (days == 0 || !this.schedule.isLastOfSet()) {
+            return days;
+        }
+        if (this.frequency == RRuleFrequency.MONTHLY) {
+            return Integer.highestOneBit(days);
+        } else if (this.frequency == RRuleFrequency.WEEKLY) {
+            return this.lastDaysOfWeek(days, year, month, monthStart);
+        }
+        return days;
+    }
+
+    private int candidateDayBits(int year, int month, long monthStart) {
+        if ((this.months & (1 << month)) == 0) {
+            return 0;
+        }
+        int length = lengthOfMonth(year, month);
+        int days = (int) (((1L << length) - 1) << 1);
+        if (this.monthDayRule) {
+            days &= this.monthDayRuleBits(length);
+        }
+        if (this.weekdayRule) {
+            days &= this.weekdayRuleBits(length, quartzWeekday(monthStart));
+        }
+        if (this.schedule.hasYearDays()) {
+            days &= this.yearDayBits(year, length, monthStart);
+        }
+        if (this.interval > 1 && !this.isTimeFrequency() && days != 0) {
+            days &= this.alignedDayBits(length, monthStart);
+        }
+        return days;
+    }
+
+    private int monthDayRuleBits(int length) {
+        int days = (int) this.monthDays;
+        for (long remaining = this.lastMonthDays; remaining != 0; remaining &= remaining - 1) {
+            int day = length + 1 - Long.numberOfTrailingZeros(remaining);
+            if (day >= 1) {
+                days |= 1 << day;
+            }
+        }
+        return days;
+    }
+
+    private int weekdayRuleBits(int length, int firstWeekday) {
+        int days = 0;
+        for (int remaining = this.weekdays; remaining != 0; remaining &= remaining - 1) {
+            for (int day = firstDay(Integer.numberOfTrailingZeros(remaining), firstWeekday); day <= length; day += DAYS_PER_WEEK) {
+                days |= 1 << day;
+            }
+        }
+        for (long remaining = this.nthWeekdays; remaining != 0; remaining &= remaining - 1) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            int day = firstDay(index % DAYS_PER_WEEK + 1, firstWeekday) + index / DAYS_PER_WEEK * DAYS_PER_WEEK;
+            if (day <= length) {
+                days |= 1 << day;
+            }
+        }
+        for (long remaining = this.lastNthWeekdays; remaining != 0; remaining &= remaining - 1) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            int first = firstDay(index % DAYS_PER_WEEK + 1, firstWeekday);
+            int day = first + (length - first) / DAYS_PER_WEEK * DAYS_PER_WEEK - index / DAYS_PER_WEEK * DAYS_PER_WEEK;
+            if (day >= 1) {
+                days |= 1 << day;
+            }
+        }
+        return days;
+    }
+
+    private int yearDayBits(int year, int length, long monthStart) {
+        long yearStart = LocalDate.ofYearDay(year, 1).toEpochDay();
+        int lengthOfYear = LocalDate.ofYearDay(year, 1).lengthOfYear();
+        int days = 0;
+        for (int day = 1; day <= length; day++) {
+            int dayOfYear = (int) (monthStart + day - 1 - yearStart) + 1;
+            if (this.schedule.hasYearDay(dayOfYear) || this.schedule.hasYearDay(dayOfYear - lengthOfYear - 1)) {
+                days |= 1 << day;
+            }
+        }
+        return days;
+    }
+
+    private int alignedDayBits(int length, long monthStart) {
+        if (this.frequency == RRuleFrequency.MONTHLY) {
+            return Math.floorMod(this.period(monthStart, 0) - this.startPeriod, this.interval) == 0 ? -1 : 0;
+        }
+        int days = 0;
+        for (int day = 1; day <= length; day++) {
+            if (Math.floorMod(this.period(monthStart + day - 1, 0) - this.startPeriod, this.interval) == 0) {
+                days |= 1 << day;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * keep the last matching day of every week. the week of the last days may end in the next month.
+     */
+    private int lastDaysOfWeek(int days, int year, int month, long monthStart) {
+        int length = lengthOfMonth(year, month);
+        long nextMonthStart = monthStart + length;
+        int nextMonthDays = month == MONTHS_PER_YEAR
+                ? this.candidateDayBits(year + 1, 1, nextMonthStart)
+                : this.candidateDayBits(year, month + 1, nextMonthStart);
+        // matching days of this and the next month as one bit set, bit d is day d counted from this month
+        long candidates = (days & 0xFFFFFFFFL) | ((long) (nextMonthDays >>> 1) << (length + 1));
+        int lastDays = 0;
+        for (int remaining = days; remaining != 0; remaining &= remaining - 1) {
+            int day = Integer.numberOfTrailingZeros(remaining);
+            int daysToSunday = DAYS_PER_WEEK - 1 - Math.floorMod(monthStart + day - 1 + 3, DAYS_PER_WEEK);
+            long laterInWeek = ((1L << daysToSunday) - 1) << (day + 1);
+            if ((candidates & laterInWeek) == 0) {
+                lastDays |= 1 << day;
+            }
+        }
+        return lastDays;
+    }
+
+    /**
+     * @return first matching time of the day at or after the specified second of the day, or NONE
+     */
+    private int nextTime(long epochDay, int secondOfDay) {
+        if (!this.isTimeFrequency() || this.interval == 1) {
+            return this.nextTime(secondOfDay);
+        }
+        if ((this.alignedTimeResidues & (1L << this.residue(this.period(epochDay, 0)))) == 0) {
+            return NONE;
+        }
+        for (int time = this.nextTime(secondOfDay); time != NONE; ) {
+            long offset = Math.floorMod(this.period(epochDay, time) - this.startPeriod, this.interval);
+            if (offset == 0) {
+                return time;
+            }
+            // jump to the start of the next aligned period
+            int unit = this.periodSeconds();
+            long next = (time / unit + this.interval - offset) * unit;
+            time = next >= SECONDS_PER_DAY ? NONE : this.nextTime((int) next);
+        }
+        return NONE;
+    }
+
+    /**
+     * @return last matching time of the day at or before the specified second of the day, or NONE
+     */
+    private int previousTime(long epochDay, int secondOfDay) {
+        if (!this.isTimeFrequency() || this.interval == 1) {
+            return this.previousTime(secondOfDay);
+        }
+        if ((this.alignedTimeResidues & (1L << this.residue(this.period(epochDay, 0)))) == 0) {
+            return NONE;
+        }
+        for (int time = this.previousTime(secondOfDay); time != NONE; ) {
+            long offset = Math.floorMod(this.period(epochDay, time) - this.startPeriod, this.interval);
+            if (offset == 0) {
+                return time;
+            }
+            // jump to the end of the previous aligned period
+            int unit = this.periodSeconds();
+            long previous = (time / unit - offset + 1) * unit - 1;
+            time = previous < 0 ? NONE : this.previousTime((int) previous);
+        }
+        return NONE;
+    }
+
+    private int nextTime(int secondOfDay) {
+        int hour = secondOfDay / SECONDS_PER_HOUR;
+        int minute = secondOfDay / SECONDS_PER_MINUTE % SECONDS_PER_MINUTE;
+        int second = secondOfDay % SECONDS_PER_MINUTE;
+        while (hour < 24) {
+            int nextHour = nextBit(this.hours, hour);
+            if (nextHour == NONE) {
+                return NONE;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = 0;
+                second = 0;
+            }
+            int nextMinute = nextBit(this.minutes, minute);
+            if (nextMinute == NONE) {
+                hour++;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+            int nextSecond = nextBit(this.seconds, second);
+            if (nextSecond == NONE) {
+                second = 0;
+                if (++minute == SECONDS_PER_MINUTE) {
+                    minute = 0;
+                    hour++;
+                }
+                continue;
+            }
+            return hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + nextSecond;
+        }
+        return NONE;
+    }
+
+    private int previousTime(int secondOfDay) {
+        int hour = secondOfDay / SECONDS_PER_HOUR;
+        int minute = secondOfDay / SECONDS_PER_MINUTE % SECONDS_PER_MINUTE;
+        int second = secondOfDay % SECONDS_PER_MINUTE;
+        while (hour >= 0) {
+            int previousHour = previousBit(this.hours, hour);
+            if (previousHour == NONE) {
+                return NONE;
+            }
+            if (previousHour != hour) {
+                hour = previousHour;
+                minute = SECONDS_PER_MINUTE - 1;
+                second = SECONDS_PER_MINUTE - 1;
+            }
+            int previousMinute = previousBit(this.minutes, minute);
+            if (previousMinute == NONE) {
+                hour--;
+                minute = SECONDS_PER_MINUTE - 1;
+                second = SECONDS_PER_MINUTE - 1;
+                continue;
+            }
+            if (previousMinute != minute) {
+                minute = previousMinute;
+                second = SECONDS_PER_MINUTE - 1;
+            }
+            int previousSecond = previousBit(this.seconds, second);
+            if (previousSecond == NONE) {
+                second = SECONDS_PER_MINUTE - 1;
+                if (--minute < 0) {
+                    minute = SECONDS_PER_MINUTE - 1;
+                    hour--;
+                }
+                continue;
+            }
+            return hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + previousSecond;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return bit r set if a matching time of day falls into a period with index % interval == r, for a day starting a period
+     * with index 0
+     */
+    private long timeResidues() {
+        long residues = 0L;
+        for (int time = this.nextTime(0); time != NONE; time = time + 1 < SECONDS_PER_DAY ? this.nextTime(time + 1) : NONE) {
+            residues |= 1L << (time / this.periodSeconds() % this.interval);
+        }
+        long aligned = 0L;
+        for (int dayResidue = 0; dayResidue < this.interval; dayResidue++) {
+            for (long remaining = residues; remaining != 0; remaining &= remaining - 1) {
+                if ((dayResidue + Long.numberOfTrailingZeros(remaining)) % this.interval == 0) {
+                    aligned |= 1L << dayResidue;
+                }
+            }
+        }
+        return aligned;
+    }
+
+    private int residue(long period) {
+        return Math.floorMod(period - this.startPeriod, this.interval);
+    }
+
+    private boolean isTimeFrequency() {
+        return this.frequency.getOrder() < RRuleFrequency.DAILY.getOrder();
+    }
+
+    private int periodSeconds() {
+        switch (this.frequency) {
+            case SECONDLY:
+                return 1;
+            case MINUTELY:
+                return SECONDS_PER_MINUTE;
+            default:
+                return SECONDS_PER_HOUR;
+        }
+    }
+
+    /**
+     * @return index of the frequency period containing the specified time
+     */
+    private long period(long epochDay, int secondOfDay) {
+        switch (this.frequency) {
+            case SECONDLY:
+            case MINUTELY:
+            case HOURLY:
+                return Math.floorDiv(epochSecond(epochDay, secondOfDay), this.periodSeconds());
+            case DAILY:
+                return epochDay;
+            case WEEKLY:
+                return Math.floorDiv(epochDay + 3, DAYS_PER_WEEK); // 1970-01-01 is a Thursday, weeks start on Monday
+            default:
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                return (long) date.getYear() * MONTHS_PER_YEAR + date.getMonthValue() - 1;
+        }
+    }
+
+    /**
+     * @param bits rrule part bit set
+     * @param all bit set of the whole field range
+     * @param dtStartValue value of 'DTSTART' for the field
+     * @param fieldFrequency frequency of the field
+     * @param lastOfSet 'BYSETPOS=-1'
+     * @return effective bit set of the field
+     */
+    private long timeBits(long bits, long all, int dtStartValue, RRuleFrequency fieldFrequency, boolean lastOfSet) {
+        boolean finer = fieldFrequency.getOrder() < this.frequency.getOrder();
+        if (bits == 0) {
+            bits = finer ? 1L << dtStartValue : all;
+        }
+        // the last occurrence of a period has the highest value of every field finer than the frequency
+        return lastOfSet && finer ? Long.highestOneBit(bits) : bits;
+    }
+
+    /**
+     * @return bit v set for every value v in [0, range) with v % interval == value % interval
+     */
+    private static long residueBits(int value, int interval, int range) {
+        long bits = 0L;
+        for (int v = value % interval; v < range; v += interval) {
+            bits |= 1L << v;
+        }
+        return bits;
+    }
+
+    private static int weekdaysOf(long nthWeekdays) {
+        int weekdays = 0;
+        for (long remaining = nthWeekdays; remaining != 0; remaining &= remaining - 1) {
+            weekdays |= 1 << (Long.numberOfTrailingZeros(remaining) % DAYS_PER_WEEK + 1);
+        }
+        return weekdays & ALL_WEEKDAYS;
+    }
+
+    /**
+     * @return first day of the month that falls on the quartz weekday
+     */
+    private static int firstDay(int weekday, int firstWeekday) {
+        return Math.floorMod(weekday - firstWeekday, DAYS_PER_WEEK) + 1;
+    }
+
+    /**
+     * @return quartz day of week, 1 = Sunday ... 7 = Saturday
+     */
+    private static int quartzWeekday(long epochDay) {
+        return Math.floorMod(epochDay + 4, DAYS_PER_WEEK) + 1; // 1970-01-01 is a Thursday
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return Year.isLeap(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int nextBit(long bits, int from) {
+        long remaining = bits & (-1L << from);
+        return remaining == 0 ? NONE : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static int previousBit(long bits, int to) {
+        long remaining = to >= Long.SIZE - 1 ? bits : bits & ((1L << (to + 1)) - 1);
+        return remaining == 0 ? NONE : Long.SIZE - 1 - Long.numberOfLeadingZeros(remaining);
+    }
+
+    private static long epochSecond(long epochDay, int secondOfDay) {
+        return epochDay * SECONDS_PER_DAY + secondOfDay;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.of(LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY)),
+                LocalTime.ofSecondOfDay(Math.floorMod(epochSecond, SECONDS_PER_DAY)));
+    }
+
+    private static Optional<LocalDateTime> toDateTime(long epochSecond) {
+        return epochSecond == Long.MIN_VALUE ? Optional.empty() : Optional.of(toLocalDateTime(epochSecond));
+    }
+
+    private class OccurrenceIterator implements Iterator<LocalDateTime> {
+        private final long to;
+        private long next;
+
+        OccurrenceIterator(long from, long to) {
+            this.to = to;
+            this.next = OccurrenceEngine.this.nextEpochSecond(from);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != Long.MIN_VALUE && this.next < this.to;
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long current = this.next;
+            this.next = OccurrenceEngine.this.nextEpochSecond(current + 1);
+            return toLocalDateTime(current);
+        }
+    }
+}
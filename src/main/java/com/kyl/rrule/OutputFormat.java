@@ -0,0 +1,120 @@
+package com.kyl.rrule;
+
+/**
+ * Line formats for writing conversion results of bulk conversions. Every result is written as exactly one line, without the line
+ * separator.
+ */
+public enum OutputFormat {
+    /**
+     * 'id,rrule'. The rrule column is quoted when it contains 'DTSTART' on its own line, unsupported expressions have an empty rrule
+     * column and failures add the error message as a third column.
+     */
+    CSV {
+        @Override
+        public void format(String id, ConversionResult result, StringBuilder out) {
+            appendCsv(id, out);
+            out.append(',');
+            if (result.isConverted()) {
+                appendCsv(result.getRRule(), out);
+            } else if (result.getStatus() == ConversionResult.Status.FAILED) {
+                out.append(',');
+                appendCsv(String.valueOf(result.getError().getMessage()), out);
+            }
+        }
+    },
+    /**
+     * one JSON object per line with 'id', 'status' and either 'rrule' or 'error'
+     */
+    NDJSON {
+        @Override
+        public void format(String id, ConversionResult result, StringBuilder out) {
+            out.append("{\"id\":");
+            appendJson(id, out);
+            out.append(",\"status\":\"").append(result.getStatus()).append('"');
+            if (result.isConverted()) {
+                out.append(",\"rrule\":");
+                appendJson(result.getRRule(), out);
+            } else if (result.getStatus() == ConversionResult.Status.FAILED) {
+                out.append(",\"error\":");
+                appendJson(String.valueOf(result.getError().getMessage()), out);
+            }
+            out.append('}');
+        }
+    },
+    /**
+     * the rrule alone, with its 'DTSTART' and 'RRULE' lines separated by a space instead of a line break. unsupported expressions
+     * and failures write an empty line, so output line n still belongs to input record n.
+     */
+    PLAIN {
+        @Override
+        public void format(String id, ConversionResult result, StringBuilder out) {
+            if (result.isConverted()) {
+                String rrule = result.getRRule();
+                for (int i = 0; i < rrule.length(); i++) {
+                    char c = rrule.charAt(i);
+                    out.append(c == '\n' ? ' ' : c);
+                }
+            }
+        }
+    };
+
+    /**
+     * append a conversion result in this format
+     * @param id record id
+     * @param result conversion result of the record
+     * @param out buffer the line is appended to
+     */
+    public abstract void format(String id, ConversionResult result, StringBuilder out);
+
+    static void appendCsv(String value, StringBuilder out) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    static void appendJson(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
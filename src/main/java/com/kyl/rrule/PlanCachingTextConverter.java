@@ -0,0 +1,302 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Converts quartz cron text to rrule through plans cached by the structure of the expression. The structure is the expression
+ * with every field that is a plain number replaced by a slot, e.g. '0 30 9 ? * 2' and '0 15 18 ? * 6' are both '# # # ? * #'.
+ * <p>
+ * The first expression of a structure is compiled by QuartzCronTextConverter and its rrule is cut into a plan: constant text
+ * segments with a value slot between two of them. Later expressions of the structure skip parsing and compiling, their numbers
+ * are range checked and written between the segments. The 'DTSTART' line of the last dtStart is kept, so a run over the same
+ * dtStart formats it once.
+ * <p>
+ * A structure without a plan, e.g. because a number is part of a range or a step, is cached as well and converted by
+ * QuartzCronTextConverter every time. The instance is safe to share across threads.
+ */
+public class PlanCachingTextConverter {
+    public static final int DEFAULT_MAXIMUM_PLANS = 1_000;
+
+    private static final char SLOT = '#';
+    private static final int DAY_OF_WEEK = 5;
+    private static final int YEAR = 6;
+    private static final int MAX_DIGITS = 4;
+    private static final int RRULE_LENGTH = 128;
+    private static final Plan NO_PLAN = new Plan(null, null);
+
+    private final QuartzCronTextConverter converter;
+    private final int maximumPlans;
+    private final ConcurrentHashMap<String, Plan> plans;
+    private final LongAdder fallbackCount;
+    private volatile DTStartLine dtStartLine;
+
+    public PlanCachingTextConverter() {
+        this(DEFAULT_MAXIMUM_PLANS);
+    }
+
+    /**
+     * @param maximumPlans maximum number of cached structures, must be positive. structures beyond are converted without a plan.
+     */
+    public PlanCachingTextConverter(int maximumPlans) {
+        if (maximumPlans <= 0) {
+            throw new IllegalArgumentException("maximumPlans must be positive but was " + maximumPlans);
+        }
+        this.converter = new QuartzCronTextConverter();
+        this.maximumPlans = maximumPlans;
+        this.plans = new ConcurrentHashMap<>();
+        this.fallbackCount = new LongAdder();
+    }
+
+    /**
+     * @param cronExpression quartz cron expression
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @return rrule string, or null if the expression has no rrule equivalent
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public String convert(String cronExpression, LocalDateTime dtStart) {
+        StringBuilder rrule = new StringBuilder(RRULE_LENGTH);
+        try {
+            return this.convertTo(cronExpression, dtStart, rrule) ? rrule.toString() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+    }
+
+    /**
+     * @param cronExpression quartz cron expression
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @param out output the rrule is appended to
+     * @return false if the expression has no rrule equivalent, nothing is appended then
+     * @throws IOException if out fails
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public boolean convertTo(String cronExpression, LocalDateTime dtStart, Appendable out) throws IOException {
+        int[] values = new int[QuartzCronTextParser.MAX_FIELDS];
+        String structure = structure(cronExpression, values);
+        // out of range numbers are left to the converter to report, they do not decide the plan of the structure
+        Plan plan = structure == null || !isInRange(values) ? NO_PLAN : this.plans.get(structure);
+        if (plan == null) {
+            plan = this.plan(cronExpression, structure, values);
+        }
+        if (plan == NO_PLAN) {
+            this.fallbackCount.increment();
+            return this.converter.convertTo(cronExpression, dtStart, out);
+        }
+        if (dtStart != null) {
+            out.append(this.dtStartLine(dtStart));
+        }
+        plan.appendTo(values, out);
+        return true;
+    }
+
+    /**
+     * @return number of cached structures, with or without a plan
+     */
+    public int getPlanCount() {
+        return this.plans.size();
+    }
+
+    /**
+     * @return number of expressions converted without a plan
+     */
+    public long getFallbackCount() {
+        return this.fallbackCount.sum();
+    }
+
+    private Plan plan(String cronExpression, String structure, int[] values) {
+        // an invalid expression throws here and its structure is not cached
+        CompiledSchedule schedule = this.converter.compile(cronExpression);
+        Plan plan = Plan.of(schedule, values);
+        if (this.plans.size() < this.maximumPlans) {
+            Plan cached = this.plans.putIfAbsent(structure, plan);
+            return cached != null ? cached : plan;
+        }
+        return plan;
+    }
+
+    private String dtStartLine(LocalDateTime dtStart) {
+        DTStartLine line = this.dtStartLine;
+        if (line == null || !line.dtStart.equals(dtStart)) {
+            line = new DTStartLine(dtStart);
+            this.dtStartLine = line;
+        }
+        return line.text;
+    }
+
+    /**
+     * @param values receives the number of every plain number field, -1 for other fields and missing fields
+     * @return expression with plain number fields replaced by SLOT, fields separated by a single space. null if the field count is
+     * not quartz.
+     */
+    static String structure(String cronExpression, int[] values) {
+        StringBuilder structure = new StringBuilder(cronExpression.length());
+        int field = 0;
+        int length = cronExpression.length();
+        for (int i = 0; i < length; ) {
+            if (cronExpression.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            if (field == values.length) {
+                return null;
+            }
+            int end = i;
+            int value = 0;
+            boolean number = true;
+            while (end < length && cronExpression.charAt(end) != ' ') {
+                char c = cronExpression.charAt(end);
+                number &= c >= '0' && c <= '9';
+                value = value * 10 + (c - '0');
+                end++;
+            }
+            if (field > 0) {
+                structure.append(' ');
+            }
+            if (number && end - i <= MAX_DIGITS) {
+                structure.append(SLOT);
+                values[field] = value;
+            } else {
+                structure.append(cronExpression, i, end);
+                values[field] = -1;
+            }
+            field++;
+            i = end;
+        }
+        for (int missing = field; missing < values.length; missing++) {
+            values[missing] = -1;
+        }
+        return field < QuartzCronTextParser.MIN_FIELDS ? null : structure.toString();
+    }
+
+    private static boolean isInRange(int[] values) {
+        for (int field = 0; field < values.length; field++) {
+            if (values[field] >= 0
+                    && (values[field] < QuartzCronTextParser.MIN_VALUES[field] || values[field] > QuartzCronTextParser.MAX_VALUES[field])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * rrule text of a structure: segments[0], value of slot 0, segments[1], ... segments[n]. the year is not part of the rrule and
+     * has no slot.
+     */
+    private static final class Plan {
+        private static final RRuleName[] FIELD_PARTS = {RRuleName.SECOND, RRuleName.MINUTE, RRuleName.HOUR, RRuleName.MONTHDAY,
+                RRuleName.MONTH, RRuleName.WEEKDAY};
+
+        private final String[] segments;
+        private final int[] slotFields;
+
+        private Plan(String[] segments, int[] slotFields) {
+            this.segments = segments;
+            this.slotFields = slotFields;
+        }
+
+        /**
+         * @return plan of the schedule's rrule with a slot for every plain number field, NO_PLAN if the rule part of a plain number
+         * holds more than that number
+         */
+        static Plan of(CompiledSchedule schedule, int[] values) {
+            if (schedule.isUnsupported() || schedule.hasYearDays()) {
+                return NO_PLAN;
+            }
+            for (int field = 0; field < FIELD_PARTS.length; field++) {
+                if (values[field] >= 0 && !isSingleValue(schedule, field, values[field])) {
+                    return NO_PLAN;
+                }
+            }
+            // the rule parts of the slots are left empty, the others are the constant text of the plan
+            CompiledSchedule constant = new CompiledSchedule(schedule.getFrequency(), values[0] >= 0 ? 0L : schedule.getSeconds(),
+                    values[1] >= 0 ? 0L : schedule.getMinutes(), values[2] >= 0 ? 0L : schedule.getHours(),
+                    values[3] >= 0 ? 0L : schedule.getMonthDays(), schedule.getLastMonthDays(), values[4] >= 0 ? 0 : schedule.getMonths(),
+                    values[DAY_OF_WEEK] >= 0 ? 0 : schedule.getWeekdays(), schedule.getNthWeekdays(), schedule.getLastNthWeekdays(),
+                    schedule.getInterval(), schedule.isLastOfSet(), false);
+
+            int slots = 0;
+            for (int field = 0; field < YEAR; field++) {
+                slots += values[field] >= 0 ? 1 : 0;
+            }
+            String[] segments = new String[slots + 1];
+            int[] slotFields = new int[slots];
+            StringBuilder segment = new StringBuilder(RRULE_LENGTH);
+            try {
+                RecurrenceRuleStringBuilder.appendRRulePrefix(schedule.getFrequency(), segment);
+                int slot = 0;
+                for (RRuleName partName : RecurrenceRuleStringBuilder.PART_ORDER) {
+                    int field = fieldOf(partName);
+                    if (field >= 0 && values[field] >= 0) {
+                        segment.append(RRuleText.partPrefix(partName));
+                        segments[slot] = segment.toString();
+                        slotFields[slot++] = field;
+                        segment.setLength(0);
+                    } else {
+                        RecurrenceRuleStringBuilder.appendPart(constant, partName, segment);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // StringBuilder never throws
+            }
+            segments[slots] = segment.toString();
+            return new Plan(segments, slotFields);
+        }
+
+        void appendTo(int[] values, Appendable out) throws IOException {
+            for (int slot = 0; slot < this.slotFields.length; slot++) {
+                out.append(this.segments[slot]);
+                int field = this.slotFields[slot];
+                out.append(field == DAY_OF_WEEK ? RRuleText.WEEKDAYS[values[field]] : RRuleText.NUMBERS[values[field]]);
+            }
+            out.append(this.segments[this.slotFields.length]);
+        }
+
+        private static boolean isSingleValue(CompiledSchedule schedule, int field, int value) {
+            switch (field) {
+                case 0:
+                    return schedule.getSeconds() == 1L << value;
+                case 1:
+                    return schedule.getMinutes() == 1L << value;
+                case 2:
+                    return schedule.getHours() == 1L << value;
+                case 3:
+                    return schedule.getMonthDays() == 1L << value && schedule.getLastMonthDays() == 0;
+                case 4:
+                    return schedule.getMonths() == 1 << value;
+                default:
+                    return schedule.getWeekdays() == 1 << value && schedule.getNthWeekdays() == 0 && schedule.getLastNthWeekdays() == 0;
+            }
+        }
+
+        private static int fieldOf(RRuleName partName) {
+            for (int field = 0; field < FIELD_PARTS.length; field++) {
+                if (FIELD_PARTS[field] == partName) {
+                    return field;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class DTStartLine {
+        private final LocalDateTime dtStart;
+        private final String text;
+
+        private DTStartLine(LocalDateTime dtStart) {
+            this.dtStart = Objects.requireNonNull(dtStart);
+            StringBuilder text = new StringBuilder(RRULE_LENGTH);
+            try {
+                RecurrenceRuleStringBuilder.appendDTStartPrefix(text);
+                RRuleText.appendDTStart(dtStart, text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // StringBuilder never throws
+            }
+            this.text = text.append(RecurrenceRuleStringBuilder.RULE_OPTION_SEPARATOR).toString();
+        }
+    }
+}
@@ -3,42 +3,81 @@ package com.kyl.rrule;
 import com.cronutils.model.Cron;
 import com.cronutils.model.field.CronField;
 import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.expression.Always;
 import com.cronutils.model.field.expression.Every;
 import com.cronutils.model.field.expression.FieldExpression;
 import com.cronutils.model.field.expression.On;
-import org.apache.commons.collections4.CollectionUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.Objects;
 
 public class QuartzCronRRuleConverter implements RRuleConverter {
-    private static final Map<CronFieldName, Integer> CRON_FIELD_NAME_ORDER = new HashMap<>() {{
-        put(CronFieldName.SECOND, CronFieldName.SECOND.getOrder());
-        put(CronFieldName.MINUTE, CronFieldName.MONTH.getOrder());
-        put(CronFieldName.HOUR, CronFieldName.HOUR.getOrder());
-        put(CronFieldName.DAY_OF_MONTH, CronFieldName.DAY_OF_MONTH.getOrder());
-        put(CronFieldName.MONTH, 5);
-        put(CronFieldName.DAY_OF_WEEK, 4);
-        put(CronFieldName.YEAR, CronFieldName.YEAR.getOrder());
-        put(CronFieldName.DAY_OF_YEAR, CronFieldName.DAY_OF_MONTH.getOrder());
-    }};
-    private static final Map<CronFieldName, RRuleFrequency> FREQUENCY_MAPPING = new HashMap<>() {{
-        put(CronFieldName.SECOND, RRuleFrequency.SECONDLY);
-        put(CronFieldName.MINUTE, RRuleFrequency.MINUTELY);
-        put(CronFieldName.HOUR, RRuleFrequency.HOURLY);
-        put(CronFieldName.DAY_OF_MONTH, RRuleFrequency.DAILY);
-        put(CronFieldName.MONTH, RRuleFrequency.MONTHLY);
-        put(CronFieldName.DAY_OF_WEEK, RRuleFrequency.WEEKLY);
-        put(CronFieldName.YEAR, RRuleFrequency.MONTHLY);
-        put(CronFieldName.DAY_OF_YEAR, RRuleFrequency.MONTHLY);
-    }};
+    /**
+     * fields in the order they are searched for the frequency. day of year is searched with day of month, minute with day of week
+     * and month after them.
+     */
+    private static final CronFieldName[] FREQUENCY_SEARCH_ORDER = {CronFieldName.SECOND, CronFieldName.HOUR,
+            CronFieldName.DAY_OF_MONTH, CronFieldName.DAY_OF_YEAR, CronFieldName.MINUTE, CronFieldName.DAY_OF_WEEK,
+            CronFieldName.MONTH, CronFieldName.YEAR};
+    private static final Map<CronFieldName, RRuleFrequency> FREQUENCY_MAPPING = new EnumMap<>(CronFieldName.class);
+    private static final int DTSTART_LENGTH = 16;
+
+    static {
+        FREQUENCY_MAPPING.put(CronFieldName.SECOND, RRuleFrequency.SECONDLY);
+        FREQUENCY_MAPPING.put(CronFieldName.MINUTE, RRuleFrequency.MINUTELY);
+        FREQUENCY_MAPPING.put(CronFieldName.HOUR, RRuleFrequency.HOURLY);
+        FREQUENCY_MAPPING.put(CronFieldName.DAY_OF_MONTH, RRuleFrequency.DAILY);
+        FREQUENCY_MAPPING.put(CronFieldName.MONTH, RRuleFrequency.MONTHLY);
+        FREQUENCY_MAPPING.put(CronFieldName.DAY_OF_WEEK, RRuleFrequency.WEEKLY);
+        FREQUENCY_MAPPING.put(CronFieldName.YEAR, RRuleFrequency.MONTHLY);
+        FREQUENCY_MAPPING.put(CronFieldName.DAY_OF_YEAR, RRuleFrequency.MONTHLY);
+    }
+
+    private final ConversionMetrics metrics;
+    private final int nearestWeekdayMonths;
+    private final boolean minimize;
+
+    public QuartzCronRRuleConverter() {
+        this(ConversionMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics receives latency, outcome and shape of every conversion, ConversionMetrics.NOOP to measure nothing
+     */
+    public QuartzCronRRuleConverter(ConversionMetrics metrics) {
+        this(metrics, 0);
+    }
+
+    /**
+     * Quartz 'nW' has no rrule equivalent. With a horizon, it is converted to the 'RDATE' list of its fire times in that many
+     * months from 'DTSTART'. Without 'DTSTART', or with a year field or a month step, it stays unsupported.
+     * @param metrics receives latency, outcome and shape of every conversion, ConversionMetrics.NOOP to measure nothing
+     * @param nearestWeekdayMonths horizon in months for 'nW', 0 to leave 'nW' unsupported
+     */
+    public QuartzCronRRuleConverter(ConversionMetrics metrics, int nearestWeekdayMonths) {
+        this(metrics, nearestWeekdayMonths, false);
+    }
+
+    /**
+     * With minimize, the shortest equivalent rrule is written, e.g. 'FREQ=MINUTELY;INTERVAL=15' with an aligned 'DTSTART' instead
+     * of 'FREQ=HOURLY;BYMINUTE=0,15,30,45'. See RRuleMinimizer.
+     * @param metrics receives latency, outcome and shape of every conversion, ConversionMetrics.NOOP to measure nothing
+     * @param nearestWeekdayMonths horizon in months for 'nW', 0 to leave 'nW' unsupported
+     * @param minimize true to write the shortest equivalent rrule
+     */
+    public QuartzCronRRuleConverter(ConversionMetrics metrics, int nearestWeekdayMonths, boolean minimize) {
+        if (nearestWeekdayMonths < 0) {
+            throw new IllegalArgumentException("nearestWeekdayMonths must not be negative: " + nearestWeekdayMonths);
+        }
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        this.nearestWeekdayMonths = nearestWeekdayMonths;
+        this.minimize = minimize;
+    }
 
     /**
      * check if FieldExpression should be mapped to rrule frequency
@@ -46,16 +85,8 @@ public class QuartzCronRRuleConverter implements RRuleConverter {
      * @return true
      */
     protected boolean isFrequency(FieldExpression fieldExpression) {
-        Predicate<FieldExpression> isEveryOne = (fe) -> {
-            if (fe instanceof Every) {
-                Every e = (Every) fe;
-                return e.getPeriod().getValue() == 1;
-            }
-            return false;
-        };
-
         return (!(fieldExpression instanceof On) && fieldExpression != FieldExpression.questionMark())
-                || isEveryOne.test(fieldExpression);
+                || (fieldExpression instanceof Every && ((Every) fieldExpression).getPeriod().getValue() == 1);
     }
 
     /**
@@ -64,65 +95,170 @@ public class QuartzCronRRuleConverter implements RRuleConverter {
      * @return equivalent rrule frequency
      */
     protected RRuleFrequency findFrequency(Map<CronFieldName, CronField> cronFieldNameCronFieldMap) {
-        Optional<CronField> frequencyFieldOpt = cronFieldNameCronFieldMap.values()
-                .stream()
-                .sorted(Comparator.comparingInt(f -> CRON_FIELD_NAME_ORDER.get(f.getField())))
-                .filter(f -> this.isFrequency(f.getExpression()))
-                .findFirst();
+        for (CronFieldName cronFieldName : FREQUENCY_SEARCH_ORDER) {
+            CronField field = cronFieldNameCronFieldMap.get(cronFieldName);
+            if (field != null && this.isFrequency(field.getExpression())) {
+                return FREQUENCY_MAPPING.get(cronFieldName);
+            }
+        }
+        return RRuleFrequency.MONTHLY;
+    }
 
-        return frequencyFieldOpt.map(f -> FREQUENCY_MAPPING.get(f.getField())).orElse(RRuleFrequency.MONTHLY);
+    /**
+     * Find equivalent rrule frequency for the fields that isFrequency holds for, e.g. when they were found without cron-utils.
+     * @param frequencyFields bit set of the CronFieldName ordinals of the frequency fields
+     * @return equivalent rrule frequency
+     */
+    static RRuleFrequency findFrequency(int frequencyFields) {
+        for (CronFieldName cronFieldName : FREQUENCY_SEARCH_ORDER) {
+            if ((frequencyFields & (1 << cronFieldName.ordinal())) != 0) {
+                return FREQUENCY_MAPPING.get(cronFieldName);
+            }
+        }
+        return RRuleFrequency.MONTHLY;
     }
 
     public String convert(Cron cron, LocalDateTime dtStart) {
-        Map<CronFieldName, CronField> cronFieldNameCronFieldMap = cron.retrieveFieldsAsMap();
+        long startNanos = this.startTimer();
+        CompiledSchedule schedule;
+        String rrule;
+        try {
+            schedule = this.compile(cron);
+            rrule = schedule.isUnsupported() || this.minimize ? this.append(schedule, dtStart) : this.render(schedule, dtStart);
+        } catch (RuntimeException e) {
+            this.recordFailure(startNanos);
+            throw e;
+        }
+        this.recordOutcome(startNanos, schedule, rrule != null, rrule == null ? -1 : rrule.length());
+        return rrule;
+    }
 
-        RRuleFrequency frequency = this.findFrequency(cronFieldNameCronFieldMap);
-
-        Stream<Map<RRuleName, List<String>>> rulePartStream = cronFieldNameCronFieldMap.entrySet().stream()
-                .filter((entry) -> CronFieldName.YEAR != entry.getKey())
-                .map((entry) -> {
-                    CronField field = entry.getValue();
-                    CronExpressionRRulePartConverter visitor = new CronExpressionRRulePartConverter(entry.getKey(), field.getConstraints());
-                    field.getExpression().accept(visitor);
-                    return visitor.getRRuleParts();
-                });
-
-        Map<RRuleName, List<String>> rruleParts = rulePartStream.reduce(new HashMap<>(), (acc, curr) -> {
-            curr.forEach((rRuleName, strings) ->
-                    acc.compute(rRuleName, (k, v) -> {
-                        if (CollectionUtils.isEmpty(v)) {
-                            return strings;
-                        } else {
-                            v.addAll(strings);
-                            return v;
-                        }
-                    })
-            );
-            return acc;
-        });
-
-        if (rruleParts.containsKey(RRuleName.UNSUPPORTED)) {
-            return null;
+    private String append(CompiledSchedule schedule, LocalDateTime dtStart) {
+        StringBuilder rrule = new StringBuilder();
+        try {
+            return this.appendTo(schedule, dtStart, rrule) ? rrule.toString() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
         }
+    }
 
-        RRuleStringBuilder defaultRRuleStringBuilder = new RecurrenceRuleStringBuilder(frequency);
+    private String render(CompiledSchedule schedule, LocalDateTime dtStart) {
+        RRuleStringBuilder defaultRRuleStringBuilder = new RecurrenceRuleStringBuilder(schedule.getFrequency());
         if (dtStart != null) {
             defaultRRuleStringBuilder.withDTStart(this.convertToDTStartFormat(dtStart));
         }
 
-        defaultRRuleStringBuilder.withRRuleParts(rruleParts);
+        defaultRRuleStringBuilder.withSchedule(schedule);
 
         return defaultRRuleStringBuilder.build();
     }
 
+    @Override
+    public boolean convertTo(Cron cron, LocalDateTime dtStart, Appendable out) throws IOException {
+        long startNanos = this.startTimer();
+        int startLength = out instanceof CharSequence ? ((CharSequence) out).length() : -1;
+        CompiledSchedule schedule;
+        boolean converted;
+        try {
+            schedule = this.compile(cron);
+            converted = this.appendTo(schedule, dtStart, out);
+        } catch (IOException | RuntimeException e) {
+            this.recordFailure(startNanos);
+            throw e;
+        }
+        this.recordOutcome(startNanos, schedule, converted, startLength < 0 ? -1 : ((CharSequence) out).length() - startLength);
+        return converted;
+    }
+
+    /**
+     * append the rrule of a compiled schedule, minimized if enabled, or the 'RDATE' list of an unsupported schedule with 'nW' if
+     * enabled
+     * @return false if the schedule has no rrule equivalent, nothing is appended then
+     */
+    boolean appendTo(CompiledSchedule schedule, LocalDateTime dtStart, Appendable out) throws IOException {
+        if (!schedule.isUnsupported() && this.minimize) {
+            RRuleMinimizer.appendMinimized(schedule, dtStart, out);
+            return true;
+        } else if (!schedule.isUnsupported()) {
+            RecurrenceRuleStringBuilder.appendRRule(schedule, dtStart, out);
+            return true;
+        }
+        // without 'DTSTART' the dates would depend on the time of the conversion
+        return this.nearestWeekdayMonths > 0 && dtStart != null
+                && NearestWeekdayExpander.appendRDates(schedule, dtStart, dtStart, this.nearestWeekdayMonths, out);
+    }
+
+    long startTimer() {
+        return this.metrics == ConversionMetrics.NOOP ? 0L : System.nanoTime();
+    }
+
+    void recordOutcome(long startNanos, CompiledSchedule schedule, boolean converted, int length) {
+        if (this.metrics == ConversionMetrics.NOOP) {
+            return;
+        }
+        long latencyNanos = System.nanoTime() - startNanos;
+        if (!converted) {
+            this.metrics.unsupported(latencyNanos, schedule.getFrequency());
+        } else {
+            this.metrics.converted(latencyNanos, schedule.getFrequency(), length);
+        }
+    }
+
+    void recordFailure(long startNanos) {
+        if (this.metrics != ConversionMetrics.NOOP) {
+            this.metrics.failed(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * compile a Cron object into its rrule parts without rendering rrule text
+     * @param cron a valid Cron object
+     * @return compiled schedule. check CompiledSchedule.isUnsupported before rendering it
+     */
+    public CompiledSchedule compile(Cron cron) {
+        Map<CronFieldName, CronField> cronFieldNameCronFieldMap = cron.retrieveFieldsAsMap();
+
+        CompiledSchedule schedule = new CompiledSchedule(this.findFrequency(cronFieldNameCronFieldMap));
+        this.compileFields(cronFieldNameCronFieldMap.values(), CronDialect.QUARTZ, schedule);
+        return schedule;
+    }
+
+    void compileFields(Collection<CronField> fields, CronDialect dialect, CompiledSchedule schedule) {
+        for (CronField field : fields) {
+            this.metrics.fieldExpression(field.getField(), field.getExpression());
+            if (CronFieldName.YEAR != field.getField()) {
+                field.getExpression().accept(new CronExpressionScheduleCompiler(field.getField(), field.getConstraints(), schedule,
+                        dialect));
+            } else if (!(field.getExpression() instanceof Always)) {
+                schedule.setInexactDates(); // rrule has no year part
+            }
+        }
+    }
+
+    /**
+     * @return options that change the rrule text, e.g. for IncrementalConverter to notice a differently configured converter
+     */
+    String options() {
+        return "nearestWeekdayMonths=" + this.nearestWeekdayMonths + ", minimize=" + this.minimize;
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "[" + this.options() + "]";
+    }
+
     /**
      * format a LocalDateTime instance in rrule instant format
      * @param dtStart LocalDateTime instance
      * @return string in rrule instant format
      */
     protected String convertToDTStartFormat(LocalDateTime dtStart) {
-        DateTimeFormatter dtStartFormat = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
-
-        return dtStartFormat.format(dtStart);
+        StringBuilder dtStartStr = new StringBuilder(DTSTART_LENGTH);
+        try {
+            RRuleText.appendDTStart(dtStart, dtStartStr);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return dtStartStr.toString();
     }
 }
@@ -0,0 +1,111 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Converts quartz cron text to rrule. With the fast path enabled, common shapes are parsed straight into a CompiledSchedule and
+ * cron-utils only parses the expressions the fast path does not recognize. Both paths produce the same rrule. Conversions are
+ * recorded in the ConversionMetrics of the converter on both paths, field expressions only for the expressions cron-utils parses.
+ */
+public class QuartzCronTextConverter {
+    private static final int RRULE_LENGTH = 128;
+
+    private final QuartzCronRRuleConverter converter;
+    private volatile CronParser cronParser; // created by the first fallback
+    private final boolean fastPath;
+    private final LongAdder fallbackCount = new LongAdder();
+
+    public QuartzCronTextConverter() {
+        this(new QuartzCronRRuleConverter(), true);
+    }
+
+    /**
+     * @param converter converter used for the expressions parsed by cron-utils, its metrics record every conversion
+     * @param fastPath true to parse common shapes without cron-utils
+     */
+    public QuartzCronTextConverter(QuartzCronRRuleConverter converter, boolean fastPath) {
+        this.converter = converter;
+        this.fastPath = fastPath;
+    }
+
+    /**
+     * @param cronExpression quartz cron expression
+     * @return compiled schedule. check CompiledSchedule.isUnsupported before rendering it
+     * @throws IllegalArgumentException if cron-utils cannot parse the expression
+     */
+    public CompiledSchedule compile(String cronExpression) {
+        if (this.fastPath) {
+            CompiledSchedule schedule = QuartzCronTextParser.parse(cronExpression);
+            if (schedule != null) {
+                return schedule;
+            }
+        }
+        this.fallbackCount.increment();
+        return this.converter.compile(this.cronParser().parse(cronExpression));
+    }
+
+    /**
+     * the quartz definition and parser of cron-utils load many classes, so they are only built when the fast path falls back.
+     * threads racing on the first fallback may each build a parser, any of them parses the same.
+     */
+    private CronParser cronParser() {
+        CronParser parser = this.cronParser;
+        if (parser == null) {
+            parser = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+            this.cronParser = parser;
+        }
+        return parser;
+    }
+
+    /**
+     * @param cronExpression quartz cron expression
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @return rrule string, or null if the expression has no rrule equivalent
+     */
+    public String convert(String cronExpression, LocalDateTime dtStart) {
+        StringBuilder rrule = new StringBuilder(RRULE_LENGTH);
+        try {
+            return this.convertTo(cronExpression, dtStart, rrule) ? rrule.toString() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+    }
+
+    /**
+     * @param cronExpression quartz cron expression
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @param out output the rrule is appended to
+     * @return false if the expression has no rrule equivalent, nothing is appended then
+     * @throws IOException if out fails
+     */
+    public boolean convertTo(String cronExpression, LocalDateTime dtStart, Appendable out) throws IOException {
+        long startNanos = this.converter.startTimer();
+        int startLength = out instanceof CharSequence ? ((CharSequence) out).length() : -1;
+        CompiledSchedule schedule;
+        boolean converted;
+        try {
+            schedule = this.compile(cronExpression);
+            converted = this.converter.appendTo(schedule, dtStart, out);
+        } catch (IOException | RuntimeException e) {
+            this.converter.recordFailure(startNanos);
+            throw e;
+        }
+        this.converter.recordOutcome(startNanos, schedule, converted, startLength < 0 ? -1 : ((CharSequence) out).length() - startLength);
+        return converted;
+    }
+
+    /**
+     * @return number of expressions parsed by cron-utils
+     */
+    public long getFallbackCount() {
+        return this.fallbackCount.sum();
+    }
+}
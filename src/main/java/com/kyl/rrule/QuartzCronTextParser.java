@@ -0,0 +1,330 @@
+package com.kyl.rrule;
+
+import com.cronutils.model.field.CronFieldName;
+
+/**
+ * Parses quartz cron text straight into a CompiledSchedule without building cron-utils Cron and FieldExpression trees. It follows
+ * the conversion rules of CronExpressionScheduleCompiler, e.g. the start value of a step is ignored and a day of month step becomes
+ * 'INTERVAL'.
+ * <p>
+ * Only common shapes are recognized: numbers, names, ranges, lists, steps, '*', '?', 'L', 'L-n', 'LW', 'nW', 'nL' and 'n#m'.
+ * Anything else, including every expression cron-utils would reject, makes parse return null so the caller can fall back to
+ * cron-utils and get the same result or error as before.
+ */
+final class QuartzCronTextParser {
+    // field indices, in quartz field order
+    private static final int DAY_OF_MONTH = 3;
+    private static final int MONTH = 4;
+    private static final int DAY_OF_WEEK = 5;
+    private static final int YEAR = 6;
+    static final int MIN_FIELDS = 6;
+    static final int MAX_FIELDS = 7;
+
+    private static final CronFieldName[] CRON_FIELD_NAMES = {CronFieldName.SECOND, CronFieldName.MINUTE, CronFieldName.HOUR,
+            CronFieldName.DAY_OF_MONTH, CronFieldName.MONTH, CronFieldName.DAY_OF_WEEK, CronFieldName.YEAR};
+    private static final RRuleName[] RRULE_NAMES = {RRuleName.SECOND, RRuleName.MINUTE, RRuleName.HOUR, RRuleName.MONTHDAY,
+            RRuleName.MONTH, RRuleName.WEEKDAY, null};
+    // quartz field ranges, the same as the cron-utils FieldConstraints of the QUARTZ definition
+    static final int[] MIN_VALUES = {0, 0, 0, 1, 1, 1, 1970};
+    static final int[] MAX_VALUES = {59, 59, 23, 31, 12, 7, 2099};
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAY_OF_WEEK_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final int NAME_LENGTH = 3;
+    private static final int MAX_DIGITS = 4;
+    private static final int RRULE_WEEKDAYS_MONDAY = 2;
+    private static final int RRULE_WEEKDAYS_FRIDAY = 6;
+    private static final int INVALID = -1;
+
+    private QuartzCronTextParser() {
+    }
+
+    /**
+     * @param expression quartz cron expression
+     * @return compiled schedule, or null if the expression is not one of the recognized shapes
+     */
+    static CompiledSchedule parse(String expression) {
+        int[] starts = new int[MAX_FIELDS];
+        int[] ends = new int[MAX_FIELDS];
+        int fieldCount = split(expression, starts, ends);
+        if (fieldCount < MIN_FIELDS) {
+            return null;
+        }
+
+        // quartz requires exactly one of day of month and day of week to be '?'
+        if (isQuestionMark(expression, starts[DAY_OF_MONTH], ends[DAY_OF_MONTH])
+                == isQuestionMark(expression, starts[DAY_OF_WEEK], ends[DAY_OF_WEEK])) {
+            return null;
+        }
+
+        int frequencyFields = 0;
+        for (int field = 0; field < fieldCount; field++) {
+            if (isFrequency(expression, starts[field], ends[field])) {
+                frequencyFields |= 1 << CRON_FIELD_NAMES[field].ordinal();
+            }
+        }
+
+        CompiledSchedule schedule = new CompiledSchedule(QuartzCronRRuleConverter.findFrequency(frequencyFields));
+        for (int field = 0; field < fieldCount; field++) {
+            if (!parseField(expression, field, starts[field], ends[field], schedule)) {
+                return null;
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * split the expression at runs of spaces
+     * @return number of fields, or INVALID if there are too many fields or another whitespace character
+     */
+    private static int split(String expression, int[] starts, int[] ends) {
+        int fieldCount = 0;
+        int length = expression.length();
+        int i = 0;
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (c == ' ') {
+                i++;
+                continue;
+            }
+            if (fieldCount == MAX_FIELDS) {
+                return INVALID;
+            }
+            starts[fieldCount] = i;
+            while (i < length && expression.charAt(i) > ' ') {
+                i++;
+            }
+            if (i < length && expression.charAt(i) != ' ') {
+                return INVALID;
+            }
+            ends[fieldCount++] = i;
+        }
+        return fieldCount;
+    }
+
+    private static boolean isQuestionMark(String expression, int start, int end) {
+        return end - start == 1 && expression.charAt(start) == '?';
+    }
+
+    /**
+     * same result as QuartzCronRRuleConverter.isFrequency on the FieldExpression cron-utils would parse: everything but a single
+     * value, a special character and '?' is a frequency field
+     */
+    private static boolean isFrequency(String expression, int start, int end) {
+        if (isQuestionMark(expression, start, end)) {
+            return false;
+        }
+        boolean range = false;
+        for (int i = start; i < end; i++) {
+            char c = expression.charAt(i);
+            if (c == ',' || c == '/' || c == '*') {
+                return true;
+            }
+            range |= c == '-';
+        }
+        return range && expression.charAt(start) != 'L'; // 'L-n' is a single day
+    }
+
+    private static boolean parseField(String expression, int field, int start, int end, CompiledSchedule schedule) {
+        if (isQuestionMark(expression, start, end)) {
+            return field == DAY_OF_MONTH || field == DAY_OF_WEEK;
+        }
+        if (field == DAY_OF_MONTH && (expression.charAt(start) == 'L' || expression.charAt(end - 1) == 'W')) {
+            return parseDayOfMonthSpecial(expression, start, end, schedule);
+        }
+        if (field == DAY_OF_WEEK && (expression.charAt(end - 1) == 'L' || indexOf(expression, '#', start, end) != INVALID)) {
+            return parseDayOfWeekSpecial(expression, start, end, schedule);
+        }
+
+        int itemStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || expression.charAt(i) == ',') {
+                if (!parseItem(expression, field, itemStart, i, schedule)) {
+                    return false;
+                }
+                itemStart = i + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 'L', 'L-n', 'LW' and 'nW'. a special character is never part of a list.
+     */
+    private static boolean parseDayOfMonthSpecial(String expression, int start, int end, CompiledSchedule schedule) {
+        int length = end - start;
+        if (length == 1 && expression.charAt(start) == 'L') {
+            schedule.add(RRuleName.MONTHDAY, -1);
+            return true;
+        }
+        if (length == 2 && expression.charAt(start) == 'L' && expression.charAt(start + 1) == 'W') {
+            for (int weekday = RRULE_WEEKDAYS_MONDAY; weekday <= RRULE_WEEKDAYS_FRIDAY; weekday++) {
+                schedule.add(RRuleName.WEEKDAY, weekday);
+            }
+            schedule.setLastOfSet();
+            return true;
+        }
+        if (expression.charAt(start) == 'L') {
+            if (expression.charAt(start + 1) != '-') {
+                return false;
+            }
+            int offset = parseValue(expression, DAY_OF_MONTH, start + 2, end);
+            if (offset == INVALID) {
+                return false;
+            }
+            schedule.add(RRuleName.MONTHDAY, -offset);
+            return true;
+        }
+        // nearest weekday has no rrule equivalent
+        int day = parseValue(expression, DAY_OF_MONTH, start, end - 1);
+        if (day == INVALID) {
+            return false;
+        }
+        schedule.addNearestWeekday(day);
+        return true;
+    }
+
+    /**
+     * 'L', 'nL' and 'n#m'. a special character is never part of a list.
+     */
+    private static boolean parseDayOfWeekSpecial(String expression, int start, int end, CompiledSchedule schedule) {
+        if (end - start == 1 && expression.charAt(start) == 'L') {
+            schedule.add(RRuleName.WEEKDAY, MAX_VALUES[DAY_OF_WEEK]); // 'L' alone is every saturday
+            return true;
+        }
+        if (expression.charAt(end - 1) == 'L') {
+            int weekday = parseNumber(expression, DAY_OF_WEEK, start, end - 1);
+            if (weekday == INVALID) {
+                return false;
+            }
+            schedule.add(RRuleName.WEEKDAY, weekday);
+            schedule.setLastOfSet();
+            return true;
+        }
+        int hash = indexOf(expression, '#', start, end);
+        int weekday = parseNumber(expression, DAY_OF_WEEK, start, hash);
+        int nth = parseDigits(expression, hash + 1, end);
+        if (weekday == INVALID || nth < 1 || nth > CompiledSchedule.MAX_NTH_WEEKDAY) {
+            return false;
+        }
+        schedule.addNthWeekday(nth, weekday);
+        return true;
+    }
+
+    /**
+     * a single list item: '*', a value or a range, optionally followed by '/' and a step
+     */
+    private static boolean parseItem(String expression, int field, int start, int end, CompiledSchedule schedule) {
+        if (start == end) {
+            return false;
+        }
+        int slash = indexOf(expression, '/', start, end);
+        int baseEnd = slash == INVALID ? end : slash;
+        int dash = indexOf(expression, '-', start, baseEnd);
+        boolean always = baseEnd - start == 1 && expression.charAt(start) == '*';
+        int from;
+        int to;
+        if (always) {
+            from = MIN_VALUES[field];
+            to = MAX_VALUES[field];
+        } else if (dash == INVALID) {
+            from = parseValue(expression, field, start, baseEnd);
+            to = from;
+        } else {
+            from = parseValue(expression, field, start, dash);
+            to = parseValue(expression, field, dash + 1, baseEnd);
+        }
+        if (from == INVALID || to == INVALID || from > to) {
+            return false; // cron-utils decides about wrapping ranges
+        }
+
+        RRuleName rruleName = RRULE_NAMES[field];
+        if (field == YEAR && !always) {
+            schedule.setInexactDates();
+        }
+        if (slash != INVALID) {
+            int period = parseDigits(expression, slash + 1, end);
+            if (period < 1 || period > MAX_VALUES[field] || rruleName == null) {
+                return false;
+            }
+            addEvery(field, period, schedule);
+        } else if (!always && rruleName != null) {
+            for (int value = from; value <= to; value++) {
+                schedule.add(rruleName, value);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * same rule as CronExpressionScheduleCompiler.visit(Every), the start value of the step is ignored
+     */
+    private static void addEvery(int field, int period, CompiledSchedule schedule) {
+        if (period == 1) {
+            return; // equivalent to always
+        }
+        if (field == DAY_OF_MONTH) {
+            schedule.setInterval(period);
+            return;
+        }
+        if (field == MONTH) {
+            schedule.setInexactDates();
+        }
+        int start = MIN_VALUES[field];
+        for (int i = start + Math.floorMod(-start, period); i <= MAX_VALUES[field]; i += period) {
+            schedule.add(RRULE_NAMES[field], i);
+        }
+    }
+
+    /**
+     * @return number or name value within the field range, or INVALID
+     */
+    private static int parseValue(String expression, int field, int start, int end) {
+        if (end - start == NAME_LENGTH && Character.isLetter(expression.charAt(start))) {
+            if (field == MONTH) {
+                return parseName(expression, MONTH_NAMES, start);
+            } else if (field == DAY_OF_WEEK) {
+                return parseName(expression, DAY_OF_WEEK_NAMES, start);
+            }
+            return INVALID;
+        }
+        return parseNumber(expression, field, start, end);
+    }
+
+    private static int parseNumber(String expression, int field, int start, int end) {
+        int value = parseDigits(expression, start, end);
+        return value < MIN_VALUES[field] || value > MAX_VALUES[field] ? INVALID : value;
+    }
+
+    private static int parseName(String expression, String[] names, int start) {
+        for (int i = 0; i < names.length; i++) {
+            if (expression.regionMatches(true, start, names[i], 0, NAME_LENGTH)) {
+                return i + 1;
+            }
+        }
+        return INVALID;
+    }
+
+    private static int parseDigits(String expression, int start, int end) {
+        if (start >= end || end - start > MAX_DIGITS) {
+            return INVALID;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = expression.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int indexOf(String expression, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (expression.charAt(i) == c) {
+                return i;
+            }
+        }
+        return INVALID;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kyl.rrule;
+
+import java.util.Objects;
+
+/**
+ * A change of the conversion result of one record between two syncs of an IncrementalConverter
+ */
+public final class RRuleChange {
+
+    public enum Type {
+        ADDED, CHANGED, REMOVED
+    }
+
+    private final Type type;
+    private final String id;
+    private final ConversionResult result;
+
+    RRuleChange(Type type, String id, ConversionResult result) {
+        this.type = type;
+        this.id = id;
+        this.result = result;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * @return new conversion result. 'null' for REMOVED
+     */
+    public ConversionResult getResult() {
+        return this.result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RRuleChange)) {
+            return false;
+        }
+        RRuleChange other = (RRuleChange) o;
+        return this.type == other.type && this.id.equals(other.id) && Objects.equals(this.result, other.result);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.type, this.id, this.result);
+    }
+
+    @Override
+    public String toString() {
+        return this.type + " " + this.id + (this.result == null ? "" : " " + this.result);
+    }
+}
@@ -1,6 +1,11 @@
 package com.kyl.rrule;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 
 import com.cronutils.model.Cron;
 
@@ -16,4 +21,88 @@ public interface RRuleConverter {
      * @return a rrule string. 'null' if Cron object contains unsupported special character 'W'
      */
     String convert(Cron cron, LocalDateTime dtStart);
+
+    /**
+     * convert a Cron object and append the rrule string to an output
+     * @param cron a valid Cron object
+     * @param dtStart a LocalDateTime object specify 'DTSTART' option in rrule string. for null value, 'DTSTART' is omitted.
+     * @param out output the rrule string is appended to, e.g. a reused StringBuilder
+     * @return false if Cron object contains unsupported special character 'W'. nothing is appended in that case.
+     * @throws IOException if out fails
+     */
+    default boolean convertTo(Cron cron, LocalDateTime dtStart, Appendable out) throws IOException {
+        String rrule = this.convert(cron, dtStart);
+        if (rrule == null) {
+            return false;
+        }
+        out.append(rrule);
+        return true;
+    }
+
+    /**
+     * convert a Cron object to rrule string that fires at the local times of a time zone, across daylight saving changes:
+     * 'DTSTART;TZID=Europe/Berlin:20221004T150740'. A fixed offset is written as its 'Etc/GMT' zone, +02:00 as
+     * 'TZID=Etc/GMT-2', and UTC in the 'Z' form 'DTSTART:20221004T130740Z'.
+     * @param cron a valid Cron object
+     * @param dtStart 'DTSTART' with its time zone, must not be null
+     * @return a rrule string. 'null' if Cron object contains unsupported special character 'W'
+     * @throws IllegalArgumentException if dtStart has a fixed offset that is not whole hours, it has no 'TZID' name
+     */
+    default String convertInZone(Cron cron, ZonedDateTime dtStart) {
+        StringBuilder rrule = new StringBuilder();
+        try {
+            return this.convertInZoneTo(cron, dtStart, rrule) ? rrule.toString() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+    }
+
+    /**
+     * convert a Cron object and append the rrule string in the time zone of dtStart to an output, see convertInZone
+     * @param cron a valid Cron object
+     * @param dtStart 'DTSTART' with its time zone, must not be null
+     * @param out output the rrule string is appended to
+     * @return false if Cron object contains unsupported special character 'W'. nothing is appended in that case.
+     * @throws IOException if out fails
+     * @throws IllegalArgumentException if dtStart has a fixed offset that is not whole hours, it has no 'TZID' name
+     */
+    default boolean convertInZoneTo(Cron cron, ZonedDateTime dtStart, Appendable out) throws IOException {
+        return this.appendInZone(cron, dtStart.toLocalDateTime(), dtStart.getZone(), out);
+    }
+
+    /**
+     * convert a Cron object to rrule string that fires at the local times of a time zone, see convertInZone. dtStart is resolved
+     * with a transition table per zone that is built once, so converting many dtStarts over many zones does not resolve ZoneRules
+     * every time. A local time in a daylight saving gap moves later by the length of the gap, in an overlap it is the earlier one.
+     * @param cron a valid Cron object
+     * @param dtStart local 'DTSTART' in the zone, must not be null
+     * @param zone time zone of dtStart
+     * @return a rrule string. 'null' if Cron object contains unsupported special character 'W'
+     * @throws IllegalArgumentException if the zone is a fixed offset that is not whole hours, it has no 'TZID' name
+     */
+    default String convertInZone(Cron cron, LocalDateTime dtStart, ZoneId zone) {
+        StringBuilder rrule = new StringBuilder();
+        try {
+            return this.appendInZone(cron, ZoneOffsetTable.resolve(dtStart, zone), zone, rrule) ? rrule.toString() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+    }
+
+    /**
+     * @param dtStart valid local 'DTSTART' in the zone
+     */
+    private boolean appendInZone(Cron cron, LocalDateTime dtStart, ZoneId zone, Appendable out) throws IOException {
+        ZoneId normalized = zone.normalized();
+        if (normalized.equals(ZoneOffset.UTC)) {
+            return this.convertTo(cron, dtStart, out);
+        }
+        ZoneId tzid = normalized instanceof ZoneOffset ? RRuleText.tzidZone((ZoneOffset) normalized) : zone;
+        StringBuilder rrule = new StringBuilder();
+        if (!this.convertTo(cron, dtStart, rrule)) {
+            return false;
+        }
+        RRuleText.appendInZone(rrule, tzid, out);
+        return true;
+    }
 }
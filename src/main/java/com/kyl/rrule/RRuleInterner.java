@@ -0,0 +1,160 @@
+package com.kyl.rrule;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent weak canonical map of rrule strings. intern returns one shared instance per distinct rrule, so a large catalog of
+ * schedules holds every distinct rule once. The table only holds weak references: a rule no caller refers to any more is dropped
+ * from the table, so it does not grow when the catalog changes.
+ * <p>
+ * Memory saved is an estimate of the String and byte[] size of every duplicate that was replaced, for compact Latin-1 strings and
+ * compressed object pointers.
+ */
+public class RRuleInterner {
+    private static final int STRING_SIZE = 24;
+    private static final int ARRAY_HEADER_SIZE = 16;
+    private static final int OBJECT_ALIGNMENT = 8;
+
+    private final ConcurrentHashMap<Key, WeakKey> table = new ConcurrentHashMap<>();
+    private final ReferenceQueue<String> clearedKeys = new ReferenceQueue<>();
+
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder dedupeCount = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param rrule rrule string, may be null
+     * @return the shared instance equal to rrule, rrule itself if it is the first one. null for null.
+     */
+    public String intern(String rrule) {
+        if (rrule == null) {
+            return null;
+        }
+        this.expungeClearedKeys();
+        this.lookupCount.increment();
+
+        StrongKey probe = new StrongKey(rrule);
+        while (true) {
+            WeakKey existing = this.table.get(probe);
+            if (existing == null) {
+                WeakKey key = new WeakKey(rrule, this.clearedKeys);
+                existing = this.table.putIfAbsent(key, key);
+                if (existing == null) {
+                    return rrule;
+                }
+            }
+            String shared = existing.get();
+            if (shared != null) {
+                if (shared != rrule) {
+                    this.dedupeCount.increment();
+                    this.bytesSaved.add(estimateSize(rrule));
+                }
+                return shared;
+            }
+            // cleared between lookup and get, it is never equal to a new key
+            this.table.remove(existing, existing);
+        }
+    }
+
+    /**
+     * @return number of distinct rules in the table
+     */
+    public int size() {
+        this.expungeClearedKeys();
+        return this.table.size();
+    }
+
+    public long getLookupCount() {
+        return this.lookupCount.sum();
+    }
+
+    /**
+     * @return number of intern calls that returned a shared instance instead of the argument
+     */
+    public long getDedupeCount() {
+        return this.dedupeCount.sum();
+    }
+
+    /**
+     * @return share of intern calls that were deduplicated, 0 if there was no call
+     */
+    public double getDedupeRatio() {
+        long lookups = this.lookupCount.sum();
+        return lookups == 0 ? 0.0 : (double) this.dedupeCount.sum() / lookups;
+    }
+
+    /**
+     * @return estimated number of bytes of the duplicates that were replaced by a shared instance
+     */
+    public long getBytesSaved() {
+        return this.bytesSaved.sum();
+    }
+
+    private void expungeClearedKeys() {
+        for (Reference<? extends String> cleared; (cleared = this.clearedKeys.poll()) != null; ) {
+            this.table.remove(cleared, cleared);
+        }
+    }
+
+    static long estimateSize(String value) {
+        int arraySize = ARRAY_HEADER_SIZE + value.length();
+        return STRING_SIZE + (arraySize + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+
+    /**
+     * table key. keys are equal if they hold equal strings, a cleared key is only equal to itself.
+     */
+    private interface Key {
+        String get();
+    }
+
+    private static final class StrongKey implements Key {
+        private final String value;
+
+        StrongKey(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String get() {
+            return this.value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && this.value.equals(((Key) o).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value.hashCode();
+        }
+    }
+
+    private static final class WeakKey extends WeakReference<String> implements Key {
+        private final int hash;
+
+        WeakKey(String value, ReferenceQueue<String> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            String value = this.get();
+            return value != null && o instanceof Key && value.equals(((Key) o).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
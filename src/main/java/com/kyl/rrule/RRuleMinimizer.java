@@ -0,0 +1,174 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Renders the shortest rrule with the same occurrences as a schedule, under the semantics of OccurrenceEngine. The candidates
+ * are the schedule itself, the schedule without redundant value lists, and for every time field a rule with that field as
+ * frequency:
+ * <ul>
+ * <li>a value list that holds every value is dropped where a missing rule part means every value, e.g. 'BYMONTH' with all 12
+ * months, or 'BYSECOND' with all 60 seconds for SECONDLY.</li>
+ * <li>a time field with the multiples of a step that divides its range, e.g. 'BYMINUTE=0,15,30,45', becomes the frequency with
+ * the step as 'INTERVAL' if every finer field has a single value. 'DTSTART' moves to the first aligned time, so the periods
+ * counted from 'DTSTART' land on the same values. Coarser fields stay rule parts.</li>
+ * </ul>
+ * The 'INTERVAL' rewrite needs 'DTSTART', and is not done for 'BYSETPOS', an nth day of week, an 'INTERVAL' or a MONTHLY or
+ * WEEKLY rule that takes its day from 'DTSTART'.
+ */
+final class RRuleMinimizer {
+    private static final RRuleFrequency[] TIME_FREQUENCIES = {RRuleFrequency.SECONDLY, RRuleFrequency.MINUTELY, RRuleFrequency.HOURLY};
+    private static final ChronoField[] TIME_FIELDS = {ChronoField.SECOND_OF_MINUTE, ChronoField.MINUTE_OF_HOUR, ChronoField.HOUR_OF_DAY};
+    private static final ChronoUnit[] TIME_UNITS = {ChronoUnit.SECONDS, ChronoUnit.MINUTES, ChronoUnit.HOURS};
+    private static final int[] TIME_RANGES = {60, 60, 24};
+    private static final long[] ALL_TIMES = {(1L << 60) - 1, (1L << 60) - 1, (1L << 24) - 1};
+    private static final long ALL_MONTH_DAYS = ((1L << 31) - 1) << 1;
+    private static final int ALL_MONTHS = ((1 << 12) - 1) << 1;
+    private static final int ALL_WEEKDAYS = ((1 << CompiledSchedule.DAYS_PER_WEEK) - 1) << 1;
+    private static final int RRULE_LENGTH = 128;
+
+    private RRuleMinimizer() {
+    }
+
+    /**
+     * append the shortest rrule with the same occurrences as the schedule
+     * @param schedule compiled schedule, must not be unsupported
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted and no 'INTERVAL' rewrite is done.
+     * @param out output
+     * @throws IOException if out fails
+     */
+    static void appendMinimized(CompiledSchedule schedule, LocalDateTime dtStart, Appendable out) throws IOException {
+        if (schedule.hasYearDays()) {
+            // the bit set constructor does not take year days
+            RecurrenceRuleStringBuilder.appendRRule(schedule, dtStart, out);
+            return;
+        }
+        CharSequence shortest = render(schedule, dtStart);
+        CompiledSchedule collapsed = collapse(schedule);
+        if (!collapsed.equals(schedule)) {
+            shortest = shorter(shortest, render(collapsed, dtStart));
+        }
+        if (dtStart != null && isRewritable(schedule)) {
+            LocalDateTime start = dtStart.truncatedTo(ChronoUnit.SECONDS);
+            long[] times = effectiveTimes(schedule, start);
+            for (int field = 0; field < TIME_FREQUENCIES.length; field++) {
+                int step = step(times[field], TIME_RANGES[field]);
+                if (step != 0 && hasSingleFinerTimes(times, field)) {
+                    CompiledSchedule rewritten = collapse(withFrequency(schedule, times, field, step));
+                    shortest = shorter(shortest, render(rewritten, alignedStart(start, times, field, step)));
+                }
+            }
+        }
+        out.append(shortest);
+    }
+
+    /**
+     * @return the schedule without value lists that hold every value where a missing rule part means every value
+     */
+    static CompiledSchedule collapse(CompiledSchedule schedule) {
+        int order = schedule.getFrequency().getOrder();
+        long seconds = collapse(schedule.getSeconds(), ALL_TIMES[0], order <= RRuleFrequency.SECONDLY.getOrder());
+        long minutes = collapse(schedule.getMinutes(), ALL_TIMES[1], order <= RRuleFrequency.MINUTELY.getOrder());
+        long hours = collapse(schedule.getHours(), ALL_TIMES[2], order <= RRuleFrequency.HOURLY.getOrder());
+        int months = (int) collapse(schedule.getMonths(), ALL_MONTHS, true);
+        boolean weekdayRule = (schedule.getWeekdays() | schedule.getNthWeekdays() | schedule.getLastNthWeekdays()) != 0;
+        boolean monthDayRule = (schedule.getMonthDays() | schedule.getLastMonthDays()) != 0;
+        boolean daily = order <= RRuleFrequency.DAILY.getOrder();
+        // without any day rule part, MONTHLY and WEEKLY take their day from 'DTSTART'
+        int weekdays = (int) collapse(schedule.getWeekdays(), ALL_WEEKDAYS, (schedule.getNthWeekdays() | schedule.getLastNthWeekdays()) == 0
+                && (daily || monthDayRule && schedule.getFrequency() != RRuleFrequency.WEEKLY));
+        long monthDays = schedule.getLastMonthDays() != 0 ? schedule.getMonthDays()
+                : collapse(schedule.getMonthDays(), ALL_MONTH_DAYS, daily || weekdayRule && weekdays != 0);
+        return new CompiledSchedule(schedule.getFrequency(), seconds, minutes, hours, monthDays, schedule.getLastMonthDays(), months,
+                weekdays, schedule.getNthWeekdays(), schedule.getLastNthWeekdays(), schedule.getInterval(), schedule.isLastOfSet(),
+                false);
+    }
+
+    /**
+     * @return step k if the bits are exactly the multiples of k and k divides the range, 0 otherwise
+     */
+    static int step(long bits, int range) {
+        long rest = bits & ~1L;
+        if ((bits & 1L) == 0 || rest == 0) {
+            return 0;
+        }
+        int step = Long.numberOfTrailingZeros(rest);
+        if (range % step != 0) {
+            return 0;
+        }
+        long multiples = 0;
+        for (int value = 0; value < range; value += step) {
+            multiples |= 1L << value;
+        }
+        return bits == multiples ? step : 0;
+    }
+
+    private static long collapse(long bits, long all, boolean allIsMissing) {
+        return allIsMissing && bits == all ? 0L : bits;
+    }
+
+    private static boolean isRewritable(CompiledSchedule schedule) {
+        boolean dayRule = (schedule.getMonthDays() | schedule.getLastMonthDays() | schedule.getWeekdays()) != 0;
+        boolean dayFromDTStart = !dayRule && (schedule.getFrequency() == RRuleFrequency.MONTHLY
+                || schedule.getFrequency() == RRuleFrequency.WEEKLY);
+        return !schedule.isLastOfSet() && schedule.getInterval() <= 1 && schedule.getNthWeekdays() == 0
+                && schedule.getLastNthWeekdays() == 0 && !dayFromDTStart;
+    }
+
+    /**
+     * @return second, minute and hour bits as OccurrenceEngine applies them: a missing field finer than the frequency is the value of
+     * 'DTSTART', a missing field otherwise every value
+     */
+    private static long[] effectiveTimes(CompiledSchedule schedule, LocalDateTime start) {
+        long[] bits = {schedule.getSeconds(), schedule.getMinutes(), schedule.getHours()};
+        for (int field = 0; field < bits.length; field++) {
+            if (bits[field] == 0) {
+                boolean finer = TIME_FREQUENCIES[field].getOrder() < schedule.getFrequency().getOrder();
+                bits[field] = finer ? 1L << start.get(TIME_FIELDS[field]) : ALL_TIMES[field];
+            }
+        }
+        return bits;
+    }
+
+    private static boolean hasSingleFinerTimes(long[] times, int field) {
+        for (int finer = 0; finer < field; finer++) {
+            if (Long.bitCount(times[finer]) != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CompiledSchedule withFrequency(CompiledSchedule schedule, long[] times, int field, int step) {
+        long[] bits = new long[times.length];
+        for (int other = 0; other < times.length; other++) {
+            bits[other] = other == field ? 0L : times[other];
+        }
+        return new CompiledSchedule(TIME_FREQUENCIES[field], bits[0], bits[1], bits[2], schedule.getMonthDays(),
+                schedule.getLastMonthDays(), schedule.getMonths(), schedule.getWeekdays(), 0L, 0L, step == 1 ? 0 : step, false, false);
+    }
+
+    /**
+     * @return first time from start with the single values of the finer fields and a field value that is a multiple of step
+     */
+    private static LocalDateTime alignedStart(LocalDateTime start, long[] times, int field, int step) {
+        LocalDateTime aligned = start.with(TIME_FIELDS[field], start.get(TIME_FIELDS[field]) / step * step);
+        for (int finer = 0; finer < field; finer++) {
+            aligned = aligned.with(TIME_FIELDS[finer], Long.numberOfTrailingZeros(times[finer]));
+        }
+        return aligned.isBefore(start) ? aligned.plus(step, TIME_UNITS[field]) : aligned;
+    }
+
+    private static StringBuilder render(CompiledSchedule schedule, LocalDateTime dtStart) throws IOException {
+        StringBuilder rrule = new StringBuilder(RRULE_LENGTH);
+        RecurrenceRuleStringBuilder.appendRRule(schedule, dtStart, rrule);
+        return rrule;
+    }
+
+    private static CharSequence shorter(CharSequence current, CharSequence candidate) {
+        return candidate.length() < current.length() ? candidate : current;
+    }
+}
@@ -2,7 +2,8 @@ package com.kyl.rrule;
 
 enum RRuleName {
     RRULE("RRULE"), FREQ("FREQ"), SECOND("BYSECOND"), MINUTE("BYMINUTE"), HOUR("BYHOUR"), MONTHDAY("BYMONTHDAY"), MONTH("BYMONTH"),
-    BYSETPOS("BYSETPOS"), WEEKDAY("BYDAY"), YEARDAY("BYYEARDAY"), UNSUPPORTED("UNSUPPORTED"), DTSTART("DTSTART"), INTERVAL("INTERVAL");
+    BYSETPOS("BYSETPOS"), WEEKDAY("BYDAY"), YEARDAY("BYYEARDAY"), UNSUPPORTED("UNSUPPORTED"), DTSTART("DTSTART"), INTERVAL("INTERVAL"),
+    RDATE("RDATE"), TZID("TZID");
     private final String name;
 
     RRuleName(String name) {
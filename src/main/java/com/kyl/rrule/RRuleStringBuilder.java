@@ -1,5 +1,9 @@
 package com.kyl.rrule;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -20,9 +24,43 @@ public interface RRuleStringBuilder {
      */
     void withRRuleParts(Map<RRuleName, List<String>> rRuleParts);
 
+    /**
+     * specify rule parts in rrule from a compiled schedule. parts of the schedule are rendered before parts added with withRRuleParts
+     * @param schedule compiled schedule
+     */
+    void withSchedule(CompiledSchedule schedule);
+
     /**
      * build rrule string
      * @return rrule string
      */
     String build();
+
+    /**
+     * append rrule string to an output without creating an intermediate string
+     * @param out output, e.g. a reused StringBuilder or a Writer
+     * @throws IOException if out fails
+     */
+    void appendTo(Appendable out) throws IOException;
+
+    /**
+     * encode rrule string as UTF-8 into a buffer without creating an intermediate string. rrule text is ASCII, one byte per char.
+     * @param out buffer, heap or direct. it is never grown.
+     * @return false if the rrule does not fit into the remaining buffer. the buffer position is unchanged then.
+     */
+    default boolean writeTo(ByteBuffer out) {
+        int start = out.position();
+        ByteBufferAppendable bytes = new ByteBufferAppendable(out);
+        try {
+            this.appendTo(bytes);
+            bytes.finish();
+            return true;
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            return false;
+        } catch (IOException e) {
+            out.position(start);
+            throw new UncheckedIOException(e);
+        }
+    }
 }
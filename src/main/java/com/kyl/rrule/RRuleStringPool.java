@@ -0,0 +1,290 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.cronutils.model.Cron;
+
+/**
+ * Store of rrule strings outside the java heap, for catalogs of millions of converted rules. Rules are written as UTF-8 into
+ * direct buffer chunks, converter output goes through one reused StringBuilder into the chunk without a String. The converter runs
+ * once per rule even when the rule does not fit the current chunk, so its metrics see no overflow. The heap only holds the chunk list
+ * and one long location per entry, which the garbage collector does not need to trace, so a full catalog adds nothing to the old
+ * generation that a collection has to mark.
+ * <p>
+ * An entry is referenced by a long handle, the sequence number of its append. Handles stay valid across compaction and are not
+ * reused after remove. An entry is a 4 byte length followed by its bytes and never spans chunks; an entry larger than the chunk size
+ * gets a chunk of its own. Chunks are released when the garbage collector clears their buffers. The instance is not thread safe.
+ */
+public class RRuleStringPool {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    public static final long NO_HANDLE = -1L;
+
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int MIN_CHUNK_SIZE = 64;
+    private static final int CHUNK_BITS = 32;
+    private static final long OFFSET_MASK = (1L << CHUNK_BITS) - 1;
+    private static final long REMOVED = -1L;
+    private static final int INITIAL_ENTRIES = 1024;
+
+    private final int chunkSize;
+    private List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current; // last chunk, its position is where the next entry starts
+    private ByteBufferAppendable currentBytes;
+    private final StringBuilder converted = new StringBuilder();
+    private long[] locations = new long[INITIAL_ENTRIES]; // chunk index << CHUNK_BITS | offset, REMOVED
+    private int entryCount;
+    private int liveCount;
+    private long liveBytes;
+    private long removedBytes;
+
+    public RRuleStringPool() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize bytes of off-heap memory allocated at a time, at least 64
+     */
+    public RRuleStringPool(int chunkSize) {
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be at least " + MIN_CHUNK_SIZE + " but was " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param rrule rrule text
+     * @return handle of the entry
+     */
+    public long append(CharSequence rrule) {
+        try {
+            return this.append(null, null, null, rrule);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("rrule is not valid UTF-16", e);
+        }
+    }
+
+    /**
+     * convert a Cron object and store the rrule without creating a String for it
+     * @param converter converter of the cron
+     * @param cron a valid Cron object
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @return handle of the entry, NO_HANDLE if the cron has no rrule equivalent
+     */
+    public long append(RRuleConverter converter, Cron cron, LocalDateTime dtStart) {
+        try {
+            return this.append(converter, cron, dtStart, null);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("rrule is not valid UTF-16", e);
+        }
+    }
+
+    /**
+     * @return the rrule of the entry as a String
+     * @throws IllegalArgumentException if the handle is unknown or removed
+     */
+    public String get(long handle) {
+        long location = this.location(handle);
+        ByteBuffer chunk = this.chunks.get(chunkIndex(location));
+        int offset = offset(location);
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + LENGTH_SIZE, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return length of the entry in UTF-8 bytes
+     * @throws IllegalArgumentException if the handle is unknown or removed
+     */
+    public int byteLength(long handle) {
+        long location = this.location(handle);
+        return this.chunks.get(chunkIndex(location)).getInt(offset(location));
+    }
+
+    /**
+     * write the UTF-8 bytes of the entry to a channel, without copying them to the heap
+     * @return number of bytes written
+     * @throws IOException if writing the channel fails
+     * @throws IllegalArgumentException if the handle is unknown or removed
+     */
+    public int transferTo(long handle, WritableByteChannel channel) throws IOException {
+        long location = this.location(handle);
+        ByteBuffer chunk = this.chunks.get(chunkIndex(location));
+        int offset = offset(location);
+        int length = chunk.getInt(offset);
+        ByteBuffer bytes = chunk.duplicate().limit(offset + LENGTH_SIZE + length).position(offset + LENGTH_SIZE);
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        return length;
+    }
+
+    /**
+     * @return false if the entry was already removed. its memory is reused after compact.
+     * @throws IllegalArgumentException if the handle is unknown
+     */
+    public boolean remove(long handle) {
+        if (handle < 0 || handle >= this.entryCount) {
+            throw new IllegalArgumentException("unknown handle " + handle);
+        }
+        long location = this.locations[(int) handle];
+        if (location == REMOVED) {
+            return false;
+        }
+        int size = LENGTH_SIZE + this.chunks.get(chunkIndex(location)).getInt(offset(location));
+        this.locations[(int) handle] = REMOVED;
+        this.liveCount--;
+        this.liveBytes -= size;
+        this.removedBytes += size;
+        return true;
+    }
+
+    /**
+     * copy the live entries into new chunks and drop the old ones. handles stay valid.
+     */
+    public void compact() {
+        List<ByteBuffer> previous = this.chunks;
+        this.chunks = new ArrayList<>();
+        this.current = null;
+        this.currentBytes = null;
+        for (int entry = 0; entry < this.entryCount; entry++) {
+            long location = this.locations[entry];
+            if (location == REMOVED) {
+                continue;
+            }
+            ByteBuffer source = previous.get(chunkIndex(location));
+            int offset = offset(location);
+            int size = LENGTH_SIZE + source.getInt(offset);
+            if (this.current == null || this.current.remaining() < size) {
+                this.addChunk(size);
+            }
+            int start = this.current.position();
+            this.current.put(start, source, offset, size).position(start + size);
+            this.locations[entry] = location(this.chunks.size() - 1, start);
+        }
+        this.removedBytes = 0;
+    }
+
+    /**
+     * @return number of entries that are not removed
+     */
+    public int size() {
+        return this.liveCount;
+    }
+
+    /**
+     * @return bytes of the entries that are not removed, including their length
+     */
+    public long getLiveBytes() {
+        return this.liveBytes;
+    }
+
+    /**
+     * @return bytes of removed entries that compact would free
+     */
+    public long getRemovedBytes() {
+        return this.removedBytes;
+    }
+
+    /**
+     * @return off-heap bytes allocated for chunks
+     */
+    public long getCapacity() {
+        long capacity = 0;
+        for (ByteBuffer chunk : this.chunks) {
+            capacity += chunk.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * append the output of the converter, or rrule if converter is null. the entry is first tried in the current chunk, then in a
+     * new chunk, and finally in a chunk of its own size.
+     */
+    private long append(RRuleConverter converter, Cron cron, LocalDateTime dtStart, CharSequence rrule) throws IOException {
+        CharSequence text = rrule;
+        if (converter != null) {
+            this.converted.setLength(0);
+            if (!converter.convertTo(cron, dtStart, this.converted)) {
+                return NO_HANDLE;
+            }
+            text = this.converted;
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (this.current == null || this.current.remaining() <= LENGTH_SIZE) {
+                this.addChunk(this.chunkSize);
+            }
+            int start = this.current.position();
+            this.current.position(start + LENGTH_SIZE);
+            try {
+                this.currentBytes.append(text);
+                this.currentBytes.finish();
+            } catch (BufferOverflowException e) {
+                this.currentBytes.reset();
+                this.current.position(start);
+                if (start == 0) {
+                    break;
+                }
+                this.current = null;
+                continue;
+            } catch (IOException e) {
+                this.currentBytes.reset();
+                this.current.position(start);
+                throw e;
+            }
+            return this.addEntry(start, this.current.position() - start - LENGTH_SIZE);
+        }
+        // larger than a chunk
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        if (this.current.position() == 0) {
+            this.chunks.remove(this.chunks.size() - 1);
+        }
+        this.addChunk(LENGTH_SIZE + bytes.length);
+        this.current.position(LENGTH_SIZE);
+        this.current.put(bytes);
+        return this.addEntry(0, bytes.length);
+    }
+
+    private long addEntry(int offset, int length) {
+        this.current.putInt(offset, length);
+        if (this.entryCount == this.locations.length) {
+            this.locations = Arrays.copyOf(this.locations, this.locations.length * 2);
+        }
+        this.locations[this.entryCount] = location(this.chunks.size() - 1, offset);
+        this.liveCount++;
+        this.liveBytes += LENGTH_SIZE + length;
+        return this.entryCount++;
+    }
+
+    private void addChunk(int minimumSize) {
+        this.current = ByteBuffer.allocateDirect(Math.max(this.chunkSize, minimumSize));
+        this.currentBytes = new ByteBufferAppendable(this.current);
+        this.chunks.add(this.current);
+    }
+
+    private long location(long handle) {
+        if (handle < 0 || handle >= this.entryCount || this.locations[(int) handle] == REMOVED) {
+            throw new IllegalArgumentException("unknown handle " + handle);
+        }
+        return this.locations[(int) handle];
+    }
+
+    private static long location(int chunkIndex, int offset) {
+        return (long) chunkIndex << CHUNK_BITS | offset;
+    }
+
+    private static int chunkIndex(long location) {
+        return (int) (location >>> CHUNK_BITS);
+    }
+
+    private static int offset(long location) {
+        return (int) (location & OFFSET_MASK);
+    }
+}
@@ -0,0 +1,180 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Precomputed text of rrule values and part names, and a fixed width 'DTSTART' writer. Appending through these tables does not
+ * allocate for the values a converted cron expression can contain.
+ */
+final class RRuleText {
+    static final String[] NUMBERS = new String[60];
+    static final String[] WEEKDAYS = {null, "SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+    private static final String[] PART_PREFIXES = new String[RRuleName.values().length];
+
+    private static final int MIN_FIXED_WIDTH_YEAR = 0;
+    private static final int MAX_FIXED_WIDTH_YEAR = 9999;
+    private static final String ETC_GMT_PREFIX = "Etc/GMT";
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int MIN_ETC_GMT_HOURS = -12;
+    private static final int MAX_ETC_GMT_HOURS = 14;
+
+    static {
+        for (int i = 0; i < NUMBERS.length; i++) {
+            NUMBERS[i] = String.valueOf(i);
+        }
+        for (RRuleName rruleName : RRuleName.values()) {
+            PART_PREFIXES[rruleName.ordinal()] = String.valueOf(RecurrenceRuleStringBuilder.RULE_PART_SEPARATOR) + rruleName.getName()
+                    + RecurrenceRuleStringBuilder.RULE_NAME_VALUE_SEPARATOR;
+        }
+    }
+
+    private RRuleText() {
+    }
+
+    /**
+     * @param rruleName rrule name
+     * @return ';' + rrule name + '='
+     */
+    static String partPrefix(RRuleName rruleName) {
+        return PART_PREFIXES[rruleName.ordinal()];
+    }
+
+    static void appendNumber(int value, Appendable out) throws IOException {
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        if (value < NUMBERS.length) {
+            out.append(NUMBERS[value]);
+        } else {
+            out.append(Integer.toString(value));
+        }
+    }
+
+    /**
+     * append a LocalDateTime in rrule instant format yyyyMMdd'T'HHmmss'Z'
+     * @param dateTime LocalDateTime instance
+     * @param out output
+     * @throws IOException if out fails
+     */
+    static void appendDTStart(LocalDateTime dateTime, Appendable out) throws IOException {
+        int year = dateTime.getYear();
+        if (year < MIN_FIXED_WIDTH_YEAR || year > MAX_FIXED_WIDTH_YEAR) {
+            out.append(DTStartFormat.FORMAT.format(dateTime));
+            return;
+        }
+        appendDigits(year, 4, out);
+        appendDigits(dateTime.getMonthValue(), 2, out);
+        appendDigits(dateTime.getDayOfMonth(), 2, out);
+        out.append('T');
+        appendDigits(dateTime.getHour(), 2, out);
+        appendDigits(dateTime.getMinute(), 2, out);
+        appendDigits(dateTime.getSecond(), 2, out);
+        out.append('Z');
+    }
+
+    /**
+     * parse a LocalDateTime in rrule instant format yyyyMMdd'T'HHmmss'Z'
+     * @param text text written by appendDTStart
+     * @return LocalDateTime instance
+     * @throws java.time.format.DateTimeParseException if the text is not in rrule instant format
+     */
+    static LocalDateTime parseDTStart(CharSequence text) {
+        return LocalDateTime.parse(text, DTStartFormat.FORMAT);
+    }
+
+    /**
+     * append a rrule written with UTC date-times as the same rule in a time zone: the date-times of 'DTSTART' and 'RDATE' lose
+     * their 'Z' and the lines get a 'TZID' parameter, e.g. 'DTSTART;TZID=Europe/Berlin:20221004T150740'
+     * @param rrule rrule text with date-times in rrule instant format
+     * @param zone time zone of the date-times
+     * @param out output
+     * @throws IOException if out fails
+     */
+    static void appendInZone(CharSequence rrule, ZoneId zone, Appendable out) throws IOException {
+        int length = rrule.length();
+        for (int start = 0; start < length; ) {
+            int end = start;
+            while (end < length && rrule.charAt(end) != RecurrenceRuleStringBuilder.RULE_OPTION_SEPARATOR) {
+                end++;
+            }
+            int name = nameLength(rrule, start, end);
+            if (isDateTimeLine(rrule, start, name)) {
+                out.append(rrule, start, start + name).append(';').append(RRuleName.TZID.getName())
+                        .append(RecurrenceRuleStringBuilder.RULE_NAME_VALUE_SEPARATOR).append(zone.getId());
+                for (int i = start + name; i < end; i++) {
+                    if (rrule.charAt(i) != 'Z') {
+                        out.append(rrule.charAt(i));
+                    }
+                }
+            } else {
+                out.append(rrule, start, end);
+            }
+            if (end < length) {
+                out.append(RecurrenceRuleStringBuilder.RULE_OPTION_SEPARATOR);
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * @param offset fixed offset other than UTC
+     * @return the 'Etc/GMT' zone of the offset, named with the inverted sign, e.g. 'Etc/GMT-2' for +02:00
+     * @throws IllegalArgumentException if the offset is not whole hours from -12:00 to +14:00, no zone name has it
+     */
+    static ZoneId tzidZone(ZoneOffset offset) {
+        int seconds = offset.getTotalSeconds();
+        int hours = seconds / SECONDS_PER_HOUR;
+        if (seconds % SECONDS_PER_HOUR != 0 || hours < MIN_ETC_GMT_HOURS || hours > MAX_ETC_GMT_HOURS) {
+            throw new IllegalArgumentException("offset " + offset + " has no TZID, use a region zone");
+        }
+        return ZoneId.of(ETC_GMT_PREFIX + (hours > 0 ? "-" : "+") + Math.abs(hours));
+    }
+
+    private static int nameLength(CharSequence rrule, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (rrule.charAt(i) == RecurrenceRuleStringBuilder.RULE_NAME_PARTS_SEPARATOR) {
+                return i - start;
+            }
+        }
+        return end - start;
+    }
+
+    private static boolean isDateTimeLine(CharSequence rrule, int start, int nameLength) {
+        return isName(RRuleName.DTSTART, rrule, start, nameLength) || isName(RRuleName.RDATE, rrule, start, nameLength);
+    }
+
+    private static boolean isName(RRuleName rruleName, CharSequence rrule, int start, int nameLength) {
+        String name = rruleName.getName();
+        if (name.length() != nameLength) {
+            return false;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            if (rrule.charAt(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendDigits(int value, int width, Appendable out) throws IOException {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * formatter for years without fixed width and for parsing, built on first use. building it loads most of java.time.format.
+     */
+    private static final class DTStartFormat {
+        static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    }
+}
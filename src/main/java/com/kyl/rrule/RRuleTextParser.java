@@ -0,0 +1,122 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the rrule text written by RecurrenceRuleStringBuilder back into a CompiledSchedule and its 'DTSTART', so the text itself
+ * can be expanded by OccurrenceEngine. Only the rule parts the converter writes are accepted, 'BYSETPOS' only as -1.
+ */
+final class RRuleTextParser {
+    private static final String DTSTART_PREFIX = RRuleName.DTSTART.getName() + RecurrenceRuleStringBuilder.RULE_NAME_PARTS_SEPARATOR;
+    private static final String RRULE_PREFIX = RRuleName.RRULE.getName() + RecurrenceRuleStringBuilder.RULE_NAME_PARTS_SEPARATOR;
+    private static final RRuleName[] VALUE_PARTS = {RRuleName.SECOND, RRuleName.MINUTE, RRuleName.HOUR, RRuleName.MONTHDAY,
+            RRuleName.MONTH, RRuleName.YEARDAY};
+
+    private RRuleTextParser() {
+    }
+
+    /**
+     * @param text rrule text, with or without a 'DTSTART' line
+     * @return compiled schedule of the 'RRULE' line
+     * @throws IllegalArgumentException if the text has no 'RRULE' line or a rule part the converter does not write
+     */
+    static CompiledSchedule parseSchedule(String text) {
+        String rrule = line(text, RRULE_PREFIX);
+        if (rrule == null) {
+            throw new IllegalArgumentException("missing " + RRULE_PREFIX + " in: " + text);
+        }
+        String[] parts = rrule.split(String.valueOf(RecurrenceRuleStringBuilder.RULE_PART_SEPARATOR));
+        CompiledSchedule schedule = new CompiledSchedule(frequency(parts, text));
+        for (String part : parts) {
+            int separator = part.indexOf(RecurrenceRuleStringBuilder.RULE_NAME_VALUE_SEPARATOR);
+            String name = part.substring(0, Math.max(separator, 0));
+            String[] values = part.substring(separator + 1).split(String.valueOf(RecurrenceRuleStringBuilder.RULE_VALUE_SEPARATOR));
+            if (name.equals(RRuleName.FREQ.getName())) {
+                continue;
+            } else if (name.equals(RRuleName.WEEKDAY.getName())) {
+                for (String value : values) {
+                    addWeekday(schedule, value, text);
+                }
+            } else if (name.equals(RRuleName.BYSETPOS.getName()) && values.length == 1 && values[0].equals("-1")) {
+                schedule.setLastOfSet();
+            } else if (name.equals(RRuleName.INTERVAL.getName()) && values.length == 1) {
+                schedule.setInterval(number(values[0], text));
+            } else {
+                RRuleName rruleName = valuePart(name, text);
+                for (String value : values) {
+                    schedule.add(rruleName, number(value, text));
+                }
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * @param text rrule text
+     * @return 'DTSTART' of the text, null if it has none
+     * @throws DateTimeParseException if 'DTSTART' is not in rrule instant format
+     */
+    static LocalDateTime parseDTStart(String text) {
+        String dtStart = line(text, DTSTART_PREFIX);
+        return dtStart == null ? null : RRuleText.parseDTStart(dtStart);
+    }
+
+    private static String line(String text, String prefix) {
+        for (String line : text.split(String.valueOf(RecurrenceRuleStringBuilder.RULE_OPTION_SEPARATOR))) {
+            if (line.startsWith(prefix)) {
+                return line.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    private static RRuleFrequency frequency(String[] parts, String text) {
+        String prefix = RRuleName.FREQ.getName() + RecurrenceRuleStringBuilder.RULE_NAME_VALUE_SEPARATOR;
+        for (String part : parts) {
+            if (part.startsWith(prefix)) {
+                for (RRuleFrequency frequency : RRuleFrequency.values()) {
+                    if (frequency.getDescription().equals(part.substring(prefix.length()))) {
+                        return frequency;
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("missing or unsupported " + RRuleName.FREQ.getName() + " in: " + text);
+    }
+
+    private static RRuleName valuePart(String name, String text) {
+        for (RRuleName rruleName : VALUE_PARTS) {
+            if (rruleName.getName().equals(name)) {
+                return rruleName;
+            }
+        }
+        throw new IllegalArgumentException("unsupported rule part " + name + " in: " + text);
+    }
+
+    private static void addWeekday(CompiledSchedule schedule, String value, String text) {
+        int length = value.length();
+        int weekday = 0;
+        for (int i = 1; i < RRuleText.WEEKDAYS.length && length >= 2; i++) {
+            if (value.regionMatches(length - 2, RRuleText.WEEKDAYS[i], 0, 2)) {
+                weekday = i;
+            }
+        }
+        if (weekday == 0) {
+            throw new IllegalArgumentException("unsupported " + RRuleName.WEEKDAY.getName() + " value " + value + " in: " + text);
+        }
+        if (length == 2) {
+            schedule.add(RRuleName.WEEKDAY, weekday);
+        } else {
+            schedule.addNthWeekday(number(value.substring(0, length - 2), text), weekday);
+        }
+    }
+
+    private static int number(String value, String text) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number " + value + " in: " + text, e);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.kyl.rrule;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,8 +17,15 @@ public class RecurrenceRuleStringBuilder implements RRuleStringBuilder {
     protected static final char RULE_NAME_PARTS_SEPARATOR = ':';
 
     protected static final char RULE_OPTION_SEPARATOR = '\n';
+    protected static final char RULE_VALUE_SEPARATOR = ',';
+    private static final int MAX_YEAR_DAY = 366;
+    // rule parts of a schedule in the order they are appended
+    static final RRuleName[] PART_ORDER = {RRuleName.SECOND, RRuleName.MINUTE, RRuleName.HOUR, RRuleName.MONTHDAY, RRuleName.MONTH,
+            RRuleName.BYSETPOS, RRuleName.WEEKDAY, RRuleName.YEARDAY, RRuleName.INTERVAL};
+
     protected StringBuilder stringBuilder;
     private final Map<RRuleName, List<String>> rruleParts;
+    private CompiledSchedule schedule;
 
     private String dtStartStr; // in UTC
     private final RRuleFrequency rruleFrequency;
@@ -38,31 +50,219 @@ public class RecurrenceRuleStringBuilder implements RRuleStringBuilder {
 
     @Override
     public String build() {
+        try {
+            this.appendTo(this.stringBuilder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return this.stringBuilder.toString();
+    }
+
+    @Override
+    public void appendTo(Appendable out) throws IOException {
         if (!StringUtils.isEmpty(this.dtStartStr)) {
-            this.appendDTStart(this.dtStartStr);
+            appendDTStartPrefix(out);
+            out.append(this.dtStartStr);
+            out.append(RULE_OPTION_SEPARATOR);
         }
-        this.stringBuilder.append(RRuleName.RRULE.getName());
-        this.stringBuilder.append(RULE_NAME_PARTS_SEPARATOR);
-        this.appendRRuleFrequency(this.rruleFrequency);
-        this.rruleParts.entrySet().stream()
-                .filter((entry) -> entry.getKey() != RRuleName.DTSTART && entry.getKey() != RRuleName.RRULE && entry.getKey() != RRuleName.FREQ)
-                .forEach((entry) -> this.appendRRuleParts(entry.getKey(), entry.getValue()));
+        appendRRulePrefix(this.rruleFrequency, out);
+        if (this.schedule != null) {
+            appendSchedule(this.schedule, out);
+        }
+        for (Map.Entry<RRuleName, List<String>> entry : this.rruleParts.entrySet()) {
+            RRuleName partName = entry.getKey();
+            if (partName != RRuleName.DTSTART && partName != RRuleName.RRULE && partName != RRuleName.FREQ) {
+                appendRRuleParts(partName, entry.getValue(), out);
+            }
+        }
+    }
 
-        return this.stringBuilder.toString();
+    /**
+     * append the complete rrule string of a compiled schedule without creating a builder
+     * @param schedule compiled schedule, must not be unsupported
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @param out output
+     * @throws IOException if out fails
+     */
+    static void appendRRule(CompiledSchedule schedule, LocalDateTime dtStart, Appendable out) throws IOException {
+        if (dtStart != null) {
+            appendDTStartPrefix(out);
+            RRuleText.appendDTStart(dtStart, out);
+            out.append(RULE_OPTION_SEPARATOR);
+        }
+        appendRRulePrefix(schedule.getFrequency(), out);
+        appendSchedule(schedule, out);
     }
 
-    private void appendDTStart(String dtStartStr) {
-        this.stringBuilder.append(RRuleName.DTSTART);
-        this.stringBuilder.append(RULE_NAME_PARTS_SEPARATOR);
-        this.stringBuilder.append(dtStartStr);
-        this.stringBuilder.append(RULE_OPTION_SEPARATOR);
+    /**
+     * encode the complete rrule string of a compiled schedule into a buffer without creating a builder
+     * @param schedule compiled schedule, must not be unsupported
+     * @param dtStart 'DTSTART' of the rrule. for null value, 'DTSTART' is omitted.
+     * @param out buffer, heap or direct. it is never grown.
+     * @return false if the rrule does not fit into the remaining buffer. the buffer position is unchanged then.
+     */
+    static boolean writeRRule(CompiledSchedule schedule, LocalDateTime dtStart, ByteBuffer out) {
+        int start = out.position();
+        try {
+            ByteBufferAppendable bytes = new ByteBufferAppendable(out);
+            appendRRule(schedule, dtStart, bytes);
+            bytes.flush();
+            return true;
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // rrule text is ASCII, it always encodes
+        }
     }
 
-    private void appendRRuleParts(RRuleName partName, List<String> rulePartValues) {
-        this.stringBuilder.append(RULE_PART_SEPARATOR);
-        this.stringBuilder.append(partName.getName());
-        this.stringBuilder.append(RULE_NAME_VALUE_SEPARATOR);
-        this.stringBuilder.append(String.join(",", rulePartValues));
+    static void appendDTStartPrefix(Appendable out) throws IOException {
+        out.append(RRuleName.DTSTART.getName());
+        out.append(RULE_NAME_PARTS_SEPARATOR);
+    }
+
+    static void appendRRulePrefix(RRuleFrequency rruleFrequency, Appendable out) throws IOException {
+        out.append(RRuleName.RRULE.getName());
+        out.append(RULE_NAME_PARTS_SEPARATOR);
+        out.append(RRuleName.FREQ.getName());
+        out.append(RULE_NAME_VALUE_SEPARATOR);
+        out.append(rruleFrequency.getDescription());
+    }
+
+    private static void appendRRuleParts(RRuleName partName, List<String> rulePartValues, Appendable out) throws IOException {
+        out.append(RRuleText.partPrefix(partName));
+        boolean first = true;
+        for (String value : rulePartValues) {
+            first = appendValueSeparator(first, out);
+            out.append(value);
+        }
+    }
+
+    /**
+     * rule parts of the schedule are appended in RRuleName order. values within a part are in ascending order, negative values
+     * follow positive values.
+     * @param schedule compiled schedule
+     * @param out output
+     * @throws IOException if out fails
+     */
+    private static void appendSchedule(CompiledSchedule schedule, Appendable out) throws IOException {
+        for (RRuleName partName : PART_ORDER) {
+            appendPart(schedule, partName, out);
+        }
+    }
+
+    /**
+     * append one rule part of the schedule, nothing if the schedule has no value for it
+     * @param schedule compiled schedule
+     * @param partName one of PART_ORDER
+     * @param out output
+     * @throws IOException if out fails
+     */
+    static void appendPart(CompiledSchedule schedule, RRuleName partName, Appendable out) throws IOException {
+        switch (partName) {
+            case SECOND:
+                appendBits(RRuleName.SECOND, schedule.getSeconds(), 0L, out);
+                break;
+            case MINUTE:
+                appendBits(RRuleName.MINUTE, schedule.getMinutes(), 0L, out);
+                break;
+            case HOUR:
+                appendBits(RRuleName.HOUR, schedule.getHours(), 0L, out);
+                break;
+            case MONTHDAY:
+                appendBits(RRuleName.MONTHDAY, schedule.getMonthDays(), schedule.getLastMonthDays(), out);
+                break;
+            case MONTH:
+                appendBits(RRuleName.MONTH, schedule.getMonths(), 0L, out);
+                break;
+            case BYSETPOS:
+                if (schedule.isLastOfSet()) {
+                    out.append(RRuleText.partPrefix(RRuleName.BYSETPOS));
+                    RRuleText.appendNumber(-1, out);
+                }
+                break;
+            case WEEKDAY:
+                appendWeekdays(schedule, out);
+                break;
+            case YEARDAY:
+                if (schedule.hasYearDays()) {
+                    appendYearDays(schedule, out);
+                }
+                break;
+            case INTERVAL:
+                if (schedule.getInterval() != 0) {
+                    out.append(RRuleText.partPrefix(RRuleName.INTERVAL));
+                    RRuleText.appendNumber(schedule.getInterval(), out);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(partName + " is not a rule part of a schedule");
+        }
+    }
+
+    private static void appendBits(RRuleName partName, long bits, long negativeBits, Appendable out) throws IOException {
+        if ((bits | negativeBits) == 0) {
+            return;
+        }
+        out.append(RRuleText.partPrefix(partName));
+        boolean first = true;
+        for (long remaining = bits; remaining != 0; remaining &= remaining - 1) {
+            first = appendValueSeparator(first, out);
+            RRuleText.appendNumber(Long.numberOfTrailingZeros(remaining), out);
+        }
+        for (long remaining = negativeBits; remaining != 0; remaining &= remaining - 1) {
+            first = appendValueSeparator(first, out);
+            RRuleText.appendNumber(-Long.numberOfTrailingZeros(remaining), out);
+        }
+    }
+
+    private static void appendWeekdays(CompiledSchedule schedule, Appendable out) throws IOException {
+        if (schedule.getWeekdays() == 0 && schedule.getNthWeekdays() == 0 && schedule.getLastNthWeekdays() == 0) {
+            return;
+        }
+        out.append(RRuleText.partPrefix(RRuleName.WEEKDAY));
+        boolean first = true;
+        for (int remaining = schedule.getWeekdays(); remaining != 0; remaining &= remaining - 1) {
+            first = appendValueSeparator(first, out);
+            out.append(RRuleText.WEEKDAYS[Integer.numberOfTrailingZeros(remaining)]);
+        }
+        first = appendNthWeekdays(schedule.getNthWeekdays(), 1, first, out);
+        appendNthWeekdays(schedule.getLastNthWeekdays(), -1, first, out);
+    }
+
+    private static boolean appendNthWeekdays(long nthWeekdays, int sign, boolean first, Appendable out) throws IOException {
+        for (long remaining = nthWeekdays; remaining != 0; remaining &= remaining - 1) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            first = appendValueSeparator(first, out);
+            RRuleText.appendNumber(sign * (index / CompiledSchedule.DAYS_PER_WEEK + 1), out);
+            out.append(RRuleText.WEEKDAYS[index % CompiledSchedule.DAYS_PER_WEEK + 1]);
+        }
+        return first;
+    }
+
+    private static void appendYearDays(CompiledSchedule schedule, Appendable out) throws IOException {
+        out.append(RRuleText.partPrefix(RRuleName.YEARDAY));
+        boolean first = true;
+        for (int sign = 1; sign >= -1; sign -= 2) {
+            for (int day = 1; day <= MAX_YEAR_DAY; day++) {
+                if (schedule.hasYearDay(sign * day)) {
+                    first = appendValueSeparator(first, out);
+                    RRuleText.appendNumber(sign * day, out);
+                }
+            }
+        }
+    }
+
+    private static boolean appendValueSeparator(boolean first, Appendable out) throws IOException {
+        if (!first) {
+            out.append(RULE_VALUE_SEPARATOR);
+        }
+        return false;
+    }
+
+    @Override
+    public void withSchedule(CompiledSchedule schedule) {
+        this.schedule = schedule;
     }
 
     @Override
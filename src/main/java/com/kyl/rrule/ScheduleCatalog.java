@@ -0,0 +1,163 @@
+package com.kyl.rrule;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only, memory-mapped file of ScheduleRecords written by ScheduleCatalogWriter. Opening only maps the file, a record is read
+ * in place when its index is accessed, so a catalog of millions of schedules opens in constant time and only touched pages are
+ * loaded. rrule text is rendered on demand by RecurrenceRuleStringBuilder. The instance is safe to share across threads.
+ * <p>
+ * The file starts with a header of one record size: magic, version, record size and record count. Record 'i' follows at
+ * (i + 1) * RECORD_SIZE. Files larger than 2GB are mapped in several chunks.
+ */
+public class ScheduleCatalog implements Closeable {
+    private static final int MAGIC = 0x52525343; // "RRSC"
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int CHUNK_RECORD_BITS = 24; // 1GB chunks
+    private static final int CHUNK_RECORD_MASK = (1 << CHUNK_RECORD_BITS) - 1;
+    private static final int RRULE_LENGTH = 128;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long count;
+
+    public ScheduleCatalog(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = this.channel.size();
+            ByteBuffer header = ByteBuffer.allocate(ScheduleRecord.RECORD_SIZE);
+            while (header.hasRemaining() && this.channel.read(header, header.position()) >= 0) {
+                // read until the header is complete or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException(path + " is not a schedule catalog");
+            }
+            if (header.getInt(VERSION_OFFSET) != VERSION || header.getInt(RECORD_SIZE_OFFSET) != ScheduleRecord.RECORD_SIZE) {
+                throw new IOException(path + " has unsupported version " + header.getInt(VERSION_OFFSET));
+            }
+            this.count = header.getLong(COUNT_OFFSET);
+            if (this.count < 0 || offset(this.count) > fileSize) {
+                throw new IOException(path + " is truncated, expected " + this.count + " records");
+            }
+
+            long chunkSize = (long) ScheduleRecord.RECORD_SIZE << CHUNK_RECORD_BITS;
+            long mappedSize = offset(this.count);
+            this.chunks = new MappedByteBuffer[(int) ((mappedSize + chunkSize - 1) / chunkSize)];
+            for (int i = 0; i < this.chunks.length; i++) {
+                long start = i * chunkSize;
+                this.chunks[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, mappedSize - start));
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return this.count;
+    }
+
+    public CompiledSchedule getSchedule(long index) {
+        long slot = this.slot(index);
+        return ScheduleRecord.readSchedule(this.chunk(slot), chunkOffset(slot));
+    }
+
+    /**
+     * @return rrule 'DTSTART' of the record, null if it has none
+     */
+    public LocalDateTime getDTStart(long index) {
+        long slot = this.slot(index);
+        return ScheduleRecord.readDTStart(this.chunk(slot), chunkOffset(slot));
+    }
+
+    public RRuleFrequency getFrequency(long index) {
+        long slot = this.slot(index);
+        return ScheduleRecord.readFrequency(this.chunk(slot), chunkOffset(slot));
+    }
+
+    public boolean isUnsupported(long index) {
+        long slot = this.slot(index);
+        return ScheduleRecord.readUnsupported(this.chunk(slot), chunkOffset(slot));
+    }
+
+    /**
+     * @return rrule text of the record including 'DTSTART', null if it is unsupported
+     */
+    public String getRRule(long index) {
+        CompiledSchedule schedule = this.getSchedule(index);
+        if (schedule.isUnsupported()) {
+            return null;
+        }
+        StringBuilder rrule = new StringBuilder(RRULE_LENGTH);
+        try {
+            RecurrenceRuleStringBuilder.appendRRule(schedule, this.getDTStart(index), rrule);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return rrule.toString();
+    }
+
+    /**
+     * append the rrule text of the record including 'DTSTART'
+     * @return false if the record is unsupported and nothing was appended
+     */
+    public boolean appendRRule(long index, Appendable out) throws IOException {
+        CompiledSchedule schedule = this.getSchedule(index);
+        if (schedule.isUnsupported()) {
+            return false;
+        }
+        RecurrenceRuleStringBuilder.appendRRule(schedule, this.getDTStart(index), out);
+        return true;
+    }
+
+    /**
+     * closes the file. the mapping is released when it is garbage collected, records must not be read after closing.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    static ByteBuffer header(long count) {
+        ByteBuffer header = ByteBuffer.allocate(ScheduleRecord.RECORD_SIZE);
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(RECORD_SIZE_OFFSET, ScheduleRecord.RECORD_SIZE);
+        header.putLong(COUNT_OFFSET, count);
+        return header;
+    }
+
+    /**
+     * @return file offset of record 'index'
+     */
+    static long offset(long index) {
+        return (index + 1) * ScheduleRecord.RECORD_SIZE;
+    }
+
+    private long slot(long index) {
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for " + this.count + " records");
+        }
+        return index + 1;
+    }
+
+    private ByteBuffer chunk(long slot) {
+        return this.chunks[(int) (slot >>> CHUNK_RECORD_BITS)];
+    }
+
+    private static int chunkOffset(long slot) {
+        return (int) (slot & CHUNK_RECORD_MASK) * ScheduleRecord.RECORD_SIZE;
+    }
+}
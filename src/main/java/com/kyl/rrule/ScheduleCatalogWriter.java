@@ -0,0 +1,81 @@
+package com.kyl.rrule;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Writes a file of ScheduleRecords that ScheduleCatalog maps into memory. Records are buffered and written in batches; the record
+ * count in the header is written on close, so a file that was not closed reads as empty. The instance is not thread safe.
+ */
+public class ScheduleCatalogWriter implements Closeable {
+    private static final int BATCH_RECORDS = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer batch = ByteBuffer.allocate(BATCH_RECORDS * ScheduleRecord.RECORD_SIZE);
+    private long count;
+    private long writtenCount;
+    private boolean closed;
+
+    /**
+     * @param path file to create, an existing file is replaced
+     */
+    public ScheduleCatalogWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.writeFully(ScheduleCatalog.header(0), 0L);
+    }
+
+    /**
+     * @param schedule schedule without day of year parts
+     * @param dtStart rrule 'DTSTART', may be null
+     * @return index of the record in the catalog
+     */
+    public long append(CompiledSchedule schedule, LocalDateTime dtStart) throws IOException {
+        if (this.closed) {
+            throw new IllegalStateException("writer is closed");
+        }
+        if (!this.batch.hasRemaining()) {
+            this.flushBatch();
+        }
+        ScheduleRecord.write(schedule, dtStart, this.batch, this.batch.position());
+        this.batch.position(this.batch.position() + ScheduleRecord.RECORD_SIZE);
+        return this.count++;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.flushBatch();
+            this.writeFully(ScheduleCatalog.header(this.count), 0L);
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        this.batch.flip();
+        long recordsInBatch = this.batch.remaining() / ScheduleRecord.RECORD_SIZE;
+        this.writeFully(this.batch, ScheduleCatalog.offset(this.writtenCount));
+        this.writtenCount += recordsInBatch;
+        this.batch.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long filePosition = position;
+        while (buffer.hasRemaining()) {
+            filePosition += this.channel.write(buffer, filePosition);
+        }
+    }
+}
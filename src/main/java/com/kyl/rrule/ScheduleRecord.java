@@ -0,0 +1,118 @@
+package com.kyl.rrule;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Fixed-width binary encoding of a CompiledSchedule and its DTSTART in RECORD_SIZE bytes. All reads and writes use absolute
+ * offsets, so records can be accessed in place in a shared or memory-mapped buffer without changing its position.
+ * <p>
+ * Layout, in the byte order of the buffer:
+ * <pre>
+ *  0 seconds         long    32 dtStart epoch second (UTC) long
+ *  8 minutes         long    40 hours                      int
+ * 16 nthWeekdays     long    44 monthDays                  int
+ * 24 lastNthWeekdays long    48 lastMonthDays              int
+ *                            52 interval                   int
+ *                            56 months                     short
+ *                            58 weekdays                   byte
+ *                            59 frequency ordinal          byte
+ *                            60 flags                      byte
+ * </pre>
+ * Day of year bit sets do not fit a fixed record and are rejected. The quartz definition has no day of year field.
+ */
+public final class ScheduleRecord {
+    public static final int RECORD_SIZE = 64;
+
+    private static final int SECONDS = 0;
+    private static final int MINUTES = 8;
+    private static final int NTH_WEEKDAYS = 16;
+    private static final int LAST_NTH_WEEKDAYS = 24;
+    private static final int DTSTART = 32;
+    private static final int HOURS = 40;
+    private static final int MONTH_DAYS = 44;
+    private static final int LAST_MONTH_DAYS = 48;
+    private static final int INTERVAL = 52;
+    private static final int MONTHS = 56;
+    private static final int WEEKDAYS = 58;
+    private static final int FREQUENCY = 59;
+    private static final int FLAGS = 60;
+
+    private static final int SETPOS_LAST = 1;
+    private static final int UNSUPPORTED = 1 << 1;
+    private static final int HAS_DTSTART = 1 << 2;
+
+    private static final RRuleFrequency[] FREQUENCIES = RRuleFrequency.values();
+
+    private ScheduleRecord() {
+    }
+
+    /**
+     * @param schedule schedule without day of year parts
+     * @param dtStart rrule 'DTSTART', may be null. stored in seconds.
+     * @param buffer target buffer
+     * @param offset offset of the record in the buffer
+     */
+    public static void write(CompiledSchedule schedule, LocalDateTime dtStart, ByteBuffer buffer, int offset) {
+        if (schedule.hasYearDays()) {
+            throw new IllegalArgumentException("day of year parts can not be stored in a schedule record");
+        }
+        buffer.putLong(offset + SECONDS, schedule.getSeconds());
+        buffer.putLong(offset + MINUTES, schedule.getMinutes());
+        buffer.putLong(offset + NTH_WEEKDAYS, schedule.getNthWeekdays());
+        buffer.putLong(offset + LAST_NTH_WEEKDAYS, schedule.getLastNthWeekdays());
+        buffer.putLong(offset + DTSTART, dtStart == null ? 0L : dtStart.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(offset + HOURS, (int) schedule.getHours());
+        buffer.putInt(offset + MONTH_DAYS, (int) schedule.getMonthDays());
+        buffer.putInt(offset + LAST_MONTH_DAYS, (int) schedule.getLastMonthDays());
+        buffer.putInt(offset + INTERVAL, schedule.getInterval());
+        buffer.putShort(offset + MONTHS, (short) schedule.getMonths());
+        buffer.put(offset + WEEKDAYS, (byte) schedule.getWeekdays());
+        buffer.put(offset + FREQUENCY, (byte) schedule.getFrequency().ordinal());
+        buffer.put(offset + FLAGS, (byte) ((schedule.isLastOfSet() ? SETPOS_LAST : 0) | (schedule.isUnsupported() ? UNSUPPORTED : 0)
+                | (dtStart != null ? HAS_DTSTART : 0)));
+        for (int i = FLAGS + 1; i < RECORD_SIZE; i++) {
+            buffer.put(offset + i, (byte) 0);
+        }
+    }
+
+    public static CompiledSchedule readSchedule(ByteBuffer buffer, int offset) {
+        int flags = buffer.get(offset + FLAGS);
+        return new CompiledSchedule(readFrequency(buffer, offset),
+                buffer.getLong(offset + SECONDS),
+                buffer.getLong(offset + MINUTES),
+                Integer.toUnsignedLong(buffer.getInt(offset + HOURS)),
+                Integer.toUnsignedLong(buffer.getInt(offset + MONTH_DAYS)),
+                Integer.toUnsignedLong(buffer.getInt(offset + LAST_MONTH_DAYS)),
+                Short.toUnsignedInt(buffer.getShort(offset + MONTHS)),
+                Byte.toUnsignedInt(buffer.get(offset + WEEKDAYS)),
+                buffer.getLong(offset + NTH_WEEKDAYS),
+                buffer.getLong(offset + LAST_NTH_WEEKDAYS),
+                buffer.getInt(offset + INTERVAL),
+                (flags & SETPOS_LAST) != 0,
+                (flags & UNSUPPORTED) != 0);
+    }
+
+    /**
+     * @return rrule 'DTSTART' of the record, null if it has none
+     */
+    public static LocalDateTime readDTStart(ByteBuffer buffer, int offset) {
+        if ((buffer.get(offset + FLAGS) & HAS_DTSTART) == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(buffer.getLong(offset + DTSTART), 0, ZoneOffset.UTC);
+    }
+
+    public static RRuleFrequency readFrequency(ByteBuffer buffer, int offset) {
+        int ordinal = buffer.get(offset + FREQUENCY);
+        if (ordinal < 0 || ordinal >= FREQUENCIES.length) {
+            throw new IllegalArgumentException(ordinal + " is not a frequency");
+        }
+        return FREQUENCIES[ordinal];
+    }
+
+    public static boolean readUnsupported(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset + FLAGS) & UNSUPPORTED) != 0;
+    }
+}
@@ -0,0 +1,291 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Hierarchical timer wheel of the next occurrence of many schedules, so a dispatcher finds the schedules that fire in the next
+ * seconds without asking every schedule. Times are whole seconds since 1970-01-01T00:00:00 of the schedules' local time.
+ * <p>
+ * The wheel has LEVELS levels of 64 slots. Level 0 holds occurrences of the next 64 seconds, one slot per second, level k holds
+ * occurrences up to 64^(k+1) seconds ahead, one slot per 64^k seconds. When the wheel reaches the start of a higher level slot,
+ * its schedules move down a level ("cascade"), so every schedule is moved at most LEVELS times before it fires. Schedules are
+ * int handles into parallel arrays and every slot is a doubly linked list, so add and cancel are O(1) and the wheel does not
+ * allocate per schedule. A bit set of occupied slots per level lets advance skip empty seconds.
+ * <p>
+ * After a schedule fires, advance computes its following occurrence with its OccurrenceEngine and puts it back. A schedule
+ * without further occurrences is removed and its handle may be reused by add. The instance is not thread safe.
+ */
+public class ScheduleTimerWheel {
+    public static final int NONE = -1;
+
+    static final int LEVELS = 6;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final long SLOT_MASK = SLOTS - 1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * receives the schedules that fire during advance
+     */
+    @FunctionalInterface
+    public interface FireListener {
+        /**
+         * @param handle handle returned by add. the listener may add and cancel schedules, including this one, but must not
+         *               call advance.
+         * @param epochSecond occurrence in seconds since 1970-01-01T00:00:00
+         */
+        void fire(int handle, long epochSecond);
+    }
+
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private OccurrenceEngine[] engines = new OccurrenceEngine[INITIAL_CAPACITY];
+    private long[] fireTimes = new long[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] previous = new int[INITIAL_CAPACITY];
+    private int[] buckets = new int[INITIAL_CAPACITY]; // level * SLOTS + slot, NONE while not in a slot
+    private int[] due = new int[INITIAL_CAPACITY];
+    private int used;
+    private int freeHead = NONE;
+    private int size;
+    private long current;
+
+    /**
+     * @param time current time of the wheel. schedules fire after it.
+     */
+    public ScheduleTimerWheel(LocalDateTime time) {
+        this(Objects.requireNonNull(time, "time must not be null").toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * @param epochSecond current time of the wheel in seconds since 1970-01-01T00:00:00. schedules fire after it.
+     */
+    public ScheduleTimerWheel(long epochSecond) {
+        this.current = epochSecond;
+        Arrays.fill(this.heads, NONE);
+    }
+
+    /**
+     * add a schedule at its first occurrence after the current time
+     * @param engine occurrences of the schedule, may be shared by several handles
+     * @return handle of the schedule, NONE if it has no further occurrence
+     */
+    public int add(OccurrenceEngine engine) {
+        long fireTime = engine.nextEpochSecond(this.current + 1);
+        if (fireTime == Long.MIN_VALUE) {
+            return NONE;
+        }
+        int handle = this.allocate();
+        this.engines[handle] = engine;
+        this.fireTimes[handle] = fireTime;
+        this.link(handle);
+        this.size++;
+        return handle;
+    }
+
+    /**
+     * @return false if the handle is not a scheduled schedule
+     */
+    public boolean cancel(int handle) {
+        if (handle < 0 || handle >= this.used || this.engines[handle] == null) {
+            return false;
+        }
+        if (this.buckets[handle] != NONE) {
+            this.unlink(handle);
+        }
+        this.free(handle);
+        return true;
+    }
+
+    /**
+     * advance the wheel and report every occurrence up to a time, in time order
+     * @param time new current time of the wheel, inclusive
+     * @param listener receives the occurrences
+     * @return number of occurrences
+     */
+    public int advance(LocalDateTime time, FireListener listener) {
+        return this.advance(time.toEpochSecond(ZoneOffset.UTC), listener);
+    }
+
+    /**
+     * advance the wheel and report every occurrence up to a time, in time order
+     * @param epochSecond new current time of the wheel in seconds since 1970-01-01T00:00:00, inclusive
+     * @param listener receives the occurrences
+     * @return number of occurrences
+     */
+    public int advance(long epochSecond, FireListener listener) {
+        int fired = 0;
+        while (this.current < epochSecond) {
+            long time = this.current + 1;
+            int slot = (int) (time & SLOT_MASK);
+            if (slot == 0) {
+                this.cascade(time);
+            } else {
+                long pending = this.occupied[0] & (-1L << slot);
+                if (pending == 0) { // nothing until the next cascade
+                    this.current = Math.min(epochSecond, time | SLOT_MASK);
+                    continue;
+                }
+                time = (time & ~SLOT_MASK) + Long.numberOfTrailingZeros(pending);
+                if (time > epochSecond) {
+                    this.current = epochSecond;
+                    break;
+                }
+                slot = (int) (time & SLOT_MASK);
+            }
+            fired += this.fire(time, slot, listener);
+        }
+        return fired;
+    }
+
+    /**
+     * @return next occurrence of a schedule in seconds since 1970-01-01T00:00:00, Long.MIN_VALUE if the handle is not scheduled
+     */
+    public long getNextFireEpochSecond(int handle) {
+        if (handle < 0 || handle >= this.used || this.engines[handle] == null) {
+            return Long.MIN_VALUE;
+        }
+        return this.fireTimes[handle];
+    }
+
+    public OccurrenceEngine getEngine(int handle) {
+        return handle < 0 || handle >= this.used ? null : this.engines[handle];
+    }
+
+    /**
+     * @return number of scheduled schedules
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public LocalDateTime getTime() {
+        return LocalDateTime.ofEpochSecond(this.current, 0, ZoneOffset.UTC);
+    }
+
+    public long getEpochSecond() {
+        return this.current;
+    }
+
+    private int fire(long time, int slot, FireListener listener) {
+        int count = 0;
+        for (int handle = this.heads[slot]; handle != NONE; handle = this.next[handle]) {
+            if (count == this.due.length) {
+                this.due = Arrays.copyOf(this.due, count * 2);
+            }
+            this.due[count++] = handle;
+            this.buckets[handle] = NONE;
+        }
+        this.heads[slot] = NONE;
+        this.occupied[0] &= ~(1L << slot);
+        this.current = time;
+
+        int fired = 0;
+        int[] firing = this.due;
+        for (int i = 0; i < count; i++) {
+            int handle = firing[i];
+            // skip schedules the listener cancelled, or cancelled and replaced by a new schedule on the same handle
+            if (this.engines[handle] == null || this.buckets[handle] != NONE) {
+                continue;
+            }
+            listener.fire(handle, time);
+            fired++;
+            if (this.engines[handle] != null && this.buckets[handle] == NONE) {
+                long fireTime = this.engines[handle].nextEpochSecond(time + 1);
+                if (fireTime == Long.MIN_VALUE) {
+                    this.free(handle);
+                } else {
+                    this.fireTimes[handle] = fireTime;
+                    this.link(handle);
+                }
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * move the schedules of the higher level slots that start at time down, before time is fired. the wheel is at time first, so
+     * a schedule due at the end of a slot gets a delta below the slot width and moves down instead of back into its slot.
+     */
+    private void cascade(long time) {
+        this.current = time;
+        for (int level = 1; level < LEVELS; level++) {
+            int slot = (int) ((time >>> (level * SLOT_BITS)) & SLOT_MASK);
+            int bucket = level * SLOTS + slot;
+            int handle = this.heads[bucket];
+            this.heads[bucket] = NONE;
+            this.occupied[level] &= ~(1L << slot);
+            while (handle != NONE) {
+                int following = this.next[handle];
+                this.link(handle);
+                handle = following;
+            }
+            if (slot != 0) {
+                break;
+            }
+        }
+    }
+
+    private void link(int handle) {
+        long fireTime = this.fireTimes[handle];
+        long delta = fireTime - this.current;
+        int level = delta < SLOTS ? 0 : Math.min(LEVELS - 1, (Long.SIZE - 1 - Long.numberOfLeadingZeros(delta)) / SLOT_BITS);
+        int slot = (int) ((fireTime >>> (level * SLOT_BITS)) & SLOT_MASK);
+        int bucket = level * SLOTS + slot;
+        int head = this.heads[bucket];
+        this.next[handle] = head;
+        this.previous[handle] = NONE;
+        if (head != NONE) {
+            this.previous[head] = handle;
+        }
+        this.heads[bucket] = handle;
+        this.buckets[handle] = bucket;
+        this.occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(int handle) {
+        int bucket = this.buckets[handle];
+        int before = this.previous[handle];
+        int after = this.next[handle];
+        if (before == NONE) {
+            this.heads[bucket] = after;
+            if (after == NONE) {
+                this.occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+            }
+        } else {
+            this.next[before] = after;
+        }
+        if (after != NONE) {
+            this.previous[after] = before;
+        }
+        this.buckets[handle] = NONE;
+    }
+
+    private int allocate() {
+        if (this.freeHead != NONE) {
+            int handle = this.freeHead;
+            this.freeHead = this.next[handle];
+            return handle;
+        }
+        if (this.used == this.engines.length) {
+            int capacity = this.used * 2;
+            this.engines = Arrays.copyOf(this.engines, capacity);
+            this.fireTimes = Arrays.copyOf(this.fireTimes, capacity);
+            this.next = Arrays.copyOf(this.next, capacity);
+            this.previous = Arrays.copyOf(this.previous, capacity);
+            this.buckets = Arrays.copyOf(this.buckets, capacity);
+        }
+        return this.used++;
+    }
+
+    private void free(int handle) {
+        this.engines[handle] = null;
+        this.buckets[handle] = NONE;
+        this.next[handle] = this.freeHead;
+        this.freeHead = handle;
+        this.size--;
+    }
+}
@@ -0,0 +1,142 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Converts a file of 'id,cronExpression' lines into a file of conversion results, one line per input line, in input order. Lines
+ * are read and written through fixed size direct buffers and at most a fixed window of lines is in flight between the reader and
+ * the writer, so memory use does not depend on the file size.
+ */
+public class StreamingFileConverter {
+    static final int BUFFER_SIZE = 1 << 20;
+    private static final int IN_FLIGHT_LINES_PER_WORKER = 256;
+    private static final char ID_SEPARATOR = ',';
+
+    private final RRuleConverter converter;
+    private final CronParser cronParser;
+    private final OutputFormat outputFormat;
+    private final int workers;
+
+    public StreamingFileConverter(OutputFormat outputFormat, int workers) {
+        this(new QuartzCronRRuleConverter(), new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ)), outputFormat, workers);
+    }
+
+    /**
+     * @param converter converter for a single Cron object, must be thread safe
+     * @param cronParser parser for the cron expression column
+     * @param outputFormat format of the output lines
+     * @param workers number of conversion threads
+     */
+    public StreamingFileConverter(RRuleConverter converter, CronParser cronParser, OutputFormat outputFormat, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive but was " + workers);
+        }
+        this.converter = Objects.requireNonNull(converter, "converter must not be null");
+        this.cronParser = Objects.requireNonNull(cronParser, "cronParser must not be null");
+        this.outputFormat = Objects.requireNonNull(outputFormat, "outputFormat must not be null");
+        this.workers = workers;
+    }
+
+    /**
+     * convert every line of the input file. Empty lines are skipped.
+     * @param input file of 'id,cronExpression' lines
+     * @param output file that is created or truncated
+     * @param dtStart 'DTSTART' of every rrule. for null value, 'DTSTART' is omitted.
+     * @return counts of conversion outcomes
+     * @throws IOException if reading or writing fails
+     */
+    public ConversionSummary convert(Path input, Path output, LocalDateTime dtStart) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.workers);
+        try (ChannelLineReader reader = new ChannelLineReader(FileChannel.open(input, StandardOpenOption.READ), BUFFER_SIZE);
+             ChannelLineWriter writer = new ChannelLineWriter(FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), BUFFER_SIZE)) {
+            return this.convert(reader, writer, executor, dtStart);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ConversionSummary convert(ChannelLineReader reader, ChannelLineWriter writer, ExecutorService executor, LocalDateTime dtStart)
+            throws IOException {
+        int window = this.workers * IN_FLIGHT_LINES_PER_WORKER;
+        ArrayDeque<Future<ConvertedLine>> inFlight = new ArrayDeque<>(window);
+        StringBuilder line = new StringBuilder();
+        long[] counts = new long[ConversionResult.Status.values().length];
+
+        String inputLine;
+        while ((inputLine = reader.readLine()) != null) {
+            if (inputLine.isBlank()) {
+                continue;
+            }
+            String recordLine = inputLine;
+            inFlight.addLast(executor.submit(() -> this.convertLine(recordLine, dtStart)));
+            if (inFlight.size() == window) {
+                this.write(inFlight.removeFirst(), writer, line, counts);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            this.write(inFlight.removeFirst(), writer, line, counts);
+        }
+        writer.flush();
+
+        return new ConversionSummary(counts[ConversionResult.Status.CONVERTED.ordinal()],
+                counts[ConversionResult.Status.UNSUPPORTED.ordinal()], counts[ConversionResult.Status.FAILED.ordinal()]);
+    }
+
+    private void write(Future<ConvertedLine> future, ChannelLineWriter writer, StringBuilder line, long[] counts) throws IOException {
+        ConvertedLine record = this.await(future);
+        counts[record.result.getStatus().ordinal()]++;
+        line.setLength(0);
+        this.outputFormat.format(record.id, record.result, line);
+        writer.writeLine(line);
+    }
+
+    private ConvertedLine await(Future<ConvertedLine> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for conversion", e);
+        } catch (ExecutionException e) {
+            throw new IOException("conversion worker failed", e.getCause());
+        }
+    }
+
+    private ConvertedLine convertLine(String line, LocalDateTime dtStart) {
+        int separator = line.indexOf(ID_SEPARATOR);
+        if (separator < 0) {
+            return new ConvertedLine(line.trim(), ConversionResult.failed(new IllegalArgumentException("missing '" + ID_SEPARATOR + "' in line: " + line)));
+        }
+        String id = line.substring(0, separator).trim();
+        try {
+            return new ConvertedLine(id, ConversionResult.of(this.converter.convert(this.cronParser.parse(line.substring(separator + 1).trim()), dtStart)));
+        } catch (RuntimeException e) {
+            return new ConvertedLine(id, ConversionResult.failed(e));
+        }
+    }
+
+    private static final class ConvertedLine {
+        private final String id;
+        private final ConversionResult result;
+
+        private ConvertedLine(String id, ConversionResult result) {
+            this.id = id;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.kyl.rrule;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed daylight saving gaps of a time zone from FIRST_YEAR to LAST_YEAR, for resolving local date-times with a binary
+ * search over primitive arrays. ZoneRules finds the transitions of later years from its rules on every call and allocates for
+ * them. Tables are built once per zone and shared.
+ * <p>
+ * Local date-times resolve as in ZonedDateTime.of: a gap moves the time later by the length of the gap, an overlap keeps it.
+ * Outside the table years, ZonedDateTime is used.
+ */
+final class ZoneOffsetTable {
+    static final int FIRST_YEAR = 1900;
+    static final int LAST_YEAR = 2100;
+
+    private static final ConcurrentHashMap<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>();
+    private static final long FIRST_LOCAL_SECOND = LocalDateTime.of(FIRST_YEAR, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long END_LOCAL_SECOND = LocalDateTime.of(LAST_YEAR + 1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private final ZoneId zone;
+    // per gap, in time order: local seconds where the gap starts and ends
+    private final long[] localStarts;
+    private final long[] localEnds;
+
+    private ZoneOffsetTable(ZoneId zone) {
+        this.zone = zone;
+        ZoneRules rules = zone.getRules();
+        long firstInstant = FIRST_LOCAL_SECOND - ZoneOffset.MAX.getTotalSeconds();
+        List<ZoneOffsetTransition> gaps = new ArrayList<>();
+        for (ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(firstInstant));
+             transition != null && transition.toEpochSecond() < END_LOCAL_SECOND - ZoneOffset.MIN.getTotalSeconds();
+             transition = rules.nextTransition(transition.getInstant())) {
+            if (transition.isGap()) {
+                gaps.add(transition);
+            }
+        }
+        int size = gaps.size();
+        this.localStarts = new long[size];
+        this.localEnds = new long[size];
+        for (int i = 0; i < size; i++) {
+            this.localStarts[i] = gaps.get(i).getDateTimeBefore().toEpochSecond(ZoneOffset.UTC);
+            this.localEnds[i] = gaps.get(i).getDateTimeAfter().toEpochSecond(ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * @param zone time zone
+     * @return shared table of the zone, built on first use
+     */
+    static ZoneOffsetTable of(ZoneId zone) {
+        ZoneOffsetTable table = TABLES.get(zone);
+        return table != null ? table : TABLES.computeIfAbsent(zone, ZoneOffsetTable::new);
+    }
+
+    /**
+     * @param local local date-time in the zone
+     * @param zone time zone
+     * @return the local date-time, later by the length of the gap if it is in a daylight saving gap, as in ZonedDateTime.of
+     */
+    static LocalDateTime resolve(LocalDateTime local, ZoneId zone) {
+        if (zone instanceof ZoneOffset) {
+            return local;
+        }
+        int gap = of(zone).gapSeconds(local, local.toEpochSecond(ZoneOffset.UTC));
+        return gap == 0 ? local : local.plusSeconds(gap);
+    }
+
+    /**
+     * @param local local date-time in the zone
+     * @param localSecond local date-time as epoch second in UTC
+     * @return length of the gap the local date-time is in, seconds. 0 if it is not in a gap.
+     */
+    int gapSeconds(LocalDateTime local, long localSecond) {
+        if (localSecond < FIRST_LOCAL_SECOND || localSecond >= END_LOCAL_SECOND) {
+            return (int) (ZonedDateTime.of(local, this.zone).toLocalDateTime().toEpochSecond(ZoneOffset.UTC) - localSecond);
+        }
+        int gap = this.lastGap(localSecond);
+        if (gap < 0 || localSecond >= this.localEnds[gap]) {
+            return 0;
+        }
+        return (int) (this.localEnds[gap] - this.localStarts[gap]);
+    }
+
+    /**
+     * @return index of the last gap that starts at or before the local second, -1 for none
+     */
+    private int lastGap(long localSecond) {
+        int low = 0;
+        int high = this.localStarts.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (this.localStarts[middle] <= localSecond) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,252 @@
+package com.kyl.rrule;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import static com.cronutils.model.CronType.QUARTZ;
+
+/**
+ * Local HTTP endpoint for cron to rrule conversion on the JDK HttpServer, so applications can share one converter instead of
+ * embedding their own. Every request runs on its own thread and at most maxInFlight requests convert at the same time, further
+ * requests are answered with '429 Too Many Requests' right away instead of queueing.
+ * <ul>
+ *     <li>POST /convert: the body is one cron expression. 200 with the rrule, 422 if it is unsupported, 400 if it is invalid.</li>
+ *     <li>POST /convert/batch: the body has one 'id,cronExpression' line per expression. 200 with one NDJSON line per expression,
+ *     in input order, as written by OutputFormat.NDJSON.</li>
+ * </ul>
+ * Both accept an optional 'dtstart' query parameter in ISO format, e.g. '?dtstart=2022-10-04T15:07:40'.
+ * <p>
+ * Without TCP_NODELAY small responses wait for the delayed ack of the client, ~40ms per request. The JDK HttpServer only sets it
+ * when the JVM-wide 'sun.net.httpserver.nodelay' property is true at the time the first HttpServer is created, so the host
+ * application has to opt in, e.g. with -Dsun.net.httpserver.nodelay=true. {@link #main} does this unless the property is set.
+ */
+public class ConversionServer implements Closeable {
+    static final int TOO_MANY_REQUESTS = 429;
+    static final int UNPROCESSABLE = 422;
+    private static final String TEXT = "text/plain; charset=utf-8";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String DTSTART_PARAMETER = "dtstart=";
+    private static final char ID_SEPARATOR = ',';
+    static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final RRuleConverter converter;
+    private final CronParser cronParser;
+    private final Semaphore admission;
+    private final ExecutorService executor;
+    private final HttpServer server;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param address address to bind, port 0 for any free port
+     * @param maxInFlight number of requests that convert at the same time
+     */
+    public ConversionServer(InetSocketAddress address, int maxInFlight) throws IOException {
+        this(new QuartzCronRRuleConverter(), new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ)), address, maxInFlight,
+                newThreadPerRequestExecutor());
+    }
+
+    /**
+     * @param converter converter for a single Cron object, must be thread safe
+     * @param cronParser parser for the cron expressions
+     * @param address address to bind, port 0 for any free port
+     * @param maxInFlight number of requests that convert at the same time
+     * @param executor runs the requests and is shut down on close. on Java 21 pass Executors.newVirtualThreadPerTaskExecutor().
+     */
+    public ConversionServer(RRuleConverter converter, CronParser cronParser, InetSocketAddress address, int maxInFlight,
+                            ExecutorService executor) throws IOException {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive but was " + maxInFlight);
+        }
+        this.converter = Objects.requireNonNull(converter, "converter must not be null");
+        this.cronParser = Objects.requireNonNull(cronParser, "cronParser must not be null");
+        this.admission = new Semaphore(maxInFlight);
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/convert", exchange -> this.handle(exchange, false));
+        this.server.createContext("/convert/batch", exchange -> this.handle(exchange, true));
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        this.server.start();
+    }
+
+    /**
+     * @return bound address, with the actual port if port 0 was requested
+     */
+    public InetSocketAddress getAddress() {
+        return this.server.getAddress();
+    }
+
+    /**
+     * @return number of requests answered with 429
+     */
+    public long getRejectedCount() {
+        return this.rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, boolean batch) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+                this.sendText(exchange, 404, "not found");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                this.sendText(exchange, 405, "only POST is supported");
+                return;
+            }
+            if (!this.admission.tryAcquire()) {
+                this.rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                this.sendText(exchange, TOO_MANY_REQUESTS, "too many conversions in flight");
+                return;
+            }
+            try {
+                LocalDateTime dtStart;
+                try {
+                    dtStart = parseDTStart(exchange.getRequestURI().getRawQuery());
+                } catch (DateTimeParseException e) {
+                    this.sendText(exchange, 400, "invalid dtstart: " + e.getParsedString());
+                    return;
+                }
+                if (batch) {
+                    this.convertBatch(exchange, dtStart);
+                } else {
+                    this.convertSingle(exchange, dtStart);
+                }
+            } finally {
+                this.admission.release();
+            }
+        }
+    }
+
+    private void convertSingle(HttpExchange exchange, LocalDateTime dtStart) throws IOException {
+        String expression;
+        try (InputStream body = exchange.getRequestBody()) {
+            expression = new String(body.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+        ConversionResult result = this.convert(expression, dtStart);
+        switch (result.getStatus()) {
+            case CONVERTED:
+                this.sendText(exchange, 200, result.getRRule());
+                break;
+            case UNSUPPORTED:
+                this.sendText(exchange, UNPROCESSABLE, "unsupported cron expression");
+                break;
+            default:
+                this.sendText(exchange, 400, String.valueOf(result.getError().getMessage()));
+        }
+    }
+
+    private void convertBatch(HttpExchange exchange, LocalDateTime dtStart) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", NDJSON);
+        exchange.sendResponseHeaders(200, 0); // chunked, lines are written as they are converted
+        StringBuilder line = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            String inputLine;
+            while ((inputLine = reader.readLine()) != null) {
+                if (inputLine.isBlank()) {
+                    continue;
+                }
+                line.setLength(0);
+                int separator = inputLine.indexOf(ID_SEPARATOR);
+                if (separator < 0) {
+                    OutputFormat.NDJSON.format(inputLine.trim(), ConversionResult.failed(
+                            new IllegalArgumentException("missing '" + ID_SEPARATOR + "' in line: " + inputLine)), line);
+                } else {
+                    OutputFormat.NDJSON.format(inputLine.substring(0, separator).trim(),
+                            this.convert(inputLine.substring(separator + 1).trim(), dtStart), line);
+                }
+                writer.append(line).append('\n');
+            }
+        }
+    }
+
+    private ConversionResult convert(String expression, LocalDateTime dtStart) {
+        try {
+            return ConversionResult.of(this.converter.convert(this.cronParser.parse(expression), dtStart));
+        } catch (RuntimeException e) {
+            return ConversionResult.failed(e);
+        }
+    }
+
+    private void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", TEXT);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * standalone service on the loopback address: [port, default 8080] [maxInFlight, default 2 per processor]. enables TCP_NODELAY
+     * unless 'sun.net.httpserver.nodelay' is set, and runs until the JVM is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+        ConversionServer server = new ConversionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), maxInFlight);
+        server.start();
+        System.out.println("converting on http://localhost:" + server.getAddress().getPort() + "/convert");
+    }
+
+    static LocalDateTime parseDTStart(String rawQuery) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            if (parameter.startsWith(DTSTART_PARAMETER)) {
+                return LocalDateTime.parse(URLDecoder.decode(parameter.substring(DTSTART_PARAMETER.length()), StandardCharsets.UTF_8));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * one daemon thread per request. threads are reused while requests keep arriving, idle threads end after a minute.
+     */
+    static ExecutorService newThreadPerRequestExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "rrule-conversion-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.kyl.rrule;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRRuleConverterTest {
+    private static CronParser CRON_PARSER;
+
+    private ForkJoinPool pool;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @BeforeEach
+    public void setUpEach() {
+        this.pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDownEach() {
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void testConvertAllKeepsOrder() {
+        List<Cron> crons = new CronCorpusGenerator(42L).corpus(2000).stream().map(CRON_PARSER::parse).collect(Collectors.toList());
+        BatchRRuleConverter batchConverter = new BatchRRuleConverter(new QuartzCronRRuleConverter(), this.pool, 16);
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+
+        List<ConversionResult> results = batchConverter.convertAll(crons, null);
+
+        assertEquals(crons.size(), results.size());
+        for (int i = 0; i < crons.size(); i++) {
+            assertEquals(ConversionResult.of(converter.convert(crons.get(i), null)), results.get(i));
+        }
+    }
+
+    @Test
+    public void testConvertAllDeduplicates() {
+        AtomicInteger conversions = new AtomicInteger();
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        RRuleConverter countingConverter = (cron, dtStart) -> {
+            conversions.incrementAndGet();
+            return converter.convert(cron, dtStart);
+        };
+        List<Cron> crons = List.of(CRON_PARSER.parse("0 0 7 ? * 2-6 *"), CRON_PARSER.parse("0 30 10 ? * 5L"),
+                CRON_PARSER.parse("0 0 7 ? * 2-6 *"), CRON_PARSER.parse("0 0 7 ? * 2-6 *"));
+
+        List<ConversionResult> results = new BatchRRuleConverter(countingConverter, this.pool, 1).convertAll(crons, null);
+
+        assertEquals(2, conversions.get());
+        assertSame(results.get(0), results.get(2));
+        assertSame(results.get(0), results.get(3));
+        assertNotSame(results.get(0), results.get(1));
+    }
+
+    @Test
+    public void testConvertAllReportsFailures() {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        RRuleConverter failingConverter = (cron, dtStart) -> {
+            if (cron.asString().startsWith("1 ")) {
+                throw new IllegalStateException("broken " + cron.asString());
+            }
+            return converter.convert(cron, dtStart);
+        };
+        List<Cron> crons = List.of(CRON_PARSER.parse("0 0 7 ? * 2-6 *"), CRON_PARSER.parse("1 0 7 ? * 2-6 *"),
+                CRON_PARSER.parse("0 30 10 2w1 * ?"));
+
+        List<ConversionResult> results = new BatchRRuleConverter(failingConverter, this.pool).convertAll(crons, null);
+
+        assertEquals(ConversionResult.Status.CONVERTED, results.get(0).getStatus());
+        assertNotNull(results.get(0).getRRule());
+        assertEquals(ConversionResult.Status.FAILED, results.get(1).getStatus());
+        assertInstanceOf(IllegalStateException.class, results.get(1).getError());
+        assertEquals(ConversionResult.Status.UNSUPPORTED, results.get(2).getStatus());
+        assertNull(results.get(2).getRRule());
+    }
+
+    @Test
+    public void testConvertAllKeyed() {
+        Map<String, Cron> crons = new LinkedHashMap<>();
+        crons.put("b", CRON_PARSER.parse("0 30 10 ? * 5L"));
+        crons.put("a", CRON_PARSER.parse("0 0 7 ? * 2-6 *"));
+        crons.put("c", CRON_PARSER.parse("0 30 10 2w1 * ?"));
+
+        Map<String, ConversionResult> results = new BatchRRuleConverter(new QuartzCronRRuleConverter(), this.pool).convertAll(crons, null);
+
+        assertEquals(List.of("b", "a", "c"), List.copyOf(results.keySet()));
+        assertTrue(results.get("b").isConverted());
+        assertTrue(results.get("a").isConverted());
+        assertEquals(ConversionResult.unsupported(), results.get("c"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.kyl.rrule;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkConverterCliTest {
+    private static CronParser CRON_PARSER;
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testCsvFromStdin() {
+        int status = this.run("1,0 30 10 ? * MON,WED\n\n2,0 30 10 2w1 * ?\r\n3,not a cron\n4", "--threads", "2", "--report-interval", "0");
+
+        assertEquals(BulkConverterCli.EXIT_OK, status);
+        String[] lines = this.out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertEquals(csv("1", convert("0 30 10 ? * MON,WED", null)), lines[0]);
+        assertEquals("2,", lines[1]);
+        assertTrue(lines[2].startsWith("3,,"));
+        assertEquals("5,,\"missing ',' in line 5: 4\"", lines[3], "malformed lines are reported by line number");
+        assertTrue(this.err.toString(StandardCharsets.UTF_8).contains("converted=1, unsupported=1, failed=2"));
+    }
+
+    @Test
+    public void testOrderAcrossBatches() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append("0 ").append(i % 60).append(' ').append(i % 24).append(" ? * ").append(i % 7 + 1).append('\n');
+        }
+
+        int status = this.run(input.toString(), "--input-format", "plain", "--output-format", "plain", "--threads", "4",
+                "--batch-size", "7", "--dtstart", "2022-10-04T15:07:40", "--report-interval", "0");
+
+        assertEquals(BulkConverterCli.EXIT_OK, status);
+        String[] lines = this.out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1000, lines.length);
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        for (int i = 0; i < 1000; i++) {
+            String expression = "0 " + i % 60 + " " + i % 24 + " ? * " + (i % 7 + 1);
+            assertEquals(convert(expression, dtStart).replace('\n', ' '), lines[i], expression);
+        }
+    }
+
+    @Test
+    public void testDTStartColumn() {
+        int status = this.run("a,\"0 0 12 ? * MON,FRI\",20221004T150740Z\nb,0 0 12 * * ?,2023-01-02T03:04:05\nc,0 0 12 * * ?,",
+                "--dtstart-column", "3", "--output-format", "ndjson", "--report-interval", "0");
+
+        assertEquals(BulkConverterCli.EXIT_OK, status);
+        List<String> lines = List.of(this.out.toString(StandardCharsets.UTF_8).split("\n"));
+        StringBuilder expected = new StringBuilder();
+        OutputFormat.NDJSON.format("a", ConversionResult.of(convert("0 0 12 ? * MON,FRI", LocalDateTime.of(2022, 10, 4, 15, 7, 40))), expected);
+        assertEquals(expected.toString(), lines.get(0));
+        assertTrue(lines.get(1).contains("DTSTART:20230102T030405Z"));
+        assertFalse(lines.get(2).contains("DTSTART"));
+    }
+
+    @Test
+    public void testNdjsonFilesToFile() throws IOException {
+        Path first = Files.writeString(this.tempDir.resolve("first.ndjson"),
+                "{\"id\": \"x\", \"cron\": \"0 0 12 * * ?\", \"start\": \"2022-10-04T00:00:00\"}\n{\"cron\": \"0 0 12 1W * ?\"}\n");
+        Path second = Files.writeString(this.tempDir.resolve("second.ndjson"), "{\"id\": 7, \"cron\": \"0 0 12 * * ?\"}\n[]\n");
+        Path output = this.tempDir.resolve("out.csv");
+
+        int status = this.run("", "--input-format", "ndjson", "--dtstart-column", "start", "--output", output.toString(),
+                "--report-interval", "0", first.toString(), second.toString());
+
+        assertEquals(BulkConverterCli.EXIT_OK, status);
+        String[] lines = Files.readString(output, StandardCharsets.UTF_8).split("\n(?=[^R])");
+        assertEquals(4, lines.length);
+        assertEquals(csv("x", convert("0 0 12 * * ?", LocalDateTime.of(2022, 10, 4, 0, 0))), lines[0]);
+        assertEquals("2,", lines[1], "the id defaults to the line number");
+        assertEquals(csv("7", convert("0 0 12 * * ?", null)), lines[2]);
+        assertTrue(lines[3].startsWith("4,,"));
+        assertEquals(0, this.out.size());
+    }
+
+    @Test
+    public void testUsageAndIoErrors() {
+        assertEquals(BulkConverterCli.EXIT_USAGE, this.run("", "--threads", "0"));
+        assertEquals(BulkConverterCli.EXIT_USAGE, this.run("", "--input-format", "xml"));
+        assertEquals(BulkConverterCli.EXIT_USAGE, this.run("", "--input-format", "plain", "--dtstart-column", "3"));
+        assertEquals(BulkConverterCli.EXIT_USAGE, this.run("", "--dtstart"));
+        assertEquals(BulkConverterCli.EXIT_USAGE, this.run("", "--unknown", "1"));
+        assertEquals(BulkConverterCli.EXIT_OK, this.run("", "--help"));
+        assertEquals(BulkConverterCli.EXIT_IO_ERROR, this.run("", "--report-interval", "0", this.tempDir.resolve("missing.csv").toString()));
+        assertTrue(this.err.toString(StandardCharsets.UTF_8).contains("usage: cron-rrule-converter"));
+    }
+
+    @Test
+    public void testUncheckedReadFailure() {
+        // Paths.get throws InvalidPathException on the reader thread, the writer must not wait for input forever
+        int status = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> this.run("", "--report-interval", "0", "--batch-size", "1", "-", "invalid\u0000path.csv"));
+
+        assertEquals(BulkConverterCli.EXIT_IO_ERROR, status);
+        assertTrue(this.err.toString(StandardCharsets.UTF_8).contains("InvalidPathException"));
+    }
+
+    @Test
+    public void testUnixDialect() {
+        int status = this.run("1,30 10 * * 1-5", "--dialect", "unix", "--report-interval", "0");
+
+        assertEquals(BulkConverterCli.EXIT_OK, status);
+        assertEquals(csv("1", new CronDialectRRuleConverter(CronDialect.UNIX).convert(CronDialect.UNIX.newParser().parse("30 10 * * 1-5"), null))
+                + "\n", this.out.toString(StandardCharsets.UTF_8));
+    }
+
+    private int run(String input, String... args) {
+        return BulkConverterCli.run(args, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), this.out,
+                new PrintStream(this.err, true, StandardCharsets.UTF_8));
+    }
+
+    private static String csv(String id, String rrule) {
+        StringBuilder line = new StringBuilder();
+        OutputFormat.CSV.format(id, ConversionResult.of(rrule), line);
+        return line.toString();
+    }
+
+    private static String convert(String expression, LocalDateTime dtStart) {
+        return new QuartzCronRRuleConverter().convert(CRON_PARSER.parse(expression), dtStart);
+    }
+}
@@ -0,0 +1,79 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteBufferAppendableTest {
+
+    private static byte[] written(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testAppendUtf8() throws IOException {
+        String text = "RRULE:FREQ=DAILY,\u00e9\u20ac\ud83d\ude00";
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        ByteBufferAppendable appendable = new ByteBufferAppendable(buffer);
+
+        appendable.append(text, 0, 6).append(text.substring(6)).append('!');
+        appendable.finish();
+
+        assertArrayEquals((text + "!").getBytes(StandardCharsets.UTF_8), written(buffer));
+    }
+
+    @Test
+    public void testAppendSurrogatePairByChar() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        ByteBufferAppendable appendable = new ByteBufferAppendable(buffer);
+
+        appendable.append('\ud83d').append('\ude00');
+        appendable.finish();
+
+        assertArrayEquals("\ud83d\ude00".getBytes(StandardCharsets.UTF_8), written(buffer));
+    }
+
+    @Test
+    public void testAppendMalformed() {
+        assertThrows(MalformedInputException.class, () -> new ByteBufferAppendable(ByteBuffer.allocate(8)).append("\ude00"));
+        assertThrows(MalformedInputException.class, () -> new ByteBufferAppendable(ByteBuffer.allocate(8)).append("\ud83dx"));
+        assertThrows(MalformedInputException.class, () -> new ByteBufferAppendable(ByteBuffer.allocate(8)).append("\ud83d").finish());
+    }
+
+    @Test
+    public void testAppendOverflow() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        ByteBufferAppendable appendable = new ByteBufferAppendable(buffer);
+
+        appendable.append("FREQ=");
+        assertThrows(BufferOverflowException.class, appendable::finish);
+        // nothing is written when the collected bytes do not fit
+        assertEquals(0, buffer.position());
+
+        appendable.append("abc");
+        appendable.finish();
+        assertArrayEquals("abc".getBytes(StandardCharsets.US_ASCII), written(buffer));
+    }
+
+    @Test
+    public void testAppendLongText() throws IOException {
+        String text = "RRULE:FREQ=MINUTELY;BYMINUTE=0,1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30,"
+                + "31,32,33,34,35,36,37,38,39,40,41,42,43,44,45,46,47,48,49,50,51,52,53,54,55,56,57,58,59";
+        ByteBuffer buffer = ByteBuffer.allocateDirect(text.length());
+        ByteBufferAppendable appendable = new ByteBufferAppendable(buffer);
+
+        appendable.append(text);
+        appendable.finish();
+
+        assertArrayEquals(text.getBytes(StandardCharsets.US_ASCII), written(buffer));
+    }
+}
@@ -0,0 +1,112 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingRRuleConverterTest {
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    private static RRuleConverter countingConverter(AtomicInteger counter) {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        return (cron, dtStart) -> {
+            counter.incrementAndGet();
+            return converter.convert(cron, dtStart);
+        };
+    }
+
+    @Test
+    public void testConvertHit() {
+        AtomicInteger conversions = new AtomicInteger();
+        CachingRRuleConverter converter = new CachingRRuleConverter(countingConverter(conversions), 10, true);
+        Cron cron = CRON_PARSER.parse("0 30 10 ? * 5L");
+
+        String first = converter.convert(cron, null);
+        String second = converter.convert(CRON_PARSER.parse("0 30 10 ? * 5L"), null);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(1, conversions.get());
+        assertEquals(1, converter.getHitCount());
+        assertEquals(1, converter.getMissCount());
+        assertEquals(1, converter.size());
+    }
+
+    @Test
+    public void testConvertDifferentDTStart() {
+        AtomicInteger conversions = new AtomicInteger();
+        CachingRRuleConverter converter = new CachingRRuleConverter(countingConverter(conversions), 10, true);
+        Cron cron = CRON_PARSER.parse("0 0 7 ? * 2-6 *");
+
+        String withoutDTStart = converter.convert(cron, null);
+        String withDTStart = converter.convert(cron, LocalDateTime.of(2022, 10, 4, 15, 7, 40));
+
+        assertNotEquals(withoutDTStart, withDTStart);
+        assertTrue(withDTStart.startsWith("DTSTART:20221004T150740Z\n"));
+        assertEquals(2, conversions.get());
+        assertEquals(0, converter.getHitCount());
+    }
+
+    @Test
+    public void testConvertUnsupportedIsCached() {
+        AtomicInteger conversions = new AtomicInteger();
+        CachingRRuleConverter converter = new CachingRRuleConverter(countingConverter(conversions), 10, true);
+        Cron cron = CRON_PARSER.parse("0 30 10 2w1 * ?");
+
+        assertNull(converter.convert(cron, null));
+        assertNull(converter.convert(cron, null));
+        assertEquals(1, conversions.get());
+        assertEquals(1, converter.getHitCount());
+    }
+
+    @Test
+    public void testConvertUnsupportedIsNotCached() {
+        AtomicInteger conversions = new AtomicInteger();
+        CachingRRuleConverter converter = new CachingRRuleConverter(countingConverter(conversions), 10, false);
+        Cron cron = CRON_PARSER.parse("0 30 10 2w1 * ?");
+
+        assertNull(converter.convert(cron, null));
+        assertNull(converter.convert(cron, null));
+        assertEquals(2, conversions.get());
+        assertEquals(0, converter.size());
+    }
+
+    @Test
+    public void testEviction() {
+        CachingRRuleConverter converter = new CachingRRuleConverter(new QuartzCronRRuleConverter(), 2, true);
+        Cron first = CRON_PARSER.parse("0 0 1 * * ?");
+        Cron second = CRON_PARSER.parse("0 0 2 * * ?");
+        Cron third = CRON_PARSER.parse("0 0 3 * * ?");
+
+        converter.convert(first, null);
+        converter.convert(second, null);
+        // first is referenced again so second is evicted instead
+        converter.convert(first, null);
+        converter.convert(third, null);
+
+        assertEquals(2, converter.size());
+        assertEquals(1, converter.getEvictionCount());
+
+        converter.convert(first, null);
+        assertEquals(2, converter.getHitCount());
+    }
+
+    @Test
+    public void testInvalidMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingRRuleConverter(new QuartzCronRRuleConverter(), 0, true));
+    }
+}
@@ -0,0 +1,60 @@
+package com.kyl.rrule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarTablesTest {
+    @Test
+    public void testSameAsJavaTime() {
+        for (int year = 1600; year <= 2800; year++) {
+            for (int month = 1; month <= 12; month++) {
+                YearMonth yearMonth = YearMonth.of(year, month);
+                assertEquals(yearMonth.lengthOfMonth(), CalendarTables.lengthOfMonth(year, month), yearMonth.toString());
+                assertEquals(quartzWeekday(yearMonth.atDay(1)), CalendarTables.firstWeekday(year, month), yearMonth.toString());
+                assertEquals(quartzWeekday(yearMonth.atEndOfMonth()),
+                        CalendarTables.weekday(year, month, yearMonth.lengthOfMonth()), yearMonth.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testNearestWeekdaySameAsJavaTime() {
+        for (int year = 1990; year <= 2060; year++) {
+            for (int month = 1; month <= 12; month++) {
+                YearMonth yearMonth = YearMonth.of(year, month);
+                for (int day = 1; day <= 31; day++) {
+                    int expected = day > yearMonth.lengthOfMonth() ? -1 : nearestWeekday(yearMonth.atDay(day));
+                    assertEquals(expected, CalendarTables.nearestWeekday(year, month, day), yearMonth + "-" + day);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNearestWeekdayAtMonthEdges() {
+        assertEquals(3, CalendarTables.nearestWeekday(2022, 10, 1), "Saturday 1st moves to Monday 3rd");
+        assertEquals(28, CalendarTables.nearestWeekday(2023, 4, 30), "Sunday 30th moves to Friday 28th");
+        assertEquals(14, CalendarTables.nearestWeekday(2022, 10, 15), "Saturday moves to Friday");
+        assertEquals(17, CalendarTables.nearestWeekday(2022, 10, 16), "Sunday moves to Monday");
+        assertEquals(-1, CalendarTables.nearestWeekday(2023, 2, 29));
+        assertEquals(29, CalendarTables.nearestWeekday(2024, 2, 29));
+    }
+
+    private static int quartzWeekday(LocalDate date) {
+        return date.getDayOfWeek().getValue() % 7 + 1;
+    }
+
+    private static int nearestWeekday(LocalDate date) {
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            return date.getDayOfMonth() == 1 ? 3 : date.getDayOfMonth() - 1;
+        } else if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return date.getDayOfMonth() == date.lengthOfMonth() ? date.getDayOfMonth() - 2 : date.getDayOfMonth() + 1;
+        }
+        return date.getDayOfMonth();
+    }
+}
@@ -0,0 +1,43 @@
+package com.kyl.rrule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelLineWriterTest {
+
+    @Test
+    public void testWriteLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String longLine = "x".repeat(100) + "\u00e9\ud83d\ude00";
+        try (ChannelLineWriter writer = new ChannelLineWriter(Channels.newChannel(out), 32)) {
+            writer.writeLine("a,RRULE:FREQ=DAILY");
+            writer.writeLine(longLine);
+            writer.writeLine("");
+        }
+
+        assertEquals("a,RRULE:FREQ=DAILY\n" + longLine + "\n\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteMalformedLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ChannelLineWriter writer = new ChannelLineWriter(Channels.newChannel(out), 256)) {
+            writer.writeLine("a");
+            // longer than the buffer, and ASCII past the bytes collected before a copy to the buffer
+            assertThrows(MalformedInputException.class, () -> writer.writeLine("x".repeat(300) + "\ude00"));
+            assertThrows(MalformedInputException.class, () -> writer.writeLine("x".repeat(200) + "\ud83dx"));
+            assertThrows(MalformedInputException.class, () -> writer.writeLine("x\ud83d"));
+            writer.writeLine("b");
+        }
+
+        // a malformed line leaves no part of it behind
+        assertEquals("a\nb\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversionMetricsRecorderTest {
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testConvert() {
+        ConversionMetricsRecorder recorder = new ConversionMetricsRecorder();
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter(recorder);
+
+        String daily = converter.convert(CRON_PARSER.parse("0 0 12 * * ?"), LocalDateTime.of(2022, 1, 1, 0, 0));
+        String weekly = converter.convert(CRON_PARSER.parse("0 0 12 ? * MON-FRI"), null);
+        assertNull(converter.convert(CRON_PARSER.parse("0 30 10 15W * ?"), null));
+
+        ConversionMetricsSnapshot snapshot = recorder.snapshot();
+        assertEquals(2, snapshot.getConvertedCount());
+        assertEquals(1, snapshot.getUnsupportedCount());
+        assertEquals(0, snapshot.getFailedCount());
+        assertEquals(1, snapshot.getFrequencyCounts().get(RRuleFrequency.DAILY));
+        assertEquals(1, snapshot.getFrequencyCounts().get(RRuleFrequency.WEEKLY));
+        assertEquals(1, snapshot.getFrequencyCounts().get(RRuleFrequency.MONTHLY));
+        assertEquals(0, snapshot.getFrequencyCounts().get(RRuleFrequency.SECONDLY));
+
+        assertEquals(10, snapshot.getFieldExpressionCounts().get("On"));
+        assertEquals(1, snapshot.getFieldExpressionCounts().get("Between"));
+        assertEquals(3, snapshot.getFieldExpressionCounts().get("QuestionMark"));
+        assertEquals(0, snapshot.getFieldExpressionCounts().get("Other"));
+
+        assertEquals(3, snapshot.getLatencyNanos().getCount());
+        assertEquals(2, snapshot.getOutputLength().getCount());
+        assertEquals(daily.length() + weekly.length(), snapshot.getOutputLength().getSum());
+        assertEquals(Math.max(daily.length(), weekly.length()), snapshot.getOutputLength().getMax());
+    }
+
+    @Test
+    public void testConvertTo() throws IOException {
+        ConversionMetricsRecorder recorder = new ConversionMetricsRecorder();
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter(recorder);
+        StringBuilder out = new StringBuilder("prefix");
+
+        assertTrue(converter.convertTo(CRON_PARSER.parse("0 0 12 * * ?"), null, out));
+        assertFalse(converter.convertTo(CRON_PARSER.parse("0 30 10 15W * ?"), null, new StringBuilder()));
+
+        ConversionMetricsSnapshot snapshot = recorder.snapshot();
+        assertEquals(1, snapshot.getConvertedCount());
+        assertEquals(1, snapshot.getUnsupportedCount());
+        assertEquals(out.length() - "prefix".length(), snapshot.getOutputLength().getSum());
+    }
+
+    @Test
+    public void testFailure() {
+        ConversionMetricsRecorder recorder = new ConversionMetricsRecorder();
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter(recorder);
+
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(CRON_PARSER.parse("0 0 12 ? * 7#6"), null));
+
+        ConversionMetricsSnapshot snapshot = recorder.snapshot();
+        assertEquals(1, snapshot.getFailedCount());
+        assertEquals(0, snapshot.getConvertedCount());
+        assertEquals(1, snapshot.getLatencyNanos().getCount());
+    }
+
+    @Test
+    public void testNoopConverterMatches() {
+        QuartzCronRRuleConverter measured = new QuartzCronRRuleConverter(new ConversionMetricsRecorder());
+        QuartzCronRRuleConverter unmeasured = new QuartzCronRRuleConverter(ConversionMetrics.NOOP);
+
+        for (String expression : new String[]{"0 0 12 * * ?", "0 15 10 ? * 6L", "0 0/5 14,18 * * ?", "0 30 10 15W * ?"}) {
+            assertEquals(unmeasured.convert(CRON_PARSER.parse(expression), null), measured.convert(CRON_PARSER.parse(expression), null));
+        }
+    }
+}
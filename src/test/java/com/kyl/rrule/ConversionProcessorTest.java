@@ -0,0 +1,228 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversionProcessorTest {
+    private static final LocalDateTime DT_START = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testOrderedOutcomes() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ConversionProcessor processor = new ConversionProcessor(new QuartzCronRRuleConverter(), CRON_PARSER, executor, 8, true);
+            List<CronRecord> records = records(200);
+            Collector collector = new Collector(Long.MAX_VALUE);
+            processor.subscribe(collector);
+
+            try (SubmissionPublisher<CronRecord> publisher = new SubmissionPublisher<>()) {
+                publisher.subscribe(processor);
+                records.forEach(publisher::submit);
+            }
+
+            assertTrue(collector.done.await(10, TimeUnit.SECONDS));
+            assertNull(collector.error);
+            assertEquals(records.size(), collector.results.size());
+            QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+            for (int i = 0; i < records.size(); i++) {
+                ConvertedRecord result = collector.results.get(i);
+                assertSame(records.get(i), result.getRecord());
+            }
+            assertEquals(ConversionResult.of(converter.convert(CRON_PARSER.parse("0 30 9 ? * 2"), DT_START)),
+                    collector.results.get(0).getResult());
+            assertEquals(ConversionResult.Status.UNSUPPORTED, collector.results.get(1).getResult().getStatus());
+            assertEquals(ConversionResult.Status.FAILED, collector.results.get(2).getResult().getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testUnordered() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ConversionProcessor processor = new ConversionProcessor(new QuartzCronRRuleConverter(), CRON_PARSER, executor, 16, false);
+            List<CronRecord> records = records(300);
+            Collector collector = new Collector(Long.MAX_VALUE);
+            processor.subscribe(collector);
+
+            try (SubmissionPublisher<CronRecord> publisher = new SubmissionPublisher<>()) {
+                publisher.subscribe(processor);
+                records.forEach(publisher::submit);
+            }
+
+            assertTrue(collector.done.await(10, TimeUnit.SECONDS));
+            Set<CronRecord> received = new HashSet<>();
+            collector.results.forEach(result -> received.add(result.getRecord()));
+            assertEquals(new HashSet<>(records), received);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBackpressure() {
+        ConversionProcessor processor = new ConversionProcessor(new QuartzCronRRuleConverter(), CRON_PARSER, Runnable::run, 4, true);
+        RecordPublisher publisher = new RecordPublisher(records(20));
+        Collector collector = new Collector(0);
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+
+        assertEquals(4, publisher.requested, "no demand, only maxInFlight records are requested");
+        assertTrue(collector.results.isEmpty());
+
+        collector.subscription.request(3);
+        assertEquals(3, collector.results.size());
+        assertEquals(7, publisher.requested);
+
+        collector.subscription.request(100);
+        assertEquals(20, collector.results.size());
+        assertEquals(1, collector.done.getCount(), "completion follows the last result");
+        publisher.complete();
+        assertEquals(0, collector.done.getCount());
+        assertNull(collector.error);
+    }
+
+    @Test
+    public void testUpstreamErrorAfterResults() {
+        ConversionProcessor processor = new ConversionProcessor(new QuartzCronRRuleConverter(), CRON_PARSER, Runnable::run, 4, false);
+        RecordPublisher publisher = new RecordPublisher(records(2));
+        Collector collector = new Collector(0);
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+        IllegalStateException error = new IllegalStateException("source failed");
+
+        publisher.subscriber.onError(error);
+        assertEquals(1, collector.done.getCount());
+        collector.subscription.request(2);
+
+        assertEquals(2, collector.results.size());
+        assertSame(error, collector.error);
+    }
+
+    @Test
+    public void testInvalidRequestAndSecondSubscriber() {
+        ConversionProcessor processor = new ConversionProcessor(new QuartzCronRRuleConverter(), CRON_PARSER, Runnable::run, 4, true);
+        RecordPublisher publisher = new RecordPublisher(records(2));
+        Collector collector = new Collector(0);
+        Collector second = new Collector(0);
+        processor.subscribe(collector);
+        processor.subscribe(second);
+        publisher.subscribe(processor);
+
+        collector.subscription.request(0);
+
+        assertTrue(collector.error instanceof IllegalArgumentException);
+        assertTrue(publisher.cancelled);
+        assertTrue(second.error instanceof IllegalStateException);
+        assertThrows(IllegalArgumentException.class, () -> new ConversionProcessor(new QuartzCronRRuleConverter(), CRON_PARSER, Runnable::run, 0, true));
+    }
+
+    private static List<CronRecord> records(int count) {
+        String[] expressions = {"0 30 9 ? * 2", "0 30 10 2w1 * ?", "not a cron", "0 0/15 * * * ?", "0 0 12 L * ?"};
+        List<CronRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(new CronRecord("id" + i, expressions[i % expressions.length], DT_START));
+        }
+        return records;
+    }
+
+    /**
+     * publishes records synchronously on request
+     */
+    private static final class RecordPublisher implements Flow.Publisher<CronRecord>, Flow.Subscription {
+        private final List<CronRecord> records;
+        private Flow.Subscriber<? super CronRecord> subscriber;
+        private long requested;
+        private int next;
+        private boolean cancelled;
+
+        RecordPublisher(List<CronRecord> records) {
+            this.records = records;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super CronRecord> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            this.requested += n;
+            while (this.next < this.requested && this.next < this.records.size() && !this.cancelled) {
+                this.subscriber.onNext(this.records.get(this.next++));
+            }
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        void complete() {
+            this.subscriber.onComplete();
+        }
+    }
+
+    private static final class Collector implements Flow.Subscriber<ConvertedRecord> {
+        private final long initialRequest;
+        private final List<ConvertedRecord> results = new ArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        Collector(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (this.initialRequest > 0) {
+                subscription.request(this.initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(ConvertedRecord item) {
+            this.results.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.done.countDown();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversionServerTest {
+    private static CronParser CRON_PARSER;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ConversionServer server;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+    }
+
+    @Test
+    public void testConvert() throws IOException, InterruptedException {
+        this.start(4);
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+
+        HttpResponse<String> response = this.post("/convert", "0 0 12 ? * MON-FRI");
+        assertEquals(200, response.statusCode());
+        assertEquals(converter.convert(CRON_PARSER.parse("0 0 12 ? * MON-FRI"), null), response.body());
+
+        response = this.post("/convert?dtstart=2022-10-04T15:07:40", "0 0 12 * * ?");
+        assertEquals(200, response.statusCode());
+        assertEquals(converter.convert(CRON_PARSER.parse("0 0 12 * * ?"), LocalDateTime.of(2022, 10, 4, 15, 7, 40)), response.body());
+
+        assertEquals(ConversionServer.UNPROCESSABLE, this.post("/convert", "0 30 10 15W * ?").statusCode());
+        assertEquals(400, this.post("/convert", "not a cron").statusCode());
+        assertEquals(400, this.post("/convert?dtstart=yesterday", "0 0 12 * * ?").statusCode());
+        assertEquals(404, this.post("/convert/other", "0 0 12 * * ?").statusCode());
+
+        HttpResponse<String> get = this.client.send(HttpRequest.newBuilder(this.uri("/convert")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, get.statusCode());
+    }
+
+    @Test
+    public void testConvertBatch() throws IOException, InterruptedException {
+        this.start(4);
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+
+        HttpResponse<String> response = this.post("/convert/batch", "a,0 0 12 * * ?\n\nb,0 30 10 15W * ?\nc,not a cron\nd\n");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElse(null));
+        String[] lines = response.body().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("{\"id\":\"a\",\"status\":\"CONVERTED\",\"rrule\":\"" + converter.convert(CRON_PARSER.parse("0 0 12 * * ?"), null)
+                + "\"}", lines[0]);
+        assertEquals("{\"id\":\"b\",\"status\":\"UNSUPPORTED\"}", lines[1]);
+        assertTrue(lines[2].startsWith("{\"id\":\"c\",\"status\":\"FAILED\",\"error\":"), lines[2]);
+        assertTrue(lines[3].startsWith("{\"id\":\"d\",\"status\":\"FAILED\",\"error\":"), lines[3]);
+    }
+
+    @Test
+    public void testOverloadIsRejected() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        RRuleConverter blocking = (cron, dtStart) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return converter.convert(cron, dtStart);
+        };
+        this.server = new ConversionServer(blocking, CRON_PARSER, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1,
+                ConversionServer.newThreadPerRequestExecutor());
+        this.server.start();
+
+        CompletableFuture<HttpResponse<String>> first = this.client.sendAsync(this.request("/convert", "0 0 12 * * ?"),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        HttpResponse<String> rejected = this.post("/convert", "0 0 12 * * ?");
+        assertEquals(ConversionServer.TOO_MANY_REQUESTS, rejected.statusCode());
+        assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(null));
+        assertEquals(1, this.server.getRejectedCount());
+
+        release.countDown();
+        assertEquals(200, first.get(10, TimeUnit.SECONDS).statusCode());
+        assertEquals(200, this.post("/convert", "0 0 12 * * ?").statusCode());
+    }
+
+    @Test
+    public void testInvalidMaxInFlight() {
+        assertThrows(IllegalArgumentException.class, () -> new ConversionServer(new InetSocketAddress(0), 0));
+    }
+
+    @Test
+    public void testParseDTStart() {
+        assertNull(ConversionServer.parseDTStart(null));
+        assertNull(ConversionServer.parseDTStart("other=1"));
+        assertEquals(LocalDateTime.of(2022, 10, 4, 15, 7, 40), ConversionServer.parseDTStart("other=1&dtstart=2022-10-04T15%3A07%3A40"));
+    }
+
+    private void start(int maxInFlight) throws IOException {
+        this.server = new ConversionServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), maxInFlight);
+        this.server.start();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        return this.client.send(this.request(path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path, String body) {
+        return HttpRequest.newBuilder(this.uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.server.getAddress().getPort() + path);
+    }
+}
@@ -0,0 +1,221 @@
+package com.kyl.rrule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of quartz cron expressions. The same seed always produces the same corpus, so benchmark runs and test runs
+ * are comparable with each other.
+ */
+public class CronCorpusGenerator {
+
+    /**
+     * shape of the generated expression, named after the cron-utils FieldExpression that dominates it
+     */
+    public enum Shape {
+        ON, BETWEEN, EVERY, SPECIAL
+    }
+
+    private static final String[] DAY_OF_WEEK_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final int[] STEPS = {2, 3, 4, 5, 6, 10, 12, 15, 20, 30};
+
+    private final Random random;
+
+    public CronCorpusGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * generate an expression with a realistic shape mix: mostly fixed times, then ranges and steps, few special characters
+     * @return quartz cron expression
+     */
+    public String next() {
+        int roll = this.random.nextInt(100);
+        if (roll < 50) {
+            return this.next(Shape.ON);
+        } else if (roll < 70) {
+            return this.next(Shape.BETWEEN);
+        } else if (roll < 90) {
+            return this.next(Shape.EVERY);
+        }
+        return this.next(Shape.SPECIAL);
+    }
+
+    /**
+     * generate an expression of the specified shape
+     * @param shape expression shape
+     * @return quartz cron expression
+     */
+    public String next(Shape shape) {
+        switch (shape) {
+            case ON:
+                return this.nextOn();
+            case BETWEEN:
+                return this.nextBetween();
+            case EVERY:
+                return this.nextEvery();
+            default:
+                return this.nextSpecial();
+        }
+    }
+
+    /**
+     * generate an expression in the field layout and day of week numbering of a dialect, e.g. '0 12 * * 0-4' for UNIX
+     * @param dialect cron dialect
+     * @return cron expression of the dialect, a quartz expression with the realistic shape mix for QUARTZ
+     */
+    public String next(CronDialect dialect) {
+        if (dialect == CronDialect.QUARTZ) {
+            return this.next();
+        }
+        StringBuilder expression = new StringBuilder();
+        if (dialect.hasSeconds()) {
+            expression.append(this.random.nextInt(4) == 0 ? "*/" + STEPS[this.random.nextInt(STEPS.length)] : "0").append(' ');
+        }
+        expression.append(this.field(60)).append(' ').append(this.field(24)).append(' ');
+        int lastWeekday = dialect == CronDialect.CRON4J ? 6 : 7;
+        switch (this.random.nextInt(5)) {
+            case 0:
+                return expression.append("* * *").toString();
+            case 1:
+                return expression.append("* * ").append(this.random.nextBoolean()
+                        ? DAY_OF_WEEK_NAMES[this.random.nextInt(DAY_OF_WEEK_NAMES.length)]
+                        : String.valueOf(this.random.nextInt(lastWeekday + 1))).toString();
+            case 2:
+                int fromWeekday = this.random.nextInt(lastWeekday);
+                return expression.append("* * ").append(fromWeekday).append('-')
+                        .append(fromWeekday + 1 + this.random.nextInt(lastWeekday - fromWeekday)).toString();
+            case 3:
+                String monthDay = dialect == CronDialect.CRON4J && this.random.nextInt(4) == 0 ? "L" : String.valueOf(1 + this.random.nextInt(28));
+                return expression.append(monthDay).append(' ').append(this.month()).append(" *").toString();
+            default:
+                return expression.append(1 + this.random.nextInt(28)).append(" * ").append(this.random.nextInt(lastWeekday + 1)).toString();
+        }
+    }
+
+    /**
+     * generate a corpus of a dialect
+     * @param dialect cron dialect
+     * @param size number of expressions
+     * @return list of cron expressions of the dialect
+     */
+    public List<String> corpus(CronDialect dialect, int size) {
+        List<String> corpus = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            corpus.add(this.next(dialect));
+        }
+        return corpus;
+    }
+
+    /**
+     * generate a corpus with the realistic shape mix
+     * @param size number of expressions
+     * @return list of quartz cron expressions
+     */
+    public List<String> corpus(int size) {
+        List<String> corpus = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            corpus.add(this.next());
+        }
+        return corpus;
+    }
+
+    /**
+     * generate a corpus of a single shape
+     * @param shape expression shape
+     * @param size number of expressions
+     * @return list of quartz cron expressions
+     */
+    public List<String> corpus(Shape shape, int size) {
+        List<String> corpus = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            corpus.add(this.next(shape));
+        }
+        return corpus;
+    }
+
+    private String nextOn() {
+        String time = "0 " + this.random.nextInt(60) + " " + this.random.nextInt(24);
+        switch (this.random.nextInt(3)) {
+            case 0:
+                return time + " " + (1 + this.random.nextInt(28)) + " * ?";
+            case 1:
+                return time + " ? * " + this.dayOfWeek();
+            default:
+                return time + " " + (1 + this.random.nextInt(28)) + " " + this.month() + " ?";
+        }
+    }
+
+    private String nextBetween() {
+        int fromHour = this.random.nextInt(12);
+        String time = "0 " + this.random.nextInt(60) + " " + fromHour + "-" + (fromHour + 1 + this.random.nextInt(11));
+        switch (this.random.nextInt(3)) {
+            case 0:
+                return time + " ? * MON-FRI";
+            case 1:
+                int fromDay = 1 + this.random.nextInt(4);
+                return time + " ? * " + fromDay + "-" + (fromDay + 1 + this.random.nextInt(3)) + "," + DAY_OF_WEEK_NAMES[0];
+            default:
+                int fromMonthDay = 1 + this.random.nextInt(14);
+                return time + " " + fromMonthDay + "-" + (fromMonthDay + 1 + this.random.nextInt(14)) + " " + this.month() + "," + this.month() + " ?";
+        }
+    }
+
+    private String nextEvery() {
+        int step = STEPS[this.random.nextInt(STEPS.length)];
+        switch (this.random.nextInt(4)) {
+            case 0:
+                return "0/" + step + " * * * * ?";
+            case 1:
+                return "0 */" + step + " * * * ?";
+            case 2:
+                return "0 0 */" + Math.min(step, 12) + " * * ?";
+            default:
+                return "0 */" + step + " 8-18 ? * MON-FRI";
+        }
+    }
+
+    private String nextSpecial() {
+        String time = "0 " + this.random.nextInt(60) + " " + this.random.nextInt(24);
+        switch (this.random.nextInt(5)) {
+            case 0:
+                return time + " L * ?";
+            case 1:
+                return time + " L-" + (1 + this.random.nextInt(5)) + " * ?";
+            case 2:
+                return time + " LW * ?";
+            case 3:
+                return time + " ? * " + (1 + this.random.nextInt(7)) + "L";
+            default:
+                return time + " ? * " + (1 + this.random.nextInt(7)) + "#" + (1 + this.random.nextInt(4));
+        }
+    }
+
+    private String field(int size) {
+        switch (this.random.nextInt(4)) {
+            case 0:
+                return "*";
+            case 1:
+                int from = this.random.nextInt(size / 2);
+                return from + "-" + (from + 1 + this.random.nextInt(size / 2 - 1));
+            case 2:
+                return "*/" + Math.min(STEPS[this.random.nextInt(STEPS.length)], size / 2);
+            default:
+                return String.valueOf(this.random.nextInt(size));
+        }
+    }
+
+    private String dayOfWeek() {
+        return this.random.nextBoolean()
+                ? DAY_OF_WEEK_NAMES[this.random.nextInt(DAY_OF_WEEK_NAMES.length)]
+                : String.valueOf(1 + this.random.nextInt(7));
+    }
+
+    private String month() {
+        return this.random.nextBoolean()
+                ? MONTH_NAMES[this.random.nextInt(MONTH_NAMES.length)]
+                : String.valueOf(1 + this.random.nextInt(12));
+    }
+}
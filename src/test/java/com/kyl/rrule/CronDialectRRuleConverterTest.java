@@ -0,0 +1,144 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.mapper.CronMapper;
+import com.cronutils.model.Cron;
+import com.cronutils.model.CronType;
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.expression.Every;
+import com.cronutils.parser.CronParser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CronDialectRRuleConverterTest {
+    private static final long SEED = 20221016L;
+    private static final int CORPUS_SIZE = 2000;
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 16, 9, 30, 0);
+
+    @Test
+    public void testUnix() {
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=MO,TU,WE,TH,FR", convert(CronDialect.UNIX, "0 12 * * 1-5"));
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=MO,TU,WE,TH,FR", convert(CronDialect.UNIX, "0 12 * * MON-FRI"));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=30;BYHOUR=8;BYMONTHDAY=1", convert(CronDialect.UNIX, "30 8 1 * *"));
+        assertEquals("RRULE:FREQ=HOURLY;BYSECOND=0;BYMINUTE=0,15,30,45", convert(CronDialect.UNIX, "*/15 * * * *"));
+    }
+
+    @Test
+    public void testUnixSunday() {
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU", convert(CronDialect.UNIX, "0 12 * * 0"));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU", convert(CronDialect.UNIX, "0 12 * * 7"));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU", convert(CronDialect.UNIX, "0 12 * * SUN"));
+        // CronMapper maps '7' to Quartz '8' and fails
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU,FR,SA", convert(CronDialect.UNIX, "0 12 * * 5-7"));
+    }
+
+    @Test
+    public void testUnixEveryDayOfWeek() {
+        // 0,2,4,6 in Unix numbering, CronMapper keeps the step and starts at Quartz 1
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU,TU,TH,SA", convert(CronDialect.UNIX, "0 12 * * */2"));
+    }
+
+    @Test
+    public void testUnixDayOfMonthOrDayOfWeek() {
+        // Unix fires on the 1st or on Mondays, rrule can only express both
+        Cron cron = CronDialect.UNIX.newParser().parse("0 12 1 * 1");
+        assertTrue(new CronDialectRRuleConverter(CronDialect.UNIX).compile(cron).isUnsupported());
+        assertNull(new CronDialectRRuleConverter(CronDialect.UNIX).convert(cron, null));
+    }
+
+    @Test
+    public void testSpring() {
+        assertEquals("RRULE:FREQ=DAILY;BYSECOND=0;BYMINUTE=0;BYHOUR=12", convert(CronDialect.SPRING, "0 0 12 * * *"));
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12", convert(CronDialect.SPRING, "0 0 12 ? * *"));
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=MO,WE", convert(CronDialect.SPRING, "0 0 12 * * 1,3"));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU", convert(CronDialect.SPRING, "0 0 12 * * 7"));
+        assertEquals("RRULE:FREQ=SECONDLY;BYSECOND=0,10,20,30,40,50", convert(CronDialect.SPRING, "*/10 * * * * *"));
+    }
+
+    @Test
+    public void testCron4j() {
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU", convert(CronDialect.CRON4J, "0 12 * * 0"));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SA", convert(CronDialect.CRON4J, "0 12 * * sat"));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYMONTHDAY=-1", convert(CronDialect.CRON4J, "0 12 L * *"));
+        // cron4j fires when both day fields match, like rrule
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYMONTHDAY=13;BYDAY=FR",
+                convert(CronDialect.CRON4J, "0 12 13 * 5"));
+    }
+
+    @Test
+    public void testToQuartzWeekdayOutOfRange() {
+        assertEquals(7, CronDialect.QUARTZ.toQuartzWeekday(7));
+        assertThrows(IllegalArgumentException.class, () -> CronDialect.QUARTZ.toQuartzWeekday(-1));
+        assertThrows(IllegalArgumentException.class, () -> CronDialect.UNIX.toQuartzWeekday(8));
+    }
+
+    @Test
+    public void testQuartz() {
+        assertEquals(new QuartzCronRRuleConverter().convert(CronDialect.QUARTZ.newParser().parse("0 0 12 ? * MON-FRI"), DTSTART),
+                convert(CronDialect.QUARTZ, "0 0 12 ? * MON-FRI", DTSTART));
+    }
+
+    @Test
+    public void testCorpusMatchesCronMapper() {
+        for (CronDialect dialect : CronDialect.values()) {
+            CronParser parser = dialect.newParser();
+            CronDialectRRuleConverter converter = new CronDialectRRuleConverter(dialect);
+            QuartzCronRRuleConverter quartzConverter = new QuartzCronRRuleConverter();
+            CronMapper mapper = mapper(dialect.getCronType());
+            int compared = 0;
+            for (String expression : new CronCorpusGenerator(SEED).corpus(dialect, CORPUS_SIZE)) {
+                Cron cron = parser.parse(expression);
+                if (cron.retrieve(CronFieldName.DAY_OF_WEEK).getExpression() instanceof Every) {
+                    continue; // CronMapper keeps the step of the dialect, see testUnixEveryDayOfWeek
+                }
+                String expected;
+                try {
+                    expected = quartzConverter.convert(mapper.map(cron), DTSTART);
+                } catch (IllegalArgumentException e) {
+                    continue; // no Quartz equivalent, e.g. Unix '5-7' or both day fields
+                }
+                assertEquals(expected, converter.convert(cron, DTSTART), dialect + " " + expression);
+                compared++;
+            }
+            assertTrue(compared > CORPUS_SIZE / 2, dialect + " compared " + compared);
+        }
+    }
+
+    @Test
+    public void testWeekdayTables() {
+        for (int value = 1; value <= 7; value++) {
+            assertEquals(value, CronDialect.QUARTZ.toQuartzWeekday(value));
+        }
+        for (CronDialect dialect : new CronDialect[]{CronDialect.UNIX, CronDialect.SPRING, CronDialect.CRON4J}) {
+            assertEquals(1, dialect.toQuartzWeekday(0), dialect.name());
+            assertEquals(2, dialect.toQuartzWeekday(1), dialect.name());
+            assertEquals(7, dialect.toQuartzWeekday(6), dialect.name());
+            assertEquals(1, dialect.toQuartzWeekday(7), dialect.name());
+        }
+        assertEquals(CronDialect.UNIX, CronDialect.of(CronType.UNIX));
+    }
+
+    private static String convert(CronDialect dialect, String expression) {
+        return convert(dialect, expression, null);
+    }
+
+    private static String convert(CronDialect dialect, String expression, LocalDateTime dtStart) {
+        return new CronDialectRRuleConverter(dialect).convert(dialect.newParser().parse(expression), dtStart);
+    }
+
+    private static CronMapper mapper(CronType cronType) {
+        switch (cronType) {
+            case UNIX:
+                return CronMapper.fromUnixToQuartz();
+            case SPRING:
+                return CronMapper.fromSpringToQuartz();
+            case CRON4J:
+                return CronMapper.fromCron4jToQuartz();
+            default:
+                return CronMapper.sameCron(CronDialect.QUARTZ.getCronDefinition());
+        }
+    }
+}
@@ -213,6 +213,17 @@ public class CronExpressionRRulePartConverterTest {
         assertEquals(List.of("-5"), values1);
     }
 
+    @Test
+    public void testVisitOnWithDayOfMonthLastDay() {
+        FieldExpression on = new On(new SpecialCharFieldValue(SpecialChar.L));
+
+        CronExpressionRRulePartConverter converter = new CronExpressionRRulePartConverter(CronFieldName.DAY_OF_MONTH, new FieldConstraints(new HashMap<>(), new HashMap<>(), new HashSet<>(), 1, 7, false));
+
+        on.accept(converter);
+
+        assertEquals(List.of("-1"), converter.getRRuleParts().get(RRuleName.MONTHDAY));
+    }
+
     @Test
     public void testVisitOnWithDayW() {
         FieldExpression on = new On(new IntegerFieldValue(5), new SpecialCharFieldValue(SpecialChar.W));
@@ -298,6 +309,18 @@ public class CronExpressionRRulePartConverterTest {
         assertEquals(List.of("-3TH"), values);
     }
 
+    @Test
+    public void testVisitBetweenWithUnixDayOfWeek() {
+        FieldExpression between = new Between(new IntegerFieldValue(5), new IntegerFieldValue(7));
+
+        CronExpressionRRulePartConverter converter = new CronExpressionRRulePartConverter(CronFieldName.DAY_OF_WEEK, new FieldConstraints(new HashMap<>(), new HashMap<>(), new HashSet<>(), 0, 7, false), CronDialect.UNIX);
+
+        between.accept(converter);
+
+        Map<RRuleName, List<String>> result = converter.getRRuleParts();
+        assertEquals(List.of("FR,SA,SU"), result.get(RRuleName.WEEKDAY));
+    }
+
     @Test
     public void testVisitQuestionMark() {
         FieldExpression questionMark = FieldExpression.questionMark();
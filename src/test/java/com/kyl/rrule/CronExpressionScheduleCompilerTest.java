@@ -0,0 +1,177 @@
+package com.kyl.rrule;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.field.CronFieldName;
+import com.cronutils.model.field.constraint.FieldConstraints;
+import com.cronutils.model.field.expression.And;
+import com.cronutils.model.field.expression.Between;
+import com.cronutils.model.field.expression.Every;
+import com.cronutils.model.field.expression.FieldExpression;
+import com.cronutils.model.field.expression.On;
+import com.cronutils.model.field.value.FieldValue;
+import com.cronutils.model.field.value.IntegerFieldValue;
+import com.cronutils.model.field.value.SpecialChar;
+import com.cronutils.model.field.value.SpecialCharFieldValue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CronExpressionScheduleCompilerTest {
+    private static final int START_RANGE = 1;
+    private static final int END_RANGE = 5;
+    private FieldConstraints constraints;
+    private CompiledSchedule schedule;
+
+    @BeforeEach
+    public void setUp() {
+        this.constraints = new FieldConstraints(new HashMap<>(){{
+            put("One", 1);
+            put("Two", 2);
+            put("Three", 3);
+            put("Four", 4);
+            put("Five", 5);
+        }}, new HashMap<>(), new HashSet<>(), START_RANGE, END_RANGE, false);
+        this.schedule = new CompiledSchedule(RRuleFrequency.SECONDLY);
+    }
+
+    private void compile(CronFieldName cronFieldName, FieldExpression expression) {
+        expression.accept(new CronExpressionScheduleCompiler(cronFieldName, this.constraints, this.schedule));
+    }
+
+    @Test
+    public void testVisitAlways() {
+        this.compile(CronFieldName.SECOND, FieldExpression.always());
+
+        assertEquals(new CompiledSchedule(RRuleFrequency.SECONDLY), this.schedule);
+    }
+
+    @Test
+    public void testVisitAnd() {
+        this.compile(CronFieldName.SECOND, new And().and(new Between(new IntegerFieldValue(1), new IntegerFieldValue(3))).and(new On(new IntegerFieldValue(5))));
+
+        assertEquals(0b101110L, this.schedule.getSeconds());
+    }
+
+    @Test
+    public void testVisitBetweenWrapping() {
+        this.compile(CronFieldName.HOUR, new Between(new IntegerFieldValue(4), new IntegerFieldValue(2)));
+
+        assertEquals(0b110110L, this.schedule.getHours());
+    }
+
+    @Test
+    public void testVisitBetweenString() {
+        this.compile(CronFieldName.MINUTE, new Between(new FieldValue<String>() {
+            @Override
+            public String getValue() {
+                return "Two";
+            }
+        }, new FieldValue<String>() {
+            @Override
+            public String getValue() {
+                return "Four";
+            }
+        }));
+
+        assertEquals(0b11100L, this.schedule.getMinutes());
+        assertEquals(0L, this.schedule.getSeconds());
+    }
+
+    @Test
+    public void testVisitBetweenInvalidType() {
+        Between between = new Between(new FieldValue<Long>() {
+            @Override
+            public Long getValue() {
+                return 2L;
+            }
+        }, new FieldValue<Long>() {
+            @Override
+            public Long getValue() {
+                return 3L;
+            }
+        });
+
+        assertThrows(RuntimeException.class, () -> this.compile(CronFieldName.SECOND, between));
+    }
+
+    @Test
+    public void testVisitEvery() {
+        this.compile(CronFieldName.HOUR, new Every(new IntegerFieldValue(2)));
+
+        assertEquals(0b10100L, this.schedule.getHours());
+    }
+
+    @Test
+    public void testVisitEveryDayOfMonth() {
+        this.compile(CronFieldName.DAY_OF_MONTH, new Every(new IntegerFieldValue(2)));
+
+        assertEquals(2, this.schedule.getInterval());
+        assertEquals(0L, this.schedule.getMonthDays());
+    }
+
+    @Test
+    public void testVisitEveryWithIntervalEqualsToOne() {
+        this.compile(CronFieldName.SECOND, new Every(new IntegerFieldValue(1)));
+
+        assertEquals(new CompiledSchedule(RRuleFrequency.SECONDLY), this.schedule);
+    }
+
+    @Test
+    public void testVisitOnWithDayOfMonthL() {
+        this.compile(CronFieldName.DAY_OF_MONTH, new On(new IntegerFieldValue(-1), new SpecialCharFieldValue(SpecialChar.L), new IntegerFieldValue(5)));
+
+        assertEquals(1L << 5, this.schedule.getLastMonthDays());
+        assertEquals(0L, this.schedule.getMonthDays());
+    }
+
+    @Test
+    public void testVisitOnWithDayOfMonthLastDay() {
+        this.compile(CronFieldName.DAY_OF_MONTH, new On(new SpecialCharFieldValue(SpecialChar.L)));
+
+        assertEquals(1L << 1, this.schedule.getLastMonthDays());
+    }
+
+    @Test
+    public void testVisitOnWithDayW() {
+        this.compile(CronFieldName.DAY_OF_MONTH, new On(new IntegerFieldValue(5), new SpecialCharFieldValue(SpecialChar.W)));
+
+        assertTrue(this.schedule.isUnsupported());
+    }
+
+    @Test
+    public void testVisitOnWithDayLW() {
+        this.compile(CronFieldName.DAY_OF_MONTH, new On(new IntegerFieldValue(-1), new SpecialCharFieldValue(SpecialChar.LW)));
+
+        assertEquals(0b1111100, this.schedule.getWeekdays());
+        assertTrue(this.schedule.isLastOfSet());
+    }
+
+    @Test
+    public void testVisitOnWithDayOfWeekL() {
+        this.compile(CronFieldName.DAY_OF_WEEK, new On(new IntegerFieldValue(5), new SpecialCharFieldValue(SpecialChar.L)));
+
+        assertEquals(1 << 5, this.schedule.getWeekdays());
+        assertTrue(this.schedule.isLastOfSet());
+    }
+
+    @Test
+    public void testVisitOnWithHash() {
+        this.compile(CronFieldName.DAY_OF_WEEK, new On(new IntegerFieldValue(5), new SpecialCharFieldValue(SpecialChar.HASH), new IntegerFieldValue(2)));
+        this.compile(CronFieldName.DAY_OF_WEEK, new On(new IntegerFieldValue(5), new SpecialCharFieldValue(SpecialChar.HASH), new IntegerFieldValue(-3)));
+
+        assertEquals(1L << (7 + 4), this.schedule.getNthWeekdays());
+        assertEquals(1L << (14 + 4), this.schedule.getLastNthWeekdays());
+        assertEquals(0, this.schedule.getWeekdays());
+    }
+
+    @Test
+    public void testVisitQuestionMark() {
+        this.compile(CronFieldName.DAY_OF_WEEK, FieldExpression.questionMark());
+
+        assertEquals(new CompiledSchedule(RRuleFrequency.SECONDLY), this.schedule);
+    }
+}
@@ -0,0 +1,657 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.time.ExecutionTime;
+import com.cronutils.parser.CronParser;
+
+/**
+ * Differential fuzzer of the conversion paths. A case is a random valid Quartz expression and a random 'DTSTART'. It fails if
+ * <ul>
+ *     <li>QuartzCronRRuleConverter.convert, convertTo, QuartzCronTextConverter and CronDialectRRuleConverter give different text</li>
+ *     <li>or the occurrences of the rrule text, parsed back and expanded by OccurrenceEngine, differ from the fire times of the
+ *     cron expression by cron-utils ExecutionTime within WINDOW_YEARS after 'DTSTART'</li>
+ *     <li>or the 'RDATE' list of 'nW' with a horizon of NEAREST_WEEKDAY_MONTHS differs between the paths or from the fire times
+ *     of ExecutionTime within the horizon.</li>
+ * </ul>
+ * Expressions are generated from the whole valid Quartz syntax: values, names in any case, ranges that wrap past the end of the
+ * field, lists, steps and the special characters of both day fields, with or without a year. The paths are compared on every
+ * case, also where they throw or find no rrule. Occurrences are only compared for the expressions the rrule is meant to be
+ * equivalent to, see isFaithful. ExecutionTime only wraps day of week ranges, so the fire times are taken from the expression
+ * with the other wrapping ranges split in two, see unwrap. Cases run in parallel, every case is generated from its own seed, so a
+ * run with the same seed finds the same failures on any number of threads. Failures are shrunk to a minimal expression before
+ * they are reported.
+ * <p>
+ * A case is written as one line: the ISO 'DTSTART', a space and the cron expression.
+ */
+public class DifferentialFuzzer {
+    static final LocalDateTime DEFAULT_DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+    private static final int OCCURRENCES = 16;
+    private static final int WINDOW_YEARS = 40; // ExecutionTime gives up on rare occurrences, e.g. February 5th Monday after 2072
+    private static final int MAX_FAILURES = 100;
+    private static final int CHUNK_SIZE = 256;
+    private static final int MIN_YEAR = 1990;
+    private static final int YEARS = 60;
+    private static final String[] DAY_OF_WEEK_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final int[] STEPS = {2, 3, 4, 5, 6, 7, 10, 12, 15, 20, 30, 45};
+    private static final String FAILURE_PREFIX = "failed: ";
+    private static final String RDATE = "RDATE:";
+    private static final int MIN_CRON_YEAR = 2000;
+    private static final int CRON_YEARS = 80;
+    private static final int SECOND = 0, MINUTE = 1, HOUR = 2, DAY_OF_MONTH = 3, MONTH = 4, DAY_OF_WEEK = 5, YEAR = 6;
+    private static final int[] MIN_VALUES = {0, 0, 0, 1, 1, 1};
+    private static final int[] MAX_VALUES = {59, 59, 23, 31, 12, 7};
+    private static final int NEAREST_WEEKDAY_MONTHS = 12;
+    // ExecutionTime moves a Sunday that is the last day of the month to itself, Quartz to the Friday before
+    private static final int MAX_COMPARED_NEAREST_WEEKDAY = 27;
+
+    private final CronParser cronParser = CronDialect.QUARTZ.newParser();
+    private final QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+    private final QuartzCronTextConverter textConverter = new QuartzCronTextConverter();
+    private final CronDialectRRuleConverter dialectConverter = new CronDialectRRuleConverter(CronDialect.QUARTZ);
+    private final QuartzCronRRuleConverter nearestWeekdayConverter = new QuartzCronRRuleConverter(ConversionMetrics.NOOP,
+            NEAREST_WEEKDAY_MONTHS);
+    private final QuartzCronTextConverter nearestWeekdayTextConverter = new QuartzCronTextConverter(this.nearestWeekdayConverter, true);
+    private final StringBuilder out = new StringBuilder(256);
+
+    /**
+     * result of a fuzz run
+     */
+    public static final class Report {
+        private final long cases;
+        private final List<String> failures;
+        private final long elapsedNanos;
+
+        Report(long cases, List<String> failures, long elapsedNanos) {
+            this.cases = cases;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getCases() {
+            return this.cases;
+        }
+
+        /**
+         * @return shrunk failing cases, without duplicates
+         */
+        public List<String> getFailures() {
+            return this.failures;
+        }
+
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = this.elapsedNanos / 1e9;
+            return String.format("%d cases in %.1fs (%.0f cases/s), %d failures", this.cases, seconds, this.cases / seconds,
+                    this.failures.size());
+        }
+    }
+
+    /**
+     * run cases on all cores. stops early after MAX_FAILURES failures.
+     * @param seed seed of the run
+     * @param cases number of cases
+     * @param threads number of threads
+     * @return shrunk failures of the run
+     */
+    public static Report run(long seed, long cases, int threads) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicLong nextCase = new AtomicLong();
+        AtomicLong checked = new AtomicLong();
+        AtomicInteger failureCount = new AtomicInteger();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                DifferentialFuzzer fuzzer = new DifferentialFuzzer();
+                long first;
+                while ((first = nextCase.getAndAdd(CHUNK_SIZE)) < cases && failureCount.get() < MAX_FAILURES) {
+                    long last = Math.min(cases, first + CHUNK_SIZE);
+                    for (long index = first; index < last; index++) {
+                        String line = generate(new Random(caseSeed(seed, index)));
+                        if (fuzzer.checkOrThrown(line) != null && failureCount.incrementAndGet() <= MAX_FAILURES) {
+                            failures.add(line);
+                        }
+                    }
+                    checked.addAndGet(last - first);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer();
+        Set<String> shrunk = new LinkedHashSet<>();
+        for (String failure : failures) {
+            shrunk.add(fuzzer.shrink(failure));
+        }
+        return new Report(checked.get(), new ArrayList<>(shrunk), System.nanoTime() - start);
+    }
+
+    /**
+     * @return seed of case 'index' of a run, so a case does not depend on the thread it runs on
+     */
+    static long caseSeed(long seed, long index) {
+        long hash = seed + index * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * @return same as check, or the failure if check throws, e.g. on rrule text the parser does not accept
+     */
+    private String checkOrThrown(String line) {
+        try {
+            return this.check(line);
+        } catch (RuntimeException e) {
+            return failure(e);
+        }
+    }
+
+    /**
+     * @param line case line
+     * @return null if the case passes, otherwise a description of the difference
+     * @throws IllegalArgumentException if cron-utils does not accept the expression
+     */
+    public String check(String line) {
+        int separator = line.indexOf(' ');
+        LocalDateTime dtStart = LocalDateTime.parse(line.substring(0, separator));
+        String expression = line.substring(separator + 1);
+        Cron cron = this.cronParser.parse(expression);
+        String[] unwrapped = unwrap(expression.split(" "));
+        Cron oracle = this.cronParser.parse(String.join(" ", unwrapped));
+
+        String rrule;
+        try {
+            rrule = this.converter.convert(cron, dtStart);
+        } catch (RuntimeException e) {
+            rrule = failure(e);
+        }
+        String difference = this.comparePaths(cron, expression, dtStart, rrule);
+        if (difference == null) {
+            difference = this.checkNearestWeekdays(cron, expression, oracle, dtStart);
+        }
+        if (difference != null || !isFaithful(unwrapped)) {
+            return difference;
+        }
+        if (rrule == null || rrule.startsWith(FAILURE_PREFIX)) {
+            return "no rrule for " + expression + ": " + rrule;
+        }
+
+        CompiledSchedule schedule = RRuleTextParser.parseSchedule(rrule);
+        OccurrenceEngine engine = new OccurrenceEngine(schedule, RRuleTextParser.parseDTStart(rrule));
+        ExecutionTime executionTime = ExecutionTime.forCron(oracle);
+        LocalDateTime end = dtStart.plusYears(WINDOW_YEARS);
+        LocalDateTime time = dtStart;
+        for (int i = 0; i < OCCURRENCES; i++) {
+            Optional<LocalDateTime> expected = executionTime.nextExecution(time.atZone(ZoneOffset.UTC)).map(ZonedDateTime::toLocalDateTime)
+                    .filter(next -> next.isBefore(end));
+            Optional<LocalDateTime> actual = engine.next(time).filter(next -> next.isBefore(end));
+            if (!expected.equals(actual)) {
+                return rrule.replace('\n', ' ') + " after " + time + ": expected " + expected.orElse(null) + " but was "
+                        + actual.orElse(null);
+            }
+            if (actual.isEmpty()) {
+                break;
+            }
+            time = actual.get();
+        }
+        return null;
+    }
+
+    /**
+     * @param rrule text of convert, null for no rrule or the failure of convert
+     */
+    private String comparePaths(Cron cron, String expression, LocalDateTime dtStart, String rrule) {
+        String convertTo;
+        this.out.setLength(0);
+        try {
+            convertTo = this.converter.convertTo(cron, dtStart, this.out) ? this.out.toString() : null;
+            if (convertTo == null && this.out.length() > 0) {
+                return "convertTo appended " + this.out + " without rrule";
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder never throws
+        } catch (RuntimeException e) {
+            convertTo = failure(e);
+        }
+        if (!Objects.equals(rrule, convertTo)) {
+            return "convertTo: " + convertTo + " but convert: " + rrule;
+        }
+        String text;
+        try {
+            text = this.textConverter.convert(expression, dtStart);
+        } catch (RuntimeException e) {
+            text = failure(e);
+        }
+        if (!Objects.equals(rrule, text)) {
+            return "QuartzCronTextConverter: " + text + " but convert: " + rrule;
+        }
+        String dialect;
+        try {
+            dialect = this.dialectConverter.convert(cron, dtStart);
+        } catch (RuntimeException e) {
+            dialect = failure(e);
+        }
+        if (!Objects.equals(rrule, dialect)) {
+            return "CronDialectRRuleConverter: " + dialect + " but convert: " + rrule;
+        }
+        return null;
+    }
+
+    /**
+     * with a horizon, 'nW' is written as the 'RDATE' list of its fire times in NEAREST_WEEKDAY_MONTHS from the month of 'DTSTART'.
+     * the paths must give the same text, and a list must hold the fire times of the oracle in that time.
+     */
+    private String checkNearestWeekdays(Cron cron, String expression, Cron oracle, LocalDateTime dtStart) {
+        String dayOfMonth = expression.split(" ")[DAY_OF_MONTH].toUpperCase(Locale.ROOT);
+        if (!dayOfMonth.matches("\\d+W")) {
+            return null;
+        }
+        String rdates;
+        try {
+            rdates = this.nearestWeekdayConverter.convert(cron, dtStart);
+        } catch (RuntimeException e) {
+            rdates = failure(e);
+        }
+        String text;
+        try {
+            text = this.nearestWeekdayTextConverter.convert(expression, dtStart);
+        } catch (RuntimeException e) {
+            text = failure(e);
+        }
+        if (!Objects.equals(rdates, text)) {
+            return "QuartzCronTextConverter with nW: " + text + " but convert: " + rdates;
+        }
+        if (rdates == null || rdates.startsWith(FAILURE_PREFIX)
+                || Integer.parseInt(dayOfMonth.substring(0, dayOfMonth.length() - 1)) > MAX_COMPARED_NEAREST_WEEKDAY) {
+            return null;
+        }
+        LocalDateTime end = dtStart.toLocalDate().withDayOfMonth(1).plusMonths(NEAREST_WEEKDAY_MONTHS).atStartOfDay();
+        List<LocalDateTime> expected = new ArrayList<>();
+        ExecutionTime executionTime = ExecutionTime.forCron(oracle);
+        LocalDateTime time = dtStart.minusSeconds(1);
+        Optional<LocalDateTime> next;
+        while ((next = executionTime.nextExecution(time.atZone(ZoneOffset.UTC)).map(ZonedDateTime::toLocalDateTime)).isPresent()
+                && next.get().isBefore(end)) {
+            time = next.get();
+            expected.add(time);
+        }
+        List<LocalDateTime> actual = new ArrayList<>();
+        for (String rdate : rdates.substring(rdates.indexOf(RDATE) + RDATE.length()).split(",")) {
+            actual.add(RRuleText.parseDTStart(rdate));
+        }
+        if (!expected.equals(actual)) {
+            return rdates.replace('\n', ' ') + ": expected " + expected + " before " + end;
+        }
+        return null;
+    }
+
+    /**
+     * @return text of a failed conversion, equal for failures of the same type
+     */
+    private static String failure(RuntimeException e) {
+        return FAILURE_PREFIX + e.getClass().getName();
+    }
+
+    /**
+     * shrink a failing case field by field to simpler values that still fail, until no field can be simplified
+     * @param line failing case line
+     * @return minimal failing case line
+     */
+    public String shrink(String line) {
+        int separator = line.indexOf(' ');
+        String dtStart = line.substring(0, separator);
+        String[] fields = line.substring(separator + 1).split(" ");
+        if (!DEFAULT_DTSTART.toString().equals(dtStart) && this.fails(DEFAULT_DTSTART + " " + String.join(" ", fields))) {
+            dtStart = DEFAULT_DTSTART.toString();
+        }
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (int i = 0; i < fields.length && !shrunk; i++) {
+                for (String candidate : candidates(fields[i])) {
+                    String[] simpler = fields.clone();
+                    simpler[i] = candidate;
+                    if (this.fails(dtStart + " " + String.join(" ", simpler))) {
+                        fields = simpler;
+                        shrunk = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return dtStart + " " + String.join(" ", fields);
+    }
+
+    private boolean fails(String line) {
+        try {
+            return this.check(line) != null;
+        } catch (RuntimeException e) {
+            return false; // a candidate cron-utils does not accept
+        }
+    }
+
+    /**
+     * @return simpler values of a field, simplest first: fewer values, smaller values, numbers instead of names
+     */
+    static List<String> candidates(String field) {
+        List<String> candidates = new ArrayList<>();
+        if (field.contains(",")) {
+            for (String value : field.split(",")) {
+                candidates.add(value);
+            }
+            String[] values = field.split(",");
+            for (int drop = 0; drop < values.length; drop++) {
+                List<String> rest = new ArrayList<>(List.of(values));
+                rest.remove(drop);
+                candidates.add(String.join(",", rest));
+            }
+        } else if (field.contains("-") && !field.toUpperCase(Locale.ROOT).startsWith("L")) {
+            String[] range = field.split("-");
+            candidates.add(range[0]);
+            candidates.add(range[1]);
+        } else if (field.contains("/")) {
+            candidates.add(field.substring(0, field.indexOf('/')));
+        } else if (field.matches("\\d+")) {
+            int value = Integer.parseInt(field);
+            for (int smaller = 0; smaller < value; smaller++) {
+                candidates.add(String.valueOf(smaller));
+            }
+        } else {
+            int index = List.of(DAY_OF_WEEK_NAMES).indexOf(field.toUpperCase(Locale.ROOT));
+            if (index >= 0) {
+                candidates.add(String.valueOf(index + 1));
+            }
+            index = List.of(MONTH_NAMES).indexOf(field.toUpperCase(Locale.ROOT));
+            if (index >= 0) {
+                candidates.add(String.valueOf(index + 1));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Quartz expressions whose rrule is meant to fire at the same times. Outside of it, the rrule takes values from 'DTSTART' or
+     * counts steps differently:
+     * <ul>
+     *     <li>'*' minutes need a frequency below HOURLY, i.e. seconds that are not a single value</li>
+     *     <li>steps only in seconds, minutes and hours, starting at 0. day of month steps become 'INTERVAL' from 'DTSTART', month
+     *     and day of week steps count from 0</li>
+     *     <li>'? * *' is WEEKLY on the day of week of 'DTSTART'</li>
+     *     <li>'L', 'LW', 'nL' and 'n#m' need MONTHLY, i.e. single value times. 'L-n' is converted to 'BYMONTHDAY=-n', 'W' is
+     *     unsupported.</li>
+     *     <li>no year restriction</li>
+     * </ul>
+     * Ranges that wrap past the end of the field are compared in the fields returned by unwrap.
+     * @param fields fields of a Quartz expression, names in any case
+     */
+    static boolean isFaithful(String[] fields) {
+        fields = fields.clone();
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].toUpperCase(Locale.ROOT);
+        }
+        if (fields.length < 6 || fields.length > 7 || (fields.length == 7 && !fields[YEAR].equals("*"))) {
+            return false;
+        }
+        for (int i = DAY_OF_MONTH; i <= DAY_OF_WEEK; i++) {
+            if (fields[i].contains("/")) {
+                return false;
+            }
+        }
+        for (int i = SECOND; i <= HOUR; i++) {
+            if (fields[i].contains("/") && !fields[i].startsWith("*/") && !fields[i].startsWith("0/")) {
+                return false;
+            }
+        }
+        if (fields[MINUTE].equals("*") && isSingleValue(fields[SECOND])) {
+            return false;
+        }
+        boolean noDayOfMonth = fields[DAY_OF_MONTH].equals("?");
+        if (noDayOfMonth == fields[DAY_OF_WEEK].equals("?") || (noDayOfMonth && fields[DAY_OF_WEEK].equals("*"))) {
+            return false;
+        }
+        boolean special = isSpecial(fields[DAY_OF_MONTH]) || isSpecial(fields[DAY_OF_WEEK]);
+        if (fields[DAY_OF_MONTH].contains("W") && !fields[DAY_OF_MONTH].equals("LW") || fields[DAY_OF_MONTH].startsWith("L-")) {
+            return false;
+        }
+        return !special || (isSingleValue(fields[SECOND]) && isSingleValue(fields[MINUTE]) && isSingleValue(fields[HOUR]));
+    }
+
+    /**
+     * ExecutionTime only wraps day of week ranges, so a range past the end of the other fields is split in two, e.g. hours
+     * '22-2' becomes '22-23,0-2'. Quartz fires at the same times for both.
+     * @param fields fields of a Quartz expression
+     * @return fields with the same fire times and no wrapping range outside day of week
+     */
+    static String[] unwrap(String[] fields) {
+        String[] unwrapped = fields.clone();
+        for (int i = SECOND; i < DAY_OF_WEEK; i++) {
+            StringBuilder field = new StringBuilder();
+            for (String part : fields[i].split(",")) {
+                field.append(field.length() == 0 ? "" : ",");
+                int dash = part.indexOf('-');
+                if (dash < 0 || part.contains("/") || part.toUpperCase(Locale.ROOT).startsWith("L")) {
+                    field.append(part);
+                    continue;
+                }
+                int from = number(part.substring(0, dash));
+                int to = number(part.substring(dash + 1));
+                if (from <= to) {
+                    field.append(part);
+                } else {
+                    field.append(from).append('-').append(MAX_VALUES[i]).append(',').append(MIN_VALUES[i]).append('-').append(to);
+                }
+            }
+            unwrapped[i] = field.toString();
+        }
+        return unwrapped;
+    }
+
+    /**
+     * @return value of a number or a month name
+     */
+    private static int number(String value) {
+        int index = List.of(MONTH_NAMES).indexOf(value.toUpperCase(Locale.ROOT));
+        return index >= 0 ? index + 1 : Integer.parseInt(value);
+    }
+
+    private static boolean isSingleValue(String field) {
+        return field.matches("\\d+");
+    }
+
+    private static boolean isSpecial(String field) {
+        return field.matches("L.*|\\d+[L#W].*");
+    }
+
+    /**
+     * @param random random of the case
+     * @return case line of a random valid Quartz expression, faithful or not
+     */
+    static String generate(Random random) {
+        String[] fields = new String[random.nextInt(10) < 2 ? 7 : 6];
+        fields[SECOND] = time(random, 60, 60);
+        fields[MINUTE] = time(random, 60, 60);
+        fields[HOUR] = time(random, 24, 60);
+        fields[MONTH] = month(random);
+        boolean singleTime = isSingleValue(fields[SECOND]) && isSingleValue(fields[MINUTE]) && isSingleValue(fields[HOUR]);
+        boolean anyMonth = fields[MONTH].equals("*");
+        if (random.nextInt(10) < 6) {
+            fields[DAY_OF_MONTH] = dayOfMonth(random, singleTime, anyMonth);
+            fields[DAY_OF_WEEK] = "?";
+        } else {
+            fields[DAY_OF_MONTH] = "?";
+            fields[DAY_OF_WEEK] = dayOfWeek(random, singleTime);
+        }
+        if (fields.length == 7) {
+            fields[YEAR] = year(random);
+        }
+        LocalDateTime dtStart = LocalDateTime.of(MIN_YEAR + random.nextInt(YEARS), 1, 1, 0, 0)
+                .plusSeconds(random.nextInt(365 * 24 * 3600));
+        return dtStart + " " + String.join(" ", fields);
+    }
+
+    /**
+     * @param size number of values of the field, values are 0..size-1
+     * @param singlePercent percentage of single values
+     */
+    private static String time(Random random, int size, int singlePercent) {
+        int roll = random.nextInt(100);
+        if (roll < singlePercent) {
+            return String.valueOf(random.nextInt(size));
+        } else if (roll < singlePercent + (100 - singlePercent) / 3) {
+            return values(random, 0, size - 1, null, true);
+        } else if (roll < singlePercent + 2 * (100 - singlePercent) / 3) {
+            return step(random, 0, size - 1);
+        }
+        return "*";
+    }
+
+    /**
+     * @return 'start/step' with '*', the first value or another value as start
+     */
+    private static String step(Random random, int min, int max) {
+        int step = Math.min(STEPS[random.nextInt(STEPS.length)], max - min);
+        int roll = random.nextInt(3);
+        String start = roll == 0 ? "*" : roll == 1 ? String.valueOf(min) : String.valueOf(min + random.nextInt(max - min + 1));
+        return start + "/" + step;
+    }
+
+    private static String month(Random random) {
+        int roll = random.nextInt(10);
+        if (roll < 5) {
+            return "*";
+        } else if (roll < 7) {
+            return random.nextBoolean() ? name(random, MONTH_NAMES, random.nextInt(12)) : String.valueOf(1 + random.nextInt(12));
+        } else if (roll < 9) {
+            return values(random, 1, 12, MONTH_NAMES, true);
+        }
+        return step(random, 1, 12);
+    }
+
+    private static String dayOfMonth(Random random, boolean singleTime, boolean anyMonth) {
+        int lastDay = anyMonth ? 31 : 28;
+        int roll = random.nextInt(20);
+        if (roll < 7) {
+            return "*";
+        } else if (roll < 12) {
+            return String.valueOf(1 + random.nextInt(lastDay));
+        } else if (roll < 15 || (roll < 18 && !singleTime)) {
+            return values(random, 1, lastDay, null, true);
+        } else if (roll < 16) {
+            return step(random, 1, 31);
+        } else if (roll < 17) {
+            return special(random, random.nextBoolean() ? "L-" + (1 + random.nextInt(30)) : (1 + random.nextInt(lastDay)) + "W");
+        }
+        return special(random, random.nextBoolean() ? "L" : "LW");
+    }
+
+    private static String dayOfWeek(Random random, boolean singleTime) {
+        int roll = random.nextInt(20);
+        if (roll < 7) {
+            return random.nextBoolean() ? name(random, DAY_OF_WEEK_NAMES, random.nextInt(7)) : String.valueOf(1 + random.nextInt(7));
+        } else if (roll < 14 || (roll < 17 && !singleTime)) {
+            return values(random, 1, 7, DAY_OF_WEEK_NAMES, true);
+        } else if (roll < 15) {
+            return "*";
+        } else if (roll < 16) {
+            return step(random, 1, 7);
+        }
+        roll = random.nextInt(5);
+        if (roll < 2) {
+            return special(random, (1 + random.nextInt(7)) + "L");
+        } else if (roll < 3) {
+            return special(random, "L");
+        }
+        return (1 + random.nextInt(7)) + "#" + (1 + random.nextInt(5));
+    }
+
+    /**
+     * @return a special character value of a day field, in upper or lower case
+     */
+    private static String special(Random random, String value) {
+        return random.nextInt(4) == 0 ? value.toLowerCase(Locale.ROOT) : value;
+    }
+
+    /**
+     * @return name at index, in upper, lower or mixed case
+     */
+    private static String name(Random random, String[] names, int index) {
+        int roll = random.nextInt(4);
+        if (roll == 0) {
+            return names[index].toLowerCase(Locale.ROOT);
+        } else if (roll == 1) {
+            return names[index].charAt(0) + names[index].substring(1).toLowerCase(Locale.ROOT);
+        }
+        return names[index];
+    }
+
+    private static String year(Random random) {
+        int roll = random.nextInt(4);
+        if (roll == 0) {
+            return "*";
+        } else if (roll == 1) {
+            return String.valueOf(MIN_CRON_YEAR + random.nextInt(CRON_YEARS));
+        } else if (roll == 2) {
+            return values(random, MIN_CRON_YEAR, MIN_CRON_YEAR + CRON_YEARS - 1, null, false);
+        }
+        return step(random, MIN_CRON_YEAR, MIN_CRON_YEAR + CRON_YEARS - 1);
+    }
+
+    /**
+     * @param wrap true to generate ranges that wrap past max to min, cron-utils does not accept them for years
+     * @return a range, a list or a list of ranges and values between min and max, with names for some values if names is not null
+     */
+    private static String values(Random random, int min, int max, String[] names, boolean wrap) {
+        int size = max - min + 1;
+        StringBuilder values = new StringBuilder();
+        int parts = 1 + random.nextInt(3);
+        for (int part = 0; part < parts; part++) {
+            if (part > 0) {
+                values.append(',');
+            }
+            int from = min + random.nextInt(size - 1);
+            boolean named = names != null && random.nextBoolean(); // cron-utils does not accept ranges of a name and a number
+            if (random.nextBoolean()) {
+                int to = from + 1 + random.nextInt(max - from);
+                if (wrap && from > min && random.nextInt(4) == 0) {
+                    to = min + random.nextInt(from - min); // wraps past max
+                }
+                values.append(value(random, from, min, named ? names : null)).append('-')
+                        .append(value(random, to, min, named ? names : null));
+            } else {
+                values.append(value(random, from, min, named ? names : null));
+            }
+        }
+        return values.toString();
+    }
+
+    private static String value(Random random, int value, int min, String[] names) {
+        return names != null ? name(random, names, value - min) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,178 @@
+package com.kyl.rrule;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.parser.CronParser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays the regression corpus of DifferentialFuzzer. The long fuzz run is tagged 'fuzz' and runs with './gradlew fuzz', it
+ * appends the shrunk failures it finds to the corpus.
+ */
+public class DifferentialFuzzerTest {
+    private static final String CORPUS = "fuzz-regressions.txt";
+    private static final long SEED = 20221017L;
+
+    @Test
+    public void testRegressionCorpus() throws IOException {
+        List<String> corpus = corpus();
+        assertFalse(corpus.isEmpty());
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer();
+        for (String line : corpus) {
+            assertNull(fuzzer.check(line), line);
+        }
+    }
+
+    @Test
+    public void testSmallRun() throws InterruptedException {
+        DifferentialFuzzer.Report report = DifferentialFuzzer.run(SEED, 2_000, Runtime.getRuntime().availableProcessors());
+
+        assertEquals(2_000, report.getCases());
+        assertEquals(List.of(), report.getFailures());
+    }
+
+    @Test
+    public void testGeneratedCasesCoverQuartz() {
+        CronParser parser = CronDialect.QUARTZ.newParser();
+        int faithful = 0;
+        Set<String> shapes = new HashSet<>();
+        for (int index = 0; index < 5_000; index++) {
+            String line = DifferentialFuzzer.generate(new Random(DifferentialFuzzer.caseSeed(SEED, index)));
+            String expression = line.substring(line.indexOf(' ') + 1);
+            assertDoesNotThrow(() -> parser.parse(expression), line);
+            String[] fields = expression.split(" ");
+            faithful += DifferentialFuzzer.isFaithful(fields) ? 1 : 0;
+            for (String shape : new String[]{"L-", "W", "#", "/"}) {
+                if (fields[3].contains(shape) || fields[5].contains(shape)) {
+                    shapes.add(shape);
+                }
+            }
+            if (fields[0].matches("\\d+/.*")) {
+                shapes.add("n/m");
+            }
+            if (fields[5].equals("*")) {
+                shapes.add("? * *");
+            }
+            if (fields.length == 7 && !fields[6].equals("*")) {
+                shapes.add(fields[3].matches("\\d+[Ww]") ? "nW year" : "year");
+            }
+            if (fields[5].equalsIgnoreCase("L")) {
+                shapes.add("L");
+            }
+            if (!String.join(" ", DifferentialFuzzer.unwrap(fields)).equals(expression)) {
+                shapes.add("wrap");
+            }
+            for (String part : fields[5].split(",")) {
+                if (part.matches("\\d-\\d") && part.charAt(0) > part.charAt(2)) {
+                    shapes.add("day of week wrap");
+                }
+            }
+            if (!expression.equals(expression.toUpperCase(Locale.ROOT))) {
+                shapes.add("lower case");
+            }
+        }
+        // occurrences are compared for most cases, the paths for all of them
+        assertTrue(faithful > 2_500 && faithful < 5_000, faithful + " faithful cases");
+        assertEquals(Set.of("L-", "W", "#", "/", "n/m", "? * *", "year", "nW year", "L", "wrap", "day of week wrap", "lower case"), shapes);
+    }
+
+    @Test
+    public void testSameCasesForSameSeed() {
+        assertEquals(DifferentialFuzzer.generate(new Random(DifferentialFuzzer.caseSeed(SEED, 42))),
+                DifferentialFuzzer.generate(new Random(DifferentialFuzzer.caseSeed(SEED, 42))));
+    }
+
+    @Test
+    public void testIsFaithful() {
+        assertTrue(DifferentialFuzzer.isFaithful("0 0 12 ? * MON-FRI".split(" ")));
+        assertTrue(DifferentialFuzzer.isFaithful("*/10 * * * * ?".split(" ")));
+        assertTrue(DifferentialFuzzer.isFaithful("0 0 12 ? * WED".split(" ")));
+        assertTrue(DifferentialFuzzer.isFaithful("0 0 12 ? * l".split(" ")));
+        assertFalse(DifferentialFuzzer.isFaithful("0 0 8-10 ? * 6l".split(" ")), "last of hour set");
+        assertFalse(DifferentialFuzzer.isFaithful("0 * 12 * * ?".split(" ")), "minute from DTSTART");
+        assertFalse(DifferentialFuzzer.isFaithful("5/15 0 12 * * ?".split(" ")), "step not from 0");
+        assertFalse(DifferentialFuzzer.isFaithful("0 0 12 */2 * ?".split(" ")), "day of month step");
+        assertFalse(DifferentialFuzzer.isFaithful("0 0 12 ? * *".split(" ")), "weekday from DTSTART");
+        assertFalse(DifferentialFuzzer.isFaithful("0 0 8-10 ? * 6L".split(" ")), "last of hour set");
+        assertFalse(DifferentialFuzzer.isFaithful("0 0 12 L-2 * ?".split(" ")));
+        assertFalse(DifferentialFuzzer.isFaithful("0 0 12 * * ? 2023".split(" ")));
+    }
+
+    @Test
+    public void testUnwrap() {
+        assertArrayEquals("0 0 22-23,0-2 28-31,1-3,5 11-12,1-2 ?".split(" "),
+                DifferentialFuzzer.unwrap("0 0 22-2 28-3,5 NOV-FEB ?".split(" ")));
+        assertArrayEquals("0 0 12 L-3 * FRI-MON".split(" "), DifferentialFuzzer.unwrap("0 0 12 L-3 * FRI-MON".split(" ")),
+                "ExecutionTime wraps day of week");
+    }
+
+    @Test
+    public void testShrink() {
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer() {
+            @Override
+            public String check(String line) {
+                return line.endsWith("MON") || line.matches(".*[ ,]MON[-,].*") || line.endsWith(" 2") ? "fails on mondays" : null;
+            }
+        };
+
+        assertEquals(DifferentialFuzzer.DEFAULT_DTSTART + " 0 0 0 ? * 2", fuzzer.shrink("2031-05-17T08:00:13 0 15 10 ? * MON-FRI,SUN"));
+    }
+
+    @Test
+    @Tag("fuzz")
+    public void testFuzz() throws InterruptedException, IOException {
+        long seed = Long.getLong("fuzz.seed", System.nanoTime());
+        long cases = Long.getLong("fuzz.cases", 1_000_000L);
+        int threads = Integer.getInteger("fuzz.threads", Runtime.getRuntime().availableProcessors());
+
+        DifferentialFuzzer.Report report = DifferentialFuzzer.run(seed, cases, threads);
+        System.out.println("fuzz seed " + seed + ": " + report);
+
+        String corpusFile = System.getProperty("fuzz.corpus");
+        if (corpusFile != null && !report.getFailures().isEmpty()) {
+            Path path = Paths.get(corpusFile);
+            Set<String> known = new HashSet<>(Files.readAllLines(path, StandardCharsets.UTF_8));
+            List<String> added = new ArrayList<>();
+            for (String failure : report.getFailures()) {
+                if (!known.contains(failure)) {
+                    added.add(failure);
+                }
+            }
+            Files.write(path, added, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+        assertEquals(List.of(), report.getFailures(), "fuzz seed " + seed);
+    }
+
+    private static List<String> corpus() throws IOException {
+        List<String> corpus = new ArrayList<>();
+        try (InputStream in = DifferentialFuzzerTest.class.getResourceAsStream(CORPUS)) {
+            assertNotNull(in, CORPUS);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    corpus.add(line.trim());
+                }
+            }
+        }
+        return corpus;
+    }
+}
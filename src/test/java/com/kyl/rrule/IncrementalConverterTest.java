@@ -0,0 +1,181 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalConverterTest {
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+    private static CronParser CRON_PARSER;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testSync() {
+        IncrementalConverter converter = new IncrementalConverter();
+        List<RRuleChange> changes = new ArrayList<>();
+
+        ConversionSummary summary = converter.sync(List.of(
+                new CronRecord("a", "0 0 12 * * ?", DTSTART),
+                new CronRecord("b", "0 0 12 ? * MON-FRI", null),
+                new CronRecord("c", "0 30 10 15W * ?", null),
+                new CronRecord("d", "not a cron", null)), changes::add);
+
+        assertEquals(4, summary.getTotal());
+        assertEquals(1, summary.getUnsupported());
+        assertEquals(1, summary.getFailed());
+        assertEquals(4, changes.size());
+        assertEquals(new RRuleChange(RRuleChange.Type.ADDED, "a", ConversionResult.of(convert("0 0 12 * * ?", DTSTART))), changes.get(0));
+        assertEquals(new RRuleChange(RRuleChange.Type.ADDED, "c", ConversionResult.unsupported()), changes.get(2));
+        assertEquals(ConversionResult.Status.FAILED, changes.get(3).getResult().getStatus());
+        assertEquals(4, converter.size());
+
+        // unchanged records are not converted again
+        changes.clear();
+        summary = converter.sync(List.of(
+                new CronRecord("a", "0 0 12 * * ?", DTSTART),
+                new CronRecord("b", "0 0 12 ? * MON-FRI", null),
+                new CronRecord("c", "0 30 10 15W * ?", null),
+                new CronRecord("d", "not a cron", null)), changes::add);
+        assertEquals(0, summary.getTotal());
+        assertTrue(changes.isEmpty());
+
+        // changed, same rrule, removed and added
+        changes.clear();
+        summary = converter.sync(List.of(
+                new CronRecord("a", "0 0 12 * * ?", DTSTART.plusDays(1)),
+                new CronRecord("b", "0 0 12 ? * 2-6", null),
+                new CronRecord("e", "0 15 10 ? * 6L", null),
+                new CronRecord("c", "0 30 10 15W * ?", null)), changes::add);
+        assertEquals(3, summary.getTotal());
+        assertEquals(List.of(
+                new RRuleChange(RRuleChange.Type.CHANGED, "a", ConversionResult.of(convert("0 0 12 * * ?", DTSTART.plusDays(1)))),
+                new RRuleChange(RRuleChange.Type.ADDED, "e", ConversionResult.of(convert("0 15 10 ? * 6L", null))),
+                new RRuleChange(RRuleChange.Type.REMOVED, "d", null)), changes);
+        assertEquals(4, converter.size());
+    }
+
+    @Test
+    public void testDuplicateId() {
+        IncrementalConverter converter = new IncrementalConverter();
+
+        assertThrows(IllegalArgumentException.class, () -> converter.sync(List.of(
+                new CronRecord("a", "0 0 12 * * ?", null),
+                new CronRecord("a", "0 0 13 * * ?", null)), change -> {
+        }));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path state = this.tempDir.resolve("state.bin");
+        List<CronRecord> records = new ArrayList<>();
+        int i = 0;
+        for (String expression : new CronCorpusGenerator(20221015L).corpus(2000)) {
+            records.add(new CronRecord("id-" + i++, expression, DTSTART));
+        }
+        IncrementalConverter converter = new IncrementalConverter();
+        converter.sync(records, change -> {
+        });
+        converter.save(state);
+
+        // a restart loads the fingerprints and only converts what changed
+        IncrementalConverter restarted = new IncrementalConverter();
+        restarted.load(state);
+        assertEquals(2000, restarted.size());
+        records.set(7, new CronRecord("id-7", "0 0 12 * * ?", null));
+        records.remove(records.size() - 1);
+        List<RRuleChange> changes = new ArrayList<>();
+
+        assertEquals(1, restarted.sync(records, changes::add).getTotal());
+        assertEquals(List.of(
+                new RRuleChange(RRuleChange.Type.CHANGED, "id-7", ConversionResult.of(convert("0 0 12 * * ?", null))),
+                new RRuleChange(RRuleChange.Type.REMOVED, "id-1999", null)), changes);
+
+        // saving again replaces the file
+        restarted.save(state);
+        IncrementalConverter reloaded = new IncrementalConverter();
+        reloaded.load(state);
+        assertEquals(1999, reloaded.size());
+        try (var files = Files.list(this.tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testLoadMissingFile() throws IOException {
+        IncrementalConverter converter = new IncrementalConverter();
+        converter.sync(List.of(new CronRecord("a", "0 0 12 * * ?", null)), change -> {
+        });
+
+        converter.load(this.tempDir.resolve("missing.bin"));
+
+        assertEquals(0, converter.size());
+    }
+
+    @Test
+    public void testLoadOtherConfiguration() throws IOException {
+        Path state = this.tempDir.resolve("state.bin");
+        List<CronRecord> records = List.of(new CronRecord("a", "0 0/15 * * * ?", DTSTART), new CronRecord("b", "0 0 12 15W * ?", DTSTART));
+        IncrementalConverter converter = new IncrementalConverter();
+        converter.sync(records, change -> {
+        });
+        converter.save(state);
+
+        IncrementalConverter same = new IncrementalConverter(new QuartzCronRRuleConverter(), CRON_PARSER);
+        same.load(state);
+        assertEquals(2, same.size());
+
+        // another converter or configuration may change the rules, so every record is converted again
+        for (RRuleConverter other : List.of(new QuartzCronRRuleConverter(ConversionMetrics.NOOP, 0, true),
+                new QuartzCronRRuleConverter(ConversionMetrics.NOOP, 12), new CronDialectRRuleConverter(CronDialect.QUARTZ),
+                new CachingRRuleConverter())) {
+            IncrementalConverter restarted = new IncrementalConverter(other, CRON_PARSER);
+            restarted.load(state);
+            assertEquals(0, restarted.size(), other.toString());
+            List<RRuleChange> changes = new ArrayList<>();
+            assertEquals(2, restarted.sync(records, changes::add).getTotal());
+            assertEquals(2, changes.size());
+            assertTrue(changes.stream().allMatch(change -> change.getType() == RRuleChange.Type.ADDED));
+        }
+    }
+
+    @Test
+    public void testLoadInvalidFile() throws IOException {
+        Path state = this.tempDir.resolve("invalid.bin");
+        Files.writeString(state, "id,fingerprint");
+
+        assertThrows(IOException.class, () -> new IncrementalConverter().load(state));
+    }
+
+    @Test
+    public void testFingerprint() {
+        assertEquals(IncrementalConverter.fingerprint("0 0 12 * * ?", DTSTART), IncrementalConverter.fingerprint("0 0 12 * * ?", DTSTART.plusNanos(5)));
+        assertNotEquals(IncrementalConverter.fingerprint("0 0 12 * * ?", DTSTART), IncrementalConverter.fingerprint("0 0 12 * * ?", null));
+        assertNotEquals(IncrementalConverter.fingerprint("0 0 12 * * ?", null), IncrementalConverter.fingerprint("0 0 13 * * ?", null));
+        assertNotEquals(IncrementalConverter.fingerprint(ConversionResult.unsupported()),
+                IncrementalConverter.fingerprint(ConversionResult.of("")));
+    }
+
+    private static String convert(String expression, LocalDateTime dtStart) {
+        return new QuartzCronRRuleConverter().convert(CRON_PARSER.parse(expression), dtStart);
+    }
+}
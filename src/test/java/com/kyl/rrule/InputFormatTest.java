@@ -0,0 +1,64 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputFormatTest {
+    private static final LocalDateTime DT_START = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+    @Test
+    public void testPlain() {
+        CronRecord record = InputFormat.PLAIN.parse("  0 0 12 * * ? ", 42, null, DT_START);
+
+        assertEquals("42", record.getId());
+        assertEquals("0 0 12 * * ?", record.getCronExpression());
+        assertEquals(DT_START, record.getDTStart());
+    }
+
+    @Test
+    public void testCsv() {
+        CronRecord unquoted = InputFormat.CSV.parse("a, 0 0 12 ? * MON,WED ", 1, null, DT_START);
+        CronRecord quoted = InputFormat.CSV.parse("\"a,b\",\"0 0 12 ? * MON,WED\"", 1, null, null);
+        CronRecord withDTStart = InputFormat.CSV.parse("a,\"0 0 12 ? * MON,WED\",x,20230102T030405Z", 1, "4", DT_START);
+        CronRecord missingColumn = InputFormat.CSV.parse("a,0 0 12 * * ?", 1, "3", DT_START);
+
+        assertEquals("0 0 12 ? * MON,WED", unquoted.getCronExpression());
+        assertEquals("a,b", quoted.getId());
+        assertEquals("0 0 12 ? * MON,WED", quoted.getCronExpression());
+        assertEquals(LocalDateTime.of(2023, 1, 2, 3, 4, 5), withDTStart.getDTStart());
+        assertEquals(DT_START, missingColumn.getDTStart());
+        assertThrows(IllegalArgumentException.class, () -> InputFormat.CSV.parse("no separator", 1, null, null));
+        assertThrows(DateTimeParseException.class, () -> InputFormat.CSV.parse("a,0 0 12 * * ?,tomorrow", 1, "3", null));
+        assertThrows(IllegalArgumentException.class, () -> InputFormat.CSV.checkDTStartColumn("2"));
+        assertThrows(IllegalArgumentException.class, () -> InputFormat.CSV.checkDTStartColumn("start"));
+    }
+
+    @Test
+    public void testNdjson() {
+        CronRecord record = InputFormat.NDJSON.parse("{\"id\":\"a\\\"b\",\"cron\":\"0 0 12 * * ?\",\"n\":1.5,\"start\":\"2023-01-02T03:04:05\"}", 1,
+                "start", DT_START);
+
+        assertEquals("a\"b", record.getId());
+        assertEquals(LocalDateTime.of(2023, 1, 2, 3, 4, 5), record.getDTStart());
+        assertEquals("9", InputFormat.NDJSON.parse("{\"cron\":\"0 0 12 * * ?\",\"id\":null}", 9, null, null).getId());
+        assertThrows(IllegalArgumentException.class, () -> InputFormat.NDJSON.parse("{\"id\":\"a\"}", 1, null, null));
+        assertThrows(IllegalArgumentException.class, () -> InputFormat.NDJSON.parse("{\"cron\":\"0 0 12 * * ?\"", 1, null, null));
+        assertThrows(IllegalArgumentException.class, () -> InputFormat.NDJSON.parse("{\"cron\":[1]}", 1, null, null));
+    }
+
+    @Test
+    public void testParseJsonObject() {
+        Map<String, String> fields = InputFormat.parseJsonObject(" { \"a\" : \"x\\u0041\\n\" , \"b\" : true , \"c\" : null } ");
+
+        assertEquals("xA\n", fields.get("a"));
+        assertEquals("true", fields.get("b"));
+        assertTrue(fields.containsKey("c"));
+        assertNull(fields.get("c"));
+        assertTrue(InputFormat.parseJsonObject("{}").isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterningRRuleConverterTest {
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testConvertSharesInstances() {
+        InterningRRuleConverter converter = new InterningRRuleConverter();
+
+        // different expressions with the same rrule
+        String first = converter.convert(CRON_PARSER.parse("0 0 12 ? * MON-FRI"), null);
+        String second = converter.convert(CRON_PARSER.parse("0 0 12 ? * 2-6"), null);
+        String third = converter.convert(CRON_PARSER.parse("0 0 12 ? * MON,TUE,WED,THU,FRI"), null);
+
+        assertEquals(new QuartzCronRRuleConverter().convert(CRON_PARSER.parse("0 0 12 ? * MON-FRI"), null), first);
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, converter.getInterner().size());
+        assertEquals(2.0 / 3, converter.getInterner().getDedupeRatio(), 1e-9);
+        assertTrue(converter.getInterner().getBytesSaved() > 0);
+    }
+
+    @Test
+    public void testConvertUnsupported() {
+        InterningRRuleConverter converter = new InterningRRuleConverter();
+
+        assertNull(converter.convert(CRON_PARSER.parse("0 30 10 15W * ?"), null));
+        assertEquals(0, converter.getInterner().getLookupCount());
+    }
+
+    @Test
+    public void testConvertTo() throws IOException {
+        InterningRRuleConverter converter = new InterningRRuleConverter();
+        StringBuilder out = new StringBuilder();
+
+        assertTrue(converter.convertTo(CRON_PARSER.parse("0 0 12 * * ?"), null, out));
+        assertEquals("RRULE:FREQ=DAILY;BYSECOND=0;BYMINUTE=0;BYHOUR=12", out.toString());
+    }
+}
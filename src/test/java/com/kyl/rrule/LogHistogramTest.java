@@ -0,0 +1,63 @@
+package com.kyl.rrule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LogHistogram.bucket(value);
+            assertTrue(value <= LogHistogram.upperBound(bucket), "value " + value);
+            assertTrue(bucket == 0 || value > LogHistogram.upperBound(bucket - 1), "value " + value);
+        }
+        assertEquals(LogHistogram.BUCKETS - 1, LogHistogram.bucket(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LogHistogram.upperBound(LogHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    public void testSnapshot() {
+        LogHistogram histogram = new LogHistogram();
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(50));
+
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5);
+
+        LogHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1001, snapshot.getCount());
+        assertEquals(500_500, snapshot.getSum());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(0, snapshot.getValueAtPercentile(0));
+        // buckets are at most 12.5% wide
+        assertEquals(500, snapshot.getValueAtPercentile(50), 500 * 0.125);
+        assertEquals(990, snapshot.getValueAtPercentile(99), 990 * 0.125);
+        assertEquals(1000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testConcurrentRecord() throws InterruptedException {
+        LogHistogram histogram = new LogHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, histogram.snapshot().getCount());
+        assertEquals(8L * 49_995_000, histogram.snapshot().getSum());
+    }
+}
@@ -0,0 +1,128 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.model.time.ExecutionTime;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NearestWeekdayExpanderTest {
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+    private static CronParser CRON_PARSER;
+
+    private final QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testAppendRDates() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        assertTrue(NearestWeekdayExpander.appendRDates(this.compile("0 0 12 15W * ?"), DTSTART, DTSTART, 3, out));
+        assertEquals("DTSTART:20221004T150740Z\nRDATE:20221014T120000Z,20221115T120000Z,20221215T120000Z", out.toString());
+    }
+
+    @Test
+    public void testAppendRDatesWithoutDTStart() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        assertTrue(NearestWeekdayExpander.appendRDates(this.compile("0 0 12 1W * ?"), null, DTSTART, 2, out));
+        assertEquals("RDATE:20221101T120000Z", out.toString(), "October 1st is before start");
+    }
+
+    /**
+     * days up to 27 only: ExecutionTime moves a Sunday that is the last day of the month, e.g. 1999-02-28, to itself, Quartz to
+     * the Friday before.
+     */
+    @Test
+    public void testSameAsExecutionTime() throws IOException {
+        String[] expressions = {"0 0 12 1W * ?", "0 15 10 15W * ?", "0 0 0 27W * ?", "0 0 9 6W 2,4,SEP-DEC ?", "0 0 8-10 14W * ?",
+                "0 0/30 12 21W JAN,JUL ?", "15,45 0 6 3W * ?"};
+        for (String expression : expressions) {
+            for (LocalDateTime start = LocalDateTime.of(1995, 1, 1, 0, 0); start.getYear() < 2040; start = start.plusDays(97)) {
+                StringBuilder out = new StringBuilder();
+                assertTrue(NearestWeekdayExpander.appendRDates(this.compile(expression), null, start, 24, out), expression);
+                assertEquals(executions(CRON_PARSER.parse(expression), start, start.plusMonths(24).withDayOfMonth(1)),
+                        rdates(out.toString()), expression + " from " + start);
+            }
+        }
+    }
+
+    @Test
+    public void testMonthWithoutDay() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        assertTrue(NearestWeekdayExpander.appendRDates(this.compile("0 0 12 31W * ?"), null, LocalDateTime.of(2023, 1, 1, 0, 0), 4,
+                out));
+        assertEquals("RDATE:20230131T120000Z,20230331T120000Z", out.toString(), "February and April have no 31st");
+    }
+
+    @Test
+    public void testNotExpanded() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        assertFalse(NearestWeekdayExpander.appendRDates(this.compile("0 0 12 15W * ?"), DTSTART, DTSTART, 0, out));
+        assertFalse(NearestWeekdayExpander.appendRDates(this.compile("0 0 12 15 * ?"), DTSTART, DTSTART, 12, out));
+        assertFalse(NearestWeekdayExpander.appendRDates(this.compile("0 0 12 15W FEB ?"), DTSTART, DTSTART, 3, out),
+                "no fire time");
+        assertFalse(NearestWeekdayExpander.appendRDates(this.compile("* * * 15W * ?"), DTSTART, DTSTART, 1, out),
+                "more than MAX_DATES");
+        assertFalse(NearestWeekdayExpander.appendRDates(this.compile("0 0 12 LW * ?"), DTSTART, DTSTART, 12, out));
+        assertEquals(0, out.length());
+    }
+
+    @Test
+    public void testIsExpandable() {
+        assertTrue(NearestWeekdayExpander.isExpandable(this.compile("0 0 12 15W * ?")));
+        assertFalse(NearestWeekdayExpander.isExpandable(this.compile("0 0 12 15 * ?")));
+        assertFalse(NearestWeekdayExpander.isExpandable(this.compile("0 0 12 ? * 6L")));
+        assertTrue(NearestWeekdayExpander.isExpandable(this.compile("0 0 12 15W * ? *")));
+        assertFalse(NearestWeekdayExpander.isExpandable(this.compile("0 0 12 15W * ? 2030")), "rrule has no year part");
+        assertFalse(NearestWeekdayExpander.isExpandable(this.compile("0 0 12 1W 1/3 ?")), "the start of the step is ignored");
+    }
+
+    private CompiledSchedule compile(String expression) {
+        return this.converter.compile(CRON_PARSER.parse(expression));
+    }
+
+    /**
+     * @return execution times from start, inclusive, to end, exclusive
+     */
+    private static List<LocalDateTime> executions(Cron cron, LocalDateTime start, LocalDateTime end) {
+        ExecutionTime executionTime = ExecutionTime.forCron(cron);
+        List<LocalDateTime> executions = new ArrayList<>();
+        LocalDateTime time = start.minusSeconds(1);
+        while (true) {
+            Optional<LocalDateTime> next = executionTime.nextExecution(time.atZone(ZoneOffset.UTC)).map(ZonedDateTime::toLocalDateTime);
+            if (next.isEmpty() || !next.get().isBefore(end)) {
+                return executions;
+            }
+            time = next.get();
+            executions.add(time);
+        }
+    }
+
+    private static List<LocalDateTime> rdates(String rrule) {
+        List<LocalDateTime> rdates = new ArrayList<>();
+        for (String rdate : rrule.substring(rrule.indexOf("RDATE:") + "RDATE:".length()).split(",")) {
+            rdates.add(RRuleText.parseDTStart(rdate));
+        }
+        return rdates;
+    }
+}
@@ -0,0 +1,223 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.model.time.ExecutionTime;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccurrenceEngineTest {
+    private static CronParser CRON_PARSER;
+    private static final QuartzCronRRuleConverter CONVERTER = new QuartzCronRRuleConverter();
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    private static OccurrenceEngine engine(String expression, LocalDateTime dtStart) {
+        return new OccurrenceEngine(CONVERTER.compile(CRON_PARSER.parse(expression)), dtStart);
+    }
+
+    private static List<LocalDateTime> occurrences(OccurrenceEngine engine, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        engine.iterate(from, to).forEachRemaining(occurrences::add);
+        return occurrences;
+    }
+
+    @Test
+    public void testNextDaily() {
+        OccurrenceEngine engine = engine("0 0 12 * * ?", DTSTART);
+
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 5, 12, 0)), engine.next(DTSTART));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 6, 12, 0)), engine.next(LocalDateTime.of(2022, 10, 5, 12, 0)));
+    }
+
+    @Test
+    public void testPrevious() {
+        OccurrenceEngine engine = engine("0 0 12 * * ?", DTSTART);
+
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 9, 12, 0)), engine.previous(LocalDateTime.of(2022, 10, 10, 12, 0)));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 10, 12, 0)),
+                engine.previous(LocalDateTime.of(2022, 10, 10, 12, 0, 0, 1)));
+        // nothing before 'DTSTART'
+        assertEquals(Optional.empty(), engine.previous(LocalDateTime.of(2022, 10, 5, 11, 0)));
+    }
+
+    @Test
+    public void testDTStartOnlyCountsIfMatching() {
+        OccurrenceEngine engine = engine("0 0 12 * * ?", LocalDateTime.of(2022, 10, 4, 12, 0));
+
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 4, 12, 0)), engine.next(LocalDateTime.of(2000, 1, 1, 0, 0)));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 5, 12, 0)), engine(
+                "0 0 12 * * ?", LocalDateTime.of(2022, 10, 4, 12, 0, 1)).next(LocalDateTime.of(2000, 1, 1, 0, 0)));
+    }
+
+    @Test
+    public void testIterateWeekdays() {
+        OccurrenceEngine engine = engine("0 30 9 ? * MON-FRI", DTSTART);
+
+        List<LocalDateTime> occurrences = occurrences(engine, LocalDateTime.of(2022, 10, 7, 9, 30), LocalDateTime.of(2022, 10, 12, 9, 30));
+
+        assertEquals(Arrays.asList(LocalDateTime.of(2022, 10, 7, 9, 30), LocalDateTime.of(2022, 10, 10, 9, 30),
+                LocalDateTime.of(2022, 10, 11, 9, 30)), occurrences);
+    }
+
+    @Test
+    public void testLastDayOfMonth() {
+        OccurrenceEngine engine = engine("0 0 12 L * ?", DTSTART);
+
+        assertEquals(Optional.of(LocalDateTime.of(2023, 2, 28, 12, 0)), engine.next(LocalDateTime.of(2023, 2, 1, 0, 0)));
+        assertEquals(Optional.of(LocalDateTime.of(2024, 2, 29, 12, 0)), engine.next(LocalDateTime.of(2024, 2, 1, 0, 0)));
+        // 'BYMONTHDAY=-2' is the second to last day
+        assertEquals(Optional.of(LocalDateTime.of(2024, 4, 29, 12, 0)),
+                engine("0 0 12 L-2 * ?", DTSTART).next(LocalDateTime.of(2024, 4, 1, 0, 0)));
+    }
+
+    @Test
+    public void testNthWeekday() {
+        // third Friday
+        OccurrenceEngine engine = engine("0 0 12 ? * 6#3", DTSTART);
+
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 21, 12, 0)), engine.next(DTSTART));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 11, 18, 12, 0)), engine.next(LocalDateTime.of(2022, 10, 21, 12, 0)));
+    }
+
+    @Test
+    public void testLastOfSet() {
+        // last Friday and last weekday of the month
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 28, 10, 15)), engine("0 15 10 ? * 6L", DTSTART).next(DTSTART));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 12, 30, 10, 15)),
+                engine("0 15 10 LW * ?", DTSTART).next(LocalDateTime.of(2022, 12, 1, 0, 0)));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 31, 10, 15)), engine("0 15 10 LW * ?", DTSTART).next(DTSTART));
+    }
+
+    @Test
+    public void testLastOfSetWeekly() {
+        CompiledSchedule schedule = new CompiledSchedule(RRuleFrequency.WEEKLY);
+        schedule.add(RRuleName.WEEKDAY, 2);
+        schedule.add(RRuleName.WEEKDAY, 4);
+        schedule.setLastOfSet();
+        OccurrenceEngine engine = new OccurrenceEngine(schedule, LocalDateTime.of(2022, 10, 3, 8, 0));
+
+        // Wednesday of every week, also when the week ends in the next month
+        List<LocalDateTime> occurrences = occurrences(engine, LocalDateTime.of(2022, 10, 24, 0, 0), LocalDateTime.of(2022, 11, 10, 0, 0));
+
+        assertEquals(Arrays.asList(LocalDateTime.of(2022, 10, 26, 8, 0), LocalDateTime.of(2022, 11, 2, 8, 0),
+                LocalDateTime.of(2022, 11, 9, 8, 0)), occurrences);
+    }
+
+    @Test
+    public void testInterval() {
+        // every 5 days, counted from 'DTSTART'
+        OccurrenceEngine engine = engine("0 0 12 1/5 * ?", LocalDateTime.of(2022, 10, 4, 12, 0));
+
+        List<LocalDateTime> occurrences = occurrences(engine, DTSTART.minusDays(1), LocalDateTime.of(2022, 10, 20, 0, 0));
+
+        assertEquals(Arrays.asList(LocalDateTime.of(2022, 10, 4, 12, 0), LocalDateTime.of(2022, 10, 9, 12, 0),
+                LocalDateTime.of(2022, 10, 14, 12, 0), LocalDateTime.of(2022, 10, 19, 12, 0)), occurrences);
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 14, 12, 0)), engine.previous(LocalDateTime.of(2022, 10, 19, 12, 0)));
+    }
+
+    @Test
+    public void testIntervalSecondly() {
+        CompiledSchedule schedule = new CompiledSchedule(RRuleFrequency.SECONDLY);
+        schedule.add(RRuleName.SECOND, 0);
+        schedule.setInterval(3);
+
+        // second 0 of a minute is never 3 seconds apart from 'DTSTART' at second 1
+        OccurrenceEngine never = new OccurrenceEngine(schedule, LocalDateTime.of(2022, 10, 4, 0, 0, 1));
+        assertEquals(Optional.empty(), never.next(LocalDateTime.of(2022, 10, 4, 0, 0)));
+
+        // 7 seconds: every 7 minutes
+        schedule.setInterval(7);
+        OccurrenceEngine engine = new OccurrenceEngine(schedule, LocalDateTime.of(2022, 10, 4, 0, 0));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 4, 0, 7)), engine.next(LocalDateTime.of(2022, 10, 4, 0, 0)));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 4, 0, 7)), engine.previous(LocalDateTime.of(2022, 10, 4, 0, 13)));
+    }
+
+    @Test
+    public void testIntervalDividingTheRange() {
+        CompiledSchedule minutely = new CompiledSchedule(RRuleFrequency.MINUTELY);
+        minutely.add(RRuleName.SECOND, 0);
+        minutely.setInterval(20);
+        OccurrenceEngine engine = new OccurrenceEngine(minutely, LocalDateTime.of(2022, 10, 4, 10, 5));
+
+        assertEquals(Arrays.asList(LocalDateTime.of(2022, 10, 4, 10, 5), LocalDateTime.of(2022, 10, 4, 10, 25),
+                LocalDateTime.of(2022, 10, 4, 10, 45), LocalDateTime.of(2022, 10, 4, 11, 5)),
+                occurrences(engine, LocalDateTime.of(2022, 10, 4, 10, 0), LocalDateTime.of(2022, 10, 4, 11, 10)));
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 4, 10, 45)), engine.previous(LocalDateTime.of(2022, 10, 4, 11, 5)));
+
+        CompiledSchedule hourly = new CompiledSchedule(RRuleFrequency.HOURLY);
+        hourly.add(RRuleName.SECOND, 0);
+        hourly.add(RRuleName.MINUTE, 30);
+        hourly.setInterval(8);
+        engine = new OccurrenceEngine(hourly, LocalDateTime.of(2022, 10, 4, 1, 30));
+
+        assertEquals(Arrays.asList(LocalDateTime.of(2022, 10, 4, 1, 30), LocalDateTime.of(2022, 10, 4, 9, 30),
+                LocalDateTime.of(2022, 10, 4, 17, 30), LocalDateTime.of(2022, 10, 5, 1, 30)),
+                occurrences(engine, LocalDateTime.of(2022, 10, 4, 0, 0), LocalDateTime.of(2022, 10, 5, 2, 0)));
+    }
+
+    @Test
+    public void testDefaultsFromDTStart() {
+        OccurrenceEngine monthly = new OccurrenceEngine(new CompiledSchedule(RRuleFrequency.MONTHLY), DTSTART);
+        assertEquals(Optional.of(LocalDateTime.of(2022, 11, 4, 15, 7, 40)), monthly.next(DTSTART));
+
+        OccurrenceEngine weekly = new OccurrenceEngine(new CompiledSchedule(RRuleFrequency.WEEKLY), DTSTART);
+        assertEquals(Optional.of(LocalDateTime.of(2022, 10, 11, 15, 7, 40)), weekly.next(DTSTART));
+    }
+
+    @Test
+    public void testNoOccurrence() {
+        OccurrenceEngine engine = engine("0 0 12 31 2 ?", DTSTART);
+
+        assertEquals(Optional.empty(), engine.next(DTSTART));
+        assertFalse(engine.iterate(DTSTART, DTSTART.plusYears(10)).hasNext());
+    }
+
+    @Test
+    public void testUnsupported() {
+        CompiledSchedule schedule = CONVERTER.compile(CRON_PARSER.parse("0 0 12 15W * ?"));
+
+        assertThrows(IllegalArgumentException.class, () -> new OccurrenceEngine(schedule, DTSTART));
+    }
+
+    @Test
+    public void testSameAsExecutionTime() {
+        for (String expression : new CronCorpusGenerator(20221004L).corpus(2_000)) {
+            if (expression.contains("L-")) {
+                continue; // quartz 'L-n' is n days before the last day, it is converted to 'BYMONTHDAY=-n'
+            }
+            Cron cron = CRON_PARSER.parse(expression);
+            ExecutionTime executionTime = ExecutionTime.forCron(cron);
+            OccurrenceEngine engine = new OccurrenceEngine(CONVERTER.compile(cron), DTSTART);
+
+            LocalDateTime time = DTSTART;
+            for (int i = 0; i < 5; i++) {
+                Optional<LocalDateTime> next = engine.next(time);
+                Optional<LocalDateTime> expected = executionTime.nextExecution(time.atZone(ZoneOffset.UTC))
+                        .map(ZonedDateTime::toLocalDateTime);
+                assertEquals(expected, next, expression + " after " + time);
+                time = next.orElseThrow();
+            }
+            Optional<LocalDateTime> previous = engine.previous(time);
+            assertEquals(executionTime.lastExecution(time.atZone(ZoneOffset.UTC)).map(ZonedDateTime::toLocalDateTime)
+                    .filter(last -> !last.isBefore(DTSTART)), previous, expression + " before " + time);
+        }
+    }
+}
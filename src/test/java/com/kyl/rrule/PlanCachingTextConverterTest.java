@@ -0,0 +1,92 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlanCachingTextConverterTest {
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+    private final QuartzCronTextConverter textConverter = new QuartzCronTextConverter();
+
+    @Test
+    public void testSameAsTextConverter() {
+        PlanCachingTextConverter converter = new PlanCachingTextConverter();
+        CronCorpusGenerator generator = new CronCorpusGenerator(20221019L);
+        List<String> corpus = generator.corpus(5_000);
+        corpus.addAll(generator.corpus(CronCorpusGenerator.Shape.ON, 5_000));
+        LocalDateTime[] dtStarts = {null, DTSTART, DTSTART.plusDays(1)};
+        for (int i = 0; i < corpus.size(); i++) {
+            String expression = corpus.get(i);
+            LocalDateTime dtStart = dtStarts[i % dtStarts.length];
+            assertEquals(this.textConverter.convert(expression, dtStart), converter.convert(expression, dtStart), expression);
+        }
+        assertTrue(converter.getFallbackCount() < corpus.size());
+    }
+
+    @Test
+    public void testPlanPerStructure() {
+        PlanCachingTextConverter converter = new PlanCachingTextConverter();
+
+        assertEquals(this.textConverter.convert("0 30 9 ? * 2", DTSTART), converter.convert("0 30 9 ? * 2", DTSTART));
+        assertEquals(this.textConverter.convert("0 15 18 ? * 6", DTSTART), converter.convert("0 15 18 ? * 6", DTSTART));
+        assertEquals(this.textConverter.convert("59 59 23 31 12 ? 2099", null), converter.convert("59 59 23 31 12 ? 2099", null));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=1;BYMONTHDAY=1;BYMONTH=1",
+                converter.convert("0 0 1 1 1 ? 1970", null));
+        assertEquals(2, converter.getPlanCount());
+        assertEquals(0, converter.getFallbackCount());
+    }
+
+    @Test
+    public void testNoPlan() throws IOException {
+        PlanCachingTextConverter converter = new PlanCachingTextConverter();
+        StringBuilder out = new StringBuilder();
+
+        assertFalse(converter.convertTo("0 15 10 15W * ?", DTSTART, out));
+        assertFalse(converter.convertTo("0 15 10 15W * ?", DTSTART, out));
+        assertEquals(0, out.length());
+        assertEquals(2, converter.getFallbackCount());
+
+        // a step is constant text of the structure '# # # ? * 1/2'
+        assertEquals(this.textConverter.convert("0 0 12 ? * 1/2", null), converter.convert("0 0 12 ? * 1/2", null));
+        assertEquals(2, converter.getPlanCount());
+        assertEquals(2, converter.getFallbackCount());
+    }
+
+    @Test
+    public void testInvalid() {
+        PlanCachingTextConverter converter = new PlanCachingTextConverter();
+
+        assertThrows(IllegalArgumentException.class, () -> converter.convert("0 0 12 * * *", null));
+        assertEquals(0, converter.getPlanCount());
+        assertNotNull(converter.convert("0 0 12 ? * 2", null));
+        assertThrows(IllegalArgumentException.class, () -> converter.convert("0 0 24 ? * 2", null), "hour out of range");
+        assertThrows(IllegalArgumentException.class, () -> converter.convert("0 0 12 ? * 8", null), "day of week out of range");
+        assertThrows(IllegalArgumentException.class, () -> new PlanCachingTextConverter(0));
+    }
+
+    @Test
+    public void testMaximumPlans() {
+        PlanCachingTextConverter converter = new PlanCachingTextConverter(1);
+
+        assertEquals(this.textConverter.convert("0 0 12 ? * 2", null), converter.convert("0 0 12 ? * 2", null));
+        assertEquals(this.textConverter.convert("0 0 12 1 * ?", null), converter.convert("0 0 12 1 * ?", null));
+        assertEquals(1, converter.getPlanCount());
+    }
+
+    @Test
+    public void testStructure() {
+        int[] values = new int[7];
+
+        assertEquals("# # # ? * #", PlanCachingTextConverter.structure("0  30 9 ? * 2", values));
+        assertArrayEquals(new int[]{0, 30, 9, -1, -1, 2, -1}, values);
+        assertEquals("# 0/15 # L * ? #", PlanCachingTextConverter.structure("5 0/15 8 L * ? 2030", values));
+        assertArrayEquals(new int[]{5, -1, 8, -1, -1, -1, 2030}, values);
+        assertNull(PlanCachingTextConverter.structure("0 0 12 * *", values));
+        assertNull(PlanCachingTextConverter.structure("0 0 12 * * ? 2030 1", values));
+    }
+}
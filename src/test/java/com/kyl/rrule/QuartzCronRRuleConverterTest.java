@@ -5,6 +5,7 @@ import com.cronutils.model.definition.CronDefinitionBuilder;
 import com.cronutils.model.field.expression.FieldExpression;
 import com.cronutils.model.field.expression.On;
 import com.cronutils.model.field.value.IntegerFieldValue;
+import com.cronutils.model.time.ExecutionTime;
 import com.cronutils.parser.CronParser;
 
 import org.junit.jupiter.api.Assertions;
@@ -14,9 +15,16 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static com.cronutils.model.CronType.QUARTZ;
@@ -184,6 +192,45 @@ public class QuartzCronRRuleConverterTest {
         Assertions.assertTrue(rruleParts.contains("BYMONTHDAY=-5"));
     }
 
+    @Test
+    public void testSpecialMonthLastDay() {
+        Cron input = CRON_PARSER.parse("0 0 12 L * ?");
+
+        String result = this.converter.convert(input, null);
+
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYMONTHDAY=-1", result);
+    }
+
+    @Test
+    public void testSpecialLW() {
+        Cron input = CRON_PARSER.parse("0 0 12 LW * ?");
+
+        String result = this.converter.convert(input, null);
+
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYSETPOS=-1;BYDAY=MO,TU,WE,TH,FR", result);
+    }
+
+    @Test
+    public void testSpecialHash() {
+        Cron input = CRON_PARSER.parse("0 0 12 ? * 6#3");
+
+        String result = this.converter.convert(input, LocalDateTime.of(2022, 10, 4, 15, 7, 40));
+
+        assertEquals("DTSTART:20221004T150740Z\nRRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=3FR", result);
+    }
+
+    @Test
+    public void testCompile() {
+        CompiledSchedule result = this.converter.compile(CRON_PARSER.parse("0 0 7 ? * 2-6 *"));
+
+        assertSame(RRuleFrequency.WEEKLY, result.getFrequency());
+        assertEquals(1L, result.getSeconds());
+        assertEquals(1L, result.getMinutes());
+        assertEquals(1L << 7, result.getHours());
+        assertEquals(0b1111100, result.getWeekdays());
+        assertFalse(result.isUnsupported());
+    }
+
     @Test
     public void testSpecialWeekL() {
         Cron input = CRON_PARSER.parse("0 0 0 ? * 4L *");
@@ -202,6 +249,28 @@ public class QuartzCronRRuleConverterTest {
         Assertions.assertTrue(rruleParts.contains("BYDAY=WE"));
     }
 
+    @Test
+    public void testSpecialWeekLAlone() {
+        // 'L' alone in day of week is every saturday
+        Cron input = CRON_PARSER.parse("0 0 12 ? * L");
+
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SA", this.converter.convert(input, null));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SA",
+                new QuartzCronTextConverter(this.converter, false).convert("0 0 12 ? * L", null));
+    }
+
+    @Test
+    public void testWrappingRanges() {
+        assertEquals("RRULE:FREQ=HOURLY;BYSECOND=0;BYMINUTE=0;BYHOUR=0,1,2,10,11,12,13,14,15,16,17,18,19,20,21,22,23",
+                this.converter.convert(CRON_PARSER.parse("0 0 10-2 * * ?"), null));
+        assertEquals("RRULE:FREQ=DAILY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYMONTHDAY=1,2,3,28,29,30,31",
+                this.converter.convert(CRON_PARSER.parse("0 0 12 28-3 * ?"), null));
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYMONTHDAY=1;BYMONTH=1,2,11,12",
+                this.converter.convert(CRON_PARSER.parse("0 0 12 1 NOV-FEB ?"), null));
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU,MO,FR,SA",
+                this.converter.convert(CRON_PARSER.parse("0 0 12 ? * FRI-MON"), null));
+    }
+
     @Test
     public void testFindFrequencyWeekly() {
         Cron input = CRON_PARSER.parse("0 0 7 ? * 2-6 *");
@@ -211,6 +280,115 @@ public class QuartzCronRRuleConverterTest {
         assertEquals(RRuleFrequency.WEEKLY, result);
     }
 
+    @Test
+    public void testConvertTo() throws IOException {
+        Cron input = CRON_PARSER.parse("0 30 10 ? * 5L");
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        StringBuilder out = new StringBuilder("prefix|");
+
+        boolean result = this.converter.convertTo(input, dtStart, out);
+
+        assertTrue(result);
+        assertEquals("prefix|" + this.converter.convert(input, dtStart), out.toString());
+    }
+
+    @Test
+    public void testConvertToWithSpecialW() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        boolean result = this.converter.convertTo(CRON_PARSER.parse("0 30 10 2w1 * ?"), null, out);
+
+        assertFalse(result);
+        assertEquals(0, out.length());
+    }
+
+    @Test
+    public void testConvertWithNearestWeekdayHorizon() throws IOException {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter(ConversionMetrics.NOOP, 3);
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        StringBuilder out = new StringBuilder();
+
+        String result = converter.convert(CRON_PARSER.parse("0 0 12 15W * ?"), dtStart);
+
+        assertEquals("DTSTART:20221004T150740Z\nRDATE:20221014T120000Z,20221115T120000Z,20221215T120000Z", result);
+        assertTrue(converter.convertTo(CRON_PARSER.parse("0 0 12 15W * ?"), dtStart, out));
+        assertEquals(result, out.toString());
+        assertNull(converter.convert(CRON_PARSER.parse("0 0 12 15W * ?"), null), "the dates would depend on the time of conversion");
+        assertNull(converter.convert(CRON_PARSER.parse("0 0 12 15W * ? 2030"), dtStart));
+        assertNull(converter.convert(CRON_PARSER.parse("0 0 12 1W 1/3 ?"), dtStart));
+        assertThrows(IllegalArgumentException.class, () -> new QuartzCronRRuleConverter(ConversionMetrics.NOOP, -1));
+    }
+
+    @Test
+    public void testConvertInZone() {
+        ZonedDateTime dtStart = ZonedDateTime.of(2022, 10, 4, 15, 7, 40, 0, ZoneId.of("Europe/Berlin"));
+
+        String result = this.converter.convertInZone(CRON_PARSER.parse("0 30 9 ? * 2"), dtStart);
+
+        assertEquals("DTSTART;TZID=Europe/Berlin:20221004T150740\nRRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=30;BYHOUR=9;BYDAY=MO", result);
+    }
+
+    @Test
+    public void testConvertInZoneWithOffset() {
+        ZonedDateTime dtStart = ZonedDateTime.of(2022, 10, 4, 15, 7, 40, 0, ZoneOffset.ofHours(2));
+        Cron cron = CRON_PARSER.parse("0 0 12 * * ?");
+
+        assertEquals("DTSTART;TZID=Etc/GMT-2:20221004T150740\nRRULE:FREQ=DAILY;BYSECOND=0;BYMINUTE=0;BYHOUR=12",
+                this.converter.convertInZone(cron, dtStart));
+        assertEquals("DTSTART;TZID=Etc/GMT+5:20221004T150740\nRRULE:FREQ=DAILY;BYSECOND=0;BYMINUTE=0;BYHOUR=12",
+                this.converter.convertInZone(cron, dtStart.withZoneSameLocal(ZoneOffset.ofHours(-5))));
+        assertEquals(this.converter.convert(cron, LocalDateTime.of(2022, 10, 4, 15, 7, 40)),
+                this.converter.convertInZone(cron, dtStart.withZoneSameLocal(ZoneOffset.UTC)));
+        assertEquals(this.converter.convert(cron, LocalDateTime.of(2022, 10, 4, 15, 7, 40)),
+                this.converter.convertInZone(cron, dtStart.withZoneSameLocal(ZoneId.of("UTC"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> this.converter.convertInZone(cron, dtStart.withZoneSameLocal(ZoneOffset.ofHoursMinutes(5, 30))));
+        assertNull(this.converter.convertInZone(CRON_PARSER.parse("0 30 10 2w1 * ?"), dtStart.withZoneSameLocal(ZoneId.of("Europe/Berlin"))));
+    }
+
+    @Test
+    public void testConvertInZoneFiresAtLocalTimes() {
+        LocalDateTime local = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        // the region zones change to winter time within the occurrences
+        ZoneId[] zones = {ZoneId.of("Europe/Berlin"), ZoneId.of("America/New_York"), ZoneId.of("Australia/Lord_Howe"),
+                ZoneOffset.ofHours(2), ZoneOffset.ofHours(-5), ZoneOffset.UTC, ZoneId.of("UTC"), ZoneId.of("Etc/GMT-3")};
+        for (String expression : new String[]{"0 0 12 * * ?", "0 30 9 ? * 2", "0 15 23 L * ?", "0 0/20 8-9 ? * MON-FRI"}) {
+            Cron cron = CRON_PARSER.parse(expression);
+            for (ZoneId zone : zones) {
+                ZonedDateTime dtStart = ZonedDateTime.of(local, zone);
+                String rrule = this.converter.convertInZone(cron, dtStart);
+
+                assertEquals(cronFireTimes(cron, dtStart, 60), rruleFireTimes(rrule, 60), expression + " in " + zone + ": " + rrule);
+                assertEquals(rrule, this.converter.convertInZone(cron, local, zone));
+            }
+        }
+    }
+
+    @Test
+    public void testConvertInZoneWithLocalDTStart() {
+        Cron cron = CRON_PARSER.parse("0 30 9 ? * 2");
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+
+        assertEquals("DTSTART;TZID=Europe/Berlin:20221004T150740\nRRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=30;BYHOUR=9;BYDAY=MO",
+                this.converter.convertInZone(cron, LocalDateTime.of(2022, 10, 4, 15, 7, 40), berlin));
+        assertEquals("DTSTART;TZID=Europe/Berlin:20220327T033000\nRRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=30;BYHOUR=9;BYDAY=MO",
+                this.converter.convertInZone(cron, LocalDateTime.of(2022, 3, 27, 2, 30), berlin), "02:30 does not exist");
+        assertEquals("DTSTART;TZID=Europe/Berlin:20221030T023000\nRRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=30;BYHOUR=9;BYDAY=MO",
+                this.converter.convertInZone(cron, LocalDateTime.of(2022, 10, 30, 2, 30), berlin), "02:30 happens twice");
+        assertEquals(this.converter.convert(cron, LocalDateTime.of(2022, 10, 4, 15, 7, 40)),
+                this.converter.convertInZone(cron, LocalDateTime.of(2022, 10, 4, 15, 7, 40), ZoneId.of("Etc/UTC")));
+    }
+
+    @Test
+    public void testConvertInZoneWithNearestWeekday() {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter(ConversionMetrics.NOOP, 2);
+        ZonedDateTime dtStart = ZonedDateTime.of(2022, 10, 4, 15, 7, 40, 0, ZoneId.of("America/New_York"));
+
+        String result = converter.convertInZone(CRON_PARSER.parse("0 0 12 15W * ?"), dtStart);
+
+        assertEquals("DTSTART;TZID=America/New_York:20221004T150740\nRDATE;TZID=America/New_York:20221014T120000,20221115T120000", result);
+    }
+
     @Test
     public void testconvertToDTStartFormat() {
         String result = this.converter.convertToDTStartFormat(LocalDateTime.of(2022, 10, 4, 15, 7, 40));
@@ -218,4 +396,40 @@ public class QuartzCronRRuleConverterTest {
         Assertions.assertNotNull(result);
         Assertions.assertEquals("20221004T150740Z", result);
     }
+
+    /**
+     * @return the first count occurrences of cron after dtStart in the zone of dtStart, by cron-utils
+     */
+    private static List<Instant> cronFireTimes(Cron cron, ZonedDateTime dtStart, int count) {
+        ExecutionTime executionTime = ExecutionTime.forCron(cron);
+        List<Instant> times = new ArrayList<>();
+        for (ZonedDateTime time = dtStart; times.size() < count; ) {
+            time = executionTime.nextExecution(time).orElseThrow();
+            times.add(time.toInstant());
+        }
+        return times;
+    }
+
+    /**
+     * @return the first count occurrences after 'DTSTART' of a rrule with a 'Z' or 'TZID' 'DTSTART' line
+     */
+    private static List<Instant> rruleFireTimes(String rrule, int count) {
+        String dtStartLine = rrule.substring(0, rrule.indexOf('\n'));
+        ZoneId zone = ZoneOffset.UTC;
+        LocalDateTime dtStart;
+        if (dtStartLine.startsWith("DTSTART;TZID=")) {
+            int separator = dtStartLine.indexOf(':');
+            zone = ZoneId.of(dtStartLine.substring("DTSTART;TZID=".length(), separator));
+            dtStart = RRuleText.parseDTStart(dtStartLine.substring(separator + 1) + "Z");
+        } else {
+            dtStart = RRuleTextParser.parseDTStart(rrule);
+        }
+        OccurrenceEngine engine = new OccurrenceEngine(RRuleTextParser.parseSchedule(rrule), dtStart);
+        List<Instant> times = new ArrayList<>();
+        for (LocalDateTime time = dtStart; times.size() < count; ) {
+            time = engine.next(time).orElseThrow();
+            times.add(time.atZone(zone).toInstant());
+        }
+        return times;
+    }
 }
@@ -0,0 +1,116 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuartzCronTextConverterTest {
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testConvertCorpus() {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter();
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+        for (String expression : new CronCorpusGenerator(7L).corpus(5_000)) {
+            assertEquals(converter.convert(CRON_PARSER.parse(expression), dtStart), textConverter.convert(expression, dtStart), expression);
+        }
+        assertEquals(0, textConverter.getFallbackCount());
+    }
+
+    @Test
+    public void testConvertFallback() {
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter();
+
+        // wrapping ranges are left to cron-utils
+        String rrule = textConverter.convert("0 0 12 ? * 7-1", null);
+
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SU,SA", rrule);
+        assertEquals(new QuartzCronRRuleConverter().convert(CRON_PARSER.parse("0 0 12 ? * 7-1"), null), rrule);
+        assertEquals(1, textConverter.getFallbackCount());
+    }
+
+    @Test
+    public void testConvertLastDayOfWeek() {
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter();
+
+        assertEquals("RRULE:FREQ=MONTHLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=SA", textConverter.convert("0 0 12 ? * L", null));
+        assertEquals(0, textConverter.getFallbackCount());
+    }
+
+    @Test
+    public void testConvertWithoutFastPath() {
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter(new QuartzCronRRuleConverter(), false);
+
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=15;BYHOUR=10;BYDAY=MO,TU,WE,TH,FR",
+                textConverter.convert("0 15 10 ? * MON-FRI", null));
+        assertEquals(1, textConverter.getFallbackCount());
+    }
+
+    @Test
+    public void testConvertUnsupported() throws IOException {
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter();
+        StringBuilder out = new StringBuilder();
+
+        assertNull(textConverter.convert("0 15 10 15W * ?", null));
+        assertFalse(textConverter.convertTo("0 15 10 15W * ?", null, out));
+        assertEquals(0, out.length());
+    }
+
+    @Test
+    public void testConvertNearestWeekday() {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter(ConversionMetrics.NOOP, 12);
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+        for (String expression : new String[]{"0 15 10 15W * ?", "0 0 12 1W * ?", "0 0 0/6 31W JAN-JUN ?"}) {
+            String expected = converter.convert(CRON_PARSER.parse(expression), dtStart);
+            assertNotNull(expected, expression);
+            assertEquals(expected, new QuartzCronTextConverter(converter, true).convert(expression, dtStart), expression);
+            assertEquals(expected, new QuartzCronTextConverter(converter, false).convert(expression, dtStart), expression);
+        }
+    }
+
+    @Test
+    public void testConvertRecordsMetrics() {
+        ConversionMetricsRecorder metrics = new ConversionMetricsRecorder();
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter(new QuartzCronRRuleConverter(metrics), true);
+
+        String rrule = textConverter.convert("0 15 10 ? * MON-FRI", null);
+        textConverter.convert("0 0 12 ? * 7-1", null);
+        textConverter.convert("0 15 10 15W * ?", null);
+        assertThrows(IllegalArgumentException.class, () -> textConverter.convert("0 0 12 * * *", null));
+
+        // the fast path records like the fallback
+        ConversionMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, textConverter.getFallbackCount());
+        assertEquals(2, snapshot.getConvertedCount());
+        assertEquals(1, snapshot.getUnsupportedCount());
+        assertEquals(1, snapshot.getFailedCount());
+        assertEquals(2L, snapshot.getFrequencyCounts().get(RRuleFrequency.WEEKLY));
+        assertEquals(4, snapshot.getLatencyNanos().getCount());
+        assertEquals(2, snapshot.getOutputLength().getCount());
+        assertTrue(snapshot.getOutputLength().getMax() >= rrule.length());
+    }
+
+    @Test
+    public void testConvertInvalid() {
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter();
+
+        assertThrows(IllegalArgumentException.class, () -> textConverter.convert("0 0 12 * * *", null));
+        assertThrows(IllegalArgumentException.class, () -> textConverter.convert("0 0 12 ? * 7#6", null));
+    }
+}
@@ -0,0 +1,101 @@
+package com.kyl.rrule;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuartzCronTextParserTest {
+    private static CronParser CRON_PARSER;
+    private static final QuartzCronRRuleConverter CONVERTER = new QuartzCronRRuleConverter();
+    private static final String[] TOKENS = {"*", "?", "0", "1", "5", "7", "12", "15", "23", "31", "59", "60", "1970", "2099",
+            "L", "L-3", "LW", "15W", "6L", "6#3", "2#6", "MON", "fri", "JAN", "dec", "*/5", "0/15", "5/1", "1-5", "5-1", "MON-FRI",
+            "1-10/2", "1,3", "L,15", "*/0", "*/60", "3,", "1-"};
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    private static CompiledSchedule compile(String expression) {
+        return CONVERTER.compile(CRON_PARSER.parse(expression));
+    }
+
+    @Test
+    public void testParseCorpus() {
+        for (String expression : new CronCorpusGenerator(20221004L).corpus(20_000)) {
+            CompiledSchedule schedule = QuartzCronTextParser.parse(expression);
+            assertNotNull(schedule, expression);
+            assertEquals(compile(expression), schedule, expression);
+        }
+    }
+
+    @Test
+    public void testParseRandomTokens() {
+        Random random = new Random(20221004L);
+        int parsed = 0;
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder expression = new StringBuilder();
+            int fields = 6 + random.nextInt(2);
+            for (int field = 0; field < fields; field++) {
+                expression.append(field == 0 ? "" : " ").append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            CompiledSchedule schedule = QuartzCronTextParser.parse(expression.toString());
+            if (schedule != null) {
+                // everything the fast path accepts must be accepted by cron-utils with the same result
+                assertEquals(compile(expression.toString()), schedule, expression.toString());
+                parsed++;
+            }
+        }
+        assertTrue(parsed > 0);
+    }
+
+    @Test
+    public void testParseShapes() {
+        String[] expressions = {"0 0 12 * * ?", "0 15 10 ? * MON-FRI", "0 0/5 14,18 * * ?", "0 0 12 1/5 * ?", "0 11 11 11 11 ?",
+                "0 15 10 L * ?", "0 15 10 L-2 * ?", "0 15 10 LW * ?", "0 15 10 ? * 6L", "0 15 10 ? * L", "0 15 10 ? * 6#3", "0 0 12 ? jan-mar mon",
+                "  0 0 12 * * ? 2020-2025", "*/1 0 12 * * ?", "0 0 12 ? * 1,1",
+                "0 0 12 15W * ? 2030", "0 0 12 15W * ? *", "0 0 12 1W 1/3 ?"};
+        for (String expression : expressions) {
+            assertEquals(compile(expression), QuartzCronTextParser.parse(expression), expression);
+        }
+    }
+
+    @Test
+    public void testParseNearestWeekdayIsUnsupported() {
+        CompiledSchedule schedule = QuartzCronTextParser.parse("0 15 10 15W * ?");
+
+        assertNotNull(schedule);
+        assertTrue(schedule.isUnsupported());
+    }
+
+    @Test
+    public void testParseUnrecognized() {
+        assertNull(QuartzCronTextParser.parse("0 0 12 * * *"));
+        assertNull(QuartzCronTextParser.parse("0 0 12 ? * ?"));
+        assertNull(QuartzCronTextParser.parse("0 0 12 ? * 7-1"));
+        assertNull(QuartzCronTextParser.parse("0 0 12 ? * 7#6"));
+        assertNull(QuartzCronTextParser.parse("0 0 12 L,15 * ?"));
+        assertNull(QuartzCronTextParser.parse("0 0 12 * * ? 2020/2"));
+        assertNull(QuartzCronTextParser.parse("0\t0 12 * * ?"));
+        assertNull(QuartzCronTextParser.parse("0 0 12 * *"));
+        assertNull(QuartzCronTextParser.parse("60 0 12 * * ?"));
+    }
+
+    @Test
+    public void testFrequency() {
+        assertEquals(RRuleFrequency.SECONDLY, QuartzCronTextParser.parse("0/5 * * * * ?").getFrequency());
+        assertEquals(RRuleFrequency.HOURLY, QuartzCronTextParser.parse("0 30 8-18 * * ?").getFrequency());
+        assertEquals(RRuleFrequency.WEEKLY, QuartzCronTextParser.parse("0 30 8 ? * MON-FRI").getFrequency());
+        assertEquals(RRuleFrequency.MONTHLY, QuartzCronTextParser.parse("0 30 8 L-3 * ?").getFrequency());
+        Cron cron = CRON_PARSER.parse("0 30 8 ? * 6#3");
+        assertEquals(CONVERTER.compile(cron).getFrequency(), QuartzCronTextParser.parse("0 30 8 ? * 6#3").getFrequency());
+    }
+}
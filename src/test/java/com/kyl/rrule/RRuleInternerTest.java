@@ -0,0 +1,57 @@
+package com.kyl.rrule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RRuleInternerTest {
+
+    @Test
+    public void testIntern() {
+        RRuleInterner interner = new RRuleInterner();
+        String first = new String("RRULE:FREQ=DAILY;BYHOUR=12");
+        String second = new String("RRULE:FREQ=DAILY;BYHOUR=12");
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertSame(first, interner.intern(first));
+        assertNull(interner.intern(null));
+
+        assertEquals(1, interner.size());
+        assertEquals(3, interner.getLookupCount());
+        assertEquals(1, interner.getDedupeCount());
+        assertEquals(1.0 / 3, interner.getDedupeRatio(), 1e-9);
+        assertEquals(RRuleInterner.estimateSize(second), interner.getBytesSaved());
+    }
+
+    @Test
+    public void testEstimateSize() {
+        // 24 bytes String, 16 bytes array header, 26 bytes rounded up to 8
+        assertEquals(24 + 48, RRuleInterner.estimateSize("RRULE:FREQ=DAILY;BYHOUR=12"));
+    }
+
+    @Test
+    public void testUnreferencedRulesAreDropped() throws InterruptedException {
+        RRuleInterner interner = new RRuleInterner();
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String rrule = interner.intern("RRULE:FREQ=DAILY;BYMINUTE=" + i);
+            if (i % 100 == 0) {
+                kept.add(rrule);
+            }
+        }
+
+        for (int i = 0; i < 20 && interner.size() > kept.size(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(kept.size(), interner.size());
+        for (String rrule : kept) {
+            assertSame(rrule, interner.intern(new String(rrule)));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RRuleMinimizerTest {
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+    private static final LocalDateTime[] DTSTARTS = {DTSTART, LocalDateTime.of(2023, 12, 31, 23, 59, 59),
+            LocalDateTime.of(2024, 2, 29, 0, 0), LocalDateTime.of(2021, 3, 28, 1, 30, 15, 500_000_000)};
+    private static final String[] STEPS = {"0/5 * * * * ?", "0 0/15 * * * ?", "0 0 0/2 * * ?", "0 0-59 12 * * ?", "*/10 * 9-17 ? * MON-FRI",
+            "0 0/30 8-18 ? * 2-6", "0 0 */6 1,15 * ?", "15 0/20 * L * ?", "0 0 0/3 ? JAN-DEC *", "0/12 * * * * ?", "0/7 * * * * ?",
+            "0 0 0/5 * * ?", "0 0 0,12 * * ?", "0 * 0/4 * * ?", "0 0 12 1-31 * ?", "0 0 12 ? * SUN-SAT", "0 0/10 * ? * 6L"};
+    private static CronParser CRON_PARSER;
+
+    private final QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+    private final QuartzCronRRuleConverter minimizingConverter = new QuartzCronRRuleConverter(ConversionMetrics.NOOP, 0, true);
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testInterval() {
+        assertEquals("DTSTART:20221004T150740Z\nRRULE:FREQ=SECONDLY;INTERVAL=5", this.minimize("0/5 * * * * ?", DTSTART));
+        assertEquals("DTSTART:20221004T151500Z\nRRULE:FREQ=MINUTELY;BYSECOND=0;INTERVAL=15", this.minimize("0 0/15 * * * ?", DTSTART));
+        assertEquals("DTSTART:20221004T160000Z\nRRULE:FREQ=HOURLY;BYSECOND=0;BYMINUTE=0;INTERVAL=2", this.minimize("0 0 0/2 * * ?", DTSTART));
+        assertEquals("DTSTART:20221004T150800Z\nRRULE:FREQ=MINUTELY;BYSECOND=0;BYHOUR=12", this.minimize("0 0-59 12 * * ?", DTSTART));
+    }
+
+    @Test
+    public void testCollapse() {
+        assertEquals("DTSTART:20221004T150740Z\nRRULE:FREQ=DAILY;BYSECOND=0;BYMINUTE=0;BYHOUR=12", this.minimize("0 0 12 1-31 * ?", DTSTART));
+        assertEquals("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12", this.minimize("0 0 12 ? JAN-DEC *", null));
+        assertEquals("RRULE:FREQ=HOURLY;BYSECOND=0;BYMINUTE=0", this.minimize("0 0 * ? * SUN-SAT", null));
+    }
+
+    @Test
+    public void testNotRewritten() {
+        assertEquals(this.converter.convert(CRON_PARSER.parse("0/7 * * * * ?"), DTSTART), this.minimize("0/7 * * * * ?", DTSTART),
+                "7 does not divide 60");
+        assertEquals(this.converter.convert(CRON_PARSER.parse("0 0/15 * * * ?"), null), this.minimize("0 0/15 * * * ?", null),
+                "no DTSTART to align");
+        assertEquals(this.converter.convert(CRON_PARSER.parse("0 0/10 * ? * 6L"), DTSTART), this.minimize("0 0/10 * ? * 6L", DTSTART),
+                "BYSETPOS");
+    }
+
+    @Test
+    public void testStep() {
+        assertEquals(15, RRuleMinimizer.step(1L | 1L << 15 | 1L << 30 | 1L << 45, 60));
+        assertEquals(1, RRuleMinimizer.step((1L << 24) - 1, 24));
+        assertEquals(0, RRuleMinimizer.step(1L, 60));
+        assertEquals(0, RRuleMinimizer.step(1L | 1L << 15 | 1L << 30, 60));
+        assertEquals(0, RRuleMinimizer.step(1L | 1L << 7 | 1L << 14, 60));
+        assertEquals(0, RRuleMinimizer.step(1L << 5 | 1L << 10, 60));
+    }
+
+    @Test
+    public void testEquivalent() throws IOException {
+        List<String> expressions = new ArrayList<>(List.of(STEPS));
+        expressions.addAll(new CronCorpusGenerator(20221018L).corpus(2_000));
+        int rewritten = 0;
+        for (String expression : expressions) {
+            Cron cron = CRON_PARSER.parse(expression);
+            for (LocalDateTime dtStart : DTSTARTS) {
+                String rrule = this.converter.convert(cron, dtStart);
+                String minimized = this.minimizingConverter.convert(cron, dtStart);
+                assertTrue(minimized.length() <= rrule.length(), expression);
+                if (!minimized.equals(rrule)) {
+                    rewritten++;
+                    assertEquals(occurrences(rrule, dtStart), occurrences(minimized, dtStart), expression + " from " + dtStart);
+                }
+            }
+        }
+        assertTrue(rewritten > 0);
+    }
+
+    @Test
+    public void testTextConverter() throws IOException {
+        QuartzCronTextConverter textConverter = new QuartzCronTextConverter(this.minimizingConverter, true);
+        for (String expression : STEPS) {
+            assertEquals(this.minimize(expression, DTSTART), textConverter.convert(expression, DTSTART), expression);
+        }
+    }
+
+    private String minimize(String expression, LocalDateTime dtStart) {
+        return this.minimizingConverter.convert(CRON_PARSER.parse(expression), dtStart);
+    }
+
+    private static List<LocalDateTime> occurrences(String rrule, LocalDateTime from) {
+        OccurrenceEngine engine = new OccurrenceEngine(RRuleTextParser.parseSchedule(rrule), RRuleTextParser.parseDTStart(rrule));
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        LocalDateTime time = from.minusSeconds(1);
+        for (int i = 0; i < 100; i++) {
+            Optional<LocalDateTime> next = engine.next(time);
+            if (next.isEmpty()) {
+                break;
+            }
+            time = next.get();
+            occurrences.add(time);
+        }
+        return occurrences;
+    }
+}
@@ -0,0 +1,152 @@
+package com.kyl.rrule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RRuleStringPoolTest {
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testAppendFromConverter() {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        RRuleStringPool pool = new RRuleStringPool(256);
+        List<String> expressions = new CronCorpusGenerator(20221022L).corpus(500);
+        List<Long> handles = new ArrayList<>();
+
+        for (String expression : expressions) {
+            handles.add(pool.append(converter, CRON_PARSER.parse(expression), dtStart));
+        }
+
+        int stored = 0;
+        for (int i = 0; i < expressions.size(); i++) {
+            String expected = converter.convert(CRON_PARSER.parse(expressions.get(i)), dtStart);
+            if (expected == null) {
+                assertEquals(RRuleStringPool.NO_HANDLE, handles.get(i));
+            } else {
+                assertEquals(expected, pool.get(handles.get(i)), expressions.get(i));
+                assertEquals(expected.length(), pool.byteLength(handles.get(i)));
+                stored++;
+            }
+        }
+        assertEquals(stored, pool.size());
+        assertTrue(pool.getCapacity() > 256, "entries spread over several chunks");
+    }
+
+    @Test
+    public void testAppendCountsEveryConversionOnce() {
+        ConversionMetricsRecorder metrics = new ConversionMetricsRecorder();
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter(metrics);
+        RRuleStringPool pool = new RRuleStringPool(128);
+
+        // each rule fills most of a chunk, so every append after the first starts a new chunk
+        for (int i = 0; i < 10; i++) {
+            pool.append(converter, CRON_PARSER.parse("0 0 12 * * ?"), LocalDateTime.of(2022, 10, 4, 15, 7, 40));
+        }
+
+        ConversionMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(10, snapshot.getConvertedCount());
+        assertEquals(0, snapshot.getFailedCount());
+        assertEquals(10, pool.size());
+    }
+
+    @Test
+    public void testAppendUnsupported() {
+        RRuleStringPool pool = new RRuleStringPool();
+
+        assertEquals(RRuleStringPool.NO_HANDLE, pool.append(new QuartzCronRRuleConverter(), CRON_PARSER.parse("0 30 10 2w1 * ?"), null));
+        assertEquals(0, pool.size());
+        assertEquals(0, pool.getLiveBytes());
+    }
+
+    @Test
+    public void testAppendLargerThanChunk() {
+        RRuleStringPool pool = new RRuleStringPool(64);
+        String large = "RRULE:FREQ=DAILY;BYSECOND=" + "0,".repeat(100) + "1";
+        String nonAscii = "RRULE:FREQ=DAILY;X-NAME=\u00e9\u20ac\ud83d\ude00";
+
+        long first = pool.append("RRULE:FREQ=DAILY");
+        long second = pool.append(large);
+        long third = pool.append(nonAscii);
+
+        assertEquals("RRULE:FREQ=DAILY", pool.get(first));
+        assertEquals(large, pool.get(second));
+        assertEquals(nonAscii, pool.get(third));
+        assertEquals(nonAscii.getBytes(StandardCharsets.UTF_8).length, pool.byteLength(third));
+        assertThrows(IllegalArgumentException.class, () -> pool.append("RRULE:FREQ=DAILY;X-NAME=\ud83d"));
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void testRemoveAndCompact() {
+        RRuleStringPool pool = new RRuleStringPool(128);
+        List<Long> handles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            handles.add(pool.append("RRULE:FREQ=DAILY;BYHOUR=" + i % 24 + ";BYMINUTE=" + i % 60));
+        }
+        long capacity = pool.getCapacity();
+
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(pool.remove(handles.get(i)));
+        }
+        assertFalse(pool.remove(handles.get(0)));
+        assertTrue(pool.getRemovedBytes() > 0);
+        pool.compact();
+
+        assertEquals(50, pool.size());
+        assertEquals(0, pool.getRemovedBytes());
+        assertTrue(pool.getCapacity() < capacity);
+        for (int i = 1; i < 100; i += 2) {
+            assertEquals("RRULE:FREQ=DAILY;BYHOUR=" + i % 24 + ";BYMINUTE=" + i % 60, pool.get(handles.get(i)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> pool.get(handles.get(0)));
+        long next = pool.append("RRULE:FREQ=HOURLY");
+        assertEquals(100, next);
+        assertEquals("RRULE:FREQ=HOURLY", pool.get(next));
+    }
+
+    @Test
+    public void testTransferTo() throws IOException {
+        RRuleStringPool pool = new RRuleStringPool();
+        long first = pool.append("DTSTART:20221004T150740Z\nRRULE:FREQ=DAILY");
+        long second = pool.append("RRULE:FREQ=HOURLY");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(bytes);
+
+        assertEquals(17, pool.transferTo(second, channel));
+        pool.transferTo(first, channel);
+
+        assertEquals("RRULE:FREQ=HOURLYDTSTART:20221004T150740Z\nRRULE:FREQ=DAILY", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnknownHandle() {
+        RRuleStringPool pool = new RRuleStringPool();
+        pool.append("RRULE:FREQ=DAILY");
+
+        assertThrows(IllegalArgumentException.class, () -> pool.get(1));
+        assertThrows(IllegalArgumentException.class, () -> pool.get(RRuleStringPool.NO_HANDLE));
+        assertThrows(IllegalArgumentException.class, () -> pool.remove(5));
+        assertThrows(IllegalArgumentException.class, () -> new RRuleStringPool(16));
+    }
+}
@@ -0,0 +1,70 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RRuleTextParserTest {
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testParse() {
+        CompiledSchedule schedule = RRuleTextParser.parseSchedule("RRULE:FREQ=WEEKLY;BYSECOND=0;BYMINUTE=0;BYHOUR=12;BYDAY=MO,FR");
+
+        assertEquals(RRuleFrequency.WEEKLY, schedule.getFrequency());
+        assertEquals(1L, schedule.getSeconds());
+        assertEquals(1L, schedule.getMinutes());
+        assertEquals(1L << 12, schedule.getHours());
+        assertEquals((1 << 2) | (1 << 6), schedule.getWeekdays());
+        assertNull(RRuleTextParser.parseDTStart("RRULE:FREQ=WEEKLY"));
+    }
+
+    @Test
+    public void testParseSpecialParts() {
+        CompiledSchedule schedule = RRuleTextParser.parseSchedule("RRULE:FREQ=MONTHLY;BYMONTHDAY=-1;BYSETPOS=-1;BYDAY=2MO,-1FR;INTERVAL=3");
+
+        assertEquals(1L << 1, schedule.getLastMonthDays());
+        assertTrue(schedule.isLastOfSet());
+        assertNotEquals(0L, schedule.getNthWeekdays());
+        assertNotEquals(0L, schedule.getLastNthWeekdays());
+        assertEquals(3, schedule.getInterval());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        for (String expression : new CronCorpusGenerator(20221017L).corpus(2_000)) {
+            CompiledSchedule schedule = converter.compile(CRON_PARSER.parse(expression));
+            StringBuilder rrule = new StringBuilder();
+            RecurrenceRuleStringBuilder.appendRRule(schedule, DTSTART, rrule);
+
+            assertEquals(schedule, RRuleTextParser.parseSchedule(rrule.toString()), expression);
+            assertEquals(DTSTART, RRuleTextParser.parseDTStart(rrule.toString()), expression);
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> RRuleTextParser.parseSchedule("DTSTART:20221004T150740Z"));
+        assertThrows(IllegalArgumentException.class, () -> RRuleTextParser.parseSchedule("RRULE:BYHOUR=1"));
+        assertThrows(IllegalArgumentException.class, () -> RRuleTextParser.parseSchedule("RRULE:FREQ=YEARLY"));
+        assertThrows(IllegalArgumentException.class, () -> RRuleTextParser.parseSchedule("RRULE:FREQ=DAILY;BYWEEKNO=1"));
+        assertThrows(IllegalArgumentException.class, () -> RRuleTextParser.parseSchedule("RRULE:FREQ=DAILY;BYDAY=XX"));
+        assertThrows(IllegalArgumentException.class, () -> RRuleTextParser.parseSchedule("RRULE:FREQ=DAILY;BYHOUR=a"));
+        assertThrows(IllegalArgumentException.class, () -> RRuleTextParser.parseSchedule("RRULE:FREQ=DAILY;BYHOUR=24"));
+    }
+}
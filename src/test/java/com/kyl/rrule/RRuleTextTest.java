@@ -0,0 +1,60 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RRuleTextTest {
+
+    private static String dtStart(LocalDateTime dateTime) throws IOException {
+        StringBuilder out = new StringBuilder();
+        RRuleText.appendDTStart(dateTime, out);
+        return out.toString();
+    }
+
+    @Test
+    public void testAppendDTStart() throws IOException {
+        assertEquals("20221004T150740Z", dtStart(LocalDateTime.of(2022, 10, 4, 15, 7, 40)));
+        assertEquals("00050101T000000Z", dtStart(LocalDateTime.of(5, 1, 1, 0, 0, 0)));
+        assertEquals("99991231T235959Z", dtStart(LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999)));
+    }
+
+    @Test
+    public void testAppendDTStartOutsideFixedWidth() throws IOException {
+        assertEquals("+100000101T000000Z", dtStart(LocalDateTime.of(10000, 1, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void testAppendNumber() throws IOException {
+        StringBuilder out = new StringBuilder();
+        RRuleText.appendNumber(0, out);
+        out.append(',');
+        RRuleText.appendNumber(59, out);
+        out.append(',');
+        RRuleText.appendNumber(-31, out);
+        out.append(',');
+        RRuleText.appendNumber(366, out);
+
+        assertEquals("0,59,-31,366", out.toString());
+    }
+
+    @Test
+    public void testPartPrefix() {
+        assertEquals(";BYMONTHDAY=", RRuleText.partPrefix(RRuleName.MONTHDAY));
+        assertEquals(";BYDAY=", RRuleText.partPrefix(RRuleName.WEEKDAY));
+    }
+
+    @Test
+    public void testAppendInZone() throws IOException {
+        StringBuilder out = new StringBuilder();
+        RRuleText.appendInZone("DTSTART:20221004T150740Z\nRRULE:FREQ=DAILY;BYHOUR=9\nRDATE:20221014T120000Z,20221115T120000Z",
+                ZoneId.of("Asia/Tokyo"), out);
+
+        assertEquals("DTSTART;TZID=Asia/Tokyo:20221004T150740\nRRULE:FREQ=DAILY;BYHOUR=9\n"
+                + "RDATE;TZID=Asia/Tokyo:20221014T120000,20221115T120000", out.toString());
+    }
+}
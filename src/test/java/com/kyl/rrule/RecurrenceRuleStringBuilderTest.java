@@ -1,5 +1,9 @@
 package com.kyl.rrule;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 
@@ -7,6 +11,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RecurrenceRuleStringBuilderTest {
     private RecurrenceRuleStringBuilder builder;
@@ -51,4 +57,95 @@ public class RecurrenceRuleStringBuilderTest {
         String result = this.builder.build();
         assertEquals("RRULE:FREQ=SECONDLY;BYHOUR=1,3,4,6,7", result);
     }
+
+    @Test
+    public void testAppendTo() throws IOException {
+        this.builder.withDTStart("dtstart");
+        this.builder.withRRuleParts(new HashMap<>(){{
+            put(RRuleName.HOUR, List.of("1,3,4", "6,7"));
+        }});
+        StringBuilder out = new StringBuilder("prefix|");
+
+        this.builder.appendTo(out);
+
+        assertEquals("prefix|DTSTART:dtstart\nRRULE:FREQ=SECONDLY;BYHOUR=1,3,4,6,7", out.toString());
+    }
+
+    @Test
+    public void testBuildWithSchedule() {
+        CompiledSchedule schedule = new CompiledSchedule(RRuleFrequency.MONTHLY);
+        schedule.add(RRuleName.SECOND, 0);
+        schedule.add(RRuleName.MINUTE, 30);
+        schedule.add(RRuleName.MINUTE, 15);
+        schedule.add(RRuleName.HOUR, 10);
+        schedule.add(RRuleName.MONTHDAY, 1);
+        schedule.add(RRuleName.MONTHDAY, -2);
+        schedule.add(RRuleName.MONTH, 12);
+        schedule.setLastOfSet();
+        schedule.setInterval(3);
+        this.builder.withSchedule(schedule);
+
+        String result = this.builder.build();
+        assertEquals("RRULE:FREQ=SECONDLY;BYSECOND=0;BYMINUTE=15,30;BYHOUR=10;BYMONTHDAY=1,-2;BYMONTH=12;BYSETPOS=-1;INTERVAL=3", result);
+    }
+
+    @Test
+    public void testBuildWithScheduleWeekdays() {
+        CompiledSchedule schedule = new CompiledSchedule(RRuleFrequency.MONTHLY);
+        schedule.add(RRuleName.WEEKDAY, 7);
+        schedule.add(RRuleName.WEEKDAY, 1);
+        schedule.addNthWeekday(3, 2);
+        schedule.addNthWeekday(1, 6);
+        schedule.addNthWeekday(-1, 5);
+        this.builder.withSchedule(schedule);
+
+        String result = this.builder.build();
+        assertEquals("RRULE:FREQ=SECONDLY;BYDAY=SU,SA,1FR,3MO,-1TH", result);
+    }
+
+    private static String decode(ByteBuffer buffer) {
+        ByteBuffer written = buffer.duplicate();
+        written.flip();
+        return StandardCharsets.UTF_8.decode(written).toString();
+    }
+
+    @Test
+    public void testWriteTo() {
+        this.builder.withDTStart("20221004T150740Z");
+        this.builder.withRRuleParts(new HashMap<>() {{
+            put(RRuleName.HOUR, List.of("1", "2"));
+        }});
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.put((byte) '>');
+
+        assertTrue(this.builder.writeTo(buffer));
+        assertEquals(">DTSTART:20221004T150740Z\nRRULE:FREQ=SECONDLY;BYHOUR=1,2", decode(buffer));
+    }
+
+    @Test
+    public void testWriteToOverflow() {
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        buffer.put((byte) '>');
+
+        assertFalse(this.builder.writeTo(ByteBuffer.allocate(10)));
+        assertTrue(this.builder.writeTo(buffer));
+        // the second rule does not fit, the buffer keeps the first one
+        assertFalse(this.builder.writeTo(buffer));
+        assertEquals(">RRULE:FREQ=SECONDLY", decode(buffer));
+    }
+
+    @Test
+    public void testWriteRRule() {
+        CompiledSchedule schedule = new CompiledSchedule(RRuleFrequency.WEEKLY);
+        schedule.add(RRuleName.SECOND, 0);
+        schedule.add(RRuleName.WEEKDAY, 2);
+        schedule.addNthWeekday(-1, 6);
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+        String expected = "DTSTART:20221004T150740Z\nRRULE:FREQ=WEEKLY;BYSECOND=0;BYDAY=MO,-1FR";
+        ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length());
+
+        assertFalse(RecurrenceRuleStringBuilder.writeRRule(schedule, dtStart, ByteBuffer.allocate(expected.length() - 1)));
+        assertTrue(RecurrenceRuleStringBuilder.writeRRule(schedule, dtStart, buffer));
+        assertEquals(expected, decode(buffer));
+    }
 }
@@ -0,0 +1,117 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cronutils.model.Cron;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleCatalogTest {
+    private static CronParser CRON_PARSER;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        Path path = this.tempDir.resolve("catalog.bin");
+        List<Cron> crons = new ArrayList<>();
+        List<LocalDateTime> dtStarts = new ArrayList<>();
+        // more than one write batch
+        for (String expression : new CronCorpusGenerator(20221012L).corpus(2500)) {
+            crons.add(CRON_PARSER.parse(expression));
+            dtStarts.add(crons.size() % 3 == 0 ? null : LocalDateTime.of(2022, 1, 1, 0, 0).plusMinutes(crons.size()));
+        }
+
+        try (ScheduleCatalogWriter writer = new ScheduleCatalogWriter(path)) {
+            for (int i = 0; i < crons.size(); i++) {
+                assertEquals(i, writer.append(converter.compile(crons.get(i)), dtStarts.get(i)));
+            }
+        }
+        assertEquals(ScheduleCatalog.offset(crons.size()), Files.size(path));
+
+        try (ScheduleCatalog catalog = new ScheduleCatalog(path)) {
+            assertEquals(crons.size(), catalog.size());
+            for (int i = crons.size() - 1; i >= 0; i--) {
+                String expected = converter.convert(crons.get(i), dtStarts.get(i));
+                assertEquals(expected, catalog.getRRule(i));
+                assertEquals(expected == null, catalog.isUnsupported(i));
+                assertEquals(converter.compile(crons.get(i)), catalog.getSchedule(i));
+                assertEquals(dtStarts.get(i), catalog.getDTStart(i));
+
+                StringBuilder out = new StringBuilder();
+                assertEquals(expected != null, catalog.appendRRule(i, out));
+                assertEquals(expected == null ? "" : expected, out.toString());
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> catalog.getSchedule(crons.size()));
+            assertThrows(IndexOutOfBoundsException.class, () -> catalog.getFrequency(-1));
+        }
+    }
+
+    @Test
+    public void testEmptyCatalog() throws IOException {
+        Path path = this.tempDir.resolve("empty.bin");
+        new ScheduleCatalogWriter(path).close();
+
+        try (ScheduleCatalog catalog = new ScheduleCatalog(path)) {
+            assertEquals(0, catalog.size());
+        }
+    }
+
+    @Test
+    public void testUnclosedWriterReadsEmpty() throws IOException {
+        Path path = this.tempDir.resolve("unclosed.bin");
+        ScheduleCatalogWriter writer = new ScheduleCatalogWriter(path);
+        for (int i = 0; i < 2000; i++) {
+            writer.append(new CompiledSchedule(RRuleFrequency.DAILY), null);
+        }
+
+        try (ScheduleCatalog catalog = new ScheduleCatalog(path)) {
+            assertEquals(0, catalog.size());
+        }
+        writer.close();
+        try (ScheduleCatalog catalog = new ScheduleCatalog(path)) {
+            assertEquals(2000, catalog.size());
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        Path path = this.tempDir.resolve("invalid.bin");
+        Files.writeString(path, "RRULE:FREQ=DAILY");
+
+        assertThrows(IOException.class, () -> new ScheduleCatalog(path));
+    }
+
+    @Test
+    public void testTruncatedFile() throws IOException {
+        Path path = this.tempDir.resolve("truncated.bin");
+        try (ScheduleCatalogWriter writer = new ScheduleCatalogWriter(path)) {
+            writer.append(new CompiledSchedule(RRuleFrequency.DAILY), null);
+            writer.append(new CompiledSchedule(RRuleFrequency.DAILY), null);
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> new ScheduleCatalog(path));
+    }
+}
@@ -0,0 +1,78 @@
+package com.kyl.rrule;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleRecordTest {
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testRoundTripCorpus() {
+        QuartzCronRRuleConverter converter = new QuartzCronRRuleConverter();
+        ByteBuffer buffer = ByteBuffer.allocate(3 * ScheduleRecord.RECORD_SIZE);
+        int offset = ScheduleRecord.RECORD_SIZE; // not at the start of the buffer
+        LocalDateTime dtStart = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+
+        for (String expression : new CronCorpusGenerator(20221012L).corpus(5000)) {
+            CompiledSchedule schedule = converter.compile(CRON_PARSER.parse(expression));
+            ScheduleRecord.write(schedule, dtStart, buffer, offset);
+
+            assertEquals(schedule, ScheduleRecord.readSchedule(buffer, offset), expression);
+            assertEquals(dtStart, ScheduleRecord.readDTStart(buffer, offset));
+            assertEquals(schedule.getFrequency(), ScheduleRecord.readFrequency(buffer, offset));
+            assertEquals(schedule.isUnsupported(), ScheduleRecord.readUnsupported(buffer, offset));
+        }
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testHighBits() {
+        CompiledSchedule schedule = new CompiledSchedule(RRuleFrequency.MONTHLY);
+        schedule.add(RRuleName.MONTHDAY, 31);
+        schedule.add(RRuleName.MONTHDAY, -31);
+        schedule.add(RRuleName.HOUR, 23);
+        schedule.add(RRuleName.MONTH, 12);
+        schedule.add(RRuleName.WEEKDAY, 7);
+        schedule.addNthWeekday(-5, 7);
+        schedule.setInterval(Integer.MAX_VALUE);
+        schedule.setLastOfSet();
+        ByteBuffer buffer = ByteBuffer.allocate(ScheduleRecord.RECORD_SIZE);
+
+        ScheduleRecord.write(schedule, null, buffer, 0);
+
+        assertEquals(schedule, ScheduleRecord.readSchedule(buffer, 0));
+        assertNull(ScheduleRecord.readDTStart(buffer, 0));
+    }
+
+    @Test
+    public void testDTStartInSeconds() {
+        ByteBuffer buffer = ByteBuffer.allocate(ScheduleRecord.RECORD_SIZE);
+
+        ScheduleRecord.write(new CompiledSchedule(RRuleFrequency.DAILY), LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999), buffer, 0);
+
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59), ScheduleRecord.readDTStart(buffer, 0));
+    }
+
+    @Test
+    public void testYearDaysRejected() {
+        CompiledSchedule schedule = new CompiledSchedule(RRuleFrequency.DAILY);
+        schedule.add(RRuleName.YEARDAY, 100);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ScheduleRecord.write(schedule, null, ByteBuffer.allocate(ScheduleRecord.RECORD_SIZE), 0));
+    }
+}
@@ -0,0 +1,185 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleTimerWheelTest {
+    private static final LocalDateTime DTSTART = LocalDateTime.of(2022, 10, 4, 15, 7, 40);
+    private static CronParser CRON_PARSER;
+
+    @BeforeAll
+    public static void setUpAll() {
+        CRON_PARSER = new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ));
+    }
+
+    @Test
+    public void testFiresLikeEngine() {
+        List<OccurrenceEngine> engines = new ArrayList<>();
+        for (String expression : new CronCorpusGenerator(20221014L).corpus(CronCorpusGenerator.Shape.EVERY, 100)) {
+            engines.add(engine(expression));
+        }
+        assertFiresLikeEngine(engines, DTSTART.plusSeconds(17), 3 * 3600, 997);
+    }
+
+    @Test
+    public void testFiresLikeEngineOverMonths() {
+        List<OccurrenceEngine> engines = new ArrayList<>();
+        for (String expression : new CronCorpusGenerator(20221014L).corpus(CronCorpusGenerator.Shape.ON, 300)) {
+            engines.add(engine(expression));
+        }
+        engines.add(engine("0 0 0 1 1 ?")); // once a year, cascades from the top levels
+        engines.add(engine("0 15 10 ? * 6L"));
+        // a large step skips empty seconds, a step of one second visits every one of them
+        assertFiresLikeEngine(engines, DTSTART, 400 * 86400, 86400 * 7 + 13);
+        assertFiresLikeEngine(engines.subList(0, 20), DTSTART, 3 * 86400, 1);
+    }
+
+    @Test
+    public void testCancel() {
+        ScheduleTimerWheel wheel = new ScheduleTimerWheel(DTSTART);
+        int everySecond = wheel.add(engine("* * * * * ?"));
+        int hourly = wheel.add(engine("0 * * * * ?")); // FREQ=HOURLY;BYSECOND=0, minute 7 of DTSTART
+        int daily = wheel.add(engine("0 0 12 * * ?"));
+        assertEquals(3, wheel.size());
+
+        assertTrue(wheel.cancel(everySecond));
+        assertFalse(wheel.cancel(everySecond));
+        assertFalse(wheel.cancel(ScheduleTimerWheel.NONE));
+        assertFalse(wheel.cancel(1000));
+        assertEquals(Long.MIN_VALUE, wheel.getNextFireEpochSecond(everySecond));
+        assertEquals(2, wheel.size());
+
+        List<Integer> fired = new ArrayList<>();
+        assertEquals(1, wheel.advance(DTSTART.plusHours(1), (handle, epochSecond) -> fired.add(handle)));
+        assertEquals(List.of(hourly), fired);
+        assertEquals(DTSTART.plusHours(1), wheel.getTime());
+        assertEquals(LocalDateTime.of(2022, 10, 4, 17, 7, 0).toEpochSecond(ZoneOffset.UTC), wheel.getNextFireEpochSecond(hourly));
+        assertEquals(LocalDateTime.of(2022, 10, 5, 12, 0, 0).toEpochSecond(ZoneOffset.UTC), wheel.getNextFireEpochSecond(daily));
+
+        // the freed handle is reused
+        assertEquals(everySecond, wheel.add(engine("30 * * * * ?")));
+        assertEquals(3, wheel.size());
+    }
+
+    @Test
+    public void testListenerCancelsAndAdds() {
+        ScheduleTimerWheel wheel = new ScheduleTimerWheel(DTSTART);
+        OccurrenceEngine hourly = engine("0 * * * * ?");
+        int first = wheel.add(hourly);
+        int second = wheel.add(hourly);
+        List<Integer> fired = new ArrayList<>();
+
+        wheel.advance(DTSTART.plusHours(3), (handle, epochSecond) -> {
+            fired.add(handle);
+            if (handle == first) {
+                wheel.cancel(first);
+                wheel.cancel(second); // due at the same second, after first
+                // reuses the handle of second, the new schedule is not due before the next hour
+                assertEquals(second, wheel.add(hourly));
+            }
+        });
+
+        assertEquals(List.of(first, second, second), fired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testScheduleWithoutOccurrences() {
+        ScheduleTimerWheel wheel = new ScheduleTimerWheel(DTSTART);
+
+        assertEquals(ScheduleTimerWheel.NONE, wheel.add(engine("0 0 0 30 2 ?")));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testLastOccurrenceRemovesSchedule() {
+        // starts before DTSTART, the wheel stops at DTSTART and keeps following occurrences
+        ScheduleTimerWheel wheel = new ScheduleTimerWheel(DTSTART.minusDays(1));
+        int handle = wheel.add(engine("0 0 0 * * ?"));
+        assertEquals(LocalDateTime.of(2022, 10, 5, 0, 0).toEpochSecond(ZoneOffset.UTC), wheel.getNextFireEpochSecond(handle));
+
+        assertEquals(2, wheel.advance(DTSTART.plusDays(2), (h, epochSecond) -> {
+        }));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testFiresAtSlotBoundaries() {
+        for (int level = 1; level < ScheduleTimerWheel.LEVELS; level++) {
+            long width = 1L << (6 * level);
+            for (long fireTime : new long[]{width - 1, width, width + 63}) {
+                ScheduleTimerWheel wheel = new ScheduleTimerWheel(0);
+                int handle = wheel.add(engineAt(fireTime));
+                assertEquals(fireTime, wheel.getNextFireEpochSecond(handle));
+
+                List<Long> fired = new ArrayList<>();
+                wheel.advance(fireTime + 64, (h, epochSecond) -> fired.add(epochSecond));
+                assertEquals(List.of(fireTime), fired, "level " + level);
+            }
+        }
+    }
+
+    private static void assertFiresLikeEngine(List<OccurrenceEngine> engines, LocalDateTime start, int seconds, int step) {
+        ScheduleTimerWheel wheel = new ScheduleTimerWheel(start);
+        List<Integer> handles = new ArrayList<>();
+        List<List<Long>> expected = new ArrayList<>();
+        LocalDateTime end = start.plusSeconds(seconds);
+        for (OccurrenceEngine engine : engines) {
+            int handle = wheel.add(engine);
+            handles.add(handle);
+            List<Long> times = new ArrayList<>();
+            for (Iterator<LocalDateTime> it = engine.iterate(start.plusSeconds(1), end.plusSeconds(1)); it.hasNext(); ) {
+                times.add(it.next().toEpochSecond(ZoneOffset.UTC));
+            }
+            expected.add(times);
+            assertEquals(times.isEmpty() && engine.next(start).isEmpty() ? ScheduleTimerWheel.NONE : handle, handle);
+        }
+
+        List<List<Long>> actual = new ArrayList<>();
+        for (int i = 0; i < engines.size(); i++) {
+            actual.add(new ArrayList<>());
+        }
+        long[] last = {Long.MIN_VALUE};
+        long endSecond = end.toEpochSecond(ZoneOffset.UTC);
+        for (long time = start.toEpochSecond(ZoneOffset.UTC); time < endSecond; ) {
+            time = Math.min(endSecond, time + step);
+            long limit = time;
+            wheel.advance(time, (handle, epochSecond) -> {
+                assertTrue(epochSecond >= last[0] && epochSecond <= limit);
+                last[0] = epochSecond;
+                actual.get(handles.indexOf(handle)).add(epochSecond);
+            });
+            assertEquals(time, wheel.getEpochSecond());
+        }
+        for (int i = 0; i < engines.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i), engines.get(i).getSchedule() + " from " + start);
+        }
+    }
+
+    private static OccurrenceEngine engine(String expression) {
+        return new OccurrenceEngine(new QuartzCronRRuleConverter().compile(CRON_PARSER.parse(expression)), DTSTART);
+    }
+
+    /**
+     * @return engine of a yearly schedule that first fires at epochSecond
+     */
+    private static OccurrenceEngine engineAt(long epochSecond) {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        String expression = time.getSecond() + " " + time.getMinute() + " " + time.getHour() + " " + time.getDayOfMonth() + " "
+                + time.getMonthValue() + " ?";
+        return new OccurrenceEngine(new QuartzCronRRuleConverter().compile(CRON_PARSER.parse(expression)),
+                time.toLocalDate().atStartOfDay());
+    }
+}
@@ -0,0 +1,75 @@
+package com.kyl.rrule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.parser.CronParser;
+
+import static com.cronutils.model.CronType.QUARTZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingFileConverterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testConvertCsv() throws IOException {
+        Path input = Files.writeString(this.tempDir.resolve("input.csv"), "1,0 30 10 ? * 5L\n\n2,0 30 10 2w1 * ?\r\n3,not a cron\n4", StandardCharsets.UTF_8);
+        Path output = this.tempDir.resolve("output.csv");
+
+        ConversionSummary summary = new StreamingFileConverter(OutputFormat.CSV, 2).convert(input, output, null);
+
+        String expected = new QuartzCronRRuleConverter().convert(new CronParser(CronDefinitionBuilder.instanceDefinitionFor(QUARTZ)).parse("0 30 10 ? * 5L"), null);
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals("1," + expected, lines.get(0));
+        assertEquals("2,", lines.get(1));
+        assertTrue(lines.get(2).startsWith("3,,"));
+        assertTrue(lines.get(3).startsWith("4,,"));
+        assertEquals(1, summary.getConverted());
+        assertEquals(1, summary.getUnsupported());
+        assertEquals(2, summary.getFailed());
+    }
+
+    @Test
+    public void testConvertNdjsonWithDTStart() throws IOException {
+        Path input = Files.writeString(this.tempDir.resolve("input.csv"), "a,0 0 7 ? * 2-6 *\nb,0 30 10 2w1 * ?\n", StandardCharsets.UTF_8);
+        Path output = this.tempDir.resolve("output.ndjson");
+
+        new StreamingFileConverter(OutputFormat.NDJSON, 1).convert(input, output, LocalDateTime.of(2022, 10, 4, 15, 7, 40));
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"id\":\"a\",\"status\":\"CONVERTED\",\"rrule\":\"DTSTART:20221004T150740Z\\nRRULE:FREQ=WEEKLY"));
+        assertEquals("{\"id\":\"b\",\"status\":\"UNSUPPORTED\"}", lines.get(1));
+    }
+
+    @Test
+    public void testConvertKeepsOrder() throws IOException {
+        List<String> crons = new CronCorpusGenerator(7L).corpus(5000);
+        List<String> inputLines = new ArrayList<>();
+        for (int i = 0; i < crons.size(); i++) {
+            inputLines.add(i + "," + crons.get(i));
+        }
+        Path input = Files.write(this.tempDir.resolve("input.csv"), inputLines, StandardCharsets.UTF_8);
+        Path output = this.tempDir.resolve("output.ndjson");
+
+        ConversionSummary summary = new StreamingFileConverter(OutputFormat.NDJSON, 4).convert(input, output, null);
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(crons.size(), lines.size());
+        assertEquals(crons.size(), summary.getTotal());
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).startsWith("{\"id\":\"" + i + "\","));
+        }
+    }
+}
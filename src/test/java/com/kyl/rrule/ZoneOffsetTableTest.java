@@ -0,0 +1,59 @@
+package com.kyl.rrule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZoneOffsetTableTest {
+    @Test
+    public void testSameAsZonedDateTime() {
+        Random random = new Random(20221021L);
+        for (String zoneId : ZoneId.getAvailableZoneIds()) {
+            ZoneId zone = ZoneId.of(zoneId);
+            for (int i = 0; i < 50; i++) {
+                assertSameAsZonedDateTime(LocalDateTime.of(1850 + random.nextInt(300), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                        random.nextInt(24), random.nextInt(60), random.nextInt(60)), zone);
+            }
+        }
+    }
+
+    @Test
+    public void testAroundTransitions() {
+        for (String zoneId : ZoneId.getAvailableZoneIds()) {
+            ZoneId zone = ZoneId.of(zoneId);
+            ZoneRules rules = zone.getRules();
+            ZoneOffsetTransition transition = rules.nextTransition(LocalDateTime.of(1960, 1, 1, 0, 0).toInstant(ZoneOffset.UTC));
+            for (int i = 0; i < 40 && transition != null; i++, transition = rules.nextTransition(transition.getInstant())) {
+                for (LocalDateTime local : new LocalDateTime[]{transition.getDateTimeBefore(), transition.getDateTimeAfter()}) {
+                    assertSameAsZonedDateTime(local.minusSeconds(1), zone);
+                    assertSameAsZonedDateTime(local, zone);
+                    assertSameAsZonedDateTime(local.plusMinutes(30), zone);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGapAndOverlap() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+
+        assertEquals(LocalDateTime.of(2022, 3, 27, 3, 30), ZoneOffsetTable.resolve(LocalDateTime.of(2022, 3, 27, 2, 30), berlin),
+                "02:30 does not exist and moves to 03:30");
+        assertEquals(LocalDateTime.of(2022, 10, 30, 2, 30), ZoneOffsetTable.resolve(LocalDateTime.of(2022, 10, 30, 2, 30), berlin),
+                "02:30 happens twice and stays");
+        assertEquals(LocalDateTime.of(2022, 10, 4, 15, 7, 40), ZoneOffsetTable.resolve(LocalDateTime.of(2022, 10, 4, 15, 7, 40), berlin));
+        assertSame(ZoneOffsetTable.of(berlin), ZoneOffsetTable.of(ZoneId.of("Europe/Berlin")));
+    }
+
+    private static void assertSameAsZonedDateTime(LocalDateTime local, ZoneId zone) {
+        assertEquals(ZonedDateTime.of(local, zone).toLocalDateTime(), ZoneOffsetTable.resolve(local, zone), local + " " + zone);
+    }
+}